@@ -0,0 +1,569 @@
+package com.castsoftware.jira;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.castsoftware.jira.pojo.ViolationChange;
+import com.castsoftware.jira.util.ApplicationLinkage;
+import com.castsoftware.jira.util.Configuration;
+import com.castsoftware.jira.util.Constants;
+import com.castsoftware.jira.util.ExtractFile;
+import com.castsoftware.jira.util.ExtractionFilter;
+import com.castsoftware.jira.util.JiraHelper;
+import com.castsoftware.jira.util.LongViolationMap;
+import com.castsoftware.jira.util.QualityModel;
+import com.castsoftware.jira.util.SourceCodeLoader;
+import com.castsoftware.jira.util.ViolationPipeline;
+import com.castsoftware.jira.util.ViolationStream;
+import com.castsoftware.jira.util.Watermark;
+
+/**
+ * The Class ApplicationSync sends the action plan of one application to its
+ * Jira project, with the options of the command line. Several applications
+ * of the same run share the Jira client and the quality model.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class ApplicationSync implements Callable<ApplicationSync> {
+
+	/** The log. */
+	public static Log log = LogFactory.getLog(ApplicationSync.class);
+
+	/** The command line. */
+	private final CommandLine line;
+
+	/** The linkage. */
+	private final ApplicationLinkage linkage;
+
+	/** The Jira client shared by the applications, null to create one. */
+	private final JiraHelper jiraClient;
+
+	/** The quality model shared by the applications. */
+	private final AtomicReference<QualityModel> qualityModel;
+
+	/** The number of violations extracted. */
+	private int violations;
+
+	/** The issues processed. */
+	private int issuesProcessed;
+
+	/** The issues added. */
+	private int issuesAdded;
+
+	/** The issues closed. */
+	private int issuesClosed;
+
+	/** The issues reopened. */
+	private int issuesReopened;
+
+	/** The issues not added by error. */
+	private int issuesInError;
+
+	/** The error stopping the synchronization, null if it succeeded. */
+	private String error;
+
+	/** The elapsed time in ms. */
+	private long elapsed;
+
+	/**
+	 * Instantiates a new application sync.
+	 *
+	 * @param line
+	 *            the command line
+	 * @param linkage
+	 *            the application and its Jira project
+	 * @param jiraClient
+	 *            the shared Jira client, null to create one
+	 * @param qualityModel
+	 *            the shared quality model
+	 */
+	public ApplicationSync(CommandLine line, ApplicationLinkage linkage, JiraHelper jiraClient,
+			AtomicReference<QualityModel> qualityModel) {
+		this.line = line;
+		this.linkage = linkage;
+		this.jiraClient = jiraClient;
+		this.qualityModel = qualityModel;
+	}
+
+	/**
+	 * Synchronizes the application, a failure is recorded in the report
+	 * instead of being thrown.
+	 *
+	 * @return this synchronization
+	 */
+	@Override
+	public ApplicationSync call() {
+		try {
+			run();
+		} catch (Exception e) {
+			error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+			log.error("Synchronization of " + linkage + " failed: " + error, e);
+		}
+		return this;
+	}
+
+	/**
+	 * Synchronizes the application.
+	 *
+	 * @throws Exception
+	 *             the exception
+	 */
+	public void run() throws Exception {
+		long start = System.currentTimeMillis();
+		log.info("Synchronization of " + linkage);
+
+		GetCastActionPlan gap = null;
+		SourceCodeLoader sourceCodeLoader = null;
+		try {
+			if (line.getOptionValue(Constants.CAST_REST_API_URL) != null) {
+				/*
+				 * Constructor of GetActionPlan to get the action plan from
+				 * CAST REST API
+				 */
+				gap = new GetCastActionPlan(
+						linkage.getAppName(),
+						line.getOptionValue(Constants.CAST_USER_NAME),
+						line.getOptionValue(Constants.CAST_USER_PASSWORD),
+						line.getOptionValue(Constants.CAST_REST_API_URL));
+			} else if (line.getOptionValue(Constants.CAST_DB_PROVIDER) != null) {
+				/*
+				 * Constructor of GetActionPlan to get the action plan from
+				 * a database
+				 */
+				gap = new GetCastActionPlan(
+						linkage.getAppName(),
+						line.getOptionValue(Constants.CAST_USER_NAME),
+						line.getOptionValue(Constants.CAST_USER_PASSWORD),
+						line.getOptionValue(Constants.CAST_DB_HOST), line
+								.getOptionValue(Constants.CAST_DB_NAME),
+						line.getOptionValue(Constants.CAST_DB_PORT), line
+								.getOptionValue(Constants.CAST_DB_SCHEMA),
+						line.getOptionValue(Constants.CAST_DB_PROVIDER));
+			}
+
+			assert gap != null;
+			if (line.hasOption(Constants.FETCH_SIZE)) {
+				gap.setFetchSize(Integer.parseInt(line.getOptionValue(Constants.FETCH_SIZE).trim()));
+			}
+			if (line.hasOption(Constants.PARALLELISM)) {
+				gap.setParallelism(Integer.parseInt(line.getOptionValue(Constants.PARALLELISM).trim()));
+			}
+			// filters applied by the database
+			if (line.getOptionValue(Constants.PRIORITY) != null) {
+				gap.getFilter().setPriorityRange(line.getOptionValue(Constants.PRIORITY));
+			}
+			if (line.getOptionValue(Constants.STATUS) != null) {
+				gap.getFilter().setStatuses(line.getOptionValue(Constants.STATUS));
+			}
+			if (line.getOptionValue(Constants.METRICS) != null) {
+				gap.getFilter().setIncludedMetrics(line.getOptionValue(Constants.METRICS));
+			}
+			if (line.getOptionValue(Constants.EXCLUDE_METRICS) != null) {
+				gap.getFilter().setExcludedMetrics(line.getOptionValue(Constants.EXCLUDE_METRICS));
+			}
+			if (line.getOptionValue(Constants.OBJECT_FILTER) != null) {
+				gap.getFilter().setObjectPatterns(line.getOptionValue(Constants.OBJECT_FILTER));
+			}
+
+			// only extract the fields used by the CastToJiraFieldsMapping template
+			gap.setReferencedFields(new Configuration().getReferencedFields());
+			File cacheDirectory;
+			if (line.getOptionValue(Constants.CACHE_DIR) != null) {
+				cacheDirectory = new File(line.getOptionValue(Constants.CACHE_DIR).trim());
+			} else {
+				cacheDirectory = new File(System.getProperty("user.home"), Constants.DEFAULT_CACHE_DIR);
+			}
+			if (!line.hasOption(Constants.NO_CACHE)) {
+				gap.setCacheDirectory(cacheDirectory);
+			}
+			if (line.getOptionValue(Constants.CAST_DB_PROVIDER) != null) {
+				// loaded once for the run, the other applications wait for it instead of loading it too
+				synchronized (qualityModel) {
+					if (qualityModel.get() == null) {
+						qualityModel.set(gap.loadQualityModel());
+					}
+				}
+				gap.setQualityModel(qualityModel.get());
+			}
+			if (line.getOptionValue(Constants.EXPLAIN) != null) {
+				String explainFile = line.getOptionValue(Constants.EXPLAIN).trim();
+				if (line.getOptionValue(Constants.LINKAGES) != null) {
+					// one plan by linkage
+					explainFile += linkage.getFileSuffix();
+				}
+				gap.setExplainFile(new File(explainFile));
+			}
+
+			File watermarkFile = Watermark.getFile(cacheDirectory,
+					line.getOptionValue(Constants.CAST_DB_SCHEMA, ""),
+					linkage.getAppName(),
+					linkage.getProjectKey());
+			if (line.hasOption(Constants.DELTA)) {
+				gap.setDelta(true);
+				if (line.getOptionValue(Constants.SNAPSHOTS) != null) {
+					List<Integer> snapshots = ExtractionFilter.parseIds(line.getOptionValue(Constants.SNAPSHOTS));
+					gap.setDeltaSnapshots(snapshots.get(0), snapshots.get(1));
+				}
+			}
+			if (line.hasOption(Constants.INCREMENTAL)) {
+				gap.setSince(Watermark.read(watermarkFile));
+				if (gap.getSince() == null) {
+					log.info("No previous synchronization found, the whole action plan is extracted");
+				}
+			}
+
+			// the source code is read on demand, only for the issues created
+			if (line.getOptionValue(Constants.CAST_DB_PROVIDER) != null) {
+				sourceCodeLoader = gap.createSourceCodeLoader();
+			}
+
+			String phase = line.getOptionValue(Constants.PHASE);
+			String interchange = line.getOptionValue(Constants.INTERCHANGE);
+			if (interchange != null && line.getOptionValue(Constants.LINKAGES) != null) {
+				// one stream by linkage
+				interchange = interchange.trim() + linkage.getFileSuffix();
+			}
+			File extractFile = null;
+			if (phase != null && interchange == null) {
+				if (line.getOptionValue(Constants.EXTRACT_FILE) != null) {
+					String name = line.getOptionValue(Constants.EXTRACT_FILE).trim();
+					if (line.getOptionValue(Constants.LINKAGES) != null) {
+						// one extract file by linkage
+						name += linkage.getFileSuffix();
+					}
+					extractFile = new File(name);
+				} else {
+					extractFile = ExtractFile.getFile(cacheDirectory,
+							line.getOptionValue(Constants.CAST_DB_SCHEMA, ""),
+							linkage.getAppName(),
+							linkage.getProjectKey());
+				}
+			}
+			Watermark watermark = null;
+
+			CreateJiraIssues createJiraIssues = null;
+			if (Constants.PHASE_EXTRACT.equalsIgnoreCase(phase) && interchange != null) {
+				/*
+				 * Extract phase to the interchange stream, the violations are
+				 * written while they are read from the database
+				 */
+				try (ViolationStream.Writer writer = new ViolationStream.Writer(interchange)) {
+					gap.streamActionPlan(writer);
+					checkCollisions(gap);
+					violations = writer.finish(gap.getWatermark());
+				}
+				log.info("Action Plan - Number of Violations: " + violations);
+			} else if (Constants.PHASE_PUSH.equalsIgnoreCase(phase) && interchange != null) {
+				/*
+				 * Push phase from the interchange stream, the violations are
+				 * sent to Jira while they are read
+				 */
+				createJiraIssues = createJiraIssues();
+				createJiraIssues.setSourceCodeLoader(sourceCodeLoader);
+				try (ViolationStream.Reader reader = new ViolationStream.Reader(interchange)) {
+					violations = reader.read(createJiraIssues);
+					watermark = reader.getWatermark();
+				}
+				log.info("Action Plan - Number of Violations: " + violations);
+				if (violations == 0) {
+					log.info("No violations in the action plan. Please review it");
+					createJiraIssues = null;
+				}
+			} else if (Constants.PHASE_EXTRACT.equalsIgnoreCase(phase)) {
+				/*
+				 * Extract phase, the action plan is saved for the push phase
+				 * and nothing is sent to Jira
+				 */
+				try (ExtractFile.Writer writer = new ExtractFile.Writer(extractFile)) {
+					gap.streamActionPlan(writer);
+					checkCollisions(gap);
+					violations = writer.finish(gap.getWatermark());
+				}
+				log.info("Action Plan - Number of Violations: " + violations);
+			} else if (Constants.PHASE_PUSH.equalsIgnoreCase(phase)) {
+				/*
+				 * Push phase, the action plan is read from the extract file
+				 * instead of the CAST database
+				 */
+				if (!extractFile.isFile()) {
+					throw new IOException("The extract file does not exist, run -phase " + Constants.PHASE_EXTRACT
+							+ " first: " + extractFile.getAbsolutePath());
+				}
+				ExtractFile extract = new ExtractFile(extractFile);
+				watermark = extract.getWatermark();
+				violations = extract.size();
+				log.info("Action Plan - Number of Violations: " + violations + " read from " + extractFile.getAbsolutePath());
+				if (violations > 0) {
+					createJiraIssues = createJiraIssues();
+					createJiraIssues.setSourceCodeLoader(sourceCodeLoader);
+					createJiraIssues.setExtractionCastIds(extract.getCastIds());
+					extract.handleAllBySource(createJiraIssues);
+				} else {
+					log.info("No violations in the action plan. Please review it");
+				}
+			} else if (line.hasOption(Constants.PIPELINE)) {
+				/*
+				 * Pipeline mode, violations are read from the database on
+				 * another thread while the previous ones are sent to Jira
+				 */
+				createJiraIssues = createJiraIssues();
+				createJiraIssues.setSourceCodeLoader(sourceCodeLoader);
+				int queueSize = Constants.DEFAULT_QUEUE_SIZE;
+				if (line.getOptionValue(Constants.QUEUE_SIZE) != null) {
+					queueSize = Integer.parseInt(line.getOptionValue(Constants.QUEUE_SIZE).trim());
+				}
+				final GetCastActionPlan extraction = gap;
+				final ViolationPipeline pipeline = new ViolationPipeline(createJiraIssues, queueSize);
+				pipeline.run(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						extraction.streamActionPlan(pipeline);
+						return null;
+					}
+				});
+
+				violations = createJiraIssues.getTotalNumOfIssues();
+				log.info("Action Plan - Number of Violations: " + violations);
+				if (violations == 0) {
+					log.info("No violations in the action plan. Please review it");
+					createJiraIssues = null;
+				}
+			} else if (line.hasOption(Constants.STREAMING)) {
+				/*
+				 * Streaming mode, violations are sent to Jira while they
+				 * are read from the database
+				 */
+				createJiraIssues = createJiraIssues();
+				createJiraIssues.setSourceCodeLoader(sourceCodeLoader);
+				gap.streamActionPlan(createJiraIssues);
+
+				violations = createJiraIssues.getTotalNumOfIssues();
+				log.info("Action Plan - Number of Violations: " + violations);
+				if (violations == 0) {
+					log.info("No violations in the action plan. Please review it");
+					createJiraIssues = null;
+				}
+			} else {
+				LongViolationMap map = gap.getActionPlan();
+
+				violations = map.size();
+				log.info("Action Plan - Number of Violations: " + violations);
+				if (!map.isEmpty()) {
+					createJiraIssues = createJiraIssues();
+					createJiraIssues.setSourceCodeLoader(sourceCodeLoader);
+					createJiraIssues.handleActionPlan(map);
+				} else {
+					log.info("No violations in the action plan. Please review it");
+				}
+			}
+			if (gap.isDelta() && gap.getDeltaCounts() != null) {
+				for (Map.Entry<ViolationChange, Integer> count : gap.getDeltaCounts().entrySet()) {
+					log.info("Delta - Number of Violations " + count.getKey() + " : " + count.getValue());
+				}
+			}
+
+			if (createJiraIssues != null) {
+				issuesProcessed = createJiraIssues.getTotalNumOfIssues();
+				issuesAdded = createJiraIssues.getTotalNumOfIssuesAdded();
+				issuesClosed = createJiraIssues.getTotalNumOfIssuesClosed();
+				issuesReopened = createJiraIssues.getTotalNumOfIssuesReopen();
+				issuesInError = createJiraIssues.getTotalNumOfIssuesNotAddedByError();
+				log.info("Final Report : ");
+				log.info("Number of Total Issues Processed : " + issuesProcessed);
+				log.info("Number of Total Issues Added : " + issuesAdded);
+				log.info("Number of Total Issues Closed : " + issuesClosed);
+				log.info("Number of Total Issues Reopened : " + issuesReopened);
+				log.info("Number of Total Issues Not Added because of Unprioritized or Low Priority Action Plan Item : " + createJiraIssues.getTotalNumOfUnprioritizedIssues());
+				log.info("Number of Total Issues Not Added by Error : " + issuesInError);
+				log.info("Number of Total Issues Not Added by Previous Existence in Jira: " + createJiraIssues.getTotalNumOfIssuesNotAddedByExist());
+				if (createJiraIssues.getTotalNumOfLegacyCollisions() > 0) {
+					log.warn("Number of 32-bit CastIds shared by several violations, not looked up : "
+							+ createJiraIssues.getTotalNumOfLegacyCollisions());
+				}
+			}
+
+			// the next incremental run starts from here, unless some violations failed
+			if (phase == null) {
+				watermark = gap.getWatermark();
+				issuesInError += gap.getCollisions();
+			}
+			if (watermark != null) {
+				if (issuesInError > 0) {
+					log.warn("Synchronization errors, the watermark is not moved: " + watermarkFile.getAbsolutePath());
+				} else {
+					try {
+						watermark.write(watermarkFile);
+					} catch (IOException e) {
+						log.error("Watermark can not be written: " + e.getMessage());
+					}
+				}
+			}
+			if (phase == null) {
+				checkCollisions(gap);
+			}
+		} finally {
+			if (sourceCodeLoader != null) {
+				sourceCodeLoader.close();
+			}
+			elapsed = System.currentTimeMillis() - start;
+		}
+	}
+
+	/**
+	 * Creates the Jira issue handler of the application.
+	 *
+	 * @return the handler
+	 * @throws Exception
+	 *             the exception
+	 */
+	private CreateJiraIssues createJiraIssues() throws Exception {
+		String issueType;
+		if (line.hasOption(Constants.JIRA_ISSUE_TYPE)
+				&& line.getOptionValue(Constants.JIRA_ISSUE_TYPE) != null) {
+			issueType = line
+					.getOptionValue((Constants.JIRA_ISSUE_TYPE));
+		} else {
+			issueType = Constants.JIRA_DEFAULT_ISSUE_TYPE;
+		}
+
+		boolean markIssueResolved = false;
+		String resolutionTxt = "Resolution Identified by CAST";
+		if (line.hasOption(Constants.MARK_ISSUE_RESOLVED) )
+		{
+			String ov = line.getOptionValue(Constants.MARK_ISSUE_RESOLVED);
+			if (ov!=null && ov.equalsIgnoreCase("true"))
+			{
+				markIssueResolved=true;
+				if (line.hasOption(Constants.RESOLUTION))
+				{
+					String rt = line.getOptionValue(Constants.RESOLUTION);
+					if (rt!=null)
+					{
+						resolutionTxt = rt;
+					}
+				}
+			}
+		}
+
+		if (jiraClient != null) {
+			return new CreateJiraIssues(jiraClient, linkage.getProjectKey(), issueType, markIssueResolved,
+					resolutionTxt, linkage.getComponent());
+		}
+		return new CreateJiraIssues(
+				line.getOptionValue(Constants.JIRA_USER_NAME),
+				line.getOptionValue(Constants.JIRA_USER_PASSWORD),
+				line.getOptionValue(Constants.JIRA_REST_API_URL),
+				linkage.getProjectKey(),
+				issueType,
+				markIssueResolved,
+				resolutionTxt,
+				linkage.getComponent()
+		);
+	}
+
+	/**
+	 * Gets the linkage.
+	 *
+	 * @return the linkage
+	 */
+	public ApplicationLinkage getLinkage() {
+		return linkage;
+	}
+
+	/**
+	 * Fails the synchronization when violations were left out of the
+	 * extraction because their CastId collides with another violation.
+	 *
+	 * @param gap
+	 *            the extraction
+	 * @throws IOException
+	 *             if there are collisions
+	 */
+	private static void checkCollisions(GetCastActionPlan gap) throws IOException {
+		if (gap.getCollisions() > 0) {
+			throw new IOException(gap.getCollisions()
+					+ " violations not extracted, their CastId collides with another violation");
+		}
+	}
+
+	/**
+	 * Gets the error stopping the synchronization.
+	 *
+	 * @return the error, null if the synchronization succeeded
+	 */
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * Gets the number of violations extracted.
+	 *
+	 * @return the violations
+	 */
+	public int getViolations() {
+		return violations;
+	}
+
+	/**
+	 * Gets the issues processed.
+	 *
+	 * @return the issues processed
+	 */
+	public int getIssuesProcessed() {
+		return issuesProcessed;
+	}
+
+	/**
+	 * Gets the issues added.
+	 *
+	 * @return the issues added
+	 */
+	public int getIssuesAdded() {
+		return issuesAdded;
+	}
+
+	/**
+	 * Gets the issues closed.
+	 *
+	 * @return the issues closed
+	 */
+	public int getIssuesClosed() {
+		return issuesClosed;
+	}
+
+	/**
+	 * Gets the issues reopened.
+	 *
+	 * @return the issues reopened
+	 */
+	public int getIssuesReopened() {
+		return issuesReopened;
+	}
+
+	/**
+	 * Gets the issues not added by error.
+	 *
+	 * @return the issues in error
+	 */
+	public int getIssuesInError() {
+		return issuesInError;
+	}
+
+	/**
+	 * Gets the elapsed time.
+	 *
+	 * @return the elapsed time in ms
+	 */
+	public long getElapsed() {
+		return elapsed;
+	}
+}
@@ -1,638 +1,827 @@
-package com.castsoftware.jira;
-
-import java.net.URISyntaxException;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
-import java.util.StringTokenizer;
-import java.util.concurrent.ExecutionException;
-
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
-import com.atlassian.jira.rest.client.api.IssueRestClient;
-import com.atlassian.jira.rest.client.api.RestClientException;
-import com.atlassian.jira.rest.client.api.SearchRestClient;
-import com.atlassian.jira.rest.client.api.domain.BasicComponent;
-import com.atlassian.jira.rest.client.api.domain.BasicIssue;
-import com.atlassian.jira.rest.client.api.domain.Comment;
-import com.atlassian.jira.rest.client.api.domain.Issue;
-import com.atlassian.jira.rest.client.api.domain.IssueType;
-import com.atlassian.jira.rest.client.api.domain.Project;
-import com.atlassian.jira.rest.client.api.domain.Resolution;
-import com.atlassian.jira.rest.client.api.domain.SearchResult;
-import com.atlassian.jira.rest.client.api.domain.Transition;
-import com.atlassian.jira.rest.client.api.domain.input.ComplexIssueInputFieldValue;
-import com.atlassian.jira.rest.client.api.domain.input.IssueInput;
-import com.atlassian.jira.rest.client.api.domain.input.IssueInputBuilder;
-import com.atlassian.jira.rest.client.api.domain.input.TransitionInput;
-import com.castsoftware.jira.pojo.ActionPlanViolation;
-import com.castsoftware.jira.util.Configuration;
-import com.castsoftware.jira.util.Constants;
-import com.castsoftware.jira.util.CustomField;
-import com.castsoftware.jira.util.JiraException;
-import com.castsoftware.jira.util.JiraHelper;
-import com.google.common.collect.Lists;
-
-/**
- * The Class CreateJiraIssues creates the jira issues
- * 
- * @author FME
- * @version 1.1
- */
-public class CreateJiraIssues {
-
-    /** The log. */
-    public static Log log = LogFactory.getLog(CreateJiraIssues.class);
-
-    private final JiraHelper jiraClient;
-
-    private Project project;
-    private IssueType issueType;
-    private BasicComponent component;
-
-    private boolean markIssueResolved;
-    private String resolutionTxt;
-
-    private String appName;
-
-    /** The total num of issues. */
-    private int totalNumOfIssues;
-
-    /** The total num of issues added. */
-    private int totalNumOfIssuesAdded;
-
-    /** The total num of issues not added by error. */
-    private int totalNumOfIssuesNotAddedByError;
-
-    /** The total num of issues not added by exist. */
-    private int totalNumOfIssuesNotAddedByExist;
-
-    /** The total num of issues closed. */
-    private int totalNumOfIssuesClosed;
-
-    /** The total num of issues reopened. */
-    private int totalNumOfIssuesReopen;
-
-    /** The total num of issues closed. */
-    private int totalNumOfUnprioritizedIssues;
-
-    private List<Transition> getTransitions(Issue is)
-            throws InterruptedException, ExecutionException {
-        IssueRestClient issueClient = jiraClient.getIssueClient();
-        Iterable<Transition> trns = issueClient.getTransitions(is).get();
-
-        return Lists.newArrayList(trns);
-    }
-
-    private Transition nextTransitionId(Issue is, List<String> whiteList, List<String> blackList)
-            throws InterruptedException, ExecutionException, JiraException {
-        List<Transition> trns = getTransitions(is);
-
-        transition : for (Transition t : trns) {
-            for (String s : blackList) {
-                if (s.equalsIgnoreCase(t.getName())) {
-                    continue transition;
-                }
-            }
-            for (String s : whiteList) {
-                if (t.getName().equalsIgnoreCase(s)) {
-                    return t;
-                }
-            }
-        }
-
-        throw new JiraException(String.format("Transition not found: %s %s", whiteList.toString(),
-                is.getStatus().getName()));
-    }
-
-    private boolean transitionTo(Issue is, Transition toStatus) {
-        boolean rslt = false;
-        IssueRestClient issueClient = jiraClient.getIssueClient();
-        int inProgressCode;
-        try {
-            inProgressCode = getTransitionId(is.getKey(), toStatus);
-            if (inProgressCode > 0) {
-                issueClient.transition(is, new TransitionInput(inProgressCode));
-                issueClient.addComment(is.getCommentsUri(), Comment.valueOf(
-                        String.format("Issue transitioned to '%s' by CAST", toStatus.getName())));
-                rslt = true;
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            rslt = false;
-        }
-        return rslt;
-    }
-
-    /**
-     * Access Jira and retrieve the transition id
-     * 
-     * @param issueKey
-     * @param trnsId
-     * @return the id of the transition
-     * @throws ExecutionException
-     * @throws InterruptedException
-     */
-    private int getTransitionId(String issueKey, Transition trnsId)
-            throws ExecutionException, InterruptedException {
-        Transition rslt = null;
-        IssueRestClient issueClient = jiraClient.getIssueClient();
-        Issue is = issueClient.getIssue(issueKey).get();
-
-        // if not then transition it to the "To Do" status
-        Iterable<Transition> trans = issueClient.getTransitions(is).get();
-        for (Transition t : trans) {
-            if (t.getName().equalsIgnoreCase(trnsId.getName())) {
-                rslt = t;
-                break;
-            }
-        }
-        return rslt == null ? 0 : rslt.getId();
-    }
-
-    /**
-     * Method used to create and maintain Jira issues.
-     * 
-     * @param jiraUserName
-     * @param jiraUserPassword
-     * @param jiraRestApiUrl
-     * @param pProjectKey
-     * @param pIssueType
-     * @param markIssueResolved
-     * @param resolutionTxt
-     * @param pComponent
-     * @param pViolationList
-     * @throws JiraException
-     */
-    public CreateJiraIssues(String jiraUserName, String jiraUserPassword, String jiraRestApiUrl,
-            String pProjectKey, String pIssueType, boolean markIssueResolved, String resolutionTxt,
-            String pComponent, HashMap<Integer, ActionPlanViolation> pViolationList)
-            throws JiraException {
-
-        try {
-            jiraClient = new JiraHelper(jiraRestApiUrl, jiraUserName, jiraUserPassword);
-
-            try {
-                project = jiraClient.getProjectClient().getProject(pProjectKey).get();
-            } catch (ExecutionException e) {
-                throw new JiraException(
-                        String.format("Invalid project short name [%s]", pProjectKey));
-            }
-
-            log.info(String.format("Working with Jira project [%s]", project.getName()));
-
-            for (IssueType it : project.getIssueTypes()) {
-                if (it.getName().equals(pIssueType)) {
-                    issueType = it;
-                    break;
-                }
-            }
-            if (issueType == null) {
-                throw new JiraException(
-                        String.format("Issue type [%s] does not exist in project [%s]",
-                                project.getName(), pIssueType));
-            } else {
-                log.info(String.format("Working with issue type [%s]", issueType.getName()));
-            }
-
-            // can the component be assigned for the provided project?
-            if (pComponent != null && !pComponent.trim().isEmpty()) {
-                for (BasicComponent c : project.getComponents()) {
-                    if (c.getName().equals(pComponent))
-                        component = c;
-                }
-                if (component == null) {
-                    throw new JiraException(
-                            String.format("Component [%s] does not exist in project [%s]",
-                                    project.getName(), pIssueType));
-                } else {
-                    log.info(String.format("Working with component [%s]", component.getName()));
-                }
-            } else {
-                log.info("Component not being used");
-            }
-
-            this.markIssueResolved = markIssueResolved;
-            this.resolutionTxt = resolutionTxt;
-
-            String txt = "When Identified as fixed by CAST, the Jira issue will be ";
-            if (markIssueResolved) {
-                Iterable<Resolution> resolutions;
-                boolean validResotion = false;
-
-                try {
-                    resolutions = jiraClient.getMetadataClient().getResolutions().get();
-                    for (Resolution l : resolutions) {
-                        if (l.getName().equalsIgnoreCase(this.resolutionTxt)) {
-                            validResotion = true;
-                            break;
-                        }
-                    }
-                } catch (ExecutionException e) {
-                    throw new JiraException(String.format("Invalid resolution: %s", this.resolutionTxt));
-                }
-                if (!validResotion)
-                    throw new JiraException(String.format("Invalid resolution: %s", this.resolutionTxt));
-
-                txt += String.format("marked as resolved with a resolution message of \"%s\"", this.resolutionTxt);
-            } else {
-                this.resolutionTxt = "Done";
-                txt += String.format("closed, with a resolution message of \"%s\"",
-                        this.resolutionTxt);
-            }
-            log.info(txt);
-
-        } catch (URISyntaxException | InterruptedException ex) {
-            throw new JiraException("Unable to establish a connection with Jira", ex);
-        }
-
-        /**
-         * get workflow configuration
-         */
-        Configuration config = new Configuration();
-        String statusOpen = config.getWorkflow(Constants.WORKFLOW_STATUS_OPEN);
-        String statusReopen = config.getWorkflow(Constants.WORKFLOW_STATUS_REOPEN);
-        String statusDone = config.getWorkflow(Constants.WORKFLOW_STATUS_DONE);
-        String statusProgress = config.getWorkflow(Constants.WORKFLOW_STATUS_PROGRESS);
-        List<String> transitionDone = Arrays.asList(config.getWorkflow(Constants.WORKFLOW_TRANSITION_DONE).split(";"));
-        List<String> transitionReopen = Arrays.asList(config.getWorkflow(Constants.WORKFLOW_TRANSITION_REOPEN).split(";"));
-        List<String> transitionBlacklist = Arrays.asList(config.getWorkflow(Constants.WORKFLOW_TRANSITION_BLACKLIST).split(";"));
-        boolean debugWorkflow = Boolean.parseBoolean(config.getWorkflow(Constants.WORKFLOW_DEBUG));
-
-        IssueRestClient issueClient = jiraClient.getIssueClient();
-
-        // loop through all CAST violations
-        for (int key : pViolationList.keySet()) {
-            try { // if an error occurs don't stop the job, just report it
-                ActionPlanViolation violation = pViolationList.get(key);
-
-                log.info(String.format("Violation %d: %s", key & 0xFFFFFFFFL, violation.getMetricShortDescription()));
-                totalNumOfIssues++;
-
-                int priority = violation.getPriority();
-
-                if (priority < 1 || priority > 3) {
-                    log.info(String.format("Unprioritized or Low priority issue, NOT added (%d)", violation.getObjectId()));
-                    totalNumOfUnprioritizedIssues++;
-                } else {
-                    String srchStr = String.format("%s-%d", project.getName(), key);
-
-                    // has the issue been corrected in CAST
-                    boolean castIssueCorrected = (violation.getViolationStatus() == 2);
-
-                    SearchRestClient searchClient = jiraClient.getSearchClient();
-                    SearchResult searchResult = searchClient.searchJql(String.format(
-                            "project = '%s' AND description ~ '%s' ORDER BY priority DESC",
-                            project.getKey(), srchStr)).claim();
-
-                    int totalIssuesFound = searchResult.getTotal();
-                    if (totalIssuesFound > 0) {
-                        for (BasicIssue issue : searchResult.getIssues()) {
-                            Issue is = issueClient.getIssue(issue.getKey()).claim();
-
-                            log.info(String.format("Matching Jira Issue found: %s", is.getKey()));
-                            String issueStatusCode = is.getStatus().getName();
-                            if (castIssueCorrected && !issueStatusCode.equalsIgnoreCase(statusDone)) {
-                                // The issue has been marked as done in CAST, do the same in Jira
-
-                                Transition transitTo;
-                                while (true) {
-                                    transitTo = nextTransitionId(is, transitionDone, transitionBlacklist);
-                                    if (!transitionTo(is, transitTo)) {
-                                        throw new JiraException(String.format("Unable to transition to %s", transitTo.getName()));
-                                    }
-
-                                    is = issueClient.getIssue(issue.getKey()).get();
-                                    if (issueStatusCode.equals(is.getStatus().getName()) || statusDone.equalsIgnoreCase(is.getStatus().getName())) {
-                                        break;
-                                    }
-
-                                    issueStatusCode = is.getStatus().getName();
-                                }
-
-                                log.info("Issue closed");
-                                this.totalNumOfIssuesClosed++;
-                                continue;
-                            } else if (!castIssueCorrected && !(issueStatusCode.equalsIgnoreCase(statusOpen) || issueStatusCode.equalsIgnoreCase(statusReopen))) {
-                                // The issue is still open in CAST but marked as closed in Jira, reopen it now
-
-                                Transition transitTo;
-                                while (true) {
-                                    transitTo = nextTransitionId(is, transitionReopen, transitionBlacklist);
-                                    if (!transitionTo(is, transitTo)) {
-                                        throw new JiraException(String.format("Unable to transition to %s", transitTo.getName()));
-                                    }
-
-                                    is = issueClient.getIssue(issue.getKey()).get();
-                                    if (issueStatusCode.equals(is.getStatus().getName()) || statusReopen.equalsIgnoreCase(is.getStatus().getName())) {
-                                        break;
-                                    }
-                                    issueStatusCode = is.getStatus().getName();
-                                }
-
-                                this.totalNumOfIssuesReopen++;
-                                log.info("Issue Reopened");
-                            } else {
-                                log.info("No action required");
-                            }
-
-                            this.totalNumOfIssuesNotAddedByExist++;
-                        }
-                    } else if (debugWorkflow || !castIssueCorrected) {
-                        /* Create a new issue. */
-
-                        loadConfiguration(config, violation);
-
-                        IssueInputBuilder iib = new IssueInputBuilder(project, issueType);
-                        iib.setProjectKey(project.getKey());
-                        iib.setIssueType(issueType);
-
-                        iib.setSummary(getJiraFieldComposition(violation, config, Constants.FIELD_MAPPING_LABEL_SUMMARY_JIRA_DESCRIPTION));
-
-                        String description = getJiraFieldComposition(violation, config, Constants.FIELD_MAPPING_LABEL_DESCRIPTION_JIRA_DESCRIPTION) + srchStr;
-                        iib.setDescription(description);
-
-                        iib.setPriorityId((long) priority);
-
-                        if (component != null) {
-                            iib.setComponents(component);
-                            log.info(String.format("Adding component: [%s]", component.getName()));
-                        }
-
-                        // set custom fields here
-                        List<CustomField> cfl = config.getCustomFields();
-                        if (cfl != null) {
-                            for (CustomField cf : cfl) {
-                                String jiraField = String.format("%s.JiraField", cf.getName()); 
-                                String value = getJiraFieldComposition(violation, config,jiraField);
-
-                                if (value != null && !value.isEmpty()) {
-                                    switch (cf.getType().toLowerCase()) {
-                                        case CustomField.CUSTOM_TEXT_FIELD_TYPE :
-                                            iib.setFieldValue(cf.getName(), value);
-                                            break;
-                                        case CustomField.CUSTOM_SELECT_FIELD_TYPE :
-                                            ComplexIssueInputFieldValue cv = ComplexIssueInputFieldValue.with("value", value.replace("\n", ""));
-                                            iib.setFieldValue(cf.getName(), cv);
-                                            break;
-                                    }
-                                }
-                            }
-                        }
-
-                        IssueInput issue = iib.build();
-                        BasicIssue issueObj = issueClient.createIssue(issue).get();
-                        log.info(String.format("New issue created: %s", issueObj.getKey()));
-
-                        // add comment
-                        Issue is = issueClient.getIssue(issueObj.getKey()).get();
-                        issueClient.addComment(is.getCommentsUri(), Comment.valueOf("Issue created by CAST"));
-
-                        this.totalNumOfIssuesAdded++;
-                    } else {
-                        log.info("Issue has already been closed in AIP");
-                    }
-                }
-            } catch (RestClientException | JiraException | InterruptedException | ExecutionException ex) {
-                this.totalNumOfIssuesNotAddedByError++;
-                log.error(ex.getMessage());
-            }
-        }
-    }
-
-    /**
-     * Fill in the issue using the template
-     * 
-     * @param loadConfig
-     * @param violation
-     */
-    private void loadConfiguration(Configuration loadConfig, ActionPlanViolation violation) {
-        // log.info("------------------------------------------------");
-        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_ADDED_TO_ACTION_PLAN_DATE);
-        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_REASON_DESCRIPTION);
-        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_OUTPUT_DESCRIPTION);
-        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_REFERENCE_DESCRIPTION);
-
-        log.info(loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_METRIC_SHORT_DESCRIPTION)
-                + violation.getMetricShortDescription());
-
-        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_METRIC_LONG_DESCRIPTION);
-        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_OBJECT_FULL_NAME);
-        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_REMEDIATION_DESCRIPTION);
-        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_REMEDIATION_EXAMPLE_DESCRIPTION);
-        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_TOTAL_DESCRIPTION);
-        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_VIOLATION_EXAMPLE_DESCRIPTION);
-        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_ACTION_DEFINED_DESCRIPTION);
-        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_LINE_START);
-        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_LINE_END);
-        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_SOURCE_CODE);
-    }
-
-    /**
-     * Gets the jira field composition.
-     * 
-     * @param temp
-     *            the temp
-     * @param fieldMap
-     *            the fieldMap
-     * @param fieldType
-     *            the field type
-     * @return the jira field composition
-     * @throws JiraException 
-     */
-    public String getJiraFieldComposition(ActionPlanViolation temp, Configuration fieldMap,
-            String fieldType) throws JiraException {
-
-        String field;
-        String fields;
-        
-        if (fieldType.endsWith(".JiraField")) {
-            fields = fieldMap.getJiraFields(fieldType);
-        } else {
-            return "";
-        }
-        
-        StringBuilder result = new StringBuilder();
-        StringTokenizer tokens = new StringTokenizer(fields, ";");
-
-        boolean noteAdded = false;
-        while (tokens.hasMoreTokens()) {
-            field = tokens.nextToken();
-            if (log.isDebugEnabled()) {
-                log.debug(" Field to include in Jira " + fieldType + " : " + field);
-            }
-
-            /**
-             * Add the field label
-             */
-            if (fields.contains(field)) {
-                if (fieldType.equals(Constants.FIELD_MAPPING_LABEL_DESCRIPTION_JIRA_DESCRIPTION)) {
-                    if (!noteAdded) {
-                        // add CAST reference
-                        result.append(
-                                "*NOTE: This defect was generated by CAST Analytics and approved by for correction. If you need further information on this defect, login to the CAST engineering dashboard for ")
-                                .append(this.appName).append("*\n\n");
-                        noteAdded = true;
-                    }
-
-                    result.append(fieldMap.getCastToJiraFieldsMapping(field)).append(" ");
-                }
-
-                /**
-                 * Add CAST Action plan data
-                 */
-                if (field.equals(Constants.FIELD_MAPPING_LABEL_ACTION_DEFINED_DESCRIPTION)) {
-                    result.append(temp.getActionDef());
-                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_ADDED_TO_ACTION_PLAN_DATE)) {
-                    result.append(temp.getActionDate());
-                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_METRIC_LONG_DESCRIPTION)) {
-                    result.append(temp.getMetricLongDescription());
-                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_METRIC_SHORT_DESCRIPTION)) {
-                    result.append(temp.getMetricShortDescription());
-                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_OBJECT_FULL_NAME)) {
-                    result.append(temp.getObjectFullName());
-                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_OUTPUT_DESCRIPTION)) {
-                    result.append(temp.getOutput());
-                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_REASON_DESCRIPTION)) {
-                    result.append(temp.getReason());
-                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_REFERENCE_DESCRIPTION)) {
-                    result.append(temp.getReference());
-                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_REMEDIATION_DESCRIPTION)) {
-                    result.append(temp.getRemediation());
-                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_REMEDIATION_EXAMPLE_DESCRIPTION)) {
-                    result.append(temp.getRemediationExample());
-                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_TOTAL_DESCRIPTION)) {
-                    result.append(temp.getTotals());
-                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_VIOLATION_EXAMPLE_DESCRIPTION)) {
-                    result.append(temp.getViolationExample());
-                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_SOURCE_CODE)) {
-                    result.append(temp.getSourceCode());
-                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_TECH_CRITERIA)) {
-                    result.append(temp.getTechCriteria());
-                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_BUSINESS_CRITERIA)) {
-                    result.append(temp.getBusinessCriteria());
-                }
-                
-                // check custom fields 
-                List<CustomField> cfl = fieldMap.getCustomFields();
-                if (cfl != null) {
-                    for (CustomField cf: cfl) {
-                        String name=String.format("%s.label",cf.getName());
-                        if (field.equals(name)) {
-                            String value = fieldMap.getFieldValue(name);
-                            result.append(value);
-                        }
-                    }
-                }
-                
-                /**
-                 * do we add a space or carriage return - Summary field gets a
-                 * space - Description field get a carriage return
-                 */
-                if (fieldType.equals(Constants.FIELD_MAPPING_LABEL_SUMMARY_JIRA_DESCRIPTION)) {
-                    result.append(" ");
-                } else {
-                    result.append("\n");
-                }
-            }
-        }
-
-        if (result.length() == 0) {
-            if (fieldType.equals(Constants.FIELD_MAPPING_LABEL_SUMMARY_JIRA_DESCRIPTION)) {
-                log.debug("Default field content to include in Jira for Summary field");
-                result.append(temp.getMetricShortDescription());
-            } else {
-                log.debug("Default field content to include in Jira for Description field");
-                result.append(temp.getObjectFullName());
-                result.append(temp.getActionDate());
-                result.append(temp.getActionDef());
-                result.append(temp.getMetricLongDescription());
-                result.append(temp.getReason());
-                result.append(temp.getReference());
-                result.append(temp.getRemediation());
-                result.append(temp.getViolationExample());
-                result.append(temp.getRemediationExample());
-                result.append(temp.getTotals());
-                result.append(temp.getOutput());
-            }
-
-        } else {
-            if (fieldType.equals(Constants.FIELD_MAPPING_LABEL_DESCRIPTION_JIRA_DESCRIPTION)) {
-                result.append(fieldMap.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_CASTID_DESCRIPTION));
-                int maxChar = 30 * 1024;
-                int maxLength = Math.min(result.length(), maxChar);
-
-                result.setLength(maxLength);
-                result.append(" ");
-            } else if (fieldType.equals(Constants.FIELD_MAPPING_LABEL_SUMMARY_JIRA_DESCRIPTION)) {
-                // need to limit to 255 characters
-                int maxChar = 250;
-                int maxLength = Math.min(result.length(), maxChar);
-
-                result.setLength(maxLength);
-            }
-        }
-
-        return result.toString();
-    }
-
-    /**
-     * Return the total number of issues retrieved from CAST
-     * 
-     * @return
-     */
-    public int getTotalNumOfIssues() {
-        return totalNumOfIssues;
-    }
-
-    /**
-     * Total number of issues add to Jira
-     * 
-     * @return
-     */
-    public int getTotalNumOfIssuesAdded() {
-        return totalNumOfIssuesAdded;
-    }
-
-    /**
-     * return the total number of errors encountered while attempting to add an
-     * issue
-     * 
-     * @return
-     */
-    public int getTotalNumOfIssuesNotAddedByError() {
-        return totalNumOfIssuesNotAddedByError;
-    }
-
-    /**
-     * The number of issue that have already existed and were not added to Jira
-     * 
-     * @return
-     */
-    public int getTotalNumOfIssuesNotAddedByExist() {
-        return totalNumOfIssuesNotAddedByExist;
-    }
-
-    /**
-     * Total number of issues closed in Jira
-     * 
-     * @return
-     */
-    public int getTotalNumOfIssuesClosed() {
-        return totalNumOfIssuesClosed;
-    }
-
-    /**
-     * field not being used?
-     * 
-     * @return
-     */
-    public int getTotalNumOfUnprioritizedIssues() {
-        return totalNumOfUnprioritizedIssues;
-    }
-
-    public int getTotalNumOfIssuesReopen() {
-        return totalNumOfIssuesReopen;
-    }
-
+package com.castsoftware.jira;
+
+import java.net.URISyntaxException;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringTokenizer;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.atlassian.jira.rest.client.api.IssueRestClient;
+import com.atlassian.jira.rest.client.api.RestClientException;
+import com.atlassian.jira.rest.client.api.SearchRestClient;
+import com.atlassian.jira.rest.client.api.domain.BasicComponent;
+import com.atlassian.jira.rest.client.api.domain.BasicIssue;
+import com.atlassian.jira.rest.client.api.domain.Comment;
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.IssueType;
+import com.atlassian.jira.rest.client.api.domain.Project;
+import com.atlassian.jira.rest.client.api.domain.Resolution;
+import com.atlassian.jira.rest.client.api.domain.SearchResult;
+import com.atlassian.jira.rest.client.api.domain.Transition;
+import com.atlassian.jira.rest.client.api.domain.input.ComplexIssueInputFieldValue;
+import com.atlassian.jira.rest.client.api.domain.input.IssueInput;
+import com.atlassian.jira.rest.client.api.domain.input.IssueInputBuilder;
+import com.atlassian.jira.rest.client.api.domain.input.TransitionInput;
+import com.castsoftware.jira.pojo.ActionPlanViolation;
+import com.castsoftware.jira.util.ActionPlanHandler;
+import com.castsoftware.jira.util.Configuration;
+import com.castsoftware.jira.util.Constants;
+import com.castsoftware.jira.util.CustomField;
+import com.castsoftware.jira.util.JiraException;
+import com.castsoftware.jira.util.JiraHelper;
+import com.castsoftware.jira.util.LegacyCastIds;
+import com.castsoftware.jira.util.LongViolationMap;
+import com.castsoftware.jira.util.SourceCodeLoader;
+import com.castsoftware.jira.util.ViolationCRC;
+import com.google.common.collect.Lists;
+
+/**
+ * The Class CreateJiraIssues creates the jira issues
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public class CreateJiraIssues implements ActionPlanHandler {
+
+    /** The log. */
+    public static Log log = LogFactory.getLog(CreateJiraIssues.class);
+
+    private final JiraHelper jiraClient;
+
+    private Project project;
+    private IssueType issueType;
+    private BasicComponent component;
+
+    private boolean markIssueResolved;
+    private String resolutionTxt;
+
+    private String appName;
+
+    /** The field mapping and workflow configuration. */
+    private final Configuration config;
+
+    private final String statusOpen;
+    private final String statusReopen;
+    private final String statusDone;
+    private final List<String> transitionDone;
+    private final List<String> transitionReopen;
+    private final List<String> transitionBlacklist;
+    private final boolean debugWorkflow;
+
+    /** True when the mapping template shows the source code in the issues. */
+    private final boolean sourceCodeUsed;
+
+    /** The source code loader, the source code is read only for the issues created. */
+    private SourceCodeLoader sourceCodeLoader;
+
+    /** The total num of issues. */
+    private int totalNumOfIssues;
+
+    /** The total num of issues added. */
+    private int totalNumOfIssuesAdded;
+
+    /** The total num of issues not added by error. */
+    private int totalNumOfIssuesNotAddedByError;
+
+    /** The total num of issues not added by exist. */
+    private int totalNumOfIssuesNotAddedByExist;
+
+    /** The total num of issues closed. */
+    private int totalNumOfIssuesClosed;
+
+    /** The total num of issues reopened. */
+    private int totalNumOfIssuesReopen;
+
+    /** The total num of issues closed. */
+    private int totalNumOfUnprioritizedIssues;
+
+    /** The total num of issues not looked up by a 32-bit CastId shared by several violations. */
+    private int totalNumOfLegacyCollisions;
+
+    /** The 32-bit CastIds of the violations, for the issues created before the 64-bit CastId. */
+    private LegacyCastIds legacyCastIds = new LegacyCastIds();
+
+    /** True when the CastIds of the whole action plan are known before the issues are created. */
+    private boolean extractionCastIds;
+
+    private List<Transition> getTransitions(Issue is)
+            throws InterruptedException, ExecutionException {
+        IssueRestClient issueClient = jiraClient.getIssueClient();
+        Iterable<Transition> trns = issueClient.getTransitions(is).get();
+
+        return Lists.newArrayList(trns);
+    }
+
+    private Transition nextTransitionId(Issue is, List<String> whiteList, List<String> blackList)
+            throws InterruptedException, ExecutionException, JiraException {
+        List<Transition> trns = getTransitions(is);
+
+        transition : for (Transition t : trns) {
+            for (String s : blackList) {
+                if (s.equalsIgnoreCase(t.getName())) {
+                    continue transition;
+                }
+            }
+            for (String s : whiteList) {
+                if (t.getName().equalsIgnoreCase(s)) {
+                    return t;
+                }
+            }
+        }
+
+        throw new JiraException(String.format("Transition not found: %s %s", whiteList.toString(),
+                is.getStatus().getName()));
+    }
+
+    private boolean transitionTo(Issue is, Transition toStatus) {
+        boolean rslt = false;
+        IssueRestClient issueClient = jiraClient.getIssueClient();
+        int inProgressCode;
+        try {
+            inProgressCode = getTransitionId(is.getKey(), toStatus);
+            if (inProgressCode > 0) {
+                issueClient.transition(is, new TransitionInput(inProgressCode));
+                issueClient.addComment(is.getCommentsUri(), Comment.valueOf(
+                        String.format("Issue transitioned to '%s' by CAST", toStatus.getName())));
+                rslt = true;
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            rslt = false;
+        }
+        return rslt;
+    }
+
+    /**
+     * Access Jira and retrieve the transition id
+     * 
+     * @param issueKey
+     * @param trnsId
+     * @return the id of the transition
+     * @throws ExecutionException
+     * @throws InterruptedException
+     */
+    private int getTransitionId(String issueKey, Transition trnsId)
+            throws ExecutionException, InterruptedException {
+        Transition rslt = null;
+        IssueRestClient issueClient = jiraClient.getIssueClient();
+        Issue is = issueClient.getIssue(issueKey).get();
+
+        // if not then transition it to the "To Do" status
+        Iterable<Transition> trans = issueClient.getTransitions(is).get();
+        for (Transition t : trans) {
+            if (t.getName().equalsIgnoreCase(trnsId.getName())) {
+                rslt = t;
+                break;
+            }
+        }
+        return rslt == null ? 0 : rslt.getId();
+    }
+
+    /**
+     * Method used to create and maintain Jira issues.
+     * 
+     * @param jiraUserName
+     * @param jiraUserPassword
+     * @param jiraRestApiUrl
+     * @param pProjectKey
+     * @param pIssueType
+     * @param markIssueResolved
+     * @param resolutionTxt
+     * @param pComponent
+     * @param pViolationList
+     * @throws JiraException
+     */
+    public CreateJiraIssues(String jiraUserName, String jiraUserPassword, String jiraRestApiUrl,
+            String pProjectKey, String pIssueType, boolean markIssueResolved, String resolutionTxt,
+            String pComponent, LongViolationMap pViolationList)
+            throws JiraException {
+        this(jiraUserName, jiraUserPassword, jiraRestApiUrl, pProjectKey, pIssueType,
+                markIssueResolved, resolutionTxt, pComponent);
+
+        handleActionPlan(pViolationList);
+    }
+
+    /**
+     * Connects to Jira and validates the project settings. The violations are
+     * then sent one by one to {@link #handleViolation(long, ActionPlanViolation)},
+     * which allows the action plan to be streamed from the database.
+     * 
+     * @param jiraUserName
+     * @param jiraUserPassword
+     * @param jiraRestApiUrl
+     * @param pProjectKey
+     * @param pIssueType
+     * @param markIssueResolved
+     * @param resolutionTxt
+     * @param pComponent
+     * @throws JiraException
+     */
+    public CreateJiraIssues(String jiraUserName, String jiraUserPassword, String jiraRestApiUrl,
+            String pProjectKey, String pIssueType, boolean markIssueResolved, String resolutionTxt,
+            String pComponent) throws JiraException {
+        this(createJiraClient(jiraUserName, jiraUserPassword, jiraRestApiUrl), pProjectKey, pIssueType,
+                markIssueResolved, resolutionTxt, pComponent);
+    }
+
+    /**
+     * Validates the project settings with a Jira client shared by several
+     * projects, the Jira metadata is then read once.
+     * 
+     * @param jiraClient
+     * @param pProjectKey
+     * @param pIssueType
+     * @param markIssueResolved
+     * @param resolutionTxt
+     * @param pComponent
+     * @throws JiraException
+     */
+    public CreateJiraIssues(JiraHelper jiraClient, String pProjectKey, String pIssueType,
+            boolean markIssueResolved, String resolutionTxt, String pComponent) throws JiraException {
+
+        this.jiraClient = jiraClient;
+        try {
+            try {
+                project = jiraClient.getProjectClient().getProject(pProjectKey).get();
+            } catch (ExecutionException e) {
+                throw new JiraException(
+                        String.format("Invalid project short name [%s]", pProjectKey));
+            }
+
+            log.info(String.format("Working with Jira project [%s]", project.getName()));
+
+            for (IssueType it : project.getIssueTypes()) {
+                if (it.getName().equals(pIssueType)) {
+                    issueType = it;
+                    break;
+                }
+            }
+            if (issueType == null) {
+                throw new JiraException(
+                        String.format("Issue type [%s] does not exist in project [%s]",
+                                project.getName(), pIssueType));
+            } else {
+                log.info(String.format("Working with issue type [%s]", issueType.getName()));
+            }
+
+            // can the component be assigned for the provided project?
+            if (pComponent != null && !pComponent.trim().isEmpty()) {
+                for (BasicComponent c : project.getComponents()) {
+                    if (c.getName().equals(pComponent))
+                        component = c;
+                }
+                if (component == null) {
+                    throw new JiraException(
+                            String.format("Component [%s] does not exist in project [%s]",
+                                    project.getName(), pIssueType));
+                } else {
+                    log.info(String.format("Working with component [%s]", component.getName()));
+                }
+            } else {
+                log.info("Component not being used");
+            }
+
+            this.markIssueResolved = markIssueResolved;
+            this.resolutionTxt = resolutionTxt;
+
+            String txt = "When Identified as fixed by CAST, the Jira issue will be ";
+            if (markIssueResolved) {
+                Iterable<Resolution> resolutions;
+                boolean validResotion = false;
+
+                try {
+                    resolutions = jiraClient.getResolutions();
+                    for (Resolution l : resolutions) {
+                        if (l.getName().equalsIgnoreCase(this.resolutionTxt)) {
+                            validResotion = true;
+                            break;
+                        }
+                    }
+                } catch (ExecutionException e) {
+                    throw new JiraException(String.format("Invalid resolution: %s", this.resolutionTxt));
+                }
+                if (!validResotion)
+                    throw new JiraException(String.format("Invalid resolution: %s", this.resolutionTxt));
+
+                txt += String.format("marked as resolved with a resolution message of \"%s\"", this.resolutionTxt);
+            } else {
+                this.resolutionTxt = "Done";
+                txt += String.format("closed, with a resolution message of \"%s\"",
+                        this.resolutionTxt);
+            }
+            log.info(txt);
+
+        } catch (InterruptedException ex) {
+            throw new JiraException("Unable to establish a connection with Jira", ex);
+        }
+
+        /**
+         * get workflow configuration
+         */
+        config = new Configuration();
+        statusOpen = config.getWorkflow(Constants.WORKFLOW_STATUS_OPEN);
+        statusReopen = config.getWorkflow(Constants.WORKFLOW_STATUS_REOPEN);
+        statusDone = config.getWorkflow(Constants.WORKFLOW_STATUS_DONE);
+        transitionDone = Arrays.asList(config.getWorkflow(Constants.WORKFLOW_TRANSITION_DONE).split(";"));
+        transitionReopen = Arrays.asList(config.getWorkflow(Constants.WORKFLOW_TRANSITION_REOPEN).split(";"));
+        transitionBlacklist = Arrays.asList(config.getWorkflow(Constants.WORKFLOW_TRANSITION_BLACKLIST).split(";"));
+        debugWorkflow = Boolean.parseBoolean(config.getWorkflow(Constants.WORKFLOW_DEBUG));
+
+        sourceCodeUsed = config.isFieldReferenced(Constants.FIELD_MAPPING_LABEL_SOURCE_CODE);
+        if (!sourceCodeUsed) {
+            log.info("Source code not used by the field mapping, it will not be read");
+        }
+    }
+
+    /**
+     * Creates the Jira client.
+     * 
+     * @param jiraUserName
+     * @param jiraUserPassword
+     * @param jiraRestApiUrl
+     * @return the Jira client
+     * @throws JiraException
+     */
+    public static JiraHelper createJiraClient(String jiraUserName, String jiraUserPassword, String jiraRestApiUrl)
+            throws JiraException {
+        try {
+            return new JiraHelper(jiraRestApiUrl, jiraUserName, jiraUserPassword);
+        } catch (URISyntaxException ex) {
+            throw new JiraException("Unable to establish a connection with Jira", ex);
+        }
+    }
+
+    /**
+     * Sets the loader used to read the source code of the issues created.
+     * 
+     * @param sourceCodeLoader
+     *            the source code loader
+     */
+    public void setSourceCodeLoader(SourceCodeLoader sourceCodeLoader) {
+        this.sourceCodeLoader = sourceCodeLoader;
+    }
+
+    /**
+     * Gives the CastIds of the whole action plan, before its violations are
+     * handled. Without them the 32-bit CastIds are counted while the
+     * violations are handled.
+     * 
+     * @param castIds
+     *            the CastIds of the action plan
+     */
+    public void setExtractionCastIds(long[] castIds) {
+        legacyCastIds = new LegacyCastIds();
+        legacyCastIds.addAll(castIds);
+        extractionCastIds = true;
+    }
+
+    /**
+     * Create, close or reopen the Jira issues of an action plan.
+     * 
+     * @param pViolationList
+     *            the violations by CastId
+     */
+    public void handleActionPlan(LongViolationMap pViolationList) {
+        setExtractionCastIds(pViolationList.getCastIds());
+        // loop through all CAST violations, by source file for the source code loader
+        pViolationList.handleAllBySource(this);
+    }
+
+    /**
+     * Create, close or reopen the Jira issue of one CAST violation.
+     * 
+     * @param key
+     *            the CastId of the violation
+     * @param violation
+     *            the violation
+     */
+    @Override
+    public void handleViolation(long key, ActionPlanViolation violation) {
+        IssueRestClient issueClient = jiraClient.getIssueClient();
+
+        try { // if an error occurs don't stop the job, just report it
+            log.info(String.format("Violation %d: %s", key, violation.getMetricShortDescription()));
+            totalNumOfIssues++;
+            if (!extractionCastIds) {
+                legacyCastIds.add(key);
+            }
+
+            int priority = violation.getPriority();
+
+            if (priority < 1 || priority > 3) {
+                log.info(String.format("Unprioritized or Low priority issue, NOT added (%d)", violation.getObjectId()));
+                totalNumOfUnprioritizedIssues++;
+            } else {
+                String srchStr = String.format("%s-%d", project.getName(), key);
+
+                // has the issue been corrected in CAST
+                boolean castIssueCorrected = (violation.getViolationStatus() == ActionPlanViolation.STATUS_FIXED);
+
+                SearchResult searchResult = searchIssues(srchStr);
+                boolean legacyIssues = false;
+                if (searchResult.getTotal() == 0) {
+                    // the issues created before the 64-bit CastId carry the 32-bit one
+                    if (legacyCastIds.isUnique(key)) {
+                        searchResult = searchIssues(
+                                String.format("%s-%d", project.getName(), ViolationCRC.getLegacyCastId(key)));
+                        legacyIssues = searchResult.getTotal() > 0;
+                    } else {
+                        log.warn(String.format("32-bit CastId %d shared by several violations, not looked up",
+                                ViolationCRC.getLegacyCastId(key)));
+                        totalNumOfLegacyCollisions++;
+                    }
+                }
+
+                int totalIssuesFound = searchResult.getTotal();
+                if (totalIssuesFound > 0) {
+                    for (BasicIssue issue : searchResult.getIssues()) {
+                        Issue is = issueClient.getIssue(issue.getKey()).claim();
+
+                        log.info(String.format("Matching Jira Issue found: %s", is.getKey()));
+                        if (legacyIssues) {
+                            // found by the 64-bit CastId from now on
+                            String description = is.getDescription() == null ? "" : is.getDescription() + "\n";
+                            issueClient.updateIssue(is.getKey(),
+                                    new IssueInputBuilder().setDescription(description + srchStr).build()).claim();
+                            log.info(String.format("64-bit CastId added to the description of %s", is.getKey()));
+                        }
+                        String issueStatusCode = is.getStatus().getName();
+                        if (castIssueCorrected && !issueStatusCode.equalsIgnoreCase(statusDone)) {
+                            // The issue has been marked as done in CAST, do the same in Jira
+
+                            Transition transitTo;
+                            while (true) {
+                                transitTo = nextTransitionId(is, transitionDone, transitionBlacklist);
+                                if (!transitionTo(is, transitTo)) {
+                                    throw new JiraException(String.format("Unable to transition to %s", transitTo.getName()));
+                                }
+
+                                is = issueClient.getIssue(issue.getKey()).get();
+                                if (issueStatusCode.equals(is.getStatus().getName()) || statusDone.equalsIgnoreCase(is.getStatus().getName())) {
+                                    break;
+                                }
+
+                                issueStatusCode = is.getStatus().getName();
+                            }
+
+                            log.info("Issue closed");
+                            this.totalNumOfIssuesClosed++;
+                            continue;
+                        } else if (!castIssueCorrected && !(issueStatusCode.equalsIgnoreCase(statusOpen) || issueStatusCode.equalsIgnoreCase(statusReopen))) {
+                            // The issue is still open in CAST but marked as closed in Jira, reopen it now
+
+                            Transition transitTo;
+                            while (true) {
+                                transitTo = nextTransitionId(is, transitionReopen, transitionBlacklist);
+                                if (!transitionTo(is, transitTo)) {
+                                    throw new JiraException(String.format("Unable to transition to %s", transitTo.getName()));
+                                }
+
+                                is = issueClient.getIssue(issue.getKey()).get();
+                                if (issueStatusCode.equals(is.getStatus().getName()) || statusReopen.equalsIgnoreCase(is.getStatus().getName())) {
+                                    break;
+                                }
+                                issueStatusCode = is.getStatus().getName();
+                            }
+
+                            this.totalNumOfIssuesReopen++;
+                            log.info("Issue Reopened");
+                        } else {
+                            log.info("No action required");
+                        }
+
+                        this.totalNumOfIssuesNotAddedByExist++;
+                    }
+                } else if (debugWorkflow || !castIssueCorrected) {
+                    /* Create a new issue. */
+
+                    if (sourceCodeUsed && sourceCodeLoader != null) {
+                        try {
+                            sourceCodeLoader.applyTo(violation);
+                        } catch (SQLException e) {
+                            log.error("Source code can not be read: " + e.getMessage());
+                            violation.applySourceCode(null);
+                        }
+                    }
+
+                    loadConfiguration(config, violation);
+
+                    IssueInputBuilder iib = new IssueInputBuilder(project, issueType);
+                    iib.setProjectKey(project.getKey());
+                    iib.setIssueType(issueType);
+
+                    iib.setSummary(getJiraFieldComposition(violation, config, Constants.FIELD_MAPPING_LABEL_SUMMARY_JIRA_DESCRIPTION));
+
+                    String description = getJiraFieldComposition(violation, config, Constants.FIELD_MAPPING_LABEL_DESCRIPTION_JIRA_DESCRIPTION) + srchStr;
+                    iib.setDescription(description);
+
+                    iib.setPriorityId((long) priority);
+
+                    if (component != null) {
+                        iib.setComponents(component);
+                        log.info(String.format("Adding component: [%s]", component.getName()));
+                    }
+
+                    // set custom fields here
+                    List<CustomField> cfl = config.getCustomFields();
+                    if (cfl != null) {
+                        for (CustomField cf : cfl) {
+                            String jiraField = String.format("%s.JiraField", cf.getName()); 
+                            String value = getJiraFieldComposition(violation, config,jiraField);
+
+                            if (value != null && !value.isEmpty()) {
+                                switch (cf.getType().toLowerCase()) {
+                                    case CustomField.CUSTOM_TEXT_FIELD_TYPE :
+                                        iib.setFieldValue(cf.getName(), value);
+                                        break;
+                                    case CustomField.CUSTOM_SELECT_FIELD_TYPE :
+                                        ComplexIssueInputFieldValue cv = ComplexIssueInputFieldValue.with("value", value.replace("\n", ""));
+                                        iib.setFieldValue(cf.getName(), cv);
+                                        break;
+                                }
+                            }
+                        }
+                    }
+
+                    IssueInput issue = iib.build();
+                    BasicIssue issueObj = issueClient.createIssue(issue).get();
+                    log.info(String.format("New issue created: %s", issueObj.getKey()));
+
+                    // add comment
+                    Issue is = issueClient.getIssue(issueObj.getKey()).get();
+                    issueClient.addComment(is.getCommentsUri(), Comment.valueOf("Issue created by CAST"));
+
+                    this.totalNumOfIssuesAdded++;
+                } else {
+                    log.info("Issue has already been closed in AIP");
+                }
+            }
+        } catch (RestClientException | JiraException | InterruptedException | ExecutionException ex) {
+            this.totalNumOfIssuesNotAddedByError++;
+            log.error(ex.getMessage());
+        }
+    }
+
+    /**
+     * Searches the issues of the project whose description holds a CastId.
+     * 
+     * @param srchStr
+     *            the project name and CastId
+     * @return the search result
+     */
+    private SearchResult searchIssues(String srchStr) {
+        SearchRestClient searchClient = jiraClient.getSearchClient();
+        return searchClient.searchJql(String.format(
+                "project = '%s' AND description ~ '%s' ORDER BY priority DESC", project.getKey(), srchStr)).claim();
+    }
+
+    /**
+     * Fill in the issue using the template
+     * 
+     * @param loadConfig
+     * @param violation
+     */
+    private void loadConfiguration(Configuration loadConfig, ActionPlanViolation violation) {
+        // log.info("------------------------------------------------");
+        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_ADDED_TO_ACTION_PLAN_DATE);
+        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_REASON_DESCRIPTION);
+        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_OUTPUT_DESCRIPTION);
+        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_REFERENCE_DESCRIPTION);
+
+        log.info(loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_METRIC_SHORT_DESCRIPTION)
+                + violation.getMetricShortDescription());
+
+        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_METRIC_LONG_DESCRIPTION);
+        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_OBJECT_FULL_NAME);
+        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_REMEDIATION_DESCRIPTION);
+        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_REMEDIATION_EXAMPLE_DESCRIPTION);
+        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_TOTAL_DESCRIPTION);
+        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_VIOLATION_EXAMPLE_DESCRIPTION);
+        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_ACTION_DEFINED_DESCRIPTION);
+        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_LINE_START);
+        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_LINE_END);
+        loadConfig.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_SOURCE_CODE);
+    }
+
+    /**
+     * Gets the jira field composition.
+     * 
+     * @param temp
+     *            the temp
+     * @param fieldMap
+     *            the fieldMap
+     * @param fieldType
+     *            the field type
+     * @return the jira field composition
+     * @throws JiraException 
+     */
+    public String getJiraFieldComposition(ActionPlanViolation temp, Configuration fieldMap,
+            String fieldType) throws JiraException {
+
+        String field;
+        String fields;
+        
+        if (fieldType.endsWith(".JiraField")) {
+            fields = fieldMap.getJiraFields(fieldType);
+        } else {
+            return "";
+        }
+        
+        StringBuilder result = new StringBuilder();
+        StringTokenizer tokens = new StringTokenizer(fields, ";");
+
+        boolean noteAdded = false;
+        while (tokens.hasMoreTokens()) {
+            field = tokens.nextToken();
+            if (log.isDebugEnabled()) {
+                log.debug(" Field to include in Jira " + fieldType + " : " + field);
+            }
+
+            /**
+             * Add the field label
+             */
+            if (fields.contains(field)) {
+                if (fieldType.equals(Constants.FIELD_MAPPING_LABEL_DESCRIPTION_JIRA_DESCRIPTION)) {
+                    if (!noteAdded) {
+                        // add CAST reference
+                        result.append(
+                                "*NOTE: This defect was generated by CAST Analytics and approved by for correction. If you need further information on this defect, login to the CAST engineering dashboard for ")
+                                .append(this.appName).append("*\n\n");
+                        noteAdded = true;
+                    }
+
+                    result.append(fieldMap.getCastToJiraFieldsMapping(field)).append(" ");
+                }
+
+                /**
+                 * Add CAST Action plan data
+                 */
+                if (field.equals(Constants.FIELD_MAPPING_LABEL_ACTION_DEFINED_DESCRIPTION)) {
+                    result.append(temp.getActionDef());
+                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_ADDED_TO_ACTION_PLAN_DATE)) {
+                    result.append(temp.getActionDate());
+                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_METRIC_LONG_DESCRIPTION)) {
+                    result.append(temp.getMetricLongDescription());
+                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_METRIC_SHORT_DESCRIPTION)) {
+                    result.append(temp.getMetricShortDescription());
+                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_OBJECT_FULL_NAME)) {
+                    result.append(temp.getObjectFullName());
+                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_OUTPUT_DESCRIPTION)) {
+                    result.append(temp.getOutput());
+                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_REASON_DESCRIPTION)) {
+                    result.append(temp.getReason());
+                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_REFERENCE_DESCRIPTION)) {
+                    result.append(temp.getReference());
+                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_REMEDIATION_DESCRIPTION)) {
+                    result.append(temp.getRemediation());
+                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_REMEDIATION_EXAMPLE_DESCRIPTION)) {
+                    result.append(temp.getRemediationExample());
+                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_TOTAL_DESCRIPTION)) {
+                    result.append(temp.getTotals());
+                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_VIOLATION_EXAMPLE_DESCRIPTION)) {
+                    result.append(temp.getViolationExample());
+                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_SOURCE_CODE)) {
+                    result.append(temp.getSourceCode());
+                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_TECH_CRITERIA)) {
+                    result.append(temp.getTechCriteria());
+                } else if (field.equals(Constants.FIELD_MAPPING_LABEL_BUSINESS_CRITERIA)) {
+                    result.append(temp.getBusinessCriteria());
+                }
+                
+                // check custom fields 
+                List<CustomField> cfl = fieldMap.getCustomFields();
+                if (cfl != null) {
+                    for (CustomField cf: cfl) {
+                        String name=String.format("%s.label",cf.getName());
+                        if (field.equals(name)) {
+                            String value = fieldMap.getFieldValue(name);
+                            result.append(value);
+                        }
+                    }
+                }
+                
+                /**
+                 * do we add a space or carriage return - Summary field gets a
+                 * space - Description field get a carriage return
+                 */
+                if (fieldType.equals(Constants.FIELD_MAPPING_LABEL_SUMMARY_JIRA_DESCRIPTION)) {
+                    result.append(" ");
+                } else {
+                    result.append("\n");
+                }
+            }
+        }
+
+        if (result.length() == 0) {
+            if (fieldType.equals(Constants.FIELD_MAPPING_LABEL_SUMMARY_JIRA_DESCRIPTION)) {
+                log.debug("Default field content to include in Jira for Summary field");
+                result.append(temp.getMetricShortDescription());
+            } else {
+                log.debug("Default field content to include in Jira for Description field");
+                result.append(temp.getObjectFullName());
+                result.append(temp.getActionDate());
+                result.append(temp.getActionDef());
+                result.append(temp.getMetricLongDescription());
+                result.append(temp.getReason());
+                result.append(temp.getReference());
+                result.append(temp.getRemediation());
+                result.append(temp.getViolationExample());
+                result.append(temp.getRemediationExample());
+                result.append(temp.getTotals());
+                result.append(temp.getOutput());
+            }
+
+        } else {
+            if (fieldType.equals(Constants.FIELD_MAPPING_LABEL_DESCRIPTION_JIRA_DESCRIPTION)) {
+                result.append(fieldMap.getCastToJiraFieldsMapping(Constants.FIELD_MAPPING_LABEL_CASTID_DESCRIPTION));
+                int maxChar = 30 * 1024;
+                int maxLength = Math.min(result.length(), maxChar);
+
+                result.setLength(maxLength);
+                result.append(" ");
+            } else if (fieldType.equals(Constants.FIELD_MAPPING_LABEL_SUMMARY_JIRA_DESCRIPTION)) {
+                // need to limit to 255 characters
+                int maxChar = 250;
+                int maxLength = Math.min(result.length(), maxChar);
+
+                result.setLength(maxLength);
+            }
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Return the total number of issues retrieved from CAST
+     * 
+     * @return
+     */
+    public int getTotalNumOfIssues() {
+        return totalNumOfIssues;
+    }
+
+    /**
+     * Total number of issues add to Jira
+     * 
+     * @return
+     */
+    public int getTotalNumOfIssuesAdded() {
+        return totalNumOfIssuesAdded;
+    }
+
+    /**
+     * return the total number of errors encountered while attempting to add an
+     * issue
+     * 
+     * @return
+     */
+    public int getTotalNumOfIssuesNotAddedByError() {
+        return totalNumOfIssuesNotAddedByError;
+    }
+
+    /**
+     * The number of issue that have already existed and were not added to Jira
+     * 
+     * @return
+     */
+    public int getTotalNumOfIssuesNotAddedByExist() {
+        return totalNumOfIssuesNotAddedByExist;
+    }
+
+    /**
+     * Total number of issues closed in Jira
+     * 
+     * @return
+     */
+    public int getTotalNumOfIssuesClosed() {
+        return totalNumOfIssuesClosed;
+    }
+
+    /**
+     * field not being used?
+     * 
+     * @return
+     */
+    public int getTotalNumOfUnprioritizedIssues() {
+        return totalNumOfUnprioritizedIssues;
+    }
+
+    public int getTotalNumOfIssuesReopen() {
+        return totalNumOfIssuesReopen;
+    }
+
+    /**
+     * Total number of violations whose 32-bit CastId is shared by other
+     * violations: the issues created before the 64-bit CastId are not looked
+     * up for them
+     * 
+     * @return
+     */
+    public int getTotalNumOfLegacyCollisions() {
+        return totalNumOfLegacyCollisions;
+    }
+
 }
\ No newline at end of file
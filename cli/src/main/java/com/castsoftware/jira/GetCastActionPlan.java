@@ -1,319 +1,773 @@
-package com.castsoftware.jira;
-
-import java.util.HashMap;
-
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
-import com.castsoftware.jira.pojo.ActionPlanViolation;
-import com.castsoftware.jira.util.DatabaseConnection;
-import com.castsoftware.jira.util.SqlStatements;
-
-
-/**
- * The Class GetCastActionPlan is the entry point to retrieve action plan from a
- * database
- * 
- * @author FME
- * @version 1.1
- */
-public class GetCastActionPlan {
-
-	/** The log. */
-	public static Log log = LogFactory.getLog(GetCastActionPlan.class);
-
-	/** The map. */
-	private HashMap<Integer, ActionPlanViolation> map = new HashMap<>(
-			0);
-
-	/** The appname. */
-	private String appname;
-
-	/** The castusername. */
-	private String castusername;
-
-	/** The castuserpassword. */
-	private String castuserpassword;
-
-	/** The castrestapiurl. */
-	private String castrestapiurl;
-
-	/** The schema profile. */
-	private String schemaProfile;
-
-	/** The database provider. */
-	private String databaseProvider;
-
-	/** The host. */
-	private String host;
-
-	/** The database. */
-	private String database;
-
-	/** The port. */
-	private String port;
-
-	/**
-	 * Instantiates a new gets the cast action plan from CAST REST API.
-	 * 
-	 * @param appname
-	 *            the appname
-	 * @param castusername
-	 *            the castusername
-	 * @param castuserpassword
-	 *            the castuserpassword
-	 * @param castrestapiurl
-	 *            the castrestapiurl
-	 */
-	public GetCastActionPlan(String appname, String castusername,
-			String castuserpassword, String castrestapiurl) {
-		setAppname(appname);
-		setCastusername(castusername);
-		setCastuserpassword(castuserpassword);
-		setCastrestapiurl(castrestapiurl);
-
-	}
-
-	/**
-	 * Instantiates a new gets the cast action plan From the database.
-	 * 
-	 * @param appname
-	 *            the appname
-	 * @param castusername
-	 *            the castusername
-	 * @param castuserpassword
-	 *            the castuserpassword
-	 * @param host
-	 *            the host
-	 * @param database
-	 *            the database
-	 * @param port
-	 *            the port
-	 * @param schemaProfile
-	 *            the schema profile
-	 * @param databaseProvider
-	 *            the database provider
-	 */
-	public GetCastActionPlan(String appname, String castusername,
-			String castuserpassword, String host, String database, String port,
-			String schemaProfile, String databaseProvider) {
-		setAppname(appname);
-		setCastusername(castusername);
-		setCastuserpassword(castuserpassword);
-		setSchemaProfile(schemaProfile);
-		setDatabaseProvider(databaseProvider);
-		setHost(host);
-		setDatabase(database);
-		setPort(port);
-
-	}
-
-	/**
-	 * Gets the action plan.
-	 * 
-	 * @return the action plan
-	 * @throws Exception
-	 *             the exception
-	 */
-	public HashMap<Integer, ActionPlanViolation> getActionPlan()
-			throws Exception {
-		execute();
-		return map;
-	}
-
-	/**
-	 * Execute the connection to the database & sql statement.
-	 *
-	 * @throws Exception
-	 *             the exception
-	 */
-	private void execute() throws Exception {
-		try {
-			DatabaseConnection conn = new DatabaseConnection(getCastusername(),
-					getCastuserpassword(), getHost(), getDatabase(), getPort(),
-					getDatabaseProvider());
-
-			SqlStatements sql = new SqlStatements(getAppname(), getSchemaProfile(), getDatabaseProvider());
-			map = sql.getActionPlan(conn.getDBConnection());
-
-			conn.closeConnection();
-		} catch (Exception e) {
-			log.fatal(
-					"Action Plan Can not be retrieved. Ensure that database is available are all the parameters provided are the right ones",
-					e);
-			throw e;
-		}
-	}
-
-	/**
-	 * Gets the appname.
-	 * 
-	 * @return the appname
-	 */
-	public String getAppname() {
-		return appname;
-	}
-
-	/**
-	 * Sets the appname.
-	 * 
-	 * @param appname
-	 *            the appname to set
-	 */
-	public void setAppname(String appname) {
-		this.appname = appname;
-	}
-
-	/**
-	 * Gets the castusername.
-	 * 
-	 * @return the castusername
-	 */
-	public String getCastusername() {
-		return castusername;
-	}
-
-	/**
-	 * Sets the castusername.
-	 * 
-	 * @param castusername
-	 *            the castusername to set
-	 */
-	public void setCastusername(String castusername) {
-		this.castusername = castusername;
-	}
-
-	/**
-	 * Gets the castuserpassword.
-	 * 
-	 * @return the castuserpassword
-	 */
-	public String getCastuserpassword() {
-		return castuserpassword;
-	}
-
-	/**
-	 * Sets the castuserpassword.
-	 * 
-	 * @param castuserpassword
-	 *            the castuserpassword to set
-	 */
-	public void setCastuserpassword(String castuserpassword) {
-		this.castuserpassword = castuserpassword;
-	}
-
-	/**
-	 * Gets the castrestapiurl.
-	 * 
-	 * @return the castrestapiurl
-	 */
-	public String getCastrestapiurl() {
-		return castrestapiurl;
-	}
-
-	/**
-	 * Sets the castrestapiurl.
-	 * 
-	 * @param castrestapiurl
-	 *            the castrestapiurl to set
-	 */
-	public void setCastrestapiurl(String castrestapiurl) {
-		this.castrestapiurl = castrestapiurl;
-	}
-
-	/**
-	 * Gets the schema profile.
-	 * 
-	 * @return the schemaProfile
-	 */
-	public String getSchemaProfile() {
-		return schemaProfile;
-	}
-
-	/**
-	 * Sets the schema profile.
-	 * 
-	 * @param schemaProfile
-	 *            the schemaProfile to set
-	 */
-	public void setSchemaProfile(String schemaProfile) {
-		this.schemaProfile = schemaProfile;
-	}
-
-	/**
-	 * Gets the database provider.
-	 * 
-	 * @return the databaseProvider
-	 */
-	public String getDatabaseProvider() {
-		return databaseProvider;
-	}
-
-	/**
-	 * Sets the database provider.
-	 * 
-	 * @param databaseProvider
-	 *            the databaseProvider to set
-	 */
-	public void setDatabaseProvider(String databaseProvider) {
-		this.databaseProvider = databaseProvider;
-	}
-
-	/**
-	 * Gets the host.
-	 * 
-	 * @return the host
-	 */
-	public String getHost() {
-		return host;
-	}
-
-	/**
-	 * Sets the host.
-	 * 
-	 * @param host
-	 *            the host to set
-	 */
-	public void setHost(String host) {
-		this.host = host;
-	}
-
-	/**
-	 * Gets the database.
-	 * 
-	 * @return the database
-	 */
-	public String getDatabase() {
-		return database;
-	}
-
-	/**
-	 * Sets the database.
-	 * 
-	 * @param database
-	 *            the database to set
-	 */
-	public void setDatabase(String database) {
-		this.database = database;
-	}
-
-	/**
-	 * Gets the port.
-	 * 
-	 * @return the port
-	 */
-	public String getPort() {
-		return port;
-	}
-
-	/**
-	 * Sets the port.
-	 * 
-	 * @param port
-	 *            the port to set
-	 */
-	public void setPort(String port) {
-		this.port = port;
-	}
-
-}
+package com.castsoftware.jira;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.castsoftware.jira.pojo.ActionPlanViolation;
+import com.castsoftware.jira.pojo.ViolationChange;
+import com.castsoftware.jira.util.ActionPlanHandler;
+import com.castsoftware.jira.util.Constants;
+import com.castsoftware.jira.util.DatabaseConnection;
+import com.castsoftware.jira.util.ExtractionFilter;
+import com.castsoftware.jira.util.ExtractionStatistics;
+import com.castsoftware.jira.util.LongViolationMap;
+import com.castsoftware.jira.util.QualityModel;
+import com.castsoftware.jira.util.SourceCodeLoader;
+import com.castsoftware.jira.util.SqlStatements;
+import com.castsoftware.jira.util.Watermark;
+
+
+/**
+ * The Class GetCastActionPlan is the entry point to retrieve action plan from a
+ * database
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public class GetCastActionPlan {
+
+	/** The log. */
+	public static Log log = LogFactory.getLog(GetCastActionPlan.class);
+
+	/** The map. */
+	private LongViolationMap map = new LongViolationMap();
+
+	/** The appname. */
+	private String appname;
+
+	/** The castusername. */
+	private String castusername;
+
+	/** The castuserpassword. */
+	private String castuserpassword;
+
+	/** The castrestapiurl. */
+	private String castrestapiurl;
+
+	/** The schema profile. */
+	private String schemaProfile;
+
+	/** The database provider. */
+	private String databaseProvider;
+
+	/** The host. */
+	private String host;
+
+	/** The database. */
+	private String database;
+
+	/** The port. */
+	private String port;
+
+	/** The fetch size. */
+	private int fetchSize = Constants.DB_DEFAULT_FETCH_SIZE;
+
+	/** The quality model cache directory. */
+	private File cacheDirectory;
+
+	/** The CAST fields shown in the issues. */
+	private Set<String> referencedFields;
+
+	/** The extraction filter. */
+	private ExtractionFilter filter = new ExtractionFilter();
+
+	/** The watermark of the previous run, null for a full extraction. */
+	private Watermark since;
+
+	/** The watermark reached by the extraction. */
+	private Watermark watermark;
+
+	/** True to extract the changes between two snapshots only. */
+	private boolean delta;
+
+	/** The previous and current snapshots of the delta, the latest ones when null. */
+	private int[] deltaSnapshots;
+
+	/** The file receiving the execution plan of the action plan statement. */
+	private File explainFile;
+
+	/** The quality model, shared with the other extractions of the run. */
+	private QualityModel qualityModel;
+
+	/** The statistics of the last extraction. */
+	private ExtractionStatistics statistics;
+
+	/** The number of partitions read in parallel. */
+	private int parallelism = Constants.DB_DEFAULT_PARALLELISM;
+
+	/** The number of violations by change in delta mode. */
+	private EnumMap<ViolationChange, Integer> deltaCounts;
+
+	/**
+	 * Instantiates a new gets the cast action plan from CAST REST API.
+	 * 
+	 * @param appname
+	 *            the appname
+	 * @param castusername
+	 *            the castusername
+	 * @param castuserpassword
+	 *            the castuserpassword
+	 * @param castrestapiurl
+	 *            the castrestapiurl
+	 */
+	public GetCastActionPlan(String appname, String castusername,
+			String castuserpassword, String castrestapiurl) {
+		setAppname(appname);
+		setCastusername(castusername);
+		setCastuserpassword(castuserpassword);
+		setCastrestapiurl(castrestapiurl);
+
+	}
+
+	/**
+	 * Instantiates a new gets the cast action plan From the database.
+	 * 
+	 * @param appname
+	 *            the appname
+	 * @param castusername
+	 *            the castusername
+	 * @param castuserpassword
+	 *            the castuserpassword
+	 * @param host
+	 *            the host
+	 * @param database
+	 *            the database
+	 * @param port
+	 *            the port
+	 * @param schemaProfile
+	 *            the schema profile
+	 * @param databaseProvider
+	 *            the database provider
+	 */
+	public GetCastActionPlan(String appname, String castusername,
+			String castuserpassword, String host, String database, String port,
+			String schemaProfile, String databaseProvider) {
+		setAppname(appname);
+		setCastusername(castusername);
+		setCastuserpassword(castuserpassword);
+		setSchemaProfile(schemaProfile);
+		setDatabaseProvider(databaseProvider);
+		setHost(host);
+		setDatabase(database);
+		setPort(port);
+
+	}
+
+	/**
+	 * Gets the action plan.
+	 * 
+	 * @return the action plan
+	 * @throws Exception
+	 *             the exception
+	 */
+	public LongViolationMap getActionPlan()
+			throws Exception {
+		execute(null);
+		return map;
+	}
+
+	/**
+	 * Streams the action plan to the handler, violations are not kept in
+	 * memory.
+	 * 
+	 * @param handler
+	 *            the handler receiving the violations
+	 * @throws Exception
+	 *             the exception
+	 */
+	public void streamActionPlan(ActionPlanHandler handler) throws Exception {
+		execute(handler);
+	}
+
+	/**
+	 * Creates the loader reading the source code of the violations on demand.
+	 * The loader opens its own database connection on the first read.
+	 * 
+	 * @return the source code loader, to be closed by the caller
+	 * @throws Exception
+	 *             the exception
+	 */
+	public SourceCodeLoader createSourceCodeLoader() throws Exception {
+		SqlStatements sql = new SqlStatements(getAppname(), getSchemaProfile(), getDatabaseProvider());
+		return new SourceCodeLoader(sql.getDialect().qualify(sql.getLocalDatabase()), Constants.DB_SOURCE_CACHE_SIZE) {
+			@Override
+			protected DatabaseConnection openConnection() throws SQLException {
+				return new DatabaseConnection(getCastusername(), getCastuserpassword(), getHost(), getDatabase(),
+						getPort(), getDatabaseProvider());
+			}
+		};
+	}
+
+	/**
+	 * Loads the quality model of the central schema, from the cache when it
+	 * is enabled, without extracting the action plan. It is then set as the
+	 * quality model of this extraction.
+	 * 
+	 * @return the quality model
+	 * @throws Exception
+	 *             the exception
+	 */
+	public QualityModel loadQualityModel() throws Exception {
+		DatabaseConnection conn = new DatabaseConnection(getCastusername(), getCastuserpassword(), getHost(),
+				getDatabase(), getPort(), getDatabaseProvider());
+		try {
+			SqlStatements sql = new SqlStatements(getAppname(), getSchemaProfile(), getDatabaseProvider());
+			sql.setCacheDirectory(getCacheDirectory());
+			sql.setDatabaseName(getHost() + ":" + getPort() + "/" + getDatabase());
+			sql.setReferencedFields(getReferencedFields());
+			sql.setStatementCache(conn);
+			qualityModel = sql.loadQualityModel(conn.getDBConnection());
+			return qualityModel;
+		} finally {
+			conn.closeConnection();
+		}
+	}
+
+	/**
+	 * Execute the connection to the database & sql statement.
+	 *
+	 * @param handler
+	 *            the handler receiving the violations, if null the action
+	 *            plan is loaded in the map
+	 * @throws Exception
+	 *             the exception
+	 */
+	private void execute(ActionPlanHandler handler) throws Exception {
+		DatabaseConnection conn = null;
+		try {
+			conn = new DatabaseConnection(getCastusername(),
+					getCastuserpassword(), getHost(), getDatabase(), getPort(),
+					getDatabaseProvider());
+
+			SqlStatements sql = new SqlStatements(getAppname(), getSchemaProfile(), getDatabaseProvider());
+			sql.setFetchSize(getFetchSize());
+			sql.setCacheDirectory(getCacheDirectory());
+			sql.setDatabaseName(getHost() + ":" + getPort() + "/" + getDatabase());
+			sql.setReferencedFields(getReferencedFields());
+			sql.setFilter(getFilter());
+			sql.setSince(getSince());
+			sql.setDelta(isDelta());
+			sql.setExplainFile(getExplainFile());
+			sql.setStatementCache(conn);
+			if (qualityModel != null) {
+				sql.setQualityModel(qualityModel);
+			}
+			if (deltaSnapshots != null) {
+				sql.setDeltaSnapshots(deltaSnapshots[0], deltaSnapshots[1]);
+			}
+			deltaCounts = sql.getDeltaCounts();
+			statistics = sql.getStatistics();
+			if (getParallelism() > 1) {
+				if (sql.prepare(conn.getDBConnection())) {
+					executePartitions(sql, handler);
+				}
+			} else if (handler == null) {
+				map = sql.getActionPlan(conn.getDBConnection());
+			} else {
+				sql.streamActionPlan(conn.getDBConnection(), handler);
+			}
+			watermark = sql.getWatermark();
+			qualityModel = sql.getQualityModel();
+			statistics.log(log);
+		} catch (Exception e) {
+			log.fatal(
+					"Action Plan Can not be retrieved. Ensure that database is available are all the parameters provided are the right ones",
+					e);
+			throw e;
+		} finally {
+			if (conn != null) {
+				conn.closeConnection();
+			}
+		}
+	}
+
+	/**
+	 * Reads the action plan in parallel, one partition per thread and
+	 * connection. The violations are merged in a concurrent map or sent to the
+	 * handler one at a time, the streamed partitions then share the map of
+	 * the CastIds already sent.
+	 * 
+	 * @param sql
+	 *            the prepared statements
+	 * @param handler
+	 *            the handler, null to fill the map
+	 * @throws Exception
+	 *             the exception
+	 */
+	private void executePartitions(SqlStatements sql, final ActionPlanHandler handler) throws Exception {
+		int partitionCount = getParallelism();
+		log.info("Reading the action plan in " + partitionCount + " partitions");
+
+		final LongViolationMap violations = new LongViolationMap();
+		final ActionPlanHandler partitionHandler = handler == null ? null : new ActionPlanHandler() {
+			@Override
+			public synchronized void handleViolation(long castId, ActionPlanViolation violation) {
+				handler.handleViolation(castId, violation);
+			}
+		};
+
+		List<SqlStatements> partitions = new ArrayList<>();
+		List<Future<Void>> results = new ArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(partitionCount);
+		try {
+			for (int i = 0; i < partitionCount; i++) {
+				final SqlStatements partition = sql.getPartition(i, partitionCount);
+				partitions.add(partition);
+				results.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						DatabaseConnection conn = new DatabaseConnection(getCastusername(), getCastuserpassword(),
+								getHost(), getDatabase(), getPort(), getDatabaseProvider());
+						try {
+							if (partitionHandler == null) {
+								violations.addAll(partition.getActionPlan(conn.getDBConnection()));
+							} else {
+								partition.streamActionPlan(conn.getDBConnection(), violations, partitionHandler);
+							}
+						} finally {
+							conn.closeConnection();
+						}
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> result : results) {
+				try {
+					result.get();
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof Exception) {
+						throw (Exception) e.getCause();
+					}
+					throw e;
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		if (handler == null) {
+			map = violations;
+		}
+		for (SqlStatements partition : partitions) {
+			statistics.add(partition.getStatistics());
+			for (Map.Entry<ViolationChange, Integer> count : partition.getDeltaCounts().entrySet()) {
+				Integer total = deltaCounts.get(count.getKey());
+				deltaCounts.put(count.getKey(), count.getValue() + (total == null ? 0 : total));
+			}
+		}
+		// the shared map also counts the collisions between partitions
+		statistics.setCollisions(violations.getCollisions());
+	}
+
+	/**
+	 * Gets the appname.
+	 * 
+	 * @return the appname
+	 */
+	public String getAppname() {
+		return appname;
+	}
+
+	/**
+	 * Sets the appname.
+	 * 
+	 * @param appname
+	 *            the appname to set
+	 */
+	public void setAppname(String appname) {
+		this.appname = appname;
+	}
+
+	/**
+	 * Gets the castusername.
+	 * 
+	 * @return the castusername
+	 */
+	public String getCastusername() {
+		return castusername;
+	}
+
+	/**
+	 * Sets the castusername.
+	 * 
+	 * @param castusername
+	 *            the castusername to set
+	 */
+	public void setCastusername(String castusername) {
+		this.castusername = castusername;
+	}
+
+	/**
+	 * Gets the castuserpassword.
+	 * 
+	 * @return the castuserpassword
+	 */
+	public String getCastuserpassword() {
+		return castuserpassword;
+	}
+
+	/**
+	 * Sets the castuserpassword.
+	 * 
+	 * @param castuserpassword
+	 *            the castuserpassword to set
+	 */
+	public void setCastuserpassword(String castuserpassword) {
+		this.castuserpassword = castuserpassword;
+	}
+
+	/**
+	 * Gets the castrestapiurl.
+	 * 
+	 * @return the castrestapiurl
+	 */
+	public String getCastrestapiurl() {
+		return castrestapiurl;
+	}
+
+	/**
+	 * Sets the castrestapiurl.
+	 * 
+	 * @param castrestapiurl
+	 *            the castrestapiurl to set
+	 */
+	public void setCastrestapiurl(String castrestapiurl) {
+		this.castrestapiurl = castrestapiurl;
+	}
+
+	/**
+	 * Gets the schema profile.
+	 * 
+	 * @return the schemaProfile
+	 */
+	public String getSchemaProfile() {
+		return schemaProfile;
+	}
+
+	/**
+	 * Sets the schema profile.
+	 * 
+	 * @param schemaProfile
+	 *            the schemaProfile to set
+	 */
+	public void setSchemaProfile(String schemaProfile) {
+		this.schemaProfile = schemaProfile;
+	}
+
+	/**
+	 * Gets the database provider.
+	 * 
+	 * @return the databaseProvider
+	 */
+	public String getDatabaseProvider() {
+		return databaseProvider;
+	}
+
+	/**
+	 * Sets the database provider.
+	 * 
+	 * @param databaseProvider
+	 *            the databaseProvider to set
+	 */
+	public void setDatabaseProvider(String databaseProvider) {
+		this.databaseProvider = databaseProvider;
+	}
+
+	/**
+	 * Gets the host.
+	 * 
+	 * @return the host
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * Sets the host.
+	 * 
+	 * @param host
+	 *            the host to set
+	 */
+	public void setHost(String host) {
+		this.host = host;
+	}
+
+	/**
+	 * Gets the database.
+	 * 
+	 * @return the database
+	 */
+	public String getDatabase() {
+		return database;
+	}
+
+	/**
+	 * Sets the database.
+	 * 
+	 * @param database
+	 *            the database to set
+	 */
+	public void setDatabase(String database) {
+		this.database = database;
+	}
+
+	/**
+	 * Gets the port.
+	 * 
+	 * @return the port
+	 */
+	public String getPort() {
+		return port;
+	}
+
+	/**
+	 * Sets the port.
+	 * 
+	 * @param port
+	 *            the port to set
+	 */
+	public void setPort(String port) {
+		this.port = port;
+	}
+
+	/**
+	 * Gets the fetch size.
+	 * 
+	 * @return the fetchSize
+	 */
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	/**
+	 * Sets the fetch size.
+	 * 
+	 * @param fetchSize
+	 *            the fetchSize to set
+	 */
+	public void setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+
+
+	/**
+	 * Gets the quality model cache directory.
+	 * 
+	 * @return the cacheDirectory
+	 */
+	public File getCacheDirectory() {
+		return cacheDirectory;
+	}
+
+	/**
+	 * Sets the quality model cache directory, null disables the cache.
+	 * 
+	 * @param cacheDirectory
+	 *            the cacheDirectory to set
+	 */
+	public void setCacheDirectory(File cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	/**
+	 * Gets the CAST fields shown in the issues.
+	 * 
+	 * @return the referencedFields
+	 */
+	public Set<String> getReferencedFields() {
+		return referencedFields;
+	}
+
+	/**
+	 * Sets the CAST fields shown in the issues, only those are extracted.
+	 * Null extracts every field.
+	 * 
+	 * @param referencedFields
+	 *            the referencedFields to set
+	 */
+	public void setReferencedFields(Set<String> referencedFields) {
+		this.referencedFields = referencedFields;
+	}
+
+	/**
+	 * Gets the extraction filter.
+	 * 
+	 * @return the filter
+	 */
+	public ExtractionFilter getFilter() {
+		return filter;
+	}
+
+	/**
+	 * Sets the extraction filter.
+	 * 
+	 * @param filter
+	 *            the filter to set
+	 */
+	public void setFilter(ExtractionFilter filter) {
+		this.filter = filter;
+	}
+
+	/**
+	 * Gets the watermark of the previous run.
+	 * 
+	 * @return the since watermark
+	 */
+	public Watermark getSince() {
+		return since;
+	}
+
+	/**
+	 * Sets the watermark of the previous run, only the changes made after it
+	 * are extracted. Null extracts the whole action plan.
+	 * 
+	 * @param since
+	 *            the watermark to set
+	 */
+	public void setSince(Watermark since) {
+		this.since = since;
+	}
+
+	/**
+	 * Gets the watermark reached by the extraction.
+	 * 
+	 * @return the watermark, null if nothing has been extracted
+	 */
+	public Watermark getWatermark() {
+		return watermark;
+	}
+
+	/**
+	 * Checks if only the changes between two snapshots are extracted.
+	 * 
+	 * @return the delta
+	 */
+	public boolean isDelta() {
+		return delta;
+	}
+
+	/**
+	 * Extracts only the violations that appeared, were fixed or regressed
+	 * between two snapshots.
+	 * 
+	 * @param delta
+	 *            the delta to set
+	 */
+	public void setDelta(boolean delta) {
+		this.delta = delta;
+	}
+
+	/**
+	 * Sets the snapshots compared by the delta extraction. By default the two
+	 * latest snapshots of the application.
+	 * 
+	 * @param previousSnapshotId
+	 *            the previous snapshot id
+	 * @param currentSnapshotId
+	 *            the current snapshot id
+	 */
+	public void setDeltaSnapshots(int previousSnapshotId, int currentSnapshotId) {
+		this.deltaSnapshots = new int[] { previousSnapshotId, currentSnapshotId };
+	}
+
+	/**
+	 * Gets the number of violations extracted by change in delta mode.
+	 * 
+	 * @return the delta counts, null before the extraction
+	 */
+	public EnumMap<ViolationChange, Integer> getDeltaCounts() {
+		return deltaCounts;
+	}
+
+	/**
+	 * Gets the number of partitions read in parallel.
+	 * 
+	 * @return the parallelism
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the number of partitions read in parallel, each one on its own
+	 * connection.
+	 * 
+	 * @param parallelism
+	 *            the parallelism to set
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Gets the file receiving the execution plan.
+	 * 
+	 * @return the explain file
+	 */
+	public File getExplainFile() {
+		return explainFile;
+	}
+
+	/**
+	 * Sets the file receiving the execution plan of the action plan
+	 * statement, null to skip the capture.
+	 * 
+	 * @param explainFile
+	 *            the explain file to set
+	 */
+	public void setExplainFile(File explainFile) {
+		this.explainFile = explainFile;
+	}
+
+	/**
+	 * Gets the statistics of the last extraction.
+	 * 
+	 * @return the statistics
+	 */
+	public ExtractionStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Gets the number of violations of the last extraction rejected on a
+	 * CastId collision.
+	 * 
+	 * @return the collisions
+	 */
+	public int getCollisions() {
+		return statistics == null ? 0 : statistics.getCollisions();
+	}
+
+	/**
+	 * Gets the quality model, loaded by the last extraction.
+	 * 
+	 * @return the quality model
+	 */
+	public QualityModel getQualityModel() {
+		return qualityModel;
+	}
+
+	/**
+	 * Sets the quality model of the central schema when it has already been
+	 * loaded by another extraction.
+	 * 
+	 * @param qualityModel
+	 *            the quality model to set
+	 */
+	public void setQualityModel(QualityModel qualityModel) {
+		this.qualityModel = qualityModel;
+	}
+}
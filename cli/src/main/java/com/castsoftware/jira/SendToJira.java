@@ -1,283 +1,346 @@
-package com.castsoftware.jira;
-
-import java.util.HashMap;
-
-import org.apache.commons.cli.*;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
-import com.castsoftware.jira.pojo.ActionPlanViolation;
-import com.castsoftware.jira.util.Constants;
-import com.castsoftware.jira.util.JiraException;
-import com.castsoftware.jira.util.OptionsValidation;
-
-
-/**
- * SendToJira is the main class. It is the staring class to send action plan
- * violations to Jira
- * 
- * @author FME
- * @version 1.1
- */
-public class SendToJira {
-
-	/** The log. */
-	public static Log log = LogFactory.getLog(SendToJira.class);
-
-    /**
-	 * The main method.
-	 * 
-	 * @param args
-	 *            the arguments
-	 */
-	public static void main(String[] args) {
-
-		log.info("CAST2Jira v" + SendToJira.class.getPackage().getImplementationVersion() + " (c) 2025, CAST Software, All Rights Reserved" );
-
-		final Options options = createOptions();
-		OptionsValidation validation = new OptionsValidation(args);
-
-		GetCastActionPlan gap = null;
-
-        int returnValue = 0;
-
-		try {
-			CommandLineParser parser = new DefaultParser();
-			CommandLine line = parser.parse(options, args);
-
-			if (validation.getOptionsValidation(options)) {
-
-				if (line.getOptionValue(Constants.CAST_REST_API_URL) != null) {
-					/*
-					 * Constructor of GetActionPlan to get the action plan from
-					 * CAST REST API
-					 */
-					gap = new GetCastActionPlan(
-							line.getOptionValue(Constants.CAST_APPLICATION_NAME),
-							line.getOptionValue(Constants.CAST_USER_NAME),
-							line.getOptionValue(Constants.CAST_USER_PASSWORD),
-							line.getOptionValue(Constants.CAST_REST_API_URL));
-				} else if (line.getOptionValue(Constants.CAST_DB_PROVIDER) != null) {
-					/*
-					 * Constructor of GetActionPlan to get the action plan from
-					 * a database
-					 */
-					gap = new GetCastActionPlan(
-							line.getOptionValue(Constants.CAST_APPLICATION_NAME),
-							line.getOptionValue(Constants.CAST_USER_NAME),
-							line.getOptionValue(Constants.CAST_USER_PASSWORD),
-							line.getOptionValue(Constants.CAST_DB_HOST), line
-									.getOptionValue(Constants.CAST_DB_NAME),
-							line.getOptionValue(Constants.CAST_DB_PORT), line
-									.getOptionValue(Constants.CAST_DB_SCHEMA),
-							line.getOptionValue(Constants.CAST_DB_PROVIDER));
-				}
-
-                assert gap != null;
-                HashMap<Integer, ActionPlanViolation> map = gap.getActionPlan();
-
-				log.info("Action Plan - Number of Violations: " + map.size());
-				if (!map.isEmpty()) {
-
-					String issueType;
-					if (line.hasOption(Constants.JIRA_ISSUE_TYPE)
-							&& line.getOptionValue(Constants.JIRA_ISSUE_TYPE) != null) {
-						issueType = line
-								.getOptionValue((Constants.JIRA_ISSUE_TYPE));
-					} else {
-						issueType = Constants.JIRA_DEFAULT_ISSUE_TYPE;
-					}
-					
-					boolean markIssueResolved = false;
-					String resolutionTxt = "Resolution Identified by CAST";
-					if (line.hasOption(Constants.MARK_ISSUE_RESOLVED) )
-					{
-						String ov = line.getOptionValue(Constants.MARK_ISSUE_RESOLVED);
-						if (ov!=null && ov.equalsIgnoreCase("true")) 
-						{
-							markIssueResolved=true;
-							if (line.hasOption(Constants.RESOLUTION))
-							{
-								String rt = line.getOptionValue(Constants.RESOLUTION);
-								if (rt!=null)
-								{
-									resolutionTxt = rt;
-								}
-							}
-						}
-					}
-
-					CreateJiraIssues createJiraIssues = new CreateJiraIssues(
-							line.getOptionValue(Constants.JIRA_USER_NAME),
-							line.getOptionValue(Constants.JIRA_USER_PASSWORD),
-							line.getOptionValue(Constants.JIRA_REST_API_URL),
-							line.getOptionValue(Constants.JIRA_PROJECT_NAME),
-							issueType, 
-							markIssueResolved,
-							resolutionTxt,
-							line.getOptionValue(Constants.COMPONENT),
-							map
-					);
-
-                    log.info("Final Report : ");
-                    log.info("Number of Total Issues Processed : " + createJiraIssues.getTotalNumOfIssues());
-                    log.info("Number of Total Issues Added : " + createJiraIssues.getTotalNumOfIssuesAdded());
-                    log.info("Number of Total Issues Closed : " + createJiraIssues.getTotalNumOfIssuesClosed());
-                    log.info("Number of Total Issues Reopened : " + createJiraIssues.getTotalNumOfIssuesReopen());
-                    log.info("Number of Total Issues Not Added because of Unprioritized or Low Priority Action Plan Item : " + createJiraIssues.getTotalNumOfUnprioritizedIssues());
-                    log.info("Number of Total Issues Not Added by Error : " + createJiraIssues.getTotalNumOfIssuesNotAddedByError());
-                    log.info("Number of Total Issues Not Added by Previous Existence in Jira: " + createJiraIssues.getTotalNumOfIssuesNotAddedByExist());
-                    
-				} else {
-					log.info("No violations in the action plan. Please review it");
-				}
-			}
-		} catch (ParseException exp) {
-			// Something went wrong
-			log.error("ParseException Error: " + exp.getMessage());
-			new HelpFormatter().printHelp(SendToJira.class.getCanonicalName(), options);
-			System.exit(returnValue);
-        } catch (JiraException e) {
-            log.error(String.format("Fatal Error: %s",e.getMessage()));
-            System.exit(returnValue);
-		} catch (Exception e) {
-			log.error("Fatal error, please review the log for more information");
-			System.exit(returnValue);
-		}
-
-		System.exit(returnValue);
-	}
-
-	/**
-	 * Creates the options.
-	 * 
-	 * @return the options
-	 */
-	private static Options createOptions() {
-		Options options = new Options();
-		OptionGroup group = new OptionGroup();
-		
-		options.addOption(Constants.MARK_ISSUE_RESOLVED,true,"When set to true, when CAST identifies an issue as "
-				+ "fixed it will be marked in Jira as resolved, NOT closed.  By default this flag is set to false");
-		
-		options.addOption(Constants.RESOLUTION,true,"When mark_issue_resolved is active, this arguement is "
-				+ "used for the value of Jira resolution field");
-
-		options.addOption(Constants.COMPONENT,true,"Identify the application project in the Jira \"components\" field");
-
-		options.addOption(
-				Constants.CAST_APPLICATION_NAME,
-				true,
-				"Application name for which you want to transfer the action plan to Jira. "
-						+ "Please, the application name is case sensitive so has to be equal to the one introduced in CMS ");
-		options.addOption(
-				Constants.CAST_USER_NAME,
-				true,
-				"Cast User Name to login using Cast REST AIP or database depending on data source selection. "
-						+ "If you use the paramenter -castrestapiurl it will be use as CAST REST AIP User. "
-						+ "If you use the parameter -databaseprovider it will be use as Database User  ");
-		options.addOption(
-				Constants.CAST_USER_PASSWORD,
-				true,
-				"Cast User password to login using Cast REST AIP or database depending on source selection + "
-						+ "If you use the paramenter -castrestapiurl it will be use as CAST REST AIP User password. "
-						+ "If you use the parameter -databaseprovider it will be use as Database User Password  ");
-
-		options.addOption(Constants.CAST_DB_HOST, true,
-				"Hosname or IP Adresss where the database server is running");
-		options.addOption(
-				Constants.CAST_DB_NAME,
-				true,
-				"Database name. If Oracle has been selected as database provider, this parameter is SID");
-		options.addOption(Constants.CAST_DB_PORT, true,
-				"Database listening port");
-		options.addOption(Constants.CAST_DB_SCHEMA, true,
-				"Central schema where action plan is stored");
-		options.addOption(
-				Constants.JIRA_USER_NAME,
-				true,
-				"Jira User Name to login using REST AIP. All the violations included in the action plan will be assigned to this user");
-		options.addOption(Constants.JIRA_USER_PASSWORD, true,
-				"Jira User password to login using REST AIP ");
-		options.addOption(Constants.JIRA_REST_API_URL, true,
-				"URL to Jira REST AIP");
-		options.addOption(
-				Constants.JIRA_PROJECT_NAME,
-				true,
-				"Jira Project Name key. It is case-sensitive so must respect the same upper-lower case it has in Jira");
-
-		options.addOption(
-				Constants.JIRA_ISSUE_TYPE,
-				true,
-				"JIRA can be used to track many different types of issues. The currently defined by default issue types are listed below but check it. In addition, you can add more in the administration section of Jira if you want to use a new one in the command line of CastJiraConnector. It is case sensitive."
-						+ "\nFOR REGULAR ISSUES"
-						+ "\nBug - A problem which impairs or prevents the functions of the product."
-						+ "\nImprovement - An improvement or enhancement to an existing feature or task."
-						+ "\nNew Feature - A new feature of the product, which has yet to be developed."
-						+ "\nTask - A task that needs to be done."
-						+ "\nIf the parameter is not provided 'Task' issue will be used for all violations included in Action Plan");
-
-		/**
-		options.addOption(
-				Constants.JIRA_ASSIGNEE_NAME,
-				true,
-				"Jira user which all violation will be assigned (it must be included in jira-developer group at least). If it is not provided, the violations will be assigned to the user used to loggin in Jira");
-		**/
-		options.addOption(Constants.LOG_PATH, true,
-				"Folder where process log will be located");
-		options.addOption(
-				Constants.DEBUG,
-				false,
-				"if it is present, the debug mode will be activated. By default INFO level is setup. In order to setup the output use the following values:"
-						+ "\nconsole"
-						+ "\nfile"
-						+ "\nIf you do not provided any of the values described above the output will be send to both");
-		options.addOption(new Option(
-				Constants.LOG_OUTPUT,
-				true,
-				"This paratemer allows to change the standard output. The accepted values are the following:"
-						+ "\n\t file"
-						+ "\n\t console"
-						+ "\nBy default both standard outputs are active"));
-
-		// options.addOption("h", "help", false, "Print Help Message");
-
-		group.addOption(new Option(
-				Constants.CAST_REST_API_URL,
-				true,
-				"URL to CAST REST AIP."
-						+ "This parameter is mutually exclusive with -databaseprovider. Only one of the two must be provided on the command line "));
-		group.addOption(new Option(
-				Constants.CAST_DB_PROVIDER,
-				true,
-				"Datababase provider parameter is mutually exclusive with -castrestapiurl. Only one of the two must be provided on the command line."
-						+ "\nThe valid values are the following: "
-						+ "\nCSS"
-						+ "\nOracle"
-						+ "\nSQLServer\n"
-						+ "\nThis parameter has to be provided together with the following ones in order to establish a database connection:"
-						+ "\n-databasehost"
-						+ "\n-databasename"
-						+ "\n-databaseport" + "\n-databaseschema"));
-		options.addOptionGroup(group);
-
-		options.addOption(Constants.VERSION, false, "Cast Jira Connector 1.1."
-				+ "\nTested in Jira version 6.1" + "\nCast Storage Service 1.0"
-				+ "\nOracle & MSSQLServer available but not tested");
-
-		options.addOption(
-				Constants.ZEXAMPLES,
-				false,
-				"This option shows command line execution examples.The following examples take in account that lib folder is located in the same folder of CastJiraConnector.jar."
-						+ "It means if CastJiraConnector.jar is located in c:\\temp\\CastJiraConnector the lib folder will be placed at c:\\temp\\CastJiraConnector\\lib"
-						+ "\nExample with debug option activated and assigning issues to other user different to the user used to logging in Jira"
-						+ "\njava -cp 'C:\\temp\\CastjiraConnector\\CastJiraConnector_lib\\*.jar' -jar CastJiraConnector.jar -applicationname MyTelco -castusername operator -castuserpassword CastAIP -databaseprovider CSS -databasehost localhost -databasename postgres -databaseport 2278 -databaseschema demo_central -jirarestapiurl http://localhost:8082/ -jiraprojectname CONN -jirausername fme -jirauserpassword 3203@ndromed@  -jiraassignee HLR -logpath c:\\temp -debug"
-						+ "\nExample without debug option activated and assigning issues to the same user used to loggin in Jira"
-						+ "\njava -cp 'C:\\temp\\CastjiraConnector\\CastJiraConnector_lib\\*.jar' -jar CastJiraConnector.jar -applicationname MyTelco -castusername operator -castuserpassword CastAIP -databaseprovider CSS -databasehost localhost -databasename postgres -databaseport 2278 -databaseschema demo_central -jirarestapiurl http://localhost:8082/ -jiraprojectname CONN -jirausername fme -jirauserpassword 3203@ndromed@ -logpath c:\\temp -debug"
-						+ "\nExample without debug option activated and assigning issues to the same user used to loggin in Jira and establishing 'BUG' as issue type"
-						+ "\njava -cp 'C:\\temp\\CastjiraConnector\\CastJiraConnector_lib\\*.jar' -jar CastJiraConnector.jar -applicationname MyTelco -castusername operator -castuserpassword CastAIP -databaseprovider CSS -databasehost localhost -databasename postgres -databaseport 2278 -databaseschema demo_central -jirarestapiurl http://localhost:8082/ -jiraprojectname CONN -jirausername fme -jirauserpassword 3203@ndromed@ -jiraissuetype Bug -logpath c:\\temp -debug");
-
-		return options;
-	}
-
-}
+package com.castsoftware.jira;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.cli.*;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.castsoftware.jira.util.ApplicationLinkage;
+import com.castsoftware.jira.util.ConnectionPool;
+import com.castsoftware.jira.util.Constants;
+import com.castsoftware.jira.util.JiraException;
+import com.castsoftware.jira.util.JiraHelper;
+import com.castsoftware.jira.util.OptionsValidation;
+import com.castsoftware.jira.util.QualityModel;
+
+
+/**
+ * SendToJira is the main class. It is the staring class to send action plan
+ * violations to Jira
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public class SendToJira {
+
+	/** The log. */
+	public static Log log = LogFactory.getLog(SendToJira.class);
+
+    /**
+	 * The main method.
+	 * 
+	 * @param args
+	 *            the arguments
+	 */
+	public static void main(String[] args) {
+
+		if (isStandardStream(args)) {
+			// the standard output carries the violations, the console logs go to the error output
+			System.setOut(System.err);
+		}
+
+		log.info("CAST2Jira v" + SendToJira.class.getPackage().getImplementationVersion() + " (c) 2025, CAST Software, All Rights Reserved" );
+
+		final Options options = createOptions();
+		OptionsValidation validation = new OptionsValidation(args);
+
+        int returnValue = 0;
+
+		try {
+			CommandLineParser parser = new DefaultParser();
+			CommandLine line = parser.parse(options, args);
+
+			if (validation.getOptionsValidation(options)) {
+				if (line.getOptionValue(Constants.LINKAGES) != null) {
+					synchronizeLinkages(line);
+				} else {
+					new ApplicationSync(line,
+							new ApplicationLinkage(line.getOptionValue(Constants.CAST_APPLICATION_NAME),
+									line.getOptionValue(Constants.JIRA_PROJECT_NAME),
+									line.getOptionValue(Constants.COMPONENT)),
+							null, new AtomicReference<QualityModel>()).run();
+				}
+			}
+		} catch (ParseException exp) {
+			// Something went wrong
+			log.error("ParseException Error: " + exp.getMessage());
+			new HelpFormatter().printHelp(SendToJira.class.getCanonicalName(), options);
+			System.exit(returnValue);
+        } catch (JiraException e) {
+            log.error(String.format("Fatal Error: %s",e.getMessage()));
+            System.exit(returnValue);
+		} catch (Exception e) {
+			log.error("Fatal error, please review the log for more information");
+			System.exit(returnValue);
+		} finally {
+			ConnectionPool.closeAll();
+		}
+
+		System.exit(returnValue);
+	}
+
+	/**
+	 * Checks if the violations are exchanged through the standard streams,
+	 * before the options are parsed and the logs configured.
+	 * 
+	 * @param args
+	 *            the arguments
+	 * @return true, if -interchange is "-"
+	 */
+	private static boolean isStandardStream(String[] args) {
+		for (int i = 0; i < args.length - 1; i++) {
+			if (args[i].replaceFirst("^--?", "").equals(Constants.INTERCHANGE)
+					&& Constants.STANDARD_STREAM.equals(args[i + 1].trim())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Synchronizes the applications of the linkage manifest. They share the
+	 * database connections, the quality model and the Jira client, and up to
+	 * -concurrency applications are synchronized at the same time.
+	 * 
+	 * @param line
+	 *            the command line
+	 * @throws Exception
+	 *             the exception
+	 */
+	private static void synchronizeLinkages(CommandLine line) throws Exception {
+		List<ApplicationLinkage> linkages = ApplicationLinkage.readManifest(new File(line.getOptionValue(Constants.LINKAGES)));
+		int concurrency = Constants.DEFAULT_CONCURRENCY;
+		if (line.getOptionValue(Constants.CONCURRENCY) != null) {
+			concurrency = Integer.parseInt(line.getOptionValue(Constants.CONCURRENCY).trim());
+		}
+		log.info("Synchronization of " + linkages.size() + " applications, " + concurrency + " at a time");
+
+		JiraHelper jiraClient = CreateJiraIssues.createJiraClient(line.getOptionValue(Constants.JIRA_USER_NAME),
+				line.getOptionValue(Constants.JIRA_USER_PASSWORD), line.getOptionValue(Constants.JIRA_REST_API_URL));
+		AtomicReference<QualityModel> qualityModel = new AtomicReference<>();
+		List<Future<ApplicationSync>> results = new ArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(concurrency, linkages.size())));
+		try {
+			for (ApplicationLinkage linkage : linkages) {
+				results.add(executor.submit(new ApplicationSync(line, linkage, jiraClient, qualityModel)));
+			}
+
+			int failed = 0;
+			int violations = 0;
+			int added = 0;
+			int closed = 0;
+			int reopened = 0;
+			int inError = 0;
+			StringBuilder report = new StringBuilder();
+			for (Future<ApplicationSync> result : results) {
+				ApplicationSync sync = result.get();
+				report.append(String.format("%n%s : %s, %d violations, %d issues added, %d closed, %d reopened, "
+						+ "%d in error, %d ms", sync.getLinkage(),
+						sync.getError() == null ? "OK" : "FAILED (" + sync.getError() + ")", sync.getViolations(),
+						sync.getIssuesAdded(), sync.getIssuesClosed(), sync.getIssuesReopened(), sync.getIssuesInError(),
+						sync.getElapsed()));
+				if (sync.getError() != null) {
+					failed++;
+				}
+				violations += sync.getViolations();
+				added += sync.getIssuesAdded();
+				closed += sync.getIssuesClosed();
+				reopened += sync.getIssuesReopened();
+				inError += sync.getIssuesInError();
+			}
+			log.info("Consolidated Report : " + report);
+			log.info(String.format("Total : %d applications, %d failed, %d violations, %d issues added, %d closed, "
+					+ "%d reopened, %d in error", linkages.size(), failed, violations, added, closed, reopened, inError));
+		} finally {
+			executor.shutdownNow();
+			try {
+				jiraClient.close();
+			} catch (IOException e) {
+				log.warn("Jira client can not be closed: " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Creates the options.
+	 * 
+	 * @return the options
+	 */
+	private static Options createOptions() {
+		Options options = new Options();
+		OptionGroup group = new OptionGroup();
+		
+		options.addOption(Constants.MARK_ISSUE_RESOLVED,true,"When set to true, when CAST identifies an issue as "
+				+ "fixed it will be marked in Jira as resolved, NOT closed.  By default this flag is set to false");
+		
+		options.addOption(Constants.RESOLUTION,true,"When mark_issue_resolved is active, this arguement is "
+				+ "used for the value of Jira resolution field");
+
+		options.addOption(Constants.COMPONENT,true,"Identify the application project in the Jira \"components\" field");
+
+		options.addOption(Constants.STREAMING, false, "if it is present, the action plan violations are sent to Jira while "
+				+ "they are read from the database instead of being loaded in memory first");
+		options.addOption(Constants.PIPELINE, false, "if it is present, the violations are read from the database on "
+				+ "a separate thread while the previous ones are sent to Jira. It implies -streaming");
+		options.addOption(Constants.QUEUE_SIZE, true, "Number of violations waiting for Jira in -pipeline mode, the "
+				+ "extraction pauses when it is reached. By default " + Constants.DEFAULT_QUEUE_SIZE);
+		options.addOption(Constants.FETCH_SIZE, true, "Number of action plan rows read from the database in one round trip. "
+				+ "By default " + Constants.DB_DEFAULT_FETCH_SIZE);
+		options.addOption(Constants.PARALLELISM, true, "Number of partitions of the action plan read in parallel, each one "
+				+ "on its own database connection. By default " + Constants.DB_DEFAULT_PARALLELISM);
+		options.addOption(Constants.PRIORITY, true, "Range of action plan priorities to synchronize, 1 (extreme) to 3 (moderate). "
+				+ "By default " + Constants.SYNC_MIN_PRIORITY + "-" + Constants.SYNC_MAX_PRIORITY);
+		options.addOption(Constants.STATUS, true, "Comma separated list of violation statuses to synchronize. "
+				+ "By default all of them, fixed violations are needed to close the Jira issues");
+		options.addOption(Constants.METRICS, true, "Comma separated list of quality rule ids to synchronize. By default all of them");
+		options.addOption(Constants.EXCLUDE_METRICS, true, "Comma separated list of quality rule ids not to synchronize");
+		options.addOption(Constants.OBJECT_FILTER, true, "Semicolon separated list of object full name patterns to "
+				+ "synchronize, % matches any characters. By default all the objects");
+		options.addOption(Constants.INCREMENTAL, false, "if it is present, only the violations added, selected again or "
+				+ "whose status changed since the last successful synchronization are extracted");
+		options.addOption(Constants.DELTA, false, "if it is present, only the violations that appeared, were fixed or "
+				+ "regressed between two snapshots are extracted");
+		options.addOption(Constants.SNAPSHOTS, true, "Previous and current snapshot ids compared by -delta, comma "
+				+ "separated. By default the two latest snapshots of the application");
+		options.addOption(Constants.CACHE_DIR, true, "Directory of the quality model cache and of the synchronization "
+				+ "watermarks. By default " + Constants.DEFAULT_CACHE_DIR + " in the user home");
+		options.addOption(Constants.NO_CACHE, false, "if it is present, the quality model is always read from the database");
+		options.addOption(Constants.LINKAGES, true, "File listing the applications to synchronize in one run, one "
+				+ "application;jira project[;component] by line. It replaces -applicationname, -jiraprojectname and -component");
+		options.addOption(Constants.CONCURRENCY, true, "Number of applications of -linkages synchronized at the same time. "
+				+ "By default " + Constants.DEFAULT_CONCURRENCY);
+		options.addOption(Constants.PHASE, true, "Runs one phase of the synchronization: " + Constants.PHASE_EXTRACT
+				+ " saves the action plan to the extract file, " + Constants.PHASE_PUSH
+				+ " sends the extract file to Jira and can be retried without querying CAST. By default both are run");
+		options.addOption(Constants.INTERCHANGE, true, "Gzip NDJSON file written by -phase " + Constants.PHASE_EXTRACT
+				+ " and read by -phase " + Constants.PHASE_PUSH + ", \"-\" for the standard output or input. "
+				+ "It replaces -extractfile to run both phases on different hosts");
+		options.addOption(Constants.EXTRACT_FILE, true, "Extract file of -phase. By default it is kept in the cache directory");
+		options.addOption(Constants.EXPLAIN, true, "File receiving the execution plan of the action plan statement. "
+				+ "On CSS the statement is run twice (EXPLAIN ANALYZE), not supported on SQL Server");
+
+		options.addOption(
+				Constants.CAST_APPLICATION_NAME,
+				true,
+				"Application name for which you want to transfer the action plan to Jira. "
+						+ "Please, the application name is case sensitive so has to be equal to the one introduced in CMS ");
+		options.addOption(
+				Constants.CAST_USER_NAME,
+				true,
+				"Cast User Name to login using Cast REST AIP or database depending on data source selection. "
+						+ "If you use the paramenter -castrestapiurl it will be use as CAST REST AIP User. "
+						+ "If you use the parameter -databaseprovider it will be use as Database User  ");
+		options.addOption(
+				Constants.CAST_USER_PASSWORD,
+				true,
+				"Cast User password to login using Cast REST AIP or database depending on source selection + "
+						+ "If you use the paramenter -castrestapiurl it will be use as CAST REST AIP User password. "
+						+ "If you use the parameter -databaseprovider it will be use as Database User Password  ");
+
+		options.addOption(Constants.CAST_DB_HOST, true,
+				"Hosname or IP Adresss where the database server is running. A comma separated list of "
+						+ "host[:port][/primary|replica] is accepted, the replicas are used first and the primary is the fallback");
+		options.addOption(
+				Constants.CAST_DB_NAME,
+				true,
+				"Database name. If Oracle has been selected as database provider, this parameter is SID");
+		options.addOption(Constants.CAST_DB_PORT, true,
+				"Database listening port");
+		options.addOption(Constants.CAST_DB_SCHEMA, true,
+				"Central schema where action plan is stored");
+		options.addOption(
+				Constants.JIRA_USER_NAME,
+				true,
+				"Jira User Name to login using REST AIP. All the violations included in the action plan will be assigned to this user");
+		options.addOption(Constants.JIRA_USER_PASSWORD, true,
+				"Jira User password to login using REST AIP ");
+		options.addOption(Constants.JIRA_REST_API_URL, true,
+				"URL to Jira REST AIP");
+		options.addOption(
+				Constants.JIRA_PROJECT_NAME,
+				true,
+				"Jira Project Name key. It is case-sensitive so must respect the same upper-lower case it has in Jira");
+
+		options.addOption(
+				Constants.JIRA_ISSUE_TYPE,
+				true,
+				"JIRA can be used to track many different types of issues. The currently defined by default issue types are listed below but check it. In addition, you can add more in the administration section of Jira if you want to use a new one in the command line of CastJiraConnector. It is case sensitive."
+						+ "\nFOR REGULAR ISSUES"
+						+ "\nBug - A problem which impairs or prevents the functions of the product."
+						+ "\nImprovement - An improvement or enhancement to an existing feature or task."
+						+ "\nNew Feature - A new feature of the product, which has yet to be developed."
+						+ "\nTask - A task that needs to be done."
+						+ "\nIf the parameter is not provided 'Task' issue will be used for all violations included in Action Plan");
+
+		/**
+		options.addOption(
+				Constants.JIRA_ASSIGNEE_NAME,
+				true,
+				"Jira user which all violation will be assigned (it must be included in jira-developer group at least). If it is not provided, the violations will be assigned to the user used to loggin in Jira");
+		**/
+		options.addOption(Constants.LOG_PATH, true,
+				"Folder where process log will be located");
+		options.addOption(
+				Constants.DEBUG,
+				false,
+				"if it is present, the debug mode will be activated. By default INFO level is setup. In order to setup the output use the following values:"
+						+ "\nconsole"
+						+ "\nfile"
+						+ "\nIf you do not provided any of the values described above the output will be send to both");
+		options.addOption(new Option(
+				Constants.LOG_OUTPUT,
+				true,
+				"This paratemer allows to change the standard output. The accepted values are the following:"
+						+ "\n\t file"
+						+ "\n\t console"
+						+ "\nBy default both standard outputs are active"));
+
+		// options.addOption("h", "help", false, "Print Help Message");
+
+		group.addOption(new Option(
+				Constants.CAST_REST_API_URL,
+				true,
+				"URL to CAST REST AIP."
+						+ "This parameter is mutually exclusive with -databaseprovider. Only one of the two must be provided on the command line "));
+		group.addOption(new Option(
+				Constants.CAST_DB_PROVIDER,
+				true,
+				"Datababase provider parameter is mutually exclusive with -castrestapiurl. Only one of the two must be provided on the command line."
+						+ "\nThe valid values are the following: "
+						+ "\nCSS"
+						+ "\nOracle"
+						+ "\nSQLServer\n"
+						+ "\nThis parameter has to be provided together with the following ones in order to establish a database connection:"
+						+ "\n-databasehost"
+						+ "\n-databasename"
+						+ "\n-databaseport" + "\n-databaseschema"));
+		options.addOptionGroup(group);
+
+		options.addOption(Constants.VERSION, false, "Cast Jira Connector 1.1."
+				+ "\nTested in Jira version 6.1" + "\nCast Storage Service 1.0"
+				+ "\nOracle & MSSQLServer available but not tested");
+
+		options.addOption(
+				Constants.ZEXAMPLES,
+				false,
+				"This option shows command line execution examples.The following examples take in account that lib folder is located in the same folder of CastJiraConnector.jar."
+						+ "It means if CastJiraConnector.jar is located in c:\\temp\\CastJiraConnector the lib folder will be placed at c:\\temp\\CastJiraConnector\\lib"
+						+ "\nExample with debug option activated and assigning issues to other user different to the user used to logging in Jira"
+						+ "\njava -cp 'C:\\temp\\CastjiraConnector\\CastJiraConnector_lib\\*.jar' -jar CastJiraConnector.jar -applicationname MyTelco -castusername operator -castuserpassword CastAIP -databaseprovider CSS -databasehost localhost -databasename postgres -databaseport 2278 -databaseschema demo_central -jirarestapiurl http://localhost:8082/ -jiraprojectname CONN -jirausername fme -jirauserpassword 3203@ndromed@  -jiraassignee HLR -logpath c:\\temp -debug"
+						+ "\nExample without debug option activated and assigning issues to the same user used to loggin in Jira"
+						+ "\njava -cp 'C:\\temp\\CastjiraConnector\\CastJiraConnector_lib\\*.jar' -jar CastJiraConnector.jar -applicationname MyTelco -castusername operator -castuserpassword CastAIP -databaseprovider CSS -databasehost localhost -databasename postgres -databaseport 2278 -databaseschema demo_central -jirarestapiurl http://localhost:8082/ -jiraprojectname CONN -jirausername fme -jirauserpassword 3203@ndromed@ -logpath c:\\temp -debug"
+						+ "\nExample without debug option activated and assigning issues to the same user used to loggin in Jira and establishing 'BUG' as issue type"
+						+ "\njava -cp 'C:\\temp\\CastjiraConnector\\CastJiraConnector_lib\\*.jar' -jar CastJiraConnector.jar -applicationname MyTelco -castusername operator -castuserpassword CastAIP -databaseprovider CSS -databasehost localhost -databasename postgres -databaseport 2278 -databaseschema demo_central -jirarestapiurl http://localhost:8082/ -jiraprojectname CONN -jirausername fme -jirauserpassword 3203@ndromed@ -jiraissuetype Bug -logpath c:\\temp -debug");
+
+		return options;
+	}
+
+}
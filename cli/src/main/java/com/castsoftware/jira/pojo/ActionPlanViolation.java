@@ -1,640 +1,710 @@
-package com.castsoftware.jira.pojo;
-
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-
-import com.castsoftware.jira.util.Constants;
-
-/**
- * The Class ActionPlanViolation is used to store every violation included in
- * the action plan. It will provide and easy way to interact with every
- * violation
- * 
- * @author FME
- * @version 1.1
- */
-public class ActionPlanViolation {
-  /** The priority. */
-  private int    priority;
-
-  /** The action date. */
-  private String actionDate;
-
-  /** The action date. */
-  private String firstSnapshotDate;
-
-  /** The actionDef. */
-  private String actionDef;
-
-  /** The objectFullName. */
-  private long   objectId;
-
-  /** The objectFullName. */
-  private String objectFullName;
-
-  /** The metricShortDescription. */
-  private String metricShortDescription;
-
-  private int    metricId;
-
-  /** The reason. */
-  private String reason;
-
-  /** The metricLongDescription. */
-  private String metricLongDescription;
-
-  /** The remediation. */
-  private String remediation;
-
-  /** The reference. */
-  private String reference;
-
-  /** The violation_example. */
-  private String violationExample;
-
-  /** The remediation_example. */
-  private String remediationExample;
-
-  /** The output. */
-  private String output;
-
-  /** The totals. */
-  private String totals;
-
-  String         sourcePath;
-  int            lineStart;
-  int            LineEnd;
-  String         sourceCode;
-  String         techCriteria;
-  String         businessCriteria;
-  int            violationStatus;
-
-  /**
-   * Instantiates a new action plan violation.
-   * 
-   * @param priority
-   *          the priority
-   * @param actionDate
-   *          the action date
-   * @param actionDef
-   *          the action def
-   * @param objectFullName
-   *          the object full name
-   * @param metricShortDescription
-   *          the metric short description
-   * @param reason
-   *          the reason
-   * @param metricLongDescription
-   *          the metric long description
-   * @param remediation
-   *          the remediation
-   * @param reference
-   *          the reference
-   * @param violationExample
-   *          the violation example
-   * @param remediationExample
-   *          the remediation example
-   * @param output
-   *          the output
-   * @param totals
-   *          the totals
-   */
-  public ActionPlanViolation(long object_id, String tag, int priority, String actionDate, String firstSnapshotDate, String actionDef,
-      String objectFullName, int metricId, String metricShortDescription, String reason, String metricLongDescription,
-      String remediation, String reference, String violationExample, String remediationExample, String output,
-      String totals, String sourcePath, int lineStart, int lineEnd, String sourceCode, String techCriteria,
-      String businessCriteria, int violationStatus)
-  {
-
-    setObjectId(object_id);
-
-    if (tag != null) {
-      switch (tag) {
-        case "low":
-          setPriority(4);
-          break;
-        case "moderate":
-          setPriority(3);
-          break;
-        case "high":
-          setPriority(2);
-          break;
-        case "extreme":
-          setPriority(1);
-          break;
-        }
-    }
-
-    setFirstSnapshotDate(firstSnapshotDate);
-    setActionDate(actionDate);
-    setActionDef(actionDef);
-    setObjectFullName(objectFullName);
-    setMetricId(metricId);
-    setMetricShortDescription(metricShortDescription);
-    setReason(reason);
-    setMetricLongDescription(metricLongDescription);
-    setRemediation(remediation);
-    setReference(reference);
-    setViolationExample(violationExample);
-    setRemediationExample(remediationExample);
-    setOutput(output);
-    setTotals(totals);
-    setSourcePath(sourcePath);
-    setLineStart(lineStart);
-    setLineEnd(lineEnd);
-    setTechCriteria(techCriteria);
-    setBusinessCriteria(businessCriteria);
-    setViolationStatus(violationStatus);
-    setSourceCode(sourceCode);
-
-    String source = extractSourceCode();
-    setSourceCode(source);
-  }
-
-  private String extractSourceCode()
-  {
-    int srcStartLine = this.getLineStart();
-    int srcEndLine = this.getLineEnd();
-    String crlf = System.getProperty("line.separator");
-    String src = getSourceCode();
-
-    StringBuilder rslt = new StringBuilder().append("\n");
-    String[] lines = src.split(crlf);
-    int cLine = 0;
-    for (String ln : lines)
-    {
-      cLine++;
-      if (cLine < srcStartLine)
-        continue;
-      else if (cLine > srcEndLine)
-        break;
-
-      ln = ln.replace("\b", "");
-      ln = ln.replace("\f", "");
-      ln = ln.replace("\t", "");
-      ln = ln.replace("\"", "");
-      ln = ln.replace("\\", "");
-      rslt.append(ln).append(crlf);
-    }
-
-    return rslt.toString();
-  }
-
-  /**
-   * Gets the action defined by user.
-   * 
-   * @return the action defined by user
-   */
-  public String getActionDef()
-  {
-    if (actionDef == null)
-    {
-      actionDef = Constants.FIELD_VALUE_WHEN_IS_NULL;
-    }
-    return actionDef;
-  }
-
-  /**
-   * Sets the action defined by user.
-   * 
-   * @param actionDef
-   *          the new defined by user
-   */
-  public void setActionDef(String actionDef)
-  {
-    if (actionDef != null)
-      this.actionDef = actionDef.replaceAll("[\"]", "");
-  }
-
-  /**
-   * Gets the object full name.
-   * 
-   * @return the object full name
-   */
-  public String getObjectFullName()
-  {
-    if (objectFullName == null)
-    {
-      objectFullName = Constants.FIELD_VALUE_WHEN_IS_NULL;
-    }
-    return objectFullName;
-  }
-
-  /**
-   * Sets the object full name.
-   * 
-   * @param objectFullName
-   *          the new object full name
-   */
-  public void setObjectFullName(String objectFullName)
-  {
-    if (objectFullName != null)
-      this.objectFullName = objectFullName.replaceAll("[\"]", "");
-  }
-
-  public long getObjectId()
-  {
-    return objectId;
-  }
-
-  public void setObjectId(long objectId)
-  {
-    this.objectId = objectId;
-  }
-
-  /**
-   * Gets the metric short description.
-   * 
-   * @return the metric short description
-   */
-  public String getMetricShortDescription()
-  {
-    if (metricShortDescription == null)
-    {
-      metricShortDescription = Constants.FIELD_VALUE_WHEN_IS_NULL;
-    }
-    return metricShortDescription;
-  }
-
-  /**
-   * Sets the metric short description.
-   * 
-   * @param metricShortDescription
-   *          the new metric short description
-   */
-  public void setMetricShortDescription(String metricShortDescription)
-  {
-    if (metricShortDescription != null)
-      this.metricShortDescription = metricShortDescription.replaceAll("[\"]", "");
-  }
-
-  /**
-   * Gets the fields concatenated.
-   * 
-   * @return the fields concatenated
-   * @throws ParseException
-   */
-  public String getFieldsConcatenated() throws ParseException {
-    SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
-    Date snapshotDate = sdf.parse(this.actionDate);
-    Date cutDate = sdf.parse("2017-05-02 00:00:00.000");
-
-    if (snapshotDate.before(cutDate)) {
-      return this.priority + this.actionDate + this.actionDef + this.objectFullName
-          + this.metricShortDescription;
-    } else {
-      return String.format("%s%d%d", this.firstSnapshotDate, this.objectId, this.metricId);
-    }
-  }
-
-  /**
-   * Gets the priority.
-   * 
-   * @return the priority
-   */
-  public int getPriority()
-  {
-    return priority;
-  }
-
-  /**
-   * Sets the priority.
-   * 
-   * @param priority
-   *          the new priority
-   */
-  public void setPriority(int priority)
-  {
-    this.priority = priority;
-  }
-
-  /**
-   * Gets the reason.
-   * 
-   * @return the reason
-   */
-  public String getReason()
-  {
-    if (reason == null)
-    {
-      reason = Constants.FIELD_VALUE_WHEN_IS_NULL;
-    }
-    return reason;
-  }
-
-  /**
-   * Sets the reason.
-   * 
-   * @param reason
-   *          the new reason
-   */
-  public void setReason(String reason)
-  {
-    if (reason != null)
-      this.reason = reason.replaceAll("[\"]", "");
-  }
-
-  /**
-   * Gets the metric long description.
-   * 
-   * @return the metric long description
-   */
-  public String getMetricLongDescription()
-  {
-    if (metricLongDescription == null)
-    {
-      metricLongDescription = Constants.FIELD_VALUE_WHEN_IS_NULL;
-    }
-    return metricLongDescription;
-  }
-
-  /**
-   * Sets the metric long description.
-   * 
-   * @param metricLongDescription
-   *          the new metric long description
-   */
-  public void setMetricLongDescription(String metricLongDescription)
-  {
-    if (metricLongDescription != null)
-      this.metricLongDescription = metricLongDescription.replaceAll("[\"]", "");
-  }
-
-  /**
-   * Gets the remediation.
-   * 
-   * @return the remediation
-   */
-  public String getRemediation()
-  {
-    if (remediation == null)
-    {
-      remediation = Constants.FIELD_VALUE_WHEN_IS_NULL;
-    }
-    return remediation;
-  }
-
-  /**
-   * Sets the remediation.
-   * 
-   * @param remediation
-   *          the new remediation
-   */
-  public void setRemediation(String remediation)
-  {
-    if (remediation != null)
-      this.remediation = remediation.replaceAll("[\"]", "");
-  }
-
-  /**
-   * Gets the reference.
-   * 
-   * @return the reference
-   */
-  public String getReference()
-  {
-    if (reference == null)
-    {
-      reference = Constants.FIELD_VALUE_WHEN_IS_NULL;
-    }
-    return reference;
-  }
-
-  /**
-   * Sets the reference.
-   * 
-   * @param reference
-   *          the new reference
-   */
-  public void setReference(String reference)
-  {
-    if (reference != null)
-      this.reference = reference.replaceAll("[\"]", "");
-  }
-
-  /**
-   * Gets the violation example.
-   * 
-   * @return the violation example
-   */
-  public String getViolationExample()
-  {
-    if (violationExample == null)
-    {
-      violationExample = Constants.FIELD_VALUE_WHEN_IS_NULL;
-    }
-    return violationExample;
-  }
-
-  /**
-   * Sets the violation example.
-   * 
-   * @param violationExample
-   *          the new violation example
-   */
-  public void setViolationExample(String violationExample)
-  {
-    if (violationExample != null)
-      this.violationExample = violationExample.replaceAll("[\"]", "");
-  }
-
-  /**
-   * Gets the output.
-   * 
-   * @return the output
-   */
-  public String getOutput()
-  {
-    if (output == null)
-    {
-      output = Constants.FIELD_VALUE_WHEN_IS_NULL;
-    }
-    return output;
-  }
-
-  /**
-   * Sets the output.
-   * 
-   * @param output
-   *          the new output
-   */
-  public void setOutput(String output)
-  {
-    if (output != null)
-      this.output = output.replaceAll("[\"]", "");
-  }
-
-  /**
-   * Gets the remediation example.
-   * 
-   * @return the remediation example
-   */
-  public String getRemediationExample()
-  {
-    if (remediationExample == null)
-    {
-      remediationExample = Constants.FIELD_VALUE_WHEN_IS_NULL;
-    }
-    return remediationExample;
-  }
-
-  /**
-   * Sets the remediation example.
-   * 
-   * @param remediationExample
-   *          the new remediation example
-   */
-  public void setRemediationExample(String remediationExample)
-  {
-    if (remediationExample != null)
-      this.remediationExample = remediationExample.replaceAll("[\"]", "");
-  }
-
-  /**
-   * Gets the totals.
-   * 
-   * @return the totals
-   */
-  public String getTotals()
-  {
-    if (totals == null)
-    {
-      totals = Constants.FIELD_VALUE_WHEN_IS_NULL;
-    }
-    return totals;
-  }
-
-  /**
-   * Sets the totals.
-   * 
-   * @param totals
-   *          the new totals
-   */
-  public void setTotals(String totals)
-  {
-    if (totals != null)
-      this.totals = totals.replaceAll("[\"]", "");
-  }
-
-  /**
-   * Gets the action date.
-   * 
-   * @return the actionDate
-   */
-  public String getActionDate()
-  {
-    if (actionDate == null)
-    {
-      actionDate = Constants.FIELD_VALUE_WHEN_IS_NULL;
-    }
-    return actionDate;
-  }
-
-  /**
-   * Sets the action date.
-   * 
-   * @param actionDate
-   *          the actionDate to set
-   */
-  public void setActionDate(String actionDate)
-  {
-    this.actionDate = actionDate;
-  }
-
-  public String getSourcePath()
-  {
-    return sourcePath;
-  }
-
-  public void setSourcePath(String sourcePath)
-  {
-    if (sourcePath != null)
-      this.sourcePath = sourcePath.replaceAll("[\"]", "");
-  }
-
-  public int getLineStart()
-  {
-    return lineStart;
-  }
-
-  public void setLineStart(int lineStart)
-  {
-    this.lineStart = lineStart;
-  }
-
-  public int getLineEnd()
-  {
-    return LineEnd;
-  }
-
-  public void setLineEnd(int lineEnd)
-  {
-    LineEnd = lineEnd;
-  }
-
-  public String getSourceCode()
-  {
-    int maxChar = 28672;
-    int maxLength = Math.min(sourceCode.length(), maxChar);
-    return sourceCode.substring(0, maxLength) + (maxLength == maxChar ? "..." : "");
-  }
-
-  public void setSourceCode(String sourceCode)
-  {
-    if (sourceCode != null)
-      this.sourceCode = sourceCode.replaceAll("[\"]", "");
-  }
-
-  public String getTechCriteria()
-  {
-    return techCriteria;
-  }
-
-  public void setTechCriteria(String techCriteria)
-  {
-    if (techCriteria != null)
-      this.techCriteria = techCriteria.replaceAll("[\"]", "");
-  }
-
-  public String getBusinessCriteria()
-  {
-    return businessCriteria;
-  }
-
-  public void setBusinessCriteria(String businessCriteria)
-  {
-    if (businessCriteria != null)
-      this.businessCriteria = businessCriteria.replaceAll("[\"]", "");
-  }
-
-  public int getViolationStatus()
-  {
-    return violationStatus;
-  }
-
-  public void setViolationStatus(int violationStatus)
-  {
-    this.violationStatus = violationStatus;
-  }
-
-  public String getFirstSnapshotDate()
-  {
-    return firstSnapshotDate;
-  }
-
-  public void setFirstSnapshotDate(String firstSnapshotDate)
-  {
-    this.firstSnapshotDate = firstSnapshotDate;
-  }
-
-  public int getMetricId()
-  {
-    return metricId;
-  }
-
-  public void setMetricId(int metricId)
-  {
-    this.metricId = metricId;
-  }
-}
+package com.castsoftware.jira.pojo;
+
+import java.sql.Timestamp;
+
+import com.castsoftware.jira.util.CastIdHasher;
+import com.castsoftware.jira.util.Constants;
+import com.castsoftware.jira.util.StringTable;
+
+/**
+ * The Class ActionPlanViolation is used to store every violation included in
+ * the action plan. It will provide and easy way to interact with every
+ * violation
+ * <p>
+ * The record is kept compact because the whole action plan can be held in
+ * memory: the dates are epoch milliseconds, the priority and the status are
+ * bytes, the texts of the quality rule are shared through
+ * {@link MetricMetadata}, and the action messages can be shared through the
+ * {@link StringTable} of the extraction. The texts stay String references
+ * rather than int indexes into string tables: with compressed references
+ * both take 4 bytes, and an index would need its table wherever the
+ * violation goes, the extract file and the interchange stream included.
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public class ActionPlanViolation {
+  /** The Constant NO_DATE, nanoseconds of a missing date. */
+  private static final int NO_DATE = -1;
+
+  /** The priority. */
+  private byte   priority;
+
+  /** The action date, epoch milliseconds. */
+  private long   actionTime;
+
+  /** The nanoseconds of the action date, {@link #NO_DATE} if there is none. */
+  private int    actionNanos = NO_DATE;
+
+  /** The first snapshot date, epoch milliseconds. */
+  private long   firstSnapshotTime;
+
+  /** The nanoseconds of the first snapshot date, {@link #NO_DATE} if there is none. */
+  private int    firstSnapshotNanos = NO_DATE;
+
+  /** The actionDef. */
+  private String actionDef;
+
+  /** The objectFullName. */
+  private long   objectId;
+
+  /** The objectFullName. */
+  private String objectFullName;
+
+  /** The texts of the quality rule, shared by all its violations. */
+  private MetricMetadata metric;
+
+  /** The Constant STATUS_FIXED, violation status of a fixed violation. */
+  public static final int STATUS_FIXED = 2;
+
+  /** The change between the delta snapshots, null when not in delta mode. */
+  private ViolationChange change;
+
+  String         sourcePath;
+  int            lineStart;
+  int            LineEnd;
+  String         sourceCode;
+  int            sourceId;
+  byte           violationStatus;
+
+  /**
+   * Instantiates a new action plan violation.
+   * 
+   * @param priority
+   *          the priority
+   * @param actionDate
+   *          the action date
+   * @param actionDef
+   *          the action def
+   * @param objectFullName
+   *          the object full name
+   * @param metricShortDescription
+   *          the metric short description
+   * @param reason
+   *          the reason
+   * @param metricLongDescription
+   *          the metric long description
+   * @param remediation
+   *          the remediation
+   * @param reference
+   *          the reference
+   * @param violationExample
+   *          the violation example
+   * @param remediationExample
+   *          the remediation example
+   * @param output
+   *          the output
+   * @param totals
+   *          the totals
+   */
+  public ActionPlanViolation(long object_id, String tag, int priority, String actionDate, String firstSnapshotDate, String actionDef,
+      String objectFullName, int metricId, String metricShortDescription, String reason, String metricLongDescription,
+      String remediation, String reference, String violationExample, String remediationExample, String output,
+      String totals, String sourcePath, int lineStart, int lineEnd, String sourceCode, String techCriteria,
+      String businessCriteria, int violationStatus)
+  {
+    this(object_id, tag, priority, actionDate, firstSnapshotDate, actionDef, objectFullName, metricId,
+        metricShortDescription, reason, metricLongDescription, remediation, reference, violationExample,
+        remediationExample, output, totals, sourcePath, lineStart, lineEnd, 0, techCriteria, businessCriteria,
+        violationStatus);
+    applySourceCode(sourceCode);
+  }
+
+  /**
+   * Instantiates a new action plan violation whose source file is read
+   * afterwards, see {@link #applySourceCode(String)}.
+   * 
+   * @param sourceId
+   *          the id of the source file in dss_code_sources
+   */
+  public ActionPlanViolation(long object_id, String tag, int priority, String actionDate, String firstSnapshotDate, String actionDef,
+      String objectFullName, int metricId, String metricShortDescription, String reason, String metricLongDescription,
+      String remediation, String reference, String violationExample, String remediationExample, String output,
+      String totals, String sourcePath, int lineStart, int lineEnd, int sourceId, String techCriteria,
+      String businessCriteria, int violationStatus)
+  {
+    this(object_id, tag, actionDate, firstSnapshotDate, actionDef, objectFullName,
+        new MetricMetadata(metricId, metricShortDescription, reason, metricLongDescription, remediation, reference,
+            violationExample, remediationExample, output, totals, techCriteria, businessCriteria),
+        sourcePath, lineStart, lineEnd, sourceId, violationStatus);
+  }
+
+  /**
+   * Instantiates a new action plan violation of a quality rule whose texts are
+   * shared with its other violations.
+   * 
+   * @param metric
+   *          the texts of the quality rule
+   * @param sourceId
+   *          the id of the source file in dss_code_sources
+   */
+  public ActionPlanViolation(long object_id, String tag, String actionDate, String firstSnapshotDate,
+      String actionDef, String objectFullName, MetricMetadata metric, String sourcePath, int lineStart, int lineEnd,
+      int sourceId, int violationStatus)
+  {
+    this(object_id, tag, toTimestamp(actionDate), toTimestamp(firstSnapshotDate), actionDef, objectFullName, metric,
+        sourcePath, lineStart, lineEnd, sourceId, violationStatus);
+  }
+
+  /**
+   * Instantiates a new action plan violation from the dates read in the
+   * database.
+   * 
+   * @param actionDate
+   *          the action date, null if there is none
+   * @param firstSnapshotDate
+   *          the first snapshot date, null if there is none
+   * @param metric
+   *          the texts of the quality rule
+   * @param sourceId
+   *          the id of the source file in dss_code_sources
+   * @param violationStatus
+   *          the violation status, a small code stored as a byte
+   */
+  public ActionPlanViolation(long object_id, String tag, Timestamp actionDate, Timestamp firstSnapshotDate,
+      String actionDef, String objectFullName, MetricMetadata metric, String sourcePath, int lineStart, int lineEnd,
+      int sourceId, int violationStatus)
+  {
+
+    setObjectId(object_id);
+
+    if (tag != null) {
+      switch (tag) {
+        case "low":
+          setPriority(4);
+          break;
+        case "moderate":
+          setPriority(3);
+          break;
+        case "high":
+          setPriority(2);
+          break;
+        case "extreme":
+          setPriority(1);
+          break;
+        }
+    }
+
+    if (firstSnapshotDate != null) {
+      firstSnapshotTime = firstSnapshotDate.getTime();
+      firstSnapshotNanos = firstSnapshotDate.getNanos();
+    }
+    if (actionDate != null) {
+      actionTime = actionDate.getTime();
+      actionNanos = actionDate.getNanos();
+    }
+    setActionDef(actionDef);
+    setObjectFullName(objectFullName);
+    this.metric = metric;
+    setSourcePath(sourcePath);
+    setLineStart(lineStart);
+    setLineEnd(lineEnd);
+    setViolationStatus(violationStatus);
+    setSourceId(sourceId);
+  }
+
+  /**
+   * Cuts the code snippet of the violation out of its source file. The file
+   * text is not kept.
+   * 
+   * @param fileSourceCode
+   *          the text of the source file, null if it is not available
+   */
+  public void applySourceCode(String fileSourceCode)
+  {
+    if (fileSourceCode == null)
+    {
+      this.sourceCode = null;
+      return;
+    }
+    setSourceCode(fileSourceCode);
+
+    String source = extractSourceCode();
+    setSourceCode(source);
+  }
+
+  private String extractSourceCode()
+  {
+    int srcStartLine = this.getLineStart();
+    int srcEndLine = this.getLineEnd();
+    String crlf = System.getProperty("line.separator");
+    String src = getSourceCode();
+
+    StringBuilder rslt = new StringBuilder().append("\n");
+    String[] lines = src.split(crlf);
+    int cLine = 0;
+    for (String ln : lines)
+    {
+      cLine++;
+      if (cLine < srcStartLine)
+        continue;
+      else if (cLine > srcEndLine)
+        break;
+
+      ln = ln.replace("\b", "");
+      ln = ln.replace("\f", "");
+      ln = ln.replace("\t", "");
+      ln = ln.replace("\"", "");
+      ln = ln.replace("\\", "");
+      rslt.append(ln).append(crlf);
+    }
+
+    return rslt.toString();
+  }
+
+  /**
+   * Gets the action defined by user.
+   * 
+   * @return the action defined by user
+   */
+  public String getActionDef()
+  {
+    return valueOf(actionDef);
+  }
+
+  /**
+   * Sets the action defined by user.
+   * 
+   * @param actionDef
+   *          the new defined by user
+   */
+  public void setActionDef(String actionDef)
+  {
+    if (actionDef != null)
+      this.actionDef = removeQuotes(actionDef);
+  }
+
+  /**
+   * Shares the action defined by user with the violations of the same
+   * extraction, most of them have the same few actions.
+   * 
+   * @param actions
+   *          the actions of the extraction
+   */
+  public void internActionDef(StringTable actions)
+  {
+    this.actionDef = actions.intern(actionDef);
+  }
+
+  /**
+   * Checks if the violation has an action defined by user, getActionDef()
+   * returns N/A otherwise.
+   * 
+   * @return true, if there is an action
+   */
+  public boolean hasActionDef()
+  {
+    return actionDef != null;
+  }
+
+  /**
+   * Gets the object full name.
+   * 
+   * @return the object full name
+   */
+  public String getObjectFullName()
+  {
+    return valueOf(objectFullName);
+  }
+
+  /**
+   * Sets the object full name.
+   * 
+   * @param objectFullName
+   *          the new object full name
+   */
+  public void setObjectFullName(String objectFullName)
+  {
+    if (objectFullName != null)
+      this.objectFullName = removeQuotes(objectFullName);
+  }
+
+  /**
+   * Checks if the violation has an object full name, getObjectFullName()
+   * returns N/A otherwise.
+   * 
+   * @return true, if there is a name
+   */
+  public boolean hasObjectFullName()
+  {
+    return objectFullName != null;
+  }
+
+  public long getObjectId()
+  {
+    return objectId;
+  }
+
+  public void setObjectId(long objectId)
+  {
+    this.objectId = objectId;
+  }
+
+  /**
+   * Gets the metric short description.
+   * 
+   * @return the metric short description
+   */
+  public String getMetricShortDescription()
+  {
+    return valueOf(metric.getShortDescription());
+  }
+
+  /**
+   * Gets the fields concatenated.
+   * 
+   * @return the fields concatenated
+   * @throws IllegalStateException
+   *           if the violation has no action date
+   */
+  public String getFieldsConcatenated() {
+    if (actionNanos == NO_DATE) {
+      throw new IllegalStateException("No action date for the object " + objectId);
+    }
+    if (CastIdHasher.isBeforeCutoff(actionTime, actionNanos)) {
+      return this.priority + formatDate(actionTime, actionNanos) + this.actionDef + this.objectFullName
+          + this.metric.getShortDescription();
+    } else {
+      return String.format("%s%d%d", formatDate(firstSnapshotTime, firstSnapshotNanos), this.objectId,
+          this.metric.getMetricId());
+    }
+  }
+
+  /**
+   * Gets the priority.
+   * 
+   * @return the priority
+   */
+  public int getPriority()
+  {
+    return priority;
+  }
+
+  /**
+   * Sets the priority.
+   * 
+   * @param priority
+   *          the new priority
+   */
+  public void setPriority(int priority)
+  {
+    this.priority = (byte) priority;
+  }
+
+  /**
+   * Gets the reason.
+   * 
+   * @return the reason
+   */
+  public String getReason()
+  {
+    return valueOf(metric.getReason());
+  }
+
+  /**
+   * Gets the metric long description.
+   * 
+   * @return the metric long description
+   */
+  public String getMetricLongDescription()
+  {
+    return valueOf(metric.getLongDescription());
+  }
+
+  /**
+   * Gets the remediation.
+   * 
+   * @return the remediation
+   */
+  public String getRemediation()
+  {
+    return valueOf(metric.getRemediation());
+  }
+
+  /**
+   * Gets the reference.
+   * 
+   * @return the reference
+   */
+  public String getReference()
+  {
+    return valueOf(metric.getReference());
+  }
+
+  /**
+   * Gets the violation example.
+   * 
+   * @return the violation example
+   */
+  public String getViolationExample()
+  {
+    return valueOf(metric.getViolationExample());
+  }
+
+  /**
+   * Gets the output.
+   * 
+   * @return the output
+   */
+  public String getOutput()
+  {
+    return valueOf(metric.getOutput());
+  }
+
+  /**
+   * Gets the remediation example.
+   * 
+   * @return the remediation example
+   */
+  public String getRemediationExample()
+  {
+    return valueOf(metric.getRemediationExample());
+  }
+
+  /**
+   * Gets the totals.
+   * 
+   * @return the totals
+   */
+  public String getTotals()
+  {
+    return valueOf(metric.getTotals());
+  }
+
+  /**
+   * Gets the action date.
+   * 
+   * @return the actionDate
+   */
+  public String getActionDate()
+  {
+    return valueOf(formatDate(actionTime, actionNanos));
+  }
+
+  /**
+   * Sets the action date.
+   * 
+   * @param actionDate
+   *          the actionDate to set, formatted yyyy-mm-dd hh:mm:ss[.f...]
+   */
+  public void setActionDate(String actionDate)
+  {
+    Timestamp date = toTimestamp(actionDate);
+    actionTime = date == null ? 0 : date.getTime();
+    actionNanos = date == null ? NO_DATE : date.getNanos();
+  }
+
+  /**
+   * Gets the action date.
+   * 
+   * @return the action date, epoch milliseconds
+   */
+  public long getActionTime()
+  {
+    return actionTime;
+  }
+
+  /**
+   * Gets the nanoseconds of the action date.
+   * 
+   * @return the nanoseconds, negative if there is no action date
+   */
+  public int getActionNanos()
+  {
+    return actionNanos;
+  }
+
+  public String getSourcePath()
+  {
+    return sourcePath;
+  }
+
+  public void setSourcePath(String sourcePath)
+  {
+    if (sourcePath != null)
+      this.sourcePath = removeQuotes(sourcePath);
+  }
+
+  public int getLineStart()
+  {
+    return lineStart;
+  }
+
+  public void setLineStart(int lineStart)
+  {
+    this.lineStart = lineStart;
+  }
+
+  public int getLineEnd()
+  {
+    return LineEnd;
+  }
+
+  public void setLineEnd(int lineEnd)
+  {
+    LineEnd = lineEnd;
+  }
+
+  public String getSourceCode()
+  {
+    String sourceCode = valueOf(this.sourceCode);
+    int maxChar = 28672;
+    int maxLength = Math.min(sourceCode.length(), maxChar);
+    return sourceCode.substring(0, maxLength) + (maxLength == maxChar ? "..." : "");
+  }
+
+  public void setSourceCode(String sourceCode)
+  {
+    if (sourceCode != null)
+      this.sourceCode = sourceCode.replaceAll("[\"]", "");
+  }
+
+  public int getSourceId()
+  {
+    return sourceId;
+  }
+
+  public void setSourceId(int sourceId)
+  {
+    this.sourceId = sourceId;
+  }
+
+  public String getTechCriteria()
+  {
+    return metric.getTechCriteria();
+  }
+
+  public String getBusinessCriteria()
+  {
+    return metric.getBusinessCriteria();
+  }
+
+  public int getViolationStatus()
+  {
+    return violationStatus;
+  }
+
+  public void setViolationStatus(int violationStatus)
+  {
+    this.violationStatus = (byte) violationStatus;
+  }
+
+  public String getFirstSnapshotDate()
+  {
+    return formatDate(firstSnapshotTime, firstSnapshotNanos);
+  }
+
+  public void setFirstSnapshotDate(String firstSnapshotDate)
+  {
+    Timestamp date = toTimestamp(firstSnapshotDate);
+    firstSnapshotTime = date == null ? 0 : date.getTime();
+    firstSnapshotNanos = date == null ? NO_DATE : date.getNanos();
+  }
+
+  /**
+   * Gets the first snapshot date.
+   * 
+   * @return the first snapshot date, epoch milliseconds
+   */
+  public long getFirstSnapshotTime()
+  {
+    return firstSnapshotTime;
+  }
+
+  /**
+   * Gets the nanoseconds of the first snapshot date.
+   * 
+   * @return the nanoseconds, negative if there is no first snapshot date
+   */
+  public int getFirstSnapshotNanos()
+  {
+    return firstSnapshotNanos;
+  }
+
+  public ViolationChange getChange()
+  {
+    return change;
+  }
+
+  public void setChange(ViolationChange change)
+  {
+    this.change = change;
+  }
+
+  public int getMetricId()
+  {
+    return metric.getMetricId();
+  }
+
+  /**
+   * Gets the texts of the quality rule, shared by all its violations.
+   * 
+   * @return the metric metadata
+   */
+  public MetricMetadata getMetricMetadata()
+  {
+    return metric;
+  }
+
+  /**
+   * Gets the value of a text of the quality rule. The metadata is shared, a
+   * missing text is reported without being replaced in the metadata.
+   * 
+   * @param text
+   *          the text
+   * @return the text, {@link Constants#FIELD_VALUE_WHEN_IS_NULL} if it is null
+   */
+  private static String valueOf(String text)
+  {
+    return text == null ? Constants.FIELD_VALUE_WHEN_IS_NULL : text;
+  }
+
+  /**
+   * Removes the double quotes of a text, the text itself is kept when it has
+   * none.
+   * 
+   * @param text
+   *          the text, not null
+   * @return the text without double quotes
+   */
+  private static String removeQuotes(String text)
+  {
+    return text.indexOf('"') < 0 ? text : text.replace("\"", "");
+  }
+
+  /**
+   * Formats a date the way Timestamp.toString() does.
+   * 
+   * @param time
+   *          the date, epoch milliseconds
+   * @param nanos
+   *          the nanoseconds of the date, {@link #NO_DATE} if there is none
+   * @return the formatted date, null if there is none
+   */
+  private static String formatDate(long time, int nanos)
+  {
+    if (nanos == NO_DATE)
+    {
+      return null;
+    }
+    Timestamp date = new Timestamp(time);
+    date.setNanos(nanos);
+    return date.toString();
+  }
+
+  /**
+   * Parses a date formatted by Timestamp.toString().
+   * 
+   * @param date
+   *          the formatted date
+   * @return the date, null if there is none
+   */
+  private static Timestamp toTimestamp(String date)
+  {
+    if (date == null || date.equals(Constants.FIELD_VALUE_WHEN_IS_NULL))
+    {
+      return null;
+    }
+    return Timestamp.valueOf(date);
+  }
+}
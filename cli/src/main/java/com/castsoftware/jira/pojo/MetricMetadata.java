@@ -0,0 +1,213 @@
+package com.castsoftware.jira.pojo;
+
+/**
+ * The Class MetricMetadata holds the texts of a quality rule. They only depend
+ * on the metric, one instance is shared by all the violations of the rule
+ * instead of every violation holding its own copy. The double quotes are
+ * removed once, when the metadata is created.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class MetricMetadata {
+
+	/** The metric id. */
+	private final int metricId;
+
+	/** The short description. */
+	private final String shortDescription;
+
+	/** The reason. */
+	private final String reason;
+
+	/** The long description. */
+	private final String longDescription;
+
+	/** The remediation. */
+	private final String remediation;
+
+	/** The reference. */
+	private final String reference;
+
+	/** The violation example. */
+	private final String violationExample;
+
+	/** The remediation example. */
+	private final String remediationExample;
+
+	/** The output. */
+	private final String output;
+
+	/** The totals. */
+	private final String totals;
+
+	/** The technical criteria. */
+	private final String techCriteria;
+
+	/** The business criteria. */
+	private final String businessCriteria;
+
+	/**
+	 * Instantiates new metric metadata.
+	 *
+	 * @param metricId
+	 *            the metric id
+	 * @param shortDescription
+	 *            the short description
+	 * @param reason
+	 *            the reason
+	 * @param longDescription
+	 *            the long description
+	 * @param remediation
+	 *            the remediation
+	 * @param reference
+	 *            the reference
+	 * @param violationExample
+	 *            the violation example
+	 * @param remediationExample
+	 *            the remediation example
+	 * @param output
+	 *            the output
+	 * @param totals
+	 *            the totals
+	 * @param techCriteria
+	 *            the technical criteria
+	 * @param businessCriteria
+	 *            the business criteria
+	 */
+	public MetricMetadata(int metricId, String shortDescription, String reason, String longDescription,
+			String remediation, String reference, String violationExample, String remediationExample, String output,
+			String totals, String techCriteria, String businessCriteria) {
+		this.metricId = metricId;
+		this.shortDescription = removeQuotes(shortDescription);
+		this.reason = removeQuotes(reason);
+		this.longDescription = removeQuotes(longDescription);
+		this.remediation = removeQuotes(remediation);
+		this.reference = removeQuotes(reference);
+		this.violationExample = removeQuotes(violationExample);
+		this.remediationExample = removeQuotes(remediationExample);
+		this.output = removeQuotes(output);
+		this.totals = removeQuotes(totals);
+		this.techCriteria = removeQuotes(techCriteria);
+		this.businessCriteria = removeQuotes(businessCriteria);
+	}
+
+	/**
+	 * Removes the double quotes of a text.
+	 *
+	 * @param text
+	 *            the text
+	 * @return the text without double quotes, null if it was null
+	 */
+	private static String removeQuotes(String text) {
+		return text == null || text.indexOf('"') < 0 ? text : text.replace("\"", "");
+	}
+
+	/**
+	 * Gets the metric id.
+	 *
+	 * @return the metric id
+	 */
+	public int getMetricId() {
+		return metricId;
+	}
+
+	/**
+	 * Gets the short description.
+	 *
+	 * @return the short description, null if there is none
+	 */
+	public String getShortDescription() {
+		return shortDescription;
+	}
+
+	/**
+	 * Gets the reason.
+	 *
+	 * @return the reason, null if there is none
+	 */
+	public String getReason() {
+		return reason;
+	}
+
+	/**
+	 * Gets the long description.
+	 *
+	 * @return the long description, null if there is none
+	 */
+	public String getLongDescription() {
+		return longDescription;
+	}
+
+	/**
+	 * Gets the remediation.
+	 *
+	 * @return the remediation, null if there is none
+	 */
+	public String getRemediation() {
+		return remediation;
+	}
+
+	/**
+	 * Gets the reference.
+	 *
+	 * @return the reference, null if there is none
+	 */
+	public String getReference() {
+		return reference;
+	}
+
+	/**
+	 * Gets the violation example.
+	 *
+	 * @return the violation example, null if there is none
+	 */
+	public String getViolationExample() {
+		return violationExample;
+	}
+
+	/**
+	 * Gets the remediation example.
+	 *
+	 * @return the remediation example, null if there is none
+	 */
+	public String getRemediationExample() {
+		return remediationExample;
+	}
+
+	/**
+	 * Gets the output.
+	 *
+	 * @return the output, null if there is none
+	 */
+	public String getOutput() {
+		return output;
+	}
+
+	/**
+	 * Gets the totals.
+	 *
+	 * @return the totals, null if there is none
+	 */
+	public String getTotals() {
+		return totals;
+	}
+
+	/**
+	 * Gets the technical criteria.
+	 *
+	 * @return the technical criteria, null if there is none
+	 */
+	public String getTechCriteria() {
+		return techCriteria;
+	}
+
+	/**
+	 * Gets the business criteria.
+	 *
+	 * @return the business criteria, null if there is none
+	 */
+	public String getBusinessCriteria() {
+		return businessCriteria;
+	}
+}
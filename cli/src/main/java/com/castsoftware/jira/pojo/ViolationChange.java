@@ -0,0 +1,42 @@
+package com.castsoftware.jira.pojo;
+
+/**
+ * The Enum ViolationChange is the change of a violation between two
+ * snapshots, see the delta extraction.
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public enum ViolationChange {
+
+	/** The violation did not exist in the previous snapshot. */
+	APPEARED,
+
+	/** The violation has been fixed in the current snapshot. */
+	FIXED,
+
+	/** The violation was fixed in the previous snapshot and is back. */
+	REGRESSED;
+
+	/**
+	 * Classifies the change of a violation status.
+	 * 
+	 * @param previousStatus
+	 *            the status in the previous snapshot, null if the violation
+	 *            was not there
+	 * @param currentStatus
+	 *            the status in the current snapshot
+	 * @return the change, null if the change needs no action in Jira
+	 */
+	public static ViolationChange valueOf(Integer previousStatus, int currentStatus) {
+		boolean fixed = currentStatus == ActionPlanViolation.STATUS_FIXED;
+		if (previousStatus == null) {
+			return fixed ? FIXED : APPEARED;
+		} else if (fixed && previousStatus != ActionPlanViolation.STATUS_FIXED) {
+			return FIXED;
+		} else if (!fixed && previousStatus == ActionPlanViolation.STATUS_FIXED) {
+			return REGRESSED;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,24 @@
+package com.castsoftware.jira.util;
+
+import com.castsoftware.jira.pojo.ActionPlanViolation;
+
+/**
+ * The Interface ActionPlanHandler receives the action plan violations one by
+ * one while they are read from the database, so that the whole action plan
+ * does not have to be kept in memory before being sent to Jira
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public interface ActionPlanHandler {
+
+	/**
+	 * Handle one violation of the action plan.
+	 * 
+	 * @param castId
+	 *            the 64-bit CastId of the violation
+	 * @param violation
+	 *            the violation
+	 */
+	void handleViolation(long castId, ActionPlanViolation violation);
+}
@@ -0,0 +1,139 @@
+package com.castsoftware.jira.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The Class ApplicationLinkage links a CAST application to the Jira project
+ * receiving its violations. A linkage manifest lists one linkage per line:
+ * 
+ * <pre>
+ * # application;jira project[;component]
+ * Billing;BILL
+ * Web Portal;PORTAL;Front end
+ * </pre>
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public class ApplicationLinkage {
+
+	/** The application name. */
+	private final String appName;
+
+	/** The Jira project key. */
+	private final String projectKey;
+
+	/** The Jira component, null when it is not used. */
+	private final String component;
+
+	/**
+	 * Instantiates a new application linkage.
+	 * 
+	 * @param appName
+	 *            the application name
+	 * @param projectKey
+	 *            the Jira project key
+	 * @param component
+	 *            the Jira component, null when it is not used
+	 */
+	public ApplicationLinkage(String appName, String projectKey, String component) {
+		this.appName = appName;
+		this.projectKey = projectKey;
+		this.component = component;
+	}
+
+	/**
+	 * Reads a linkage manifest. Blank lines and lines starting with # are
+	 * ignored, an application linked twice to the same Jira project is
+	 * rejected: both linkages would share their cache and output files.
+	 * 
+	 * @param file
+	 *            the manifest
+	 * @return the linkages
+	 * @throws IOException
+	 *             if the manifest can not be read or a line is not valid
+	 */
+	public static List<ApplicationLinkage> readManifest(File file) throws IOException {
+		List<ApplicationLinkage> linkages = new ArrayList<>();
+		Set<String> suffixes = new HashSet<>();
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+			String line;
+			int lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#")) {
+					continue;
+				}
+				String[] fields = line.split(";");
+				if (fields.length < 2 || fields.length > 3 || fields[0].trim().isEmpty()
+						|| fields[1].trim().isEmpty()) {
+					throw new IOException(String.format("Invalid linkage at line %d of %s, expected "
+							+ "application;jira project[;component]", lineNumber, file.getAbsolutePath()));
+				}
+				ApplicationLinkage linkage = new ApplicationLinkage(fields[0].trim(), fields[1].trim(),
+						fields.length == 3 && !fields[2].trim().isEmpty() ? fields[2].trim() : null);
+				if (!suffixes.add(linkage.getFileSuffix())) {
+					throw new IOException(String.format("Duplicate linkage %s;%s at line %d of %s",
+							linkage.getAppName(), linkage.getProjectKey(), lineNumber, file.getAbsolutePath()));
+				}
+				linkages.add(linkage);
+			}
+		}
+		return linkages;
+	}
+
+	/**
+	 * Gets the application name.
+	 * 
+	 * @return the appName
+	 */
+	public String getAppName() {
+		return appName;
+	}
+
+	/**
+	 * Gets the Jira project key.
+	 * 
+	 * @return the projectKey
+	 */
+	public String getProjectKey() {
+		return projectKey;
+	}
+
+	/**
+	 * Gets the Jira component.
+	 * 
+	 * @return the component, null when it is not used
+	 */
+	public String getComponent() {
+		return component;
+	}
+
+	/**
+	 * Gets the suffix added to the names of the output files given on the
+	 * command line, like the explain or extract files, when several
+	 * linkages are synchronized. The file names of the cache directory
+	 * include the application and the project the same way.
+	 * 
+	 * @return the suffix, starting with a dot
+	 */
+	public String getFileSuffix() {
+		return ("." + appName + "." + projectKey).toLowerCase().replaceAll("[^a-z0-9._-]", "_");
+	}
+
+	@Override
+	public String toString() {
+		return appName + " -> " + projectKey + (component == null ? "" : " (" + component + ")");
+	}
+}
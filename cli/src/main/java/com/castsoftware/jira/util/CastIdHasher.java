@@ -0,0 +1,340 @@
+package com.castsoftware.jira.util;
+
+import java.sql.Timestamp;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.TimeZone;
+import java.util.zip.CRC32;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * The Class CastIdHasher computes the CastId of the action plan rows without
+ * allocating per row. It gives the same CastId as
+ * {@link ViolationCRC} applied to ActionPlanViolation.getFieldsConcatenated():
+ * the record is written byte by byte into a reused buffer and the CRC32 is
+ * reset instead of being created again. The dates are formatted from their
+ * epoch value the way Timestamp.toString() does, and the cutoff date between
+ * the two record layouts is parsed once.
+ * <p>
+ * The bytes of the record are the bytes of the platform charset. The fast path
+ * only handles ASCII text, for which all the usual platform charsets agree;
+ * {@link #hash} returns false for the other rows, they go through
+ * ViolationCRC.
+ * <p>
+ * An instance is used by one thread.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class CastIdHasher {
+
+	/** The log. */
+	public static Log log = LogFactory.getLog(CastIdHasher.class);
+
+	/** The Constant CUTOFF, the records of older action dates use the first layout. */
+	private static final long CUTOFF = parseCutoff();
+
+	/** The Constant ASCII_COMPATIBLE, the platform writes ASCII text and numbers as ASCII. */
+	private static final boolean ASCII_COMPATIBLE = isAsciiCompatible();
+
+	/** The Constant MILLIS_PER_DAY. */
+	private static final long MILLIS_PER_DAY = 86400000L;
+
+	/** The Constant FNV_OFFSET_BASIS. */
+	private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+
+	/** The Constant FNV_PRIME. */
+	private static final long FNV_PRIME = 0x100000001B3L;
+
+	/** The time zone of the dates. */
+	private final TimeZone timeZone = TimeZone.getDefault();
+
+	/** The checksum, reset for every row. */
+	private final CRC32 crc = new CRC32();
+
+	/** The record bytes. */
+	private byte[] buffer = new byte[256];
+
+	/** The record length. */
+	private int length;
+
+	/** The record is not ASCII, the fast path can not be used. */
+	private boolean fallback;
+
+	/** The CastId of the last record. */
+	private long castId;
+
+	/**
+	 * Computes the CastId of a row.
+	 *
+	 * @param priority
+	 *            the priority of the violation
+	 * @param actionDate
+	 *            the date the violation was added to the action plan
+	 * @param firstSnapshotDate
+	 *            the date of the first snapshot of the violation
+	 * @param actionDef
+	 *            the action defined by the user
+	 * @param objectFullName
+	 *            the object full name
+	 * @param metricShortDescription
+	 *            the metric short description
+	 * @param objectId
+	 *            the object id
+	 * @param metricId
+	 *            the metric id
+	 * @return true if {@link #getCastId()} is computed, false if the row has
+	 *         to be hashed by ViolationCRC
+	 */
+	public boolean hash(int priority, Timestamp actionDate, Timestamp firstSnapshotDate, String actionDef,
+			String objectFullName, String metricShortDescription, long objectId, int metricId) {
+		if (!ASCII_COMPATIBLE) {
+			return false;
+		}
+		length = 0;
+		fallback = false;
+		if (isBeforeCutoff(actionDate.getTime(), actionDate.getNanos())) {
+			appendNumber(priority);
+			appendTimestamp(actionDate);
+			appendText(actionDef);
+			appendText(objectFullName);
+			appendText(metricShortDescription);
+		} else {
+			appendTimestamp(firstSnapshotDate);
+			appendNumber(objectId);
+			appendNumber(metricId);
+		}
+		if (fallback) {
+			return false;
+		}
+
+		crc.reset();
+		crc.update(buffer, 0, length);
+		long fnv = FNV_OFFSET_BASIS;
+		for (int i = 0; i < length; i++) {
+			fnv ^= buffer[i];
+			fnv *= FNV_PRIME;
+		}
+		castId = (fnv & 0xFFFFFFFF00000000L) | crc.getValue();
+		return true;
+	}
+
+	/**
+	 * Gets the CastId of the last row.
+	 *
+	 * @return the CastId
+	 */
+	public long getCastId() {
+		return castId;
+	}
+
+	/**
+	 * Checks if an action date is before the cutoff between the two record
+	 * layouts. The legacy check parsed Timestamp.toString() with the pattern
+	 * yyyy-MM-dd HH:mm:ss.SSS, which reads all the fraction digits as
+	 * milliseconds; the same time is computed here without formatting.
+	 *
+	 * @param time
+	 *            the action date, epoch milliseconds
+	 * @param nanos
+	 *            the nanoseconds of the action date
+	 * @return true, if the record uses the first layout
+	 */
+	public static boolean isBeforeCutoff(long time, int nanos) {
+		long seconds = time / 1000;
+		if (time % 1000 < 0) {
+			seconds--;
+		}
+		if (nanos != 0) {
+			while (nanos % 10 == 0) {
+				nanos /= 10;
+			}
+		}
+		return seconds * 1000 + nanos < CUTOFF;
+	}
+
+	/**
+	 * Appends a date formatted by Timestamp.toString():
+	 * yyyy-mm-dd hh:mm:ss.fffffffff without the trailing zeros of the
+	 * fraction.
+	 *
+	 * @param date
+	 *            the date
+	 */
+	private void appendTimestamp(Timestamp date) {
+		long time = date.getTime();
+		long local = time + timeZone.getOffset(time);
+		long days = local / MILLIS_PER_DAY;
+		if (local % MILLIS_PER_DAY < 0) {
+			days--;
+		}
+		int millisOfDay = (int) (local - days * MILLIS_PER_DAY);
+
+		// civil date of the day number, days counted from 1970-01-01
+		long z = days + 719468;
+		long era = (z >= 0 ? z : z - 146096) / 146097;
+		long dayOfEra = z - era * 146097;
+		long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		long mp = (5 * dayOfYear + 2) / 153;
+		int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+		int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+		long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+		appendDigits(year, 4);
+		append('-');
+		appendDigits(month, 2);
+		append('-');
+		appendDigits(day, 2);
+		append(' ');
+		appendDigits(millisOfDay / 3600000, 2);
+		append(':');
+		appendDigits(millisOfDay / 60000 % 60, 2);
+		append(':');
+		appendDigits(millisOfDay / 1000 % 60, 2);
+		append('.');
+		int nanos = date.getNanos();
+		if (nanos == 0) {
+			append('0');
+		} else {
+			int digits = 9;
+			while (nanos % 10 == 0) {
+				nanos /= 10;
+				digits--;
+			}
+			appendDigits(nanos, digits);
+		}
+	}
+
+	/**
+	 * Appends a text field, without its double quotes like the setters of
+	 * ActionPlanViolation. A null text is written "null".
+	 *
+	 * @param text
+	 *            the text
+	 */
+	private void appendText(String text) {
+		if (text == null) {
+			append('n');
+			append('u');
+			append('l');
+			append('l');
+			return;
+		}
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c >= 0x80) {
+				fallback = true;
+				return;
+			}
+			if (c != '"') {
+				append(c);
+			}
+		}
+	}
+
+	/**
+	 * Appends a number in decimal.
+	 *
+	 * @param value
+	 *            the value
+	 */
+	private void appendNumber(long value) {
+		if (value < 0) {
+			append('-');
+			if (value == Long.MIN_VALUE) {
+				// no positive counterpart
+				appendDigits(-(value / 10), 1);
+				append((char) ('0' - value % 10));
+				return;
+			}
+			value = -value;
+		}
+		appendDigits(value, 1);
+	}
+
+	/**
+	 * Appends a positive number in decimal, padded with zeros.
+	 *
+	 * @param value
+	 *            the value
+	 * @param width
+	 *            the minimum number of digits
+	 */
+	private void appendDigits(long value, int width) {
+		int digits = 1;
+		for (long v = value / 10; v > 0; v /= 10) {
+			digits++;
+		}
+		for (int i = digits; i < width; i++) {
+			append('0');
+		}
+		ensureCapacity(digits);
+		for (int i = length + digits - 1; i >= length; i--) {
+			buffer[i] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+		length += digits;
+	}
+
+	/**
+	 * Appends an ASCII character.
+	 *
+	 * @param c
+	 *            the character
+	 */
+	private void append(char c) {
+		ensureCapacity(1);
+		buffer[length++] = (byte) c;
+	}
+
+	/**
+	 * Grows the buffer, only for unusually long records.
+	 *
+	 * @param extra
+	 *            the number of bytes to append
+	 */
+	private void ensureCapacity(int extra) {
+		if (length + extra > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+		}
+	}
+
+	/**
+	 * Parses the cutoff date of getFieldsConcatenated().
+	 *
+	 * @return the cutoff time
+	 */
+	private static long parseCutoff() {
+		try {
+			return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").parse("2017-05-02 00:00:00.000").getTime();
+		} catch (ParseException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Checks that the platform charset and the default locale write ASCII
+	 * text and numbers as ASCII bytes.
+	 *
+	 * @return true, if the fast path gives the same bytes as the platform
+	 */
+	private static boolean isAsciiCompatible() {
+		StringBuilder ascii = new StringBuilder();
+		for (char c = 0x20; c < 0x7F; c++) {
+			ascii.append(c);
+		}
+		byte[] bytes = ascii.toString().getBytes();
+		boolean compatible = bytes.length == ascii.length() && "-1234567890".equals(String.format("%d", -1234567890L));
+		for (int i = 0; compatible && i < bytes.length; i++) {
+			compatible = bytes[i] == ascii.charAt(i);
+		}
+		if (!compatible) {
+			log.info("The platform charset is not ASCII compatible, the CastIds are computed from the concatenated fields");
+		}
+		return compatible;
+	}
+}
@@ -0,0 +1,430 @@
+package com.castsoftware.jira.util;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * The Class ConnectionPool keeps the database connections open between two
+ * uses, one pool by connection string and user. A connection borrowed from the
+ * pool is validated if it has been idle for a while, the connections idle for
+ * too long are closed by a daemon timer and every connection caches its
+ * prepared statements. When the password of a user changes, the connections
+ * opened with the previous one are closed instead of being reused.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class ConnectionPool {
+
+	/** The log. */
+	public static Log log = LogFactory.getLog(ConnectionPool.class);
+
+	/** The pools by connection string and user. */
+	private static final HashMap<String, ConnectionPool> pools = new HashMap<>();
+
+	/** The timer closing the idle connections, null when there is no pool. */
+	private static Timer evictionTimer;
+
+	/** The connection string. */
+	private final String url;
+
+	/** The database user. */
+	private final String user;
+
+	/** The database password of the new connections. */
+	private String password;
+
+	/** The number of password changes, the connections of a previous one are closed. */
+	private int generation;
+
+	/** The number of connections borrowed and not given back. */
+	private int borrowed;
+
+	/** True once the pool has been removed, the connections given back are closed. */
+	private boolean removed;
+
+	/** The query validating a connection. */
+	private final String validationQuery;
+
+	/** The idle connections, the most recently used first. */
+	private final ArrayDeque<PooledConnection> idle = new ArrayDeque<>();
+
+	/**
+	 * Instantiates a new connection pool.
+	 *
+	 * @param url
+	 *            the connection string
+	 * @param user
+	 *            the database user
+	 * @param password
+	 *            the database password
+	 * @param validationQuery
+	 *            the validation query
+	 */
+	private ConnectionPool(String url, String user, String password, String validationQuery) {
+		this.url = url;
+		this.user = user;
+		this.password = password;
+		this.validationQuery = validationQuery;
+	}
+
+	/**
+	 * Gets the pool of a database. The password is not part of the key, a
+	 * different password replaces the one of the pool.
+	 *
+	 * @param url
+	 *            the connection string
+	 * @param user
+	 *            the database user
+	 * @param password
+	 *            the database password
+	 * @param validationQuery
+	 *            the query validating a connection when isValid is not
+	 *            supported
+	 * @return the pool
+	 */
+	public static synchronized ConnectionPool getPool(String url, String user, String password,
+			String validationQuery) {
+		String key = url + "|" + user;
+		ConnectionPool pool = pools.get(key);
+		if (pool == null) {
+			pool = new ConnectionPool(url, user, password, validationQuery);
+			pools.put(key, pool);
+		} else {
+			pool.setPassword(password);
+		}
+		if (evictionTimer == null) {
+			evictionTimer = new Timer("cast2jira-connection-pool", true);
+			evictionTimer.schedule(new TimerTask() {
+				@Override
+				public void run() {
+					evictAll();
+				}
+			}, Constants.DB_POOL_IDLE_TIMEOUT, Constants.DB_POOL_IDLE_TIMEOUT);
+		}
+		return pool;
+	}
+
+	/**
+	 * Closes the idle connections of all the pools. The connections still
+	 * borrowed are closed when they are given back.
+	 */
+	public static synchronized void closeAll() {
+		for (ConnectionPool pool : pools.values()) {
+			synchronized (pool) {
+				pool.removed = true;
+				pool.close();
+			}
+		}
+		pools.clear();
+		if (evictionTimer != null) {
+			evictionTimer.cancel();
+			evictionTimer = null;
+		}
+	}
+
+	/**
+	 * Closes the connections idle for too long in all the pools, and removes
+	 * the pools left without connection. The timer stops with the last pool.
+	 */
+	private static synchronized void evictAll() {
+		long now = System.currentTimeMillis();
+		Iterator<ConnectionPool> it = pools.values().iterator();
+		while (it.hasNext()) {
+			ConnectionPool pool = it.next();
+			synchronized (pool) {
+				pool.evictIdle(now);
+				if (pool.idle.isEmpty() && pool.borrowed == 0) {
+					pool.removed = true;
+					it.remove();
+				}
+			}
+		}
+		if (pools.isEmpty() && evictionTimer != null) {
+			evictionTimer.cancel();
+			evictionTimer = null;
+		}
+	}
+
+	/**
+	 * Sets the password of the new connections. When it changes, the idle
+	 * connections are closed: they must not authenticate a caller with
+	 * another password.
+	 *
+	 * @param password
+	 *            the database password
+	 */
+	private synchronized void setPassword(String password) {
+		if (this.password == null ? password != null : !this.password.equals(password)) {
+			this.password = password;
+			generation++;
+			close();
+		}
+	}
+
+	/**
+	 * Borrows a connection, an idle one if it is still valid or a new one.
+	 *
+	 * @return the connection
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public PooledConnection borrow() throws SQLException {
+		long now = System.currentTimeMillis();
+		while (true) {
+			PooledConnection pooled;
+			synchronized (this) {
+				evictIdle(now);
+				pooled = idle.pollFirst();
+				if (pooled != null) {
+					borrowed++;
+				}
+			}
+			if (pooled == null) {
+				break;
+			}
+			if (now - pooled.lastUsed < Constants.DB_POOL_VALIDATION_INTERVAL || isValid(pooled)) {
+				log.debug("Reusing a pooled connection");
+				return pooled;
+			}
+			synchronized (this) {
+				borrowed--;
+			}
+			pooled.close();
+		}
+		String currentPassword;
+		int currentGeneration;
+		synchronized (this) {
+			currentPassword = password;
+			currentGeneration = generation;
+		}
+		log.debug("Opening a new connection");
+		PooledConnection pooled = new PooledConnection(DriverManager.getConnection(url, user, currentPassword),
+				currentGeneration);
+		synchronized (this) {
+			borrowed++;
+		}
+		return pooled;
+	}
+
+	/**
+	 * Gives a connection back to the pool. The pending transaction is rolled
+	 * back, the connection is closed if it is broken, if the pool is full or
+	 * removed, or if it was opened with a previous password. The connections
+	 * idle for too long are closed meanwhile.
+	 *
+	 * @param pooled
+	 *            the connection
+	 */
+	public void release(PooledConnection pooled) {
+		synchronized (this) {
+			borrowed--;
+		}
+		try {
+			Connection connection = pooled.getConnection();
+			if (connection.isClosed()) {
+				pooled.close();
+				return;
+			}
+			if (!connection.getAutoCommit()) {
+				connection.rollback();
+				connection.setAutoCommit(true);
+			}
+		} catch (SQLException e) {
+			log.warn("Pooled connection dropped: " + e.getMessage());
+			pooled.close();
+			return;
+		}
+		pooled.lastUsed = System.currentTimeMillis();
+		synchronized (this) {
+			evictIdle(pooled.lastUsed);
+			if (!removed && pooled.generation == generation && idle.size() < Constants.DB_POOL_MAX_IDLE) {
+				idle.addFirst(pooled);
+				return;
+			}
+		}
+		pooled.close();
+	}
+
+	/**
+	 * Closes the idle connections.
+	 */
+	public synchronized void close() {
+		for (PooledConnection pooled : idle) {
+			pooled.close();
+		}
+		idle.clear();
+	}
+
+	/**
+	 * Closes the connections idle for longer than the idle timeout.
+	 *
+	 * @param now
+	 *            the current time
+	 */
+	private void evictIdle(long now) {
+		Iterator<PooledConnection> it = idle.descendingIterator();
+		while (it.hasNext()) {
+			PooledConnection pooled = it.next();
+			if (now - pooled.lastUsed < Constants.DB_POOL_IDLE_TIMEOUT) {
+				break;
+			}
+			log.debug("Closing an idle connection");
+			it.remove();
+			pooled.close();
+		}
+	}
+
+	/**
+	 * Checks that an idle connection still works.
+	 *
+	 * @param pooled
+	 *            the connection
+	 * @return true, if the connection is valid
+	 */
+	private boolean isValid(PooledConnection pooled) {
+		try {
+			try {
+				return pooled.getConnection().isValid(Constants.DB_POOL_VALIDATION_TIMEOUT);
+			} catch (AbstractMethodError e) {
+				// jTDS does not implement isValid, a test query is run instead
+				try (Statement st = pooled.getConnection().createStatement()) {
+					st.setQueryTimeout(Constants.DB_POOL_VALIDATION_TIMEOUT);
+					st.execute(validationQuery);
+				}
+				return true;
+			}
+		} catch (SQLException e) {
+			log.debug("Pooled connection not valid: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * The Class PooledConnection is a connection of the pool with its prepared
+	 * statements. The cached statements are closed with the connection, they
+	 * must not be closed by the callers.
+	 */
+	public static class PooledConnection {
+
+		/** The connection. */
+		private final Connection connection;
+
+		/** The prepared statements, the least recently used first. */
+		private final LinkedHashMap<String, PreparedStatement> statements = new LinkedHashMap<String, PreparedStatement>(
+				16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+				if (size() > Constants.DB_STATEMENT_CACHE_SIZE) {
+					closeStatement(eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+		};
+
+		/** The last time the connection was given back to the pool. */
+		private long lastUsed = System.currentTimeMillis();
+
+		/** The password generation of the pool when the connection was opened. */
+		private final int generation;
+
+		/**
+		 * Instantiates a new pooled connection.
+		 *
+		 * @param connection
+		 *            the connection
+		 * @param generation
+		 *            the password generation of the pool
+		 */
+		private PooledConnection(Connection connection, int generation) {
+			this.connection = connection;
+			this.generation = generation;
+		}
+
+		/**
+		 * Gets the connection.
+		 *
+		 * @return the connection
+		 */
+		public Connection getConnection() {
+			return connection;
+		}
+
+		/**
+		 * Gets a prepared statement from the cache, it is prepared on the first
+		 * call.
+		 *
+		 * @param sql
+		 *            the sql
+		 * @return the prepared statement
+		 * @throws SQLException
+		 *             the SQL exception
+		 */
+		public PreparedStatement prepareStatement(String sql) throws SQLException {
+			PreparedStatement pst = statements.get(sql);
+			if (pst == null) {
+				pst = connection.prepareStatement(sql);
+				statements.put(sql, pst);
+			} else {
+				pst.clearParameters();
+			}
+			return pst;
+		}
+
+		/**
+		 * Checks if a statement is in the cache.
+		 *
+		 * @param pst
+		 *            the statement
+		 * @return true, if it is cached
+		 */
+		public boolean isCached(PreparedStatement pst) {
+			return statements.containsValue(pst);
+		}
+
+		/**
+		 * Closes the statements and the connection.
+		 */
+		private void close() {
+			for (PreparedStatement pst : statements.values()) {
+				closeStatement(pst);
+			}
+			statements.clear();
+			try {
+				connection.close();
+			} catch (SQLException e) {
+				log.error("Close Connection Error" + e.getMessage());
+			}
+		}
+
+		/**
+		 * Closes a statement.
+		 *
+		 * @param pst
+		 *            the statement
+		 */
+		private static void closeStatement(PreparedStatement pst) {
+			try {
+				pst.close();
+			} catch (SQLException e) {
+				log.warn("Failed to close PreparedStatement: " + e.getMessage());
+			}
+		}
+	}
+}
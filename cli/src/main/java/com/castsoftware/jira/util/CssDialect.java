@@ -0,0 +1,48 @@
+package com.castsoftware.jira.util;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The Class CssDialect is the dialect of CAST Storage Service and PostgreSQL.
+ * The large results are read through a server side cursor, the driver uses
+ * one as soon as the fetch size is set and auto commit is off.
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public class CssDialect extends SqlDialect {
+
+	@Override
+	public String getDriverClass() {
+		return Constants.DB_JDBC_DRIVER_CSS;
+	}
+
+	@Override
+	public String getConnectionString(String host, String port, String database) {
+		// with sslmode=prefer the driver will try SSL first, and fallback to non-SSL if not supported
+		return Constants.DB_CONN_STRING_CSS + host + ":" + port + "/" + database + "?sslmode=prefer";
+	}
+
+	@Override
+	public List<String> getConnectionStrings(List<DatabaseHost> hosts, String database) {
+		if (hosts.size() < 2) {
+			return super.getConnectionStrings(hosts, database);
+		}
+		// the driver checks the role of each host and falls back to the primary
+		StringBuilder url = new StringBuilder(Constants.DB_CONN_STRING_CSS);
+		for (DatabaseHost host : hosts) {
+			if (url.length() > Constants.DB_CONN_STRING_CSS.length()) {
+				url.append(',');
+			}
+			url.append(host.getUrlHost()).append(':').append(host.getPort());
+		}
+		url.append('/').append(database).append("?sslmode=prefer&targetServerType=preferSecondary");
+		return Collections.singletonList(url.toString());
+	}
+
+	@Override
+	public String getExplainStatement(String sql) {
+		return "explain (analyze, buffers) " + sql;
+	}
+}
@@ -1,277 +1,328 @@
-package com.castsoftware.jira.util;
-
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.SQLException;
-
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
-/**
- * The Class DatabaseConnection establishes the database connection depending on
- * the parameters provided in the command line
- * 
- * @author FME
- * @version 1.1
- */
-
-public class DatabaseConnection {
-
-	/** The log. */
-	public static Log log = LogFactory.getLog(DatabaseConnection.class);
-
-	/** The database user. */
-	private String databaseUser;
-
-	/** The database password. */
-	private String databasePassword;
-
-	/** The database host. */
-	private String databaseHost;
-
-	/** The database name. */
-	private String databaseName;
-
-	/** The database port. */
-	private String databasePort;
-
-	/** The database provider. */
-	private String databaseProvider;
-
-	/** The connection. */
-	private Connection connection = null;
-
-	/**
-	 * Instantiates a new database connection.
-	 * 
-	 * @param databaseUser
-	 *            the database user
-	 * @param databasePassword
-	 *            the database password
-	 * @param databaseHost
-	 *            the database host
-	 * @param databaseName
-	 *            the database name
-	 * @param databasePort
-	 *            the database port
-	 * @param databaseProvider
-	 *            the database provider
-	 * @throws SQLException
-	 *             the SQL exception
-	 */
-	public DatabaseConnection(String databaseUser, String databasePassword,
-			String databaseHost, String databaseName, String databasePort,
-			String databaseProvider) throws SQLException {
-		setDatabaseUser(databaseUser);
-		setDatabasePassword(databasePassword);
-		setDatabaseHost(databaseHost);
-		setDatabaseName(databaseName);
-		setDatabasePort(databasePort);
-		setDatabaseProvider(databaseProvider);
-
-		log.debug("Staring " + getDatabaseProvider() + " JDBC Connection");
-		try {
-			if (getDatabaseProvider().equalsIgnoreCase(Constants.DB_CSS)) {
-				Class.forName(Constants.DB_JDBC_DRIVER_CSS);
-			} else if (getDatabaseProvider().equalsIgnoreCase(
-					Constants.DB_ORACLE)) {
-				Class.forName(Constants.DB_JDBC_DRIVER_ORACLE);
-			} else if (getDatabaseProvider().equalsIgnoreCase(
-					Constants.DB_SQLSERVER)) {
-				Class.forName(Constants.DB_JDBC_DRIVER_SQLSERVER);
-			}
-			log.debug(getDatabaseProvider() + " JDBC Driver Registered!");
-			setCreateDBConnection();
-		} catch (ClassNotFoundException e) {
-			log.debug(e.getMessage());
-		} 
-	}
-
-	/**
-	 * Gets the DB connection.
-	 * 
-	 * @return the DB connection
-	 */
-	public Connection getDBConnection() {
-		return connection;
-	}
-
-	/**
-	 * Sets the create db connection.
-	 * 
-	 * @throws SQLException
-	 *             the SQL exception
-	 */
-	public void setCreateDBConnection() throws SQLException {
-		try {
-			StringBuilder connectionString = new StringBuilder();
-			if (getDatabaseProvider().equalsIgnoreCase(Constants.DB_CSS)) {
-				connectionString.append(Constants.DB_CONN_STRING_CSS);
-			} else if (getDatabaseProvider().equalsIgnoreCase(Constants.DB_ORACLE)) {
-				connectionString.append(Constants.DB_CONN_STRING_ORACLE);
-			} else if (getDatabaseProvider().equalsIgnoreCase(Constants.DB_SQLSERVER)) {
-				connectionString.append(Constants.DB_CONN_STRING_SQLSERVER);
-			}
-
-			connectionString.append(getDatabaseHost());
-			connectionString.append(":");
-			connectionString.append(getDatabasePort());
-
-			if (getDatabaseProvider().equalsIgnoreCase(Constants.DB_ORACLE)) {
-				connectionString.append(":");
-			} else {
-				connectionString.append("/");
-			}
-			connectionString.append(getDatabaseName());
-
-			//Added by AKU - Modified by MMA to handle no SSL connections (local or same network),
-			// or SSL connections (AWS RDS SCRAM auth)
-			// with sslmode=prefer the driver will try SSL first, and fallback to non-SSL if not supported
-        	if (getDatabaseProvider().equalsIgnoreCase(Constants.DB_CSS)) {
-				connectionString.append("?sslmode=prefer");
-        	}
-
-			if (log.isDebugEnabled()) {
-				log.debug("setCreateDBConnection() - Connection String: " + connectionString);
-			}
-
-			connection = DriverManager.getConnection(connectionString.toString(), getDatabaseUser(), getDatabasePassword());
-		} catch (SQLException e) {
-			log.fatal("setCreateDBConnection() - Connection Failed! Check output log file"
-					+ e.getMessage());
-			throw e;
-		}
-
-		log.debug(" setCreateDBConnection() - Connection done!");
-	}
-
-	/**
-	 * Close connection.
-	 */
-	public void closeConnection() {
-		Connection connection = getDBConnection();
-		try {
-			if (connection != null) {
-				connection.close();
-				log.debug("Connection closed!");
-			}
-		} catch (SQLException e) {
-			log.error("Close Connection Error" + e.getMessage());
-		}
-	}
-
-	/**
-	 * Gets the database user.
-	 * 
-	 * @return the databaseUser
-	 */
-	public String getDatabaseUser() {
-		return databaseUser;
-	}
-
-	/**
-	 * Sets the database user.
-	 * 
-	 * @param databaseUser
-	 *            the databaseUser to set
-	 */
-	public void setDatabaseUser(String databaseUser) {
-		this.databaseUser = databaseUser;
-	}
-
-	/**
-	 * Gets the database password.
-	 * 
-	 * @return the databasePassword
-	 */
-	public String getDatabasePassword() {
-		return databasePassword;
-	}
-
-	/**
-	 * Sets the database password.
-	 * 
-	 * @param databasePassword
-	 *            the databasePassword to set
-	 */
-	public void setDatabasePassword(String databasePassword) {
-		this.databasePassword = databasePassword;
-	}
-
-	/**
-	 * Gets the database host.
-	 * 
-	 * @return the databaseHost
-	 */
-	public String getDatabaseHost() {
-		return databaseHost;
-	}
-
-	/**
-	 * Sets the database host.
-	 * 
-	 * @param databaseHost
-	 *            the databaseHost to set
-	 */
-	public void setDatabaseHost(String databaseHost) {
-		this.databaseHost = databaseHost;
-	}
-
-	/**
-	 * Gets the database name.
-	 * 
-	 * @return the databaseName
-	 */
-	public String getDatabaseName() {
-		return databaseName;
-	}
-
-	/**
-	 * Sets the database name.
-	 * 
-	 * @param databaseName
-	 *            the databaseName to set
-	 */
-	public void setDatabaseName(String databaseName) {
-		this.databaseName = databaseName;
-	}
-
-	/**
-	 * Gets the database port.
-	 * 
-	 * @return the databasePort
-	 */
-	public String getDatabasePort() {
-		return databasePort;
-	}
-
-	/**
-	 * Sets the database port.
-	 * 
-	 * @param databasePort
-	 *            the databasePort to set
-	 */
-	public void setDatabasePort(String databasePort) {
-		this.databasePort = databasePort;
-	}
-
-	/**
-	 * Gets the database provider.
-	 * 
-	 * @return the databaseProvider
-	 */
-	public String getDatabaseProvider() {
-		return databaseProvider;
-	}
-
-	/**
-	 * Sets the database provider.
-	 * 
-	 * @param databaseProvider
-	 *            the databaseProvider to set
-	 */
-	public void setDatabaseProvider(String databaseProvider) {
-		this.databaseProvider = databaseProvider;
-	}
-
-}
+package com.castsoftware.jira.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * The Class DatabaseConnection establishes the database connection depending on
+ * the parameters provided in the command line. The connection is borrowed from
+ * a {@link ConnectionPool} and given back when it is closed.
+ * 
+ * @author FME
+ * @version 1.1
+ */
+
+public class DatabaseConnection {
+
+	/** The log. */
+	public static Log log = LogFactory.getLog(DatabaseConnection.class);
+
+	/** The database user. */
+	private String databaseUser;
+
+	/** The database password. */
+	private String databasePassword;
+
+	/** The database host. */
+	private String databaseHost;
+
+	/** The database name. */
+	private String databaseName;
+
+	/** The database port. */
+	private String databasePort;
+
+	/** The database provider. */
+	private String databaseProvider;
+
+	/** The connection. */
+	private Connection connection = null;
+
+	/** The pool of the connection. */
+	private ConnectionPool pool;
+
+	/** The connection borrowed from the pool. */
+	private ConnectionPool.PooledConnection pooledConnection;
+
+	/**
+	 * Instantiates a new database connection.
+	 * 
+	 * @param databaseUser
+	 *            the database user
+	 * @param databasePassword
+	 *            the database password
+	 * @param databaseHost
+	 *            the database host
+	 * @param databaseName
+	 *            the database name
+	 * @param databasePort
+	 *            the database port
+	 * @param databaseProvider
+	 *            the database provider
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public DatabaseConnection(String databaseUser, String databasePassword,
+			String databaseHost, String databaseName, String databasePort,
+			String databaseProvider) throws SQLException {
+		setDatabaseUser(databaseUser);
+		setDatabasePassword(databasePassword);
+		setDatabaseHost(databaseHost);
+		setDatabaseName(databaseName);
+		setDatabasePort(databasePort);
+		setDatabaseProvider(databaseProvider);
+
+		log.debug("Staring " + getDatabaseProvider() + " JDBC Connection");
+		try {
+			Class.forName(getDialect().getDriverClass());
+			log.debug(getDatabaseProvider() + " JDBC Driver Registered!");
+			setCreateDBConnection();
+		} catch (ClassNotFoundException e) {
+			log.debug(e.getMessage());
+		} 
+	}
+
+	/**
+	 * Gets the DB connection.
+	 * 
+	 * @return the DB connection
+	 */
+	public Connection getDBConnection() {
+		return connection;
+	}
+
+	/**
+	 * Sets the create db connection.
+	 * 
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public void setCreateDBConnection() throws SQLException {
+		List<String> connectionStrings;
+		try {
+			connectionStrings = getDialect().getConnectionStrings(
+					DatabaseHost.parse(getDatabaseHost(), getDatabasePort()), getDatabaseName());
+		} catch (IllegalArgumentException e) {
+			log.fatal("setCreateDBConnection() - " + e.getMessage());
+			throw new SQLException(e.getMessage(), e);
+		}
+
+		// the replicas come first, the next connection string is tried when one fails
+		SQLException failure = null;
+		for (String connectionString : connectionStrings) {
+			if (log.isDebugEnabled()) {
+				log.debug("setCreateDBConnection() - Connection String: " + connectionString);
+			}
+			try {
+				ConnectionPool candidate = ConnectionPool.getPool(connectionString, getDatabaseUser(),
+						getDatabasePassword(), getDialect().getValidationQuery());
+				pooledConnection = candidate.borrow();
+				pool = candidate;
+				connection = pooledConnection.getConnection();
+				log.debug(" setCreateDBConnection() - Connection done!");
+				return;
+			} catch (SQLException e) {
+				log.warn("setCreateDBConnection() - Connection to " + connectionString + " failed: " + e.getMessage());
+				failure = e;
+			}
+		}
+
+		if (failure == null) {
+			failure = new SQLException("No database host in " + getDatabaseHost());
+		}
+		log.fatal("setCreateDBConnection() - Connection Failed! Check output log file"
+				+ failure.getMessage());
+		throw failure;
+	}
+
+	/**
+	 * Gets a prepared statement cached by the connection. The statement is
+	 * reused by the next callers of the connection, it must not be closed.
+	 * 
+	 * @param sql
+	 *            the sql
+	 * @return the prepared statement
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public PreparedStatement prepareStatement(String sql) throws SQLException {
+		return pooledConnection.prepareStatement(sql);
+	}
+
+	/**
+	 * Prepares a statement on a JDBC connection. On the connection of this
+	 * instance the statement comes from the cache, the callers then give it
+	 * to {@link #closeStatement(PreparedStatement)} instead of closing it.
+	 * 
+	 * @param jdbcConnection
+	 *            the connection running the statement
+	 * @param sql
+	 *            the sql
+	 * @return the prepared statement
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public PreparedStatement prepareStatement(Connection jdbcConnection, String sql) throws SQLException {
+		if (pooledConnection != null && jdbcConnection == connection) {
+			return pooledConnection.prepareStatement(sql);
+		}
+		return jdbcConnection.prepareStatement(sql);
+	}
+
+	/**
+	 * Closes a statement prepared by
+	 * {@link #prepareStatement(Connection, String)}, the cached statements
+	 * stay open for the next callers.
+	 * 
+	 * @param pst
+	 *            the statement
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public void closeStatement(PreparedStatement pst) throws SQLException {
+		if (pooledConnection == null || !pooledConnection.isCached(pst)) {
+			pst.close();
+		}
+	}
+
+	/**
+	 * Close connection, it is given back to the pool.
+	 */
+	public void closeConnection() {
+		if (pooledConnection != null) {
+			pool.release(pooledConnection);
+			pooledConnection = null;
+			connection = null;
+			log.debug("Connection released!");
+		}
+	}
+
+	/**
+	 * Gets the database user.
+	 * 
+	 * @return the databaseUser
+	 */
+	public String getDatabaseUser() {
+		return databaseUser;
+	}
+
+	/**
+	 * Sets the database user.
+	 * 
+	 * @param databaseUser
+	 *            the databaseUser to set
+	 */
+	public void setDatabaseUser(String databaseUser) {
+		this.databaseUser = databaseUser;
+	}
+
+	/**
+	 * Gets the database password.
+	 * 
+	 * @return the databasePassword
+	 */
+	public String getDatabasePassword() {
+		return databasePassword;
+	}
+
+	/**
+	 * Sets the database password.
+	 * 
+	 * @param databasePassword
+	 *            the databasePassword to set
+	 */
+	public void setDatabasePassword(String databasePassword) {
+		this.databasePassword = databasePassword;
+	}
+
+	/**
+	 * Gets the database host.
+	 * 
+	 * @return the databaseHost
+	 */
+	public String getDatabaseHost() {
+		return databaseHost;
+	}
+
+	/**
+	 * Sets the database host.
+	 * 
+	 * @param databaseHost
+	 *            the databaseHost to set
+	 */
+	public void setDatabaseHost(String databaseHost) {
+		this.databaseHost = databaseHost;
+	}
+
+	/**
+	 * Gets the database name.
+	 * 
+	 * @return the databaseName
+	 */
+	public String getDatabaseName() {
+		return databaseName;
+	}
+
+	/**
+	 * Sets the database name.
+	 * 
+	 * @param databaseName
+	 *            the databaseName to set
+	 */
+	public void setDatabaseName(String databaseName) {
+		this.databaseName = databaseName;
+	}
+
+	/**
+	 * Gets the database port.
+	 * 
+	 * @return the databasePort
+	 */
+	public String getDatabasePort() {
+		return databasePort;
+	}
+
+	/**
+	 * Sets the database port.
+	 * 
+	 * @param databasePort
+	 *            the databasePort to set
+	 */
+	public void setDatabasePort(String databasePort) {
+		this.databasePort = databasePort;
+	}
+
+	/**
+	 * Gets the dialect of the database provider.
+	 * 
+	 * @return the dialect
+	 */
+	public SqlDialect getDialect() {
+		return SqlDialect.forProvider(getDatabaseProvider());
+	}
+
+	/**
+	 * Gets the database provider.
+	 * 
+	 * @return the databaseProvider
+	 */
+	public String getDatabaseProvider() {
+		return databaseProvider;
+	}
+
+	/**
+	 * Sets the database provider.
+	 * 
+	 * @param databaseProvider
+	 *            the databaseProvider to set
+	 */
+	public void setDatabaseProvider(String databaseProvider) {
+		this.databaseProvider = databaseProvider;
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.castsoftware.jira.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Class DatabaseHost is one host of the -databasehost list,
+ * host[:port][/role] with the role primary (by default) or replica. An IPv6
+ * address is written in brackets, [address][:port][/role]. The
+ * extraction only reads the CAST database, the replicas are tried first and
+ * the primary is the fallback.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class DatabaseHost {
+
+	/** The Constant ROLE_PRIMARY. */
+	public static final String ROLE_PRIMARY = "primary";
+
+	/** The Constant ROLE_REPLICA. */
+	public static final String ROLE_REPLICA = "replica";
+
+	/** The host name. */
+	private final String host;
+
+	/** The port. */
+	private final String port;
+
+	/** The replica flag. */
+	private final boolean replica;
+
+	/**
+	 * Instantiates a new database host.
+	 *
+	 * @param host
+	 *            the host name
+	 * @param port
+	 *            the port
+	 * @param replica
+	 *            true, if the host is a read replica or a standby
+	 */
+	public DatabaseHost(String host, String port, boolean replica) {
+		this.host = host;
+		this.port = port;
+		this.replica = replica;
+	}
+
+	/**
+	 * Parses a host list, the replicas are returned first and the hosts of the
+	 * same role keep their order.
+	 *
+	 * @param hosts
+	 *            the comma separated host[:port][/role] list
+	 * @param defaultPort
+	 *            the port of the hosts without port
+	 * @return the hosts
+	 * @throws IllegalArgumentException
+	 *             if a role is unknown or a bracket is missing
+	 */
+	public static List<DatabaseHost> parse(String hosts, String defaultPort) {
+		List<DatabaseHost> replicas = new ArrayList<>();
+		List<DatabaseHost> primaries = new ArrayList<>();
+		for (String entry : hosts.split(",")) {
+			entry = entry.trim();
+			if (entry.isEmpty()) {
+				continue;
+			}
+			boolean replica = false;
+			int slash = entry.indexOf('/');
+			if (slash >= 0) {
+				String role = entry.substring(slash + 1).trim();
+				if (ROLE_REPLICA.equalsIgnoreCase(role)) {
+					replica = true;
+				} else if (!ROLE_PRIMARY.equalsIgnoreCase(role)) {
+					throw new IllegalArgumentException("Unknown database host role " + role + ", use "
+							+ ROLE_PRIMARY + " or " + ROLE_REPLICA);
+				}
+				entry = entry.substring(0, slash).trim();
+			}
+			String port = defaultPort;
+			int colon = entry.lastIndexOf(':');
+			if (entry.startsWith("[")) {
+				// IPv6 address, its colons are not port separators
+				int bracket = entry.indexOf(']');
+				String rest = bracket < 0 ? "" : entry.substring(bracket + 1).trim();
+				if (bracket < 2 || !rest.isEmpty() && !rest.startsWith(":")) {
+					throw new IllegalArgumentException("Invalid database host " + entry
+							+ ", use [address]:port for an IPv6 address");
+				}
+				if (rest.length() > 1) {
+					port = rest.substring(1).trim();
+				}
+				entry = entry.substring(1, bracket).trim();
+			} else if (colon >= 0 && entry.indexOf(':') == colon) {
+				// an IPv6 address without brackets has several colons, it is taken without port
+				port = entry.substring(colon + 1).trim();
+				entry = entry.substring(0, colon).trim();
+			}
+			(replica ? replicas : primaries).add(new DatabaseHost(entry, port, replica));
+		}
+		replicas.addAll(primaries);
+		return replicas;
+	}
+
+	/**
+	 * Gets the host name.
+	 *
+	 * @return the host
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * Gets the host name as written in a JDBC URL, an IPv6 address in
+	 * brackets.
+	 *
+	 * @return the host
+	 */
+	public String getUrlHost() {
+		return host.indexOf(':') >= 0 ? "[" + host + "]" : host;
+	}
+
+	/**
+	 * Gets the port.
+	 *
+	 * @return the port
+	 */
+	public String getPort() {
+		return port;
+	}
+
+	/**
+	 * Checks if the host is a read replica or a standby.
+	 *
+	 * @return true, if it is a replica
+	 */
+	public boolean isReplica() {
+		return replica;
+	}
+
+	@Override
+	public String toString() {
+		return getUrlHost() + ":" + port + "/" + (replica ? ROLE_REPLICA : ROLE_PRIMARY);
+	}
+}
@@ -0,0 +1,577 @@
+package com.castsoftware.jira.util;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.castsoftware.jira.pojo.ActionPlanViolation;
+import com.castsoftware.jira.pojo.MetricMetadata;
+import com.castsoftware.jira.pojo.ViolationChange;
+
+/**
+ * The Class ExtractFile is the action plan of an application saved by the
+ * extract phase and read by the push phase, so the Jira synchronization can be
+ * retried without querying the CAST database again. The file is memory mapped
+ * and indexed by CastId:
+ *
+ * <pre>
+ * header    magic, version
+ * records   one by violation
+ * metrics   number of metrics, then the texts of each metric once
+ * index     CastId, record offset; sorted by CastId
+ * watermark present flag, selection date, nanos, snapshot id
+ * trailer   index offset, metrics offset, number of violations, magic
+ * </pre>
+ *
+ * The strings are written with a null marker, a missing value is read back as
+ * null. The offsets are int, the file is limited to 2 GB.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class ExtractFile {
+
+	/** The log. */
+	public static Log log = LogFactory.getLog(ExtractFile.class);
+
+	/** The Constant MAGIC, "C2JX". */
+	private static final int MAGIC = 0x43324A58;
+
+	/** The Constant VERSION, to be increased when the format changes. */
+	private static final int VERSION = 4;
+
+	/** The Constant TRAILER_SIZE. */
+	private static final int TRAILER_SIZE = 24;
+
+	/** The Constant INDEX_ENTRY_SIZE. */
+	private static final int INDEX_ENTRY_SIZE = 16;
+
+	/**
+	 * The Constant SOURCE_ID_OFFSET, position of the source id in a violation
+	 * record: after the object id, priority, metric id, status and lines.
+	 */
+	private static final int SOURCE_ID_OFFSET = 25;
+
+	/** The mapped file. */
+	private final ByteBuffer buffer;
+
+	/** The offset of the index. */
+	private final int indexOffset;
+
+	/** The number of violations. */
+	private final int count;
+
+	/** The watermark of the extraction, null if the action plan was empty. */
+	private final Watermark watermark;
+
+	/** The metadata by metric id, shared by the violations read. */
+	private final Map<Integer, MetricMetadata> metadata = new HashMap<>();
+
+	/** The Constant METRIC_TEXTS, number of texts written for a metric. */
+	private static final int METRIC_TEXTS = 11;
+
+	/**
+	 * Opens an extract file.
+	 *
+	 * @param file
+	 *            the file
+	 * @throws IOException
+	 *             if the file can not be read or is not an extract file
+	 */
+	public ExtractFile(File file) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+			if (channel.size() > Integer.MAX_VALUE || channel.size() < 8 + TRAILER_SIZE) {
+				throw new IOException("Invalid extract file " + file.getAbsolutePath());
+			}
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			buffer = mapped;
+		}
+		int size = buffer.capacity();
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(size - 4) != MAGIC) {
+			throw new IOException("Invalid extract file " + file.getAbsolutePath());
+		}
+		indexOffset = (int) buffer.getLong(size - TRAILER_SIZE);
+		count = buffer.getInt(size - TRAILER_SIZE + 16);
+
+		ByteBuffer in = buffer.duplicate();
+		in.position((int) buffer.getLong(size - TRAILER_SIZE + 8));
+		int metrics = in.getInt();
+		for (int i = 0; i < metrics; i++) {
+			int metricId = in.getInt();
+			String[] texts = new String[METRIC_TEXTS];
+			for (int t = 0; t < texts.length; t++) {
+				texts[t] = readString(in);
+			}
+			metadata.put(metricId, new MetricMetadata(metricId, texts[0], texts[1], texts[2], texts[3], texts[4],
+					texts[5], texts[6], texts[7], texts[8], texts[9], texts[10]));
+		}
+
+		in.position(indexOffset + count * INDEX_ENTRY_SIZE);
+		if (in.get() == 1) {
+			Timestamp selectionDate = new Timestamp(in.getLong());
+			selectionDate.setNanos(in.getInt());
+			watermark = new Watermark(selectionDate, in.getInt());
+		} else {
+			watermark = null;
+		}
+	}
+
+	/**
+	 * Gets the extract file of an application.
+	 *
+	 * @param directory
+	 *            the directory
+	 * @param schemaProfile
+	 *            the central schema
+	 * @param appName
+	 *            the application name
+	 * @param jiraProject
+	 *            the Jira project
+	 * @return the file
+	 */
+	public static File getFile(File directory, String schemaProfile, String appName, String jiraProject) {
+		String name = String.format("%s.%s.%s.extract", schemaProfile, appName, jiraProject).toLowerCase()
+				.replaceAll("[^a-z0-9._-]", "_");
+		return new File(directory, name);
+	}
+
+	/**
+	 * Gets the number of violations.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Gets the watermark of the extraction.
+	 *
+	 * @return the watermark, null if the action plan was empty
+	 */
+	public Watermark getWatermark() {
+		return watermark;
+	}
+
+	/**
+	 * Gets a violation.
+	 *
+	 * @param castId
+	 *            the CastId
+	 * @return the violation, null if it is not in the file
+	 */
+	public ActionPlanViolation get(long castId) {
+		int low = 0;
+		int high = count - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			long id = buffer.getLong(indexOffset + mid * INDEX_ENTRY_SIZE);
+			if (id < castId) {
+				low = mid + 1;
+			} else if (id > castId) {
+				high = mid - 1;
+			} else {
+				return read((int) buffer.getLong(indexOffset + mid * INDEX_ENTRY_SIZE + 8));
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the CastIds, read from the index.
+	 *
+	 * @return the CastIds, sorted
+	 */
+	public long[] getCastIds() {
+		long[] castIds = new long[count];
+		for (int i = 0; i < count; i++) {
+			castIds[i] = buffer.getLong(indexOffset + i * INDEX_ENTRY_SIZE);
+		}
+		return castIds;
+	}
+
+	/**
+	 * Sends all the violations to a handler, by CastId.
+	 *
+	 * @param handler
+	 *            the handler
+	 */
+	public void handleAll(ActionPlanHandler handler) {
+		for (int i = 0; i < count; i++) {
+			int entry = indexOffset + i * INDEX_ENTRY_SIZE;
+			handler.handleViolation(buffer.getLong(entry), read((int) buffer.getLong(entry + 8)));
+		}
+	}
+
+	/**
+	 * Sends all the violations to a handler, grouped by source file: the
+	 * {@link SourceCodeLoader} then reads each file once while the issues are
+	 * created, instead of once by violation in CastId order.
+	 *
+	 * @param handler
+	 *            the handler
+	 */
+	public void handleAllBySource(ActionPlanHandler handler) {
+		// source id in the high bits, index entry in the low bits
+		long[] order = new long[count];
+		for (int i = 0; i < count; i++) {
+			int offset = (int) buffer.getLong(indexOffset + i * INDEX_ENTRY_SIZE + 8);
+			order[i] = ((long) buffer.getInt(offset + SOURCE_ID_OFFSET) << 32) | i;
+		}
+		Arrays.sort(order);
+		for (long entry : order) {
+			int offset = indexOffset + (int) entry * INDEX_ENTRY_SIZE;
+			handler.handleViolation(buffer.getLong(offset), read((int) buffer.getLong(offset + 8)));
+		}
+	}
+
+	/**
+	 * Reads a violation record.
+	 *
+	 * @param offset
+	 *            the offset of the record
+	 * @return the violation
+	 */
+	private ActionPlanViolation read(int offset) {
+		ByteBuffer in = buffer.duplicate();
+		in.position(offset);
+		long objectId = in.getLong();
+		int priority = in.get();
+		int metricId = in.getInt();
+		int violationStatus = in.getInt();
+		int lineStart = in.getInt();
+		int lineEnd = in.getInt();
+		int sourceId = in.getInt();
+		int change = in.get();
+		Timestamp actionDate = readDate(in);
+		Timestamp firstSnapshotDate = readDate(in);
+		String tag = priority >= 1 && priority <= Constants.ACTION_PLAN_TAGS.length
+				? Constants.ACTION_PLAN_TAGS[priority - 1] : null;
+		String actionDef = readString(in);
+		String objectFullName = readString(in);
+		String sourcePath = readString(in);
+		MetricMetadata metric = metadata.get(metricId);
+		if (metric == null) {
+			metric = new MetricMetadata(metricId, null, null, null, null, null, null, null, null, null, null, null);
+		}
+		ActionPlanViolation violation = new ActionPlanViolation(objectId, tag, actionDate, firstSnapshotDate,
+				actionDef, objectFullName, metric, sourcePath, lineStart, lineEnd, sourceId, violationStatus);
+		if (change >= 0) {
+			violation.setChange(ViolationChange.values()[change]);
+		}
+		return violation;
+	}
+
+	/**
+	 * Reads a string.
+	 *
+	 * @param in
+	 *            the buffer
+	 * @return the string, null if it was null
+	 */
+	private static String readString(ByteBuffer in) {
+		int length = in.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads a date, epoch milliseconds and nanoseconds.
+	 *
+	 * @param in
+	 *            the buffer positioned on the date
+	 * @return the date, null if there is none
+	 */
+	private static Timestamp readDate(ByteBuffer in) {
+		long time = in.getLong();
+		int nanos = in.getInt();
+		if (nanos < 0) {
+			return null;
+		}
+		Timestamp date = new Timestamp(time);
+		date.setNanos(nanos);
+		return date;
+	}
+
+	/**
+	 * The Class Writer writes an extract file while the action plan is read.
+	 * The file is written next to its final name and renamed by
+	 * {@link #finish(Watermark)}, a failed extraction does not replace the
+	 * previous file and {@link #close()} removes what it had written.
+	 */
+	public static class Writer implements ActionPlanHandler, Closeable {
+
+		/** The file. */
+		private final File file;
+
+		/** The temporary file. */
+		private final File temporary;
+
+		/** The output. */
+		private final DataOutputStream out;
+
+		/** The number of bytes written, DataOutputStream.size() stops at 2 GB. */
+		private final CountingOutputStream position;
+
+		/** The metrics of the violations written, their texts are written once. */
+		private final Map<Integer, MetricMetadata> metrics = new LinkedHashMap<>();
+
+		/** True once the extract file has been replaced. */
+		private boolean finished;
+
+		/** The CastIds. */
+		private long[] castIds = new long[1024];
+
+		/** The record offsets. */
+		private long[] offsets = new long[1024];
+
+		/** The number of violations. */
+		private int count;
+
+		/** The first write error, reported by finish. */
+		private IOException error;
+
+		/**
+		 * Instantiates a new writer.
+		 *
+		 * @param file
+		 *            the extract file
+		 * @throws IOException
+		 *             Signals that an I/O exception has occurred.
+		 */
+		public Writer(File file) throws IOException {
+			this.file = file;
+			File directory = file.getAbsoluteFile().getParentFile();
+			if (!directory.isDirectory() && !directory.mkdirs()) {
+				throw new IOException("unable to create " + directory.getAbsolutePath());
+			}
+			temporary = new File(directory, file.getName() + ".tmp");
+			position = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(temporary), 65536));
+			out = new DataOutputStream(position);
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+		}
+
+		@Override
+		public void handleViolation(long castId, ActionPlanViolation violation) {
+			if (error != null) {
+				return;
+			}
+			if (count == castIds.length) {
+				castIds = Arrays.copyOf(castIds, count * 2);
+				offsets = Arrays.copyOf(offsets, count * 2);
+			}
+			castIds[count] = castId;
+			offsets[count] = position.getCount();
+			if (!metrics.containsKey(violation.getMetricId())) {
+				metrics.put(violation.getMetricId(), violation.getMetricMetadata());
+			}
+			try {
+				out.writeLong(violation.getObjectId());
+				out.writeByte(violation.getPriority());
+				out.writeInt(violation.getMetricId());
+				out.writeInt(violation.getViolationStatus());
+				out.writeInt(violation.getLineStart());
+				out.writeInt(violation.getLineEnd());
+				out.writeInt(violation.getSourceId());
+				out.writeByte(violation.getChange() == null ? -1 : violation.getChange().ordinal());
+				out.writeLong(violation.getActionTime());
+				out.writeInt(violation.getActionNanos());
+				out.writeLong(violation.getFirstSnapshotTime());
+				out.writeInt(violation.getFirstSnapshotNanos());
+				writeString(violation.hasActionDef() ? violation.getActionDef() : null);
+				writeString(violation.hasObjectFullName() ? violation.getObjectFullName() : null);
+				writeString(violation.getSourcePath());
+				checkSize();
+			} catch (IOException e) {
+				error = e;
+				return;
+			}
+			count++;
+		}
+
+		/**
+		 * Checks that the records can still be addressed by the mapped file.
+		 *
+		 * @throws IOException
+		 *             if the file exceeds 2 GB
+		 */
+		private void checkSize() throws IOException {
+			if (position.getCount() > Integer.MAX_VALUE) {
+				throw new IOException("The extract file exceeds 2 GB after " + count + " violations: "
+						+ temporary.getAbsolutePath());
+			}
+		}
+
+		/**
+		 * Writes a string.
+		 *
+		 * @param value
+		 *            the value
+		 * @throws IOException
+		 *             Signals that an I/O exception has occurred.
+		 */
+		private void writeString(String value) throws IOException {
+			if (value == null) {
+				out.writeInt(-1);
+				return;
+			}
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+
+		/**
+		 * Writes the metrics, the index and the watermark, then replaces the extract file.
+		 *
+		 * @param watermark
+		 *            the watermark of the extraction, null if there is none
+		 * @return the number of violations written
+		 * @throws IOException
+		 *             if a violation or the index could not be written
+		 */
+		public int finish(Watermark watermark) throws IOException {
+			try {
+				if (error != null) {
+					throw error;
+				}
+				// the index is sorted by CastId for the binary search
+				long[] sorted = Arrays.copyOf(castIds, count);
+				Arrays.sort(sorted);
+				for (int i = 1; i < count; i++) {
+					if (sorted[i] == sorted[i - 1]) {
+						throw new IOException("CastId " + sorted[i] + " written twice to " + file.getAbsolutePath());
+					}
+				}
+				long[] sortedOffsets = new long[count];
+				for (int i = 0; i < count; i++) {
+					sortedOffsets[Arrays.binarySearch(sorted, castIds[i])] = offsets[i];
+				}
+				long metricsOffset = position.getCount();
+				out.writeInt(metrics.size());
+				for (MetricMetadata metric : metrics.values()) {
+					out.writeInt(metric.getMetricId());
+					writeString(metric.getShortDescription());
+					writeString(metric.getReason());
+					writeString(metric.getLongDescription());
+					writeString(metric.getRemediation());
+					writeString(metric.getReference());
+					writeString(metric.getViolationExample());
+					writeString(metric.getRemediationExample());
+					writeString(metric.getOutput());
+					writeString(metric.getTotals());
+					writeString(metric.getTechCriteria());
+					writeString(metric.getBusinessCriteria());
+				}
+				long indexOffset = position.getCount();
+				for (int i = 0; i < count; i++) {
+					out.writeLong(sorted[i]);
+					out.writeLong(sortedOffsets[i]);
+				}
+				if (watermark == null) {
+					out.writeByte(0);
+				} else {
+					out.writeByte(1);
+					out.writeLong(watermark.getSelectionDate().getTime());
+					out.writeInt(watermark.getSelectionDate().getNanos());
+					out.writeInt(watermark.getSnapshotId());
+				}
+				out.writeLong(indexOffset);
+				out.writeLong(metricsOffset);
+				out.writeInt(count);
+				out.writeInt(MAGIC);
+				out.flush();
+				checkSize();
+			} finally {
+				out.close();
+			}
+			if (file.exists() && !file.delete() || !temporary.renameTo(file)) {
+				throw new IOException("unable to replace " + file.getAbsolutePath());
+			}
+			finished = true;
+			log.info(count + " violations written to " + file.getAbsolutePath());
+			return count;
+		}
+
+		/**
+		 * Closes the writer. If the extract file has not been replaced by
+		 * {@link #finish(Watermark)}, the partial file is deleted.
+		 */
+		@Override
+		public void close() {
+			if (finished) {
+				return;
+			}
+			try {
+				out.close();
+			} catch (IOException e) {
+				log.debug("Extract file closed with an error: " + e.getMessage());
+			}
+			if (temporary.exists() && !temporary.delete()) {
+				log.warn("Partial extract file can not be deleted: " + temporary.getAbsolutePath());
+			}
+		}
+	}
+
+	/**
+	 * The Class CountingOutputStream counts the bytes written as a long.
+	 */
+	private static class CountingOutputStream extends FilterOutputStream {
+
+		/** The number of bytes written. */
+		private long count;
+
+		/**
+		 * Instantiates a new counting output stream.
+		 *
+		 * @param out
+		 *            the output
+		 */
+		private CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+
+		/**
+		 * Gets the number of bytes written.
+		 *
+		 * @return the count
+		 */
+		private long getCount() {
+			return count;
+		}
+	}
+}
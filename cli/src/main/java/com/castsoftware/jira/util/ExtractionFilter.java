@@ -0,0 +1,215 @@
+package com.castsoftware.jira.util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Class ExtractionFilter holds the violations filters applied by the
+ * database when the action plan is extracted: priority range, violation
+ * status, metric allow and deny lists and object name patterns. Rows the
+ * synchronization would ignore are never read.
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public class ExtractionFilter {
+
+	/** The minimum priority, 1 is the highest one. */
+	private int minPriority = Constants.SYNC_MIN_PRIORITY;
+
+	/** The maximum priority. */
+	private int maxPriority = Constants.SYNC_MAX_PRIORITY;
+
+	/** The violation statuses, empty for all. */
+	private List<Integer> statuses = new ArrayList<>();
+
+	/** The metrics to extract, empty for all. */
+	private List<Integer> includedMetrics = new ArrayList<>();
+
+	/** The metrics not to extract. */
+	private List<Integer> excludedMetrics = new ArrayList<>();
+
+	/** The object full name patterns (SQL like), empty for all. */
+	private List<String> objectPatterns = new ArrayList<>();
+
+	/**
+	 * Gets the SQL predicates of the filter, each one starting with "and".
+	 * The values are bound by {@link #bind(PreparedStatement, int)}.
+	 * 
+	 * @return the predicates
+	 */
+	public String getStatement() {
+		StringBuffer sb = new StringBuffer();
+		sb.append("and vap.tag in ").append(getParameters(maxPriority - minPriority + 1)).append(" \n");
+		if (!statuses.isEmpty()) {
+			sb.append("and dvs.violation_status in ").append(getParameters(statuses.size())).append(" \n");
+		}
+		if (!includedMetrics.isEmpty()) {
+			sb.append("and vap.metric_id in ").append(getParameters(includedMetrics.size())).append(" \n");
+		}
+		if (!excludedMetrics.isEmpty()) {
+			sb.append("and vap.metric_id not in ").append(getParameters(excludedMetrics.size())).append(" \n");
+		}
+		if (!objectPatterns.isEmpty()) {
+			sb.append("and (");
+			for (int i = 0; i < objectPatterns.size(); i++) {
+				sb.append(i == 0 ? "" : " or ").append("dso.object_full_name like ?");
+			}
+			sb.append(") \n");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Binds the values of the filter predicates.
+	 * 
+	 * @param pst
+	 *            the statement
+	 * @param index
+	 *            the index of the first parameter
+	 * @return the index of the next parameter
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public int bind(PreparedStatement pst, int index) throws SQLException {
+		for (int priority = minPriority; priority <= maxPriority; priority++) {
+			pst.setString(index++, Constants.ACTION_PLAN_TAGS[priority - 1]);
+		}
+		for (int status : statuses) {
+			pst.setInt(index++, status);
+		}
+		for (int metricId : includedMetrics) {
+			pst.setInt(index++, metricId);
+		}
+		for (int metricId : excludedMetrics) {
+			pst.setInt(index++, metricId);
+		}
+		for (String pattern : objectPatterns) {
+			pst.setString(index++, pattern);
+		}
+		return index;
+	}
+
+	/**
+	 * Gets a list of parameter markers.
+	 * 
+	 * @param count
+	 *            the number of parameters
+	 * @return the parameters, (?, ?, ...)
+	 */
+	private String getParameters(int count) {
+		StringBuffer sb = new StringBuffer("(");
+		for (int i = 0; i < count; i++) {
+			sb.append(i == 0 ? "?" : ", ?");
+		}
+		return sb.append(")").toString();
+	}
+
+	/**
+	 * Sets the priority range, it can only narrow the priorities synchronized
+	 * with Jira.
+	 * 
+	 * @param range
+	 *            the range, min-max (e.g. 1-3) or a single priority
+	 * @throws IllegalArgumentException
+	 *             if the range is not valid
+	 */
+	public void setPriorityRange(String range) {
+		String[] bounds = range.trim().split("-");
+		if (bounds.length > 2) {
+			throw new IllegalArgumentException("Invalid priority range: " + range);
+		}
+		int min = Integer.parseInt(bounds[0].trim());
+		int max = bounds.length == 2 ? Integer.parseInt(bounds[1].trim()) : min;
+		if (min < Constants.SYNC_MIN_PRIORITY || max > Constants.SYNC_MAX_PRIORITY || min > max) {
+			throw new IllegalArgumentException("Invalid priority range: " + range);
+		}
+		minPriority = min;
+		maxPriority = max;
+	}
+
+	/**
+	 * Sets the violation statuses to extract.
+	 * 
+	 * @param statuses
+	 *            the statuses, comma separated
+	 */
+	public void setStatuses(String statuses) {
+		this.statuses = parseIds(statuses);
+	}
+
+	/**
+	 * Sets the metrics to extract.
+	 * 
+	 * @param metrics
+	 *            the metric ids, comma separated
+	 */
+	public void setIncludedMetrics(String metrics) {
+		this.includedMetrics = parseIds(metrics);
+	}
+
+	/**
+	 * Sets the metrics not to extract.
+	 * 
+	 * @param metrics
+	 *            the metric ids, comma separated
+	 */
+	public void setExcludedMetrics(String metrics) {
+		this.excludedMetrics = parseIds(metrics);
+	}
+
+	/**
+	 * Sets the object full name patterns.
+	 * 
+	 * @param patterns
+	 *            the SQL like patterns, semicolon separated
+	 */
+	public void setObjectPatterns(String patterns) {
+		List<String> result = new ArrayList<>();
+		for (String pattern : patterns.split(";")) {
+			if (!pattern.trim().isEmpty()) {
+				result.add(pattern.trim());
+			}
+		}
+		this.objectPatterns = result;
+	}
+
+	/**
+	 * Gets the minimum priority.
+	 * 
+	 * @return the minPriority
+	 */
+	public int getMinPriority() {
+		return minPriority;
+	}
+
+	/**
+	 * Gets the maximum priority.
+	 * 
+	 * @return the maxPriority
+	 */
+	public int getMaxPriority() {
+		return maxPriority;
+	}
+
+	/**
+	 * Parses a comma separated list of ids.
+	 * 
+	 * @param ids
+	 *            the ids
+	 * @return the list
+	 * @throws NumberFormatException
+	 *             if an id is not a number
+	 */
+	public static List<Integer> parseIds(String ids) {
+		List<Integer> result = new ArrayList<>();
+		for (String id : ids.split(",")) {
+			if (!id.trim().isEmpty()) {
+				result.add(Integer.parseInt(id.trim()));
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,214 @@
+package com.castsoftware.jira.util;
+
+import org.apache.commons.logging.Log;
+
+/**
+ * The Class ExtractionStatistics records where the time of an action plan
+ * extraction goes: database, network and mapping of the rows. The byte counts
+ * are approximations computed from the values read, they show which column
+ * groups weigh on the transfer.
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public class ExtractionStatistics {
+
+	/** Approximate size of the numeric and date columns of a row. */
+	private static final int KEY_BYTES_PER_ROW = 40;
+
+	/** The time spent to build and prepare the statement. */
+	private long prepareNanos;
+
+	/** The time between the execution and the first row. */
+	private long firstRowNanos;
+
+	/** The time spent to fetch the rows, mapping and handling excluded. */
+	private long fetchNanos;
+
+	/** The time spent to map the rows to violations and compute their CRC. */
+	private long mappingNanos;
+
+	/** The time spent by the handler of the violations. */
+	private long handlerNanos;
+
+	/** The number of rows read. */
+	private long rows;
+
+	/** The number of violations sent to the handler. */
+	private long violations;
+
+	/** The approximate bytes of the numeric and date columns. */
+	private long keyBytes;
+
+	/** The approximate bytes of the text columns. */
+	private long textBytes;
+
+	/** The approximate bytes of the source position columns. */
+	private long sourceBytes;
+
+	/** The number of violations rejected on a CastId collision. */
+	private int collisions;
+
+	/**
+	 * Adds the statistics of another extraction, a partition of the same run.
+	 * 
+	 * @param other
+	 *            the other statistics
+	 */
+	public void add(ExtractionStatistics other) {
+		prepareNanos += other.prepareNanos;
+		firstRowNanos = Math.max(firstRowNanos, other.firstRowNanos);
+		fetchNanos += other.fetchNanos;
+		mappingNanos += other.mappingNanos;
+		handlerNanos += other.handlerNanos;
+		rows += other.rows;
+		violations += other.violations;
+		keyBytes += other.keyBytes;
+		textBytes += other.textBytes;
+		sourceBytes += other.sourceBytes;
+		collisions += other.collisions;
+	}
+
+	/**
+	 * Records a row read.
+	 * 
+	 * @param tag
+	 *            the tag
+	 * @param actionMessage
+	 *            the action message
+	 * @param objectName
+	 *            the object name
+	 * @param sourcePath
+	 *            the source path, null when the source position is not read
+	 */
+	public void addRow(String tag, String actionMessage, String objectName, String sourcePath) {
+		rows++;
+		keyBytes += KEY_BYTES_PER_ROW;
+		textBytes += length(tag) + length(actionMessage) + length(objectName);
+		if (sourcePath != null) {
+			sourceBytes += sourcePath.length() + 12;
+		}
+	}
+
+	/**
+	 * Gets the length of a column value.
+	 * 
+	 * @param value
+	 *            the value
+	 * @return the length, 0 if it is null
+	 */
+	private static int length(String value) {
+		return value == null ? 0 : value.length();
+	}
+
+	/**
+	 * Adds the time spent to prepare the statement.
+	 * 
+	 * @param nanos
+	 *            the nanoseconds
+	 */
+	public void addPrepareNanos(long nanos) {
+		prepareNanos += nanos;
+	}
+
+	/**
+	 * Sets the time between the execution and the first row.
+	 * 
+	 * @param nanos
+	 *            the nanoseconds
+	 */
+	public void setFirstRowNanos(long nanos) {
+		firstRowNanos = nanos;
+	}
+
+	/**
+	 * Adds the time spent to fetch the rows.
+	 * 
+	 * @param nanos
+	 *            the nanoseconds
+	 */
+	public void addFetchNanos(long nanos) {
+		fetchNanos += nanos;
+	}
+
+	/**
+	 * Adds the time spent to map a row.
+	 * 
+	 * @param nanos
+	 *            the nanoseconds
+	 */
+	public void addMappingNanos(long nanos) {
+		mappingNanos += nanos;
+	}
+
+	/**
+	 * Adds the time spent by the handler on a violation.
+	 * 
+	 * @param nanos
+	 *            the nanoseconds
+	 */
+	public void addHandlerNanos(long nanos) {
+		handlerNanos += nanos;
+		violations++;
+	}
+
+	/**
+	 * Sets the number of violations rejected on a CastId collision.
+	 * 
+	 * @param collisions
+	 *            the collisions
+	 */
+	public void setCollisions(int collisions) {
+		this.collisions = collisions;
+	}
+
+	/**
+	 * Gets the number of violations rejected on a CastId collision.
+	 * 
+	 * @return the collisions
+	 */
+	public int getCollisions() {
+		return collisions;
+	}
+
+	/**
+	 * Gets the number of rows read.
+	 * 
+	 * @return the rows
+	 */
+	public long getRows() {
+		return rows;
+	}
+
+	/**
+	 * Logs the statistics. The times of parallel partitions are summed, the
+	 * first row time is the longest one.
+	 * 
+	 * @param log
+	 *            the log
+	 */
+	public void log(Log log) {
+		log.info("Extraction - Statement preparation : " + millis(prepareNanos) + " ms");
+		log.info("Extraction - Time to first row : " + millis(firstRowNanos) + " ms");
+		log.info("Extraction - Fetch time : " + millis(fetchNanos) + " ms");
+		log.info("Extraction - Mapping and CRC time : " + millis(mappingNanos) + " ms");
+		log.info("Extraction - Handler time : " + millis(handlerNanos) + " ms");
+		log.info("Extraction - Rows read : " + rows + ", violations handled : " + violations);
+		if (collisions > 0) {
+			log.error("Extraction - Violations rejected on a CastId collision : " + collisions);
+		}
+		log.info("Extraction - Approximate bytes read : keys " + keyBytes + ", text " + textBytes + ", source positions "
+				+ sourceBytes);
+	}
+
+	/**
+	 * Converts nanoseconds to milliseconds.
+	 * 
+	 * @param nanos
+	 *            the nanoseconds
+	 * @return the milliseconds
+	 */
+	private static long millis(long nanos) {
+		return nanos / 1000000L;
+	}
+}
@@ -1,15 +1,15 @@
-package com.castsoftware.jira.util;
-
-public class JiraException extends Exception {
-
-    public JiraException(String message) {
-        super(message);
-        // TODO Auto-generated constructor stub
-    }
-
-    public JiraException(String message, Throwable cause) {
-        super(message, cause);
-        // TODO Auto-generated constructor stub
-    }
-
-}
+package com.castsoftware.jira.util;
+
+public class JiraException extends Exception {
+
+    public JiraException(String message) {
+        super(message);
+        // TODO Auto-generated constructor stub
+    }
+
+    public JiraException(String message, Throwable cause) {
+        super(message, cause);
+        // TODO Auto-generated constructor stub
+    }
+
+}
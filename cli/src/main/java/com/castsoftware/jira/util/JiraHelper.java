@@ -1,106 +1,122 @@
-package com.castsoftware.jira.util;
-
-import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-
-import com.atlassian.jira.rest.client.api.AuditRestClient;
-import com.atlassian.jira.rest.client.api.ComponentRestClient;
-import com.atlassian.jira.rest.client.api.GroupRestClient;
-import com.atlassian.jira.rest.client.api.IssueRestClient;
-import com.atlassian.jira.rest.client.api.JiraRestClient;
-import com.atlassian.jira.rest.client.api.MetadataRestClient;
-import com.atlassian.jira.rest.client.api.MyPermissionsRestClient;
-import com.atlassian.jira.rest.client.api.ProjectRestClient;
-import com.atlassian.jira.rest.client.api.ProjectRolesRestClient;
-import com.atlassian.jira.rest.client.api.SearchRestClient;
-import com.atlassian.jira.rest.client.api.SessionRestClient;
-import com.atlassian.jira.rest.client.api.UserRestClient;
-import com.atlassian.jira.rest.client.api.VersionRestClient;
-import com.atlassian.jira.rest.client.internal.async.AsynchronousJiraRestClientFactory;
-
-
-
-public class JiraHelper implements JiraRestClient {
-    private final JiraRestClient restClient;
-    
-    public JiraHelper(String jiraRestApiUrl, String jiraUser, String jiraUserPassword)
-            throws URISyntaxException {
-
-        AsynchronousJiraRestClientFactory factory = new AsynchronousJiraRestClientFactory();
-        URI jiraServerUri = new URI(jiraRestApiUrl);
-
-        restClient = factory.createWithBasicHttpAuthentication(jiraServerUri, jiraUser, jiraUserPassword);
-    }
-
-    @Override
-    public IssueRestClient getIssueClient() {
-        return restClient.getIssueClient();
-    }
-
-    @Override
-    public SessionRestClient getSessionClient() {
-        return restClient.getSessionClient();
-    }
-
-    @Override
-    public UserRestClient getUserClient() {
-        return restClient.getUserClient();
-    }
-
-    @Override
-    public ProjectRestClient getProjectClient() {
-        return restClient.getProjectClient();
-    }
-
-    @Override
-    public ComponentRestClient getComponentClient() {
-        return restClient.getComponentClient();
-    }
-
-    @Override
-    public MetadataRestClient getMetadataClient() {
-        return restClient.getMetadataClient();
-    }
-
-    @Override
-    public SearchRestClient getSearchClient() {
-        return restClient.getSearchClient();
-    }
-
-    @Override
-    public VersionRestClient getVersionRestClient() {
-        return restClient.getVersionRestClient();
-    }
-
-    @Override
-    public ProjectRolesRestClient getProjectRolesRestClient() {
-        // TODO Auto-generated method stub
-        return restClient.getProjectRolesRestClient();
-    }
-
-    @Override
-    public GroupRestClient getGroupClient() {
-        // TODO Auto-generated method stub
-        return restClient.getGroupClient();
-    }
-
-    @Override
-    public AuditRestClient getAuditRestClient() {
-        // TODO Auto-generated method stub
-        return restClient.getAuditRestClient();
-    }
-
-    @Override
-    public MyPermissionsRestClient getMyPermissionsRestClient() {
-        // TODO Auto-generated method stub
-        return restClient.getMyPermissionsRestClient();
-    }
-
-    @Override
-    public void close() throws IOException {
-        // TODO Auto-generated method stub
-        restClient.close();
-    }
-
-}
+package com.castsoftware.jira.util;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.ExecutionException;
+
+import com.atlassian.jira.rest.client.api.AuditRestClient;
+import com.atlassian.jira.rest.client.api.ComponentRestClient;
+import com.atlassian.jira.rest.client.api.GroupRestClient;
+import com.atlassian.jira.rest.client.api.IssueRestClient;
+import com.atlassian.jira.rest.client.api.JiraRestClient;
+import com.atlassian.jira.rest.client.api.MetadataRestClient;
+import com.atlassian.jira.rest.client.api.MyPermissionsRestClient;
+import com.atlassian.jira.rest.client.api.ProjectRestClient;
+import com.atlassian.jira.rest.client.api.ProjectRolesRestClient;
+import com.atlassian.jira.rest.client.api.SearchRestClient;
+import com.atlassian.jira.rest.client.api.SessionRestClient;
+import com.atlassian.jira.rest.client.api.UserRestClient;
+import com.atlassian.jira.rest.client.api.VersionRestClient;
+import com.atlassian.jira.rest.client.api.domain.Resolution;
+import com.atlassian.jira.rest.client.internal.async.AsynchronousJiraRestClientFactory;
+
+
+
+public class JiraHelper implements JiraRestClient {
+    private final JiraRestClient restClient;
+
+    /** The resolutions of the Jira instance, read once. */
+    private Iterable<Resolution> resolutions;
+    
+    public JiraHelper(String jiraRestApiUrl, String jiraUser, String jiraUserPassword)
+            throws URISyntaxException {
+
+        AsynchronousJiraRestClientFactory factory = new AsynchronousJiraRestClientFactory();
+        URI jiraServerUri = new URI(jiraRestApiUrl);
+
+        restClient = factory.createWithBasicHttpAuthentication(jiraServerUri, jiraUser, jiraUserPassword);
+    }
+
+    /**
+     * Gets the resolutions of the Jira instance, they are read once and shared
+     * by all the projects synchronized with this client.
+     */
+    public synchronized Iterable<Resolution> getResolutions() throws InterruptedException, ExecutionException {
+        if (resolutions == null) {
+            resolutions = restClient.getMetadataClient().getResolutions().get();
+        }
+        return resolutions;
+    }
+
+    @Override
+    public IssueRestClient getIssueClient() {
+        return restClient.getIssueClient();
+    }
+
+    @Override
+    public SessionRestClient getSessionClient() {
+        return restClient.getSessionClient();
+    }
+
+    @Override
+    public UserRestClient getUserClient() {
+        return restClient.getUserClient();
+    }
+
+    @Override
+    public ProjectRestClient getProjectClient() {
+        return restClient.getProjectClient();
+    }
+
+    @Override
+    public ComponentRestClient getComponentClient() {
+        return restClient.getComponentClient();
+    }
+
+    @Override
+    public MetadataRestClient getMetadataClient() {
+        return restClient.getMetadataClient();
+    }
+
+    @Override
+    public SearchRestClient getSearchClient() {
+        return restClient.getSearchClient();
+    }
+
+    @Override
+    public VersionRestClient getVersionRestClient() {
+        return restClient.getVersionRestClient();
+    }
+
+    @Override
+    public ProjectRolesRestClient getProjectRolesRestClient() {
+        // TODO Auto-generated method stub
+        return restClient.getProjectRolesRestClient();
+    }
+
+    @Override
+    public GroupRestClient getGroupClient() {
+        // TODO Auto-generated method stub
+        return restClient.getGroupClient();
+    }
+
+    @Override
+    public AuditRestClient getAuditRestClient() {
+        // TODO Auto-generated method stub
+        return restClient.getAuditRestClient();
+    }
+
+    @Override
+    public MyPermissionsRestClient getMyPermissionsRestClient() {
+        // TODO Auto-generated method stub
+        return restClient.getMyPermissionsRestClient();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // TODO Auto-generated method stub
+        restClient.close();
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.castsoftware.jira.util;
+
+/**
+ * The Class LegacyCastIds counts the former 32-bit CastIds of the violations
+ * of an extraction. An issue created before the 64-bit CastId is only looked
+ * up by its 32-bit CastId when no other violation of the extraction has it:
+ * otherwise nothing tells which violation the issue belongs to.
+ * <p>
+ * When the whole action plan is known before the issues are created, all its
+ * CastIds are added first. In the streaming modes the CastIds are added while
+ * the violations are handled, a 32-bit CastId is then unique among the
+ * violations already handled.
+ * <p>
+ * An instance is used by one thread.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class LegacyCastIds {
+
+	/** The Constant MAX_LOAD, load factor of the hash slots in percent. */
+	private static final int MAX_LOAD = 50;
+
+	/** The hash slots, the unsigned 32-bit CastId plus one, 0 for an empty slot. */
+	private long[] slots = new long[64];
+
+	/** The slots whose 32-bit CastId was added more than once. */
+	private boolean[] duplicated = new boolean[64];
+
+	/** The number of 32-bit CastIds. */
+	private int size;
+
+	/**
+	 * Adds the CastIds of an extraction.
+	 *
+	 * @param castIds
+	 *            the 64-bit CastIds
+	 */
+	public void addAll(long[] castIds) {
+		for (long castId : castIds) {
+			add(castId);
+		}
+	}
+
+	/**
+	 * Adds a CastId.
+	 *
+	 * @param castId
+	 *            the 64-bit CastId
+	 */
+	public void add(long castId) {
+		long key = key(castId);
+		int slot = find(key);
+		if (slots[slot] == key) {
+			duplicated[slot] = true;
+			return;
+		}
+		slots[slot] = key;
+		if (++size * 100 > slots.length * MAX_LOAD) {
+			resize();
+		}
+	}
+
+	/**
+	 * Checks if no other CastId added has the same 32-bit CastId.
+	 *
+	 * @param castId
+	 *            the 64-bit CastId
+	 * @return true, if its 32-bit CastId is unique
+	 */
+	public boolean isUnique(long castId) {
+		int slot = find(key(castId));
+		return !duplicated[slot];
+	}
+
+	/**
+	 * Gets the number of 32-bit CastIds.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the key of a CastId in the slots.
+	 *
+	 * @param castId
+	 *            the 64-bit CastId
+	 * @return the key, never 0
+	 */
+	private static long key(long castId) {
+		return (ViolationCRC.getLegacyCastId(castId) & 0xFFFFFFFFL) + 1;
+	}
+
+	/**
+	 * Finds the slot of a key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the slot of the key, or the empty slot where it goes
+	 */
+	private int find(long key) {
+		int mask = slots.length - 1;
+		// the low word of the CastId is a CRC32, already spread
+		int slot = (int) key & mask;
+		while (slots[slot] != 0 && slots[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Doubles the hash slots.
+	 */
+	private void resize() {
+		long[] oldSlots = slots;
+		boolean[] oldDuplicated = duplicated;
+		slots = new long[oldSlots.length * 2];
+		duplicated = new boolean[slots.length];
+		for (int i = 0; i < oldSlots.length; i++) {
+			if (oldSlots[i] != 0) {
+				int slot = find(oldSlots[i]);
+				slots[slot] = oldSlots[i];
+				duplicated[slot] = oldDuplicated[i];
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "LegacyCastIds[size=" + size + ", capacity=" + slots.length + "]";
+	}
+}
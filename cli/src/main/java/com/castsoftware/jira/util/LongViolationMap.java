@@ -0,0 +1,369 @@
+package com.castsoftware.jira.util;
+
+import java.util.Arrays;
+
+import com.castsoftware.jira.pojo.ActionPlanViolation;
+
+/**
+ * The Class LongViolationMap holds the violations by 64-bit CastId in open
+ * addressing arrays, without boxing the keys. Every CastId is stored with the
+ * {@link #fingerprint(ActionPlanViolation) fingerprint} of the violation
+ * identity, computed from the object, metric and dates as separate fields and
+ * not from the text the CastId is hashed from: the same CastId with another
+ * fingerprint is a collision, it is counted and the second violation is
+ * rejected instead of silently replacing the first one. Without values, the
+ * map is the set of the CastIds already seen by a streamed extraction.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class LongViolationMap {
+
+	/** The Constant ADDED, the CastId was not in the map. */
+	public static final int ADDED = 0;
+
+	/** The Constant DUPLICATE, the same violation is already in the map. */
+	public static final int DUPLICATE = 1;
+
+	/** The Constant COLLISION, another violation has the same CastId. */
+	public static final int COLLISION = 2;
+
+	/** The Constant FREE, key of the empty slots; the CastId 0 is kept aside. */
+	private static final long FREE = 0L;
+
+	/** The Constant MAX_LOAD, load factor in percent. */
+	private static final int MAX_LOAD = 60;
+
+	/** The keys. */
+	private long[] keys;
+
+	/** The fingerprints. */
+	private long[] fingerprints;
+
+	/** The values, null if no value has been stored. */
+	private ActionPlanViolation[] values;
+
+	/** The number of keys in the arrays. */
+	private int count;
+
+	/** The presence of the CastId 0. */
+	private boolean hasZero;
+
+	/** The fingerprint of the CastId 0. */
+	private long zeroFingerprint;
+
+	/** The violation of the CastId 0. */
+	private ActionPlanViolation zeroValue;
+
+	/** The number of collisions detected. */
+	private int collisions;
+
+	/**
+	 * Instantiates a new empty map.
+	 */
+	public LongViolationMap() {
+		this(16);
+	}
+
+	/**
+	 * Instantiates a new map sized for a number of violations.
+	 *
+	 * @param expected
+	 *            the expected number of violations
+	 */
+	public LongViolationMap(int expected) {
+		int capacity = 16;
+		while (capacity * MAX_LOAD / 100 < expected) {
+			capacity <<= 1;
+		}
+		keys = new long[capacity];
+		fingerprints = new long[capacity];
+	}
+
+	/**
+	 * Gets the fingerprint of the identity of a violation: object, metric,
+	 * first snapshot date and action date. Each field is mixed on its own, two
+	 * violations differing by any of them have different fingerprints even when
+	 * their texts concatenate to the same CastId record.
+	 *
+	 * @param violation
+	 *            the violation
+	 * @return the fingerprint
+	 */
+	public static long fingerprint(ActionPlanViolation violation) {
+		long h = mix(violation.getObjectId());
+		h = mix(h ^ violation.getMetricId());
+		h = mix(h ^ violation.getFirstSnapshotTime());
+		h = mix(h ^ violation.getFirstSnapshotNanos());
+		h = mix(h ^ violation.getActionTime());
+		return mix(h ^ violation.getActionNanos());
+	}
+
+	/**
+	 * Mixes the bits of a value, finalizer of MurmurHash3.
+	 *
+	 * @param value
+	 *            the value
+	 * @return the mixed value
+	 */
+	private static long mix(long value) {
+		long h = value;
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		return h ^ (h >>> 33);
+	}
+
+	/**
+	 * Adds a violation.
+	 *
+	 * @param castId
+	 *            the CastId
+	 * @param fingerprint
+	 *            the fingerprint of the violation identity
+	 * @param violation
+	 *            the violation, null to only remember the CastId
+	 * @return {@link #ADDED}, {@link #DUPLICATE} or {@link #COLLISION}
+	 */
+	public synchronized int add(long castId, long fingerprint, ActionPlanViolation violation) {
+		if (castId == FREE) {
+			if (hasZero) {
+				return check(zeroFingerprint, fingerprint);
+			}
+			hasZero = true;
+			zeroFingerprint = fingerprint;
+			zeroValue = violation;
+			return ADDED;
+		}
+		int mask = keys.length - 1;
+		int slot = slot(castId, mask);
+		while (keys[slot] != FREE) {
+			if (keys[slot] == castId) {
+				return check(fingerprints[slot], fingerprint);
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = castId;
+		fingerprints[slot] = fingerprint;
+		if (violation != null) {
+			if (values == null) {
+				values = new ActionPlanViolation[keys.length];
+			}
+			values[slot] = violation;
+		}
+		if (++count * 100 > keys.length * MAX_LOAD) {
+			resize();
+		}
+		return ADDED;
+	}
+
+	/**
+	 * Adds the violations of another map, for instance of an extraction
+	 * partition.
+	 *
+	 * @param other
+	 *            the other map
+	 */
+	public synchronized void addAll(LongViolationMap other) {
+		synchronized (other) {
+			if (other.hasZero) {
+				add(FREE, other.zeroFingerprint, other.zeroValue);
+			}
+			for (int i = 0; i < other.keys.length; i++) {
+				if (other.keys[i] != FREE) {
+					add(other.keys[i], other.fingerprints[i], other.values == null ? null : other.values[i]);
+				}
+			}
+			collisions += other.collisions;
+		}
+	}
+
+	/**
+	 * Gets a violation.
+	 *
+	 * @param castId
+	 *            the CastId
+	 * @return the violation, null if it is not in the map
+	 */
+	public synchronized ActionPlanViolation get(long castId) {
+		if (castId == FREE) {
+			return zeroValue;
+		}
+		if (values == null) {
+			return null;
+		}
+		int mask = keys.length - 1;
+		int slot = slot(castId, mask);
+		while (keys[slot] != FREE) {
+			if (keys[slot] == castId) {
+				return values[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * Sends all the violations to a handler.
+	 *
+	 * @param handler
+	 *            the handler
+	 */
+	public void handleAll(ActionPlanHandler handler) {
+		if (hasZero && zeroValue != null) {
+			handler.handleViolation(FREE, zeroValue);
+		}
+		if (values == null) {
+			return;
+		}
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != FREE && values[i] != null) {
+				handler.handleViolation(keys[i], values[i]);
+			}
+		}
+	}
+
+	/**
+	 * Sends all the violations to a handler, grouped by source file: the
+	 * {@link SourceCodeLoader} then reads each file once while the issues are
+	 * created, instead of once by violation in CastId order.
+	 *
+	 * @param handler
+	 *            the handler
+	 */
+	public void handleAllBySource(ActionPlanHandler handler) {
+		// source id in the high bits, slot in the low bits, keys.length for the CastId 0
+		long[] order = new long[size()];
+		int n = 0;
+		if (hasZero && zeroValue != null) {
+			order[n++] = ((long) zeroValue.getSourceId() << 32) | keys.length;
+		}
+		if (values != null) {
+			for (int i = 0; i < keys.length; i++) {
+				if (keys[i] != FREE && values[i] != null) {
+					order[n++] = ((long) values[i].getSourceId() << 32) | i;
+				}
+			}
+		}
+		Arrays.sort(order, 0, n);
+		for (int i = 0; i < n; i++) {
+			int slot = (int) order[i];
+			if (slot == keys.length) {
+				handler.handleViolation(FREE, zeroValue);
+			} else {
+				handler.handleViolation(keys[slot], values[slot]);
+			}
+		}
+	}
+
+	/**
+	 * Gets the CastIds.
+	 *
+	 * @return the CastIds, in no particular order
+	 */
+	public synchronized long[] getCastIds() {
+		long[] castIds = new long[size()];
+		int n = 0;
+		if (hasZero) {
+			castIds[n++] = FREE;
+		}
+		for (long key : keys) {
+			if (key != FREE) {
+				castIds[n++] = key;
+			}
+		}
+		return castIds;
+	}
+
+	/**
+	 * Gets the number of CastIds.
+	 *
+	 * @return the size
+	 */
+	public synchronized int size() {
+		return hasZero ? count + 1 : count;
+	}
+
+	/**
+	 * Checks if the map is empty.
+	 *
+	 * @return true, if it is empty
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Gets the number of collisions detected.
+	 *
+	 * @return the collisions
+	 */
+	public synchronized int getCollisions() {
+		return collisions;
+	}
+
+	/**
+	 * Compares the fingerprints of the same CastId.
+	 *
+	 * @param stored
+	 *            the fingerprint in the map
+	 * @param fingerprint
+	 *            the new fingerprint
+	 * @return {@link #DUPLICATE} or {@link #COLLISION}
+	 */
+	private int check(long stored, long fingerprint) {
+		if (stored == fingerprint) {
+			return DUPLICATE;
+		}
+		collisions++;
+		return COLLISION;
+	}
+
+	/**
+	 * Doubles the arrays.
+	 */
+	private void resize() {
+		long[] oldKeys = keys;
+		long[] oldFingerprints = fingerprints;
+		ActionPlanViolation[] oldValues = values;
+		int capacity = oldKeys.length * 2;
+		int mask = capacity - 1;
+		keys = new long[capacity];
+		fingerprints = new long[capacity];
+		values = oldValues == null ? null : new ActionPlanViolation[capacity];
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != FREE) {
+				int slot = slot(oldKeys[i], mask);
+				while (keys[slot] != FREE) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				fingerprints[slot] = oldFingerprints[i];
+				if (values != null) {
+					values[slot] = oldValues[i];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the first slot of a CastId. The bits are mixed because the low
+	 * word of the CastId is the legacy CRC32.
+	 *
+	 * @param castId
+	 *            the CastId
+	 * @param mask
+	 *            the capacity minus one
+	 * @return the slot
+	 */
+	private static int slot(long castId, int mask) {
+		long h = castId * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "LongViolationMap[size=" + size() + ", collisions=" + collisions + ", capacity=" + keys.length + "]";
+	}
+}
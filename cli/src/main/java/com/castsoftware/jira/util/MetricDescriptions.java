@@ -0,0 +1,206 @@
+package com.castsoftware.jira.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.castsoftware.jira.pojo.MetricMetadata;
+
+/**
+ * The Class MetricDescriptions is an in-memory dictionary of the quality rule
+ * descriptions (dss_metric_descriptions). The descriptions only depend on the
+ * metric so they are read once per run and joined to the violations in Java
+ * instead of being selected for every row of the action plan
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public class MetricDescriptions {
+
+	/** The log. */
+	public static Log log = LogFactory.getLog(MetricDescriptions.class);
+
+	/** The Constant NAME, short description of the metric. */
+	public static final int NAME = 0;
+
+	/** The Constant REASON. */
+	public static final int REASON = 1;
+
+	/** The Constant DESCRIPTION. */
+	public static final int DESCRIPTION = 2;
+
+	/** The Constant REMEDIATION. */
+	public static final int REMEDIATION = 3;
+
+	/** The Constant REFERENCE. */
+	public static final int REFERENCE = 4;
+
+	/** The Constant VIOLATION_EXAMPLE. */
+	public static final int VIOLATION_EXAMPLE = 5;
+
+	/** The Constant REMEDIATION_EXAMPLE. */
+	public static final int REMEDIATION_EXAMPLE = 6;
+
+	/** The Constant OUTPUT. */
+	public static final int OUTPUT = 7;
+
+	/** The Constant TOTAL, the action plan has always reported the reason as total. */
+	public static final int TOTAL = REASON;
+
+	/** The descriptions by metric id, indexed by description type id. */
+	private final HashMap<Integer, String[]> descriptions = new HashMap<>();
+
+	/** The metadata by metric id, shared by the violations of the metric. */
+	private final HashMap<Integer, MetricMetadata> metadata = new HashMap<>();
+
+	/**
+	 * Loads the english descriptions of all the metrics of the central schema.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @param schemaProfile
+	 *            the central schema
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public void load(Connection connection, String schemaProfile) throws SQLException {
+		load(connection, schemaProfile, null);
+	}
+
+	/**
+	 * Loads the english descriptions of the given types for all the metrics of
+	 * the central schema.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @param schemaProfile
+	 *            the central schema
+	 * @param typeIds
+	 *            the description types to load, null for all of them
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public void load(Connection connection, String schemaProfile, Set<Integer> typeIds) throws SQLException {
+		StringBuffer sb = new StringBuffer()
+				.append("select metric_id, description_type_id, metric_description from ")
+				.append(schemaProfile).append(".dss_metric_descriptions ")
+				.append("where language = 'ENGLISH' and description_type_id ");
+		if (typeIds == null) {
+			sb.append("between ").append(NAME).append(" and ").append(OUTPUT);
+		} else {
+			String separator = "in (";
+			for (int typeId : typeIds) {
+				sb.append(separator).append(typeId);
+				separator = ", ";
+			}
+			sb.append(")");
+		}
+		String sqlString = sb.toString();
+
+		if (log.isDebugEnabled()) {
+			log.debug("Sql Statement to execute to get metric descriptions: " + sqlString);
+		}
+
+		try (PreparedStatement pst = connection.prepareStatement(sqlString);
+				ResultSet rs = pst.executeQuery()) {
+			while (rs.next()) {
+				put(rs.getInt(1), rs.getInt(2), rs.getString(3));
+			}
+		}
+		log.info("Metric descriptions loaded for " + descriptions.size() + " metrics");
+	}
+
+	/**
+	 * Adds a description to the dictionary.
+	 * 
+	 * @param metricId
+	 *            the metric id
+	 * @param typeId
+	 *            the description type id
+	 * @param description
+	 *            the description
+	 */
+	public void put(int metricId, int typeId, String description) {
+		String[] texts = descriptions.get(metricId);
+		if (texts == null) {
+			texts = new String[OUTPUT + 1];
+			descriptions.put(metricId, texts);
+		}
+		texts[typeId] = description;
+		metadata.remove(metricId);
+	}
+
+	/**
+	 * Gets the description of a metric.
+	 * 
+	 * @param metricId
+	 *            the metric id
+	 * @param typeId
+	 *            the description type id
+	 * @return the description, null if the metric has no such description
+	 */
+	public String getDescription(int metricId, int typeId) {
+		String[] texts = descriptions.get(metricId);
+		return texts == null ? null : texts[typeId];
+	}
+
+	/**
+	 * Gets the metadata of a metric, created on the first call and then shared
+	 * by all the violations of the metric.
+	 * 
+	 * @param metricId
+	 *            the metric id
+	 * @param tree
+	 *            the quality model tree, for the technical and business
+	 *            criteria
+	 * @return the metadata
+	 */
+	public synchronized MetricMetadata getMetadata(int metricId, MetricTree tree) {
+		MetricMetadata metric = metadata.get(metricId);
+		if (metric == null) {
+			metric = new MetricMetadata(metricId, getDescription(metricId, NAME), getDescription(metricId, REASON),
+					getDescription(metricId, DESCRIPTION), getDescription(metricId, REMEDIATION),
+					getDescription(metricId, REFERENCE), getDescription(metricId, VIOLATION_EXAMPLE),
+					getDescription(metricId, REMEDIATION_EXAMPLE), getDescription(metricId, OUTPUT),
+					getDescription(metricId, TOTAL), tree.getTechnicalCriteria(metricId, this),
+					tree.getBusinessCriteria(metricId, this));
+			metadata.put(metricId, metric);
+		}
+		return metric;
+	}
+
+	/**
+	 * Checks if the metric has a name (description type 0).
+	 * 
+	 * @param metricId
+	 *            the metric id
+	 * @return true, if the metric is described
+	 */
+	public boolean contains(int metricId) {
+		return getDescription(metricId, NAME) != null;
+	}
+
+	/**
+	 * Gets the ids of the described metrics.
+	 * 
+	 * @return the metric ids
+	 */
+	public Set<Integer> getMetricIds() {
+		return descriptions.keySet();
+	}
+
+	/**
+	 * Gets the number of metrics in the dictionary.
+	 * 
+	 * @return the number of metrics
+	 */
+	public int size() {
+		return descriptions.size();
+	}
+}
@@ -0,0 +1,197 @@
+package com.castsoftware.jira.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * The Class MetricTree is an in-memory copy of the quality model tree
+ * (dss_metric_type_trees). The technical criteria of a quality rule are its
+ * parents, the business criteria are the parents of those technical criteria.
+ * The criteria labels of a metric are computed once and shared by all its
+ * violations, the tree can be shared by parallel extractions.
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public class MetricTree {
+
+	/** The log. */
+	public static Log log = LogFactory.getLog(MetricTree.class);
+
+	/** The Constant TECHNICAL_SEPARATOR. */
+	private static final String TECHNICAL_SEPARATOR = ", ";
+
+	/** The Constant BUSINESS_SEPARATOR. */
+	private static final String BUSINESS_SEPARATOR = " ,";
+
+	/** The parents by metric id. */
+	private final HashMap<Integer, List<Integer>> parents = new HashMap<>();
+
+	/** The technical criteria labels by metric id. */
+	private final HashMap<Integer, String> technicalCriteria = new HashMap<>();
+
+	/** The business criteria labels by metric id. */
+	private final HashMap<Integer, String> businessCriteria = new HashMap<>();
+
+	/**
+	 * Loads the metric tree of the central schema.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @param schemaProfile
+	 *            the central schema
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public void load(Connection connection, String schemaProfile) throws SQLException {
+		String sqlString = new StringBuffer().append("select metric_id, metric_parent_id from ")
+				.append(schemaProfile).append(".dss_metric_type_trees order by metric_id, metric_parent_id")
+				.toString();
+
+		if (log.isDebugEnabled()) {
+			log.debug("Sql Statement to execute to get metric tree: " + sqlString);
+		}
+
+		try (PreparedStatement pst = connection.prepareStatement(sqlString);
+				ResultSet rs = pst.executeQuery()) {
+			while (rs.next()) {
+				put(rs.getInt(1), rs.getInt(2));
+			}
+		}
+		log.info("Metric tree loaded for " + parents.size() + " metrics");
+	}
+
+	/**
+	 * Adds a parent to a metric.
+	 * 
+	 * @param metricId
+	 *            the metric id
+	 * @param parentId
+	 *            the parent metric id
+	 */
+	public void put(int metricId, int parentId) {
+		List<Integer> list = parents.get(metricId);
+		if (list == null) {
+			list = new ArrayList<>(2);
+			parents.put(metricId, list);
+		}
+		list.add(parentId);
+	}
+
+	/**
+	 * Gets the parents of a metric.
+	 * 
+	 * @param metricId
+	 *            the metric id
+	 * @return the parent ids, empty if the metric has no parent
+	 */
+	public List<Integer> getParents(int metricId) {
+		List<Integer> list = parents.get(metricId);
+		return list == null ? Collections.<Integer> emptyList() : list;
+	}
+
+	/**
+	 * Gets the ids of the metrics having parents.
+	 * 
+	 * @return the metric ids
+	 */
+	public Set<Integer> getMetricIds() {
+		return parents.keySet();
+	}
+
+	/**
+	 * Gets the technical criteria of a quality rule.
+	 * 
+	 * @param metricId
+	 *            the quality rule id
+	 * @param descriptions
+	 *            the metric descriptions
+	 * @return the technical criteria names, null if there is none
+	 */
+	public synchronized String getTechnicalCriteria(int metricId, MetricDescriptions descriptions) {
+		if (technicalCriteria.containsKey(metricId)) {
+			return technicalCriteria.get(metricId);
+		}
+		StringBuilder sb = new StringBuilder();
+		for (int parentId : getParents(metricId)) {
+			append(sb, descriptions.getDescription(parentId, MetricDescriptions.NAME), TECHNICAL_SEPARATOR);
+		}
+		String criteria = sb.length() == 0 ? null : sb.toString();
+		technicalCriteria.put(metricId, criteria);
+		return criteria;
+	}
+
+	/**
+	 * Gets the business criteria of a quality rule, restricted to
+	 * {@link Constants#BUSINESS_CRITERIA}.
+	 * 
+	 * @param metricId
+	 *            the quality rule id
+	 * @param descriptions
+	 *            the metric descriptions
+	 * @return the business criteria names, null if there is none
+	 */
+	public synchronized String getBusinessCriteria(int metricId, MetricDescriptions descriptions) {
+		if (businessCriteria.containsKey(metricId)) {
+			return businessCriteria.get(metricId);
+		}
+		StringBuilder sb = new StringBuilder();
+		for (int parentId : getParents(metricId)) {
+			for (int grandParentId : getParents(parentId)) {
+				if (isBusinessCriterion(grandParentId)) {
+					append(sb, descriptions.getDescription(grandParentId, MetricDescriptions.NAME), BUSINESS_SEPARATOR);
+				}
+			}
+		}
+		String criteria = sb.length() == 0 ? null : sb.toString();
+		businessCriteria.put(metricId, criteria);
+		return criteria;
+	}
+
+	/**
+	 * Checks if the metric is one of the reported business criteria.
+	 * 
+	 * @param metricId
+	 *            the metric id
+	 * @return true, if it is a business criterion
+	 */
+	private boolean isBusinessCriterion(int metricId) {
+		for (int id : Constants.BUSINESS_CRITERIA) {
+			if (id == metricId) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Appends a name to a separated list, names missing in the dictionary are
+	 * ignored.
+	 * 
+	 * @param sb
+	 *            the list
+	 * @param name
+	 *            the name
+	 * @param separator
+	 *            the separator
+	 */
+	private void append(StringBuilder sb, String name, String separator) {
+		if (name == null) {
+			return;
+		}
+		if (sb.length() > 0) {
+			sb.append(separator);
+		}
+		sb.append(name);
+	}
+}
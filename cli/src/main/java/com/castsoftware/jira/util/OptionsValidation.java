@@ -1,229 +1,355 @@
-package com.castsoftware.jira.util;
-
-import org.apache.commons.cli.*;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
-import org.apache.commons.validator.routines.UrlValidator;
-
-/**
- * The Class OptionsValidation validates the options provided in the command
- * line
- * 
- * @author FME
- * @version 1.1
- */
-
-public class OptionsValidation {
-
-	/** The log. */
-	public static Log log = LogFactory.getLog(OptionsValidation.class);
-
-    /** The Command line. */
-	private CommandLine line;
-
-	/** The args. */
-	private String[] args;
-
-	/**
-	 * Instantiates a new options validation.
-	 * 
-	 * @param args
-	 *            the args
-	 */
-	public OptionsValidation(String[] args) {
-		setArgs(args);
-
-	}
-
-	/**
-	 * Gets the options validation.
-	 * 
-	 * @param options
-	 *            the options
-	 * @return the options validation
-	 * @throws ParseException
-	 *             the parse exception
-	 */
-	public boolean getOptionsValidation(Options options) throws ParseException, JiraException {
-
-		try {
-            /** The Command line parser. */
-            CommandLineParser parser = new DefaultParser();
-			line = parser.parse(options, args);
-			// setCommandLine(parser.parse(options, getArgs()));
-			setCommandLine(line);
-
-			// parse the command line arguments
-			// line = parser.parse(options, args);
-			/*
-			 * If the option is help, then it'll print it & exit
-			 */
-			if (line.hasOption("h")) { // No need to ask for the parameter
-				// "help". Both are synonyms
-				throw new ParseException("");
-			}
-
-			if (line.hasOption(Constants.VERSION)) { // No need to ask for the
-														// parameter
-				throw new ParseException("");
-			}
-
-			if (line.getOptionValue(Constants.CAST_APPLICATION_NAME) == null) {
-				throw new org.apache.commons.cli.ParseException(
-						"The Application name is mandatory");
-			}
-
-			Configuration updateConfig = new Configuration();
-			updateConfig.setUpdateLog4jConfiguration(
-					line.getOptionValue(Constants.LOG_PATH),
-					line.hasOption(Constants.DEBUG),
-					line.getOptionValue(Constants.LOG_OUTPUT),
-					line.getOptionValue(Constants.CAST_APPLICATION_NAME));
-
-			if (line.getOptionValue(Constants.CAST_USER_NAME) == null) {
-				throw new org.apache.commons.cli.ParseException(
-						"The Cast User Name to use Cast REST API is mandatory");
-			}
-
-			if (line.getOptionValue(Constants.CAST_USER_PASSWORD) == null) {
-				throw new org.apache.commons.cli.ParseException(
-						"The Cast User Password to use Cast REST API is mandatory");
-			}
-			if (line.getOptionValue(Constants.CAST_DB_PROVIDER) == null
-					&& line.getOptionValue(Constants.CAST_REST_API_URL) == null) {
-				throw new org.apache.commons.cli.ParseException(
-						"One of the following parameter has to be provied: "
-								+ "\n-databaseprovider" + "\n-castrestapiurl");
-			}
-
-			if (line.getOptionValue(Constants.CAST_DB_PROVIDER) != null)
-				if (line.getOptionValue(Constants.CAST_DB_PROVIDER).trim().equalsIgnoreCase(Constants.DB_CSS)
-						|| line.getOptionValue(Constants.CAST_DB_PROVIDER)
-								.trim()
-								.equalsIgnoreCase(Constants.DB_ORACLE)
-						|| line.getOptionValue(Constants.CAST_DB_PROVIDER)
-								.trim()
-								.equalsIgnoreCase(Constants.DB_SQLSERVER)) {
-					log.debug("Database provider selected is: "
-							+ line.getOptionValue(Constants.CAST_DB_PROVIDER)
-									.trim().toLowerCase());
-
-					if (line.getOptionValue(Constants.CAST_DB_HOST) == null) {
-						throw new org.apache.commons.cli.ParseException(
-								"The parameter -databaseprovider has been provided so -databasehost is mandatory");
-					}
-					if (line.getOptionValue(Constants.CAST_DB_NAME) == null) {
-						throw new org.apache.commons.cli.ParseException(
-								"The parameter -databaseprovider has been provided so -databasename is mandatory");
-					}
-					if (line.getOptionValue(Constants.CAST_DB_PORT) == null) {
-						throw new org.apache.commons.cli.ParseException(
-								"The parameter -databaseprovider has been provided so -databaseport is mandatory");
-					}
-					if (line.getOptionValue(Constants.CAST_DB_SCHEMA) == null) {
-
-						throw new org.apache.commons.cli.ParseException(
-								"The parameter -databaseprovider has been provided so -databaseschema is mandatory");
-					}else{
-						if (!line.getOptionValue(Constants.CAST_DB_SCHEMA).toLowerCase().endsWith("_central")){
-							throw new org.apache.commons.cli.ParseException(
-									"-dabasechema has to be the central one xxx_central. It is mandatory");
-						}
-					}
-
-				} else {
-					throw new org.apache.commons.cli.ParseException(
-							"The database provided value has to be among the supported values. Please review -h");
-				}
-
-			if (line.getOptionValue(Constants.CAST_REST_API_URL) != null) {
-				throw new org.apache.commons.cli.ParseException(
-						"This option is under-construction. Please use the -databaseprovider parameter ");
-				/*String[] schemes = {"http","https"};
-				UrlValidator urlValidator = new UrlValidator(schemes, UrlValidator.ALLOW_LOCAL_URLS);
-	            if (!urlValidator.isValid(line.getOptionValue(Constants.CAST_REST_API_URL))){
-	            	throw new org.apache.commons.cli.ParseException(
-							"The Cast RESP API url has to be valid and well-formatted. Example:"
-							+ "\n: http://localhost:8080/CASTWS ");
-	            }*/
-			}
-			/*else{
-				throw new org.apache.commons.cli.ParseException(
-						"The Cast RESP API url is mandatory if you do not provide -databaseprovider parameter ");
-			}*/
-
-			if (line.getOptionValue(Constants.JIRA_USER_NAME) == null) {
-				throw new org.apache.commons.cli.ParseException(
-						"The Jira User Name to use Cast REST API is mandatory");
-			}
-
-			if (line.getOptionValue(Constants.JIRA_USER_PASSWORD) == null) {
-				throw new org.apache.commons.cli.ParseException(
-						"The Jira User Password to use Cast REST API is mandatory");
-			}
-
-			if (line.getOptionValue(Constants.JIRA_REST_API_URL) == null) {
-
-				throw new org.apache.commons.cli.ParseException(
-						"The Jira RESP API url is mandatory");
-			}else{
-				String[] schemes = {"http","https"};
-				UrlValidator urlValidator = new UrlValidator(schemes, UrlValidator.ALLOW_LOCAL_URLS);
-				if (!urlValidator.isValid(line.getOptionValue(Constants.JIRA_REST_API_URL))){
-	            	throw new org.apache.commons.cli.ParseException(
-							"The Jira RESP API url has to be valid and well-formatted. Example:"
-							+ "\n: http://localhost:8080/");
-	            }
-			}
-			if (line.getOptionValue(Constants.JIRA_PROJECT_NAME) == null) {
-				throw new org.apache.commons.cli.ParseException(
-						"The Jira Project Name is mandatory");
-			}
-
-		} catch (ParseException exp) {
-			// Something went wrong
-			throw exp;
-		}
-		return true;
-	}
-
-	/**
-	 * Gets the command line.
-	 * 
-	 * @return the command line
-	 */
-	public CommandLine getCommandLine() {
-		return line;
-	}
-
-	/**
-	 * Sets the command line.
-	 * 
-	 * @param line
-	 *            the new command line
-	 */
-	public void setCommandLine(CommandLine line) {
-		this.line = line;
-	}
-
-	/**
-	 * Gets the args.
-	 * 
-	 * @return the args
-	 */
-	public String[] getArgs() {
-		return args;
-	}
-
-	/**
-	 * Sets the args.
-	 * 
-	 * @param args
-	 *            the args to set
-	 */
-	public void setArgs(String[] args) {
-		this.args = args;
-	}
-
-}
+package com.castsoftware.jira.util;
+
+import java.io.File;
+
+import org.apache.commons.cli.*;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.apache.commons.validator.routines.UrlValidator;
+
+/**
+ * The Class OptionsValidation validates the options provided in the command
+ * line
+ * 
+ * @author FME
+ * @version 1.1
+ */
+
+public class OptionsValidation {
+
+	/** The log. */
+	public static Log log = LogFactory.getLog(OptionsValidation.class);
+
+    /** The Command line. */
+	private CommandLine line;
+
+	/** The args. */
+	private String[] args;
+
+	/**
+	 * Instantiates a new options validation.
+	 * 
+	 * @param args
+	 *            the args
+	 */
+	public OptionsValidation(String[] args) {
+		setArgs(args);
+
+	}
+
+	/**
+	 * Gets the options validation.
+	 * 
+	 * @param options
+	 *            the options
+	 * @return the options validation
+	 * @throws ParseException
+	 *             the parse exception
+	 */
+	public boolean getOptionsValidation(Options options) throws ParseException, JiraException {
+
+		try {
+            /** The Command line parser. */
+            CommandLineParser parser = new DefaultParser();
+			line = parser.parse(options, args);
+			// setCommandLine(parser.parse(options, getArgs()));
+			setCommandLine(line);
+
+			// parse the command line arguments
+			// line = parser.parse(options, args);
+			/*
+			 * If the option is help, then it'll print it & exit
+			 */
+			if (line.hasOption("h")) { // No need to ask for the parameter
+				// "help". Both are synonyms
+				throw new ParseException("");
+			}
+
+			if (line.hasOption(Constants.VERSION)) { // No need to ask for the
+														// parameter
+				throw new ParseException("");
+			}
+
+			boolean linkages = line.getOptionValue(Constants.LINKAGES) != null;
+			if (linkages) {
+				if (line.getOptionValue(Constants.CAST_APPLICATION_NAME) != null
+						|| line.getOptionValue(Constants.JIRA_PROJECT_NAME) != null) {
+					throw new org.apache.commons.cli.ParseException(
+							"The parameter -linkages replaces -applicationname and -jiraprojectname");
+				}
+				if (!new File(line.getOptionValue(Constants.LINKAGES)).isFile()) {
+					throw new org.apache.commons.cli.ParseException(
+							"The linkage manifest does not exist: " + line.getOptionValue(Constants.LINKAGES));
+				}
+			} else if (line.getOptionValue(Constants.CAST_APPLICATION_NAME) == null) {
+				throw new org.apache.commons.cli.ParseException(
+						"The Application name is mandatory");
+			}
+
+			Configuration updateConfig = new Configuration();
+			updateConfig.setUpdateLog4jConfiguration(
+					line.getOptionValue(Constants.LOG_PATH),
+					line.hasOption(Constants.DEBUG),
+					line.getOptionValue(Constants.LOG_OUTPUT),
+					linkages ? new File(line.getOptionValue(Constants.LINKAGES)).getName()
+							: line.getOptionValue(Constants.CAST_APPLICATION_NAME));
+
+			if (line.getOptionValue(Constants.CAST_USER_NAME) == null) {
+				throw new org.apache.commons.cli.ParseException(
+						"The Cast User Name to use Cast REST API is mandatory");
+			}
+
+			if (line.getOptionValue(Constants.CAST_USER_PASSWORD) == null) {
+				throw new org.apache.commons.cli.ParseException(
+						"The Cast User Password to use Cast REST API is mandatory");
+			}
+			if (line.getOptionValue(Constants.CAST_DB_PROVIDER) == null
+					&& line.getOptionValue(Constants.CAST_REST_API_URL) == null) {
+				throw new org.apache.commons.cli.ParseException(
+						"One of the following parameter has to be provied: "
+								+ "\n-databaseprovider" + "\n-castrestapiurl");
+			}
+
+			if (line.getOptionValue(Constants.CAST_DB_PROVIDER) != null)
+				if (line.getOptionValue(Constants.CAST_DB_PROVIDER).trim().equalsIgnoreCase(Constants.DB_CSS)
+						|| line.getOptionValue(Constants.CAST_DB_PROVIDER)
+								.trim()
+								.equalsIgnoreCase(Constants.DB_ORACLE)
+						|| line.getOptionValue(Constants.CAST_DB_PROVIDER)
+								.trim()
+								.equalsIgnoreCase(Constants.DB_SQLSERVER)) {
+					log.debug("Database provider selected is: "
+							+ line.getOptionValue(Constants.CAST_DB_PROVIDER)
+									.trim().toLowerCase());
+
+					if (line.getOptionValue(Constants.CAST_DB_HOST) == null) {
+						throw new org.apache.commons.cli.ParseException(
+								"The parameter -databaseprovider has been provided so -databasehost is mandatory");
+					}
+					if (line.getOptionValue(Constants.CAST_DB_NAME) == null) {
+						throw new org.apache.commons.cli.ParseException(
+								"The parameter -databaseprovider has been provided so -databasename is mandatory");
+					}
+					if (line.getOptionValue(Constants.CAST_DB_PORT) == null) {
+						throw new org.apache.commons.cli.ParseException(
+								"The parameter -databaseprovider has been provided so -databaseport is mandatory");
+					}
+					if (line.getOptionValue(Constants.CAST_DB_SCHEMA) == null) {
+
+						throw new org.apache.commons.cli.ParseException(
+								"The parameter -databaseprovider has been provided so -databaseschema is mandatory");
+					}else{
+						if (!line.getOptionValue(Constants.CAST_DB_SCHEMA).toLowerCase().endsWith("_central")){
+							throw new org.apache.commons.cli.ParseException(
+									"-dabasechema has to be the central one xxx_central. It is mandatory");
+						}
+					}
+
+				} else {
+					throw new org.apache.commons.cli.ParseException(
+							"The database provided value has to be among the supported values. Please review -h");
+				}
+
+			if (line.getOptionValue(Constants.FETCH_SIZE) != null) {
+				try {
+					if (Integer.parseInt(line.getOptionValue(Constants.FETCH_SIZE).trim()) <= 0) {
+						throw new NumberFormatException();
+					}
+				} catch (NumberFormatException e) {
+					throw new org.apache.commons.cli.ParseException(
+							"The parameter -fetchsize has to be a positive number");
+				}
+			}
+
+			if (line.getOptionValue(Constants.CONCURRENCY) != null) {
+				try {
+					if (Integer.parseInt(line.getOptionValue(Constants.CONCURRENCY).trim()) <= 0) {
+						throw new NumberFormatException();
+					}
+				} catch (NumberFormatException e) {
+					throw new org.apache.commons.cli.ParseException(
+							"The parameter -concurrency has to be a positive number");
+				}
+			}
+
+			if (line.getOptionValue(Constants.PHASE) != null) {
+				String phase = line.getOptionValue(Constants.PHASE).trim();
+				if (!Constants.PHASE_EXTRACT.equalsIgnoreCase(phase) && !Constants.PHASE_PUSH.equalsIgnoreCase(phase)) {
+					throw new org.apache.commons.cli.ParseException(
+							"The parameter -phase has to be " + Constants.PHASE_EXTRACT + " or " + Constants.PHASE_PUSH);
+				}
+				if (line.hasOption(Constants.STREAMING)) {
+					throw new org.apache.commons.cli.ParseException(
+							"The parameter -phase can not be combined with -streaming");
+				}
+			}
+
+			if (line.getOptionValue(Constants.INTERCHANGE) != null) {
+				if (line.getOptionValue(Constants.PHASE) == null) {
+					throw new org.apache.commons.cli.ParseException(
+							"The parameter -interchange requires -phase");
+				}
+				if (line.getOptionValue(Constants.EXTRACT_FILE) != null) {
+					throw new org.apache.commons.cli.ParseException(
+							"The parameter -interchange can not be combined with -extractfile");
+				}
+				if (linkages && Constants.STANDARD_STREAM.equals(line.getOptionValue(Constants.INTERCHANGE).trim())) {
+					throw new org.apache.commons.cli.ParseException(
+							"The parameter -linkages needs one -interchange file by application, not the standard stream");
+				}
+			}
+
+			if (line.hasOption(Constants.PIPELINE) && line.getOptionValue(Constants.PHASE) != null) {
+				throw new org.apache.commons.cli.ParseException(
+						"The parameter -phase can not be combined with -pipeline");
+			}
+
+			if (line.getOptionValue(Constants.QUEUE_SIZE) != null) {
+				try {
+					if (Integer.parseInt(line.getOptionValue(Constants.QUEUE_SIZE).trim()) <= 0) {
+						throw new NumberFormatException();
+					}
+				} catch (NumberFormatException e) {
+					throw new org.apache.commons.cli.ParseException(
+							"The parameter -queuesize has to be a positive number");
+				}
+			}
+
+			if (line.getOptionValue(Constants.PARALLELISM) != null) {
+				try {
+					if (Integer.parseInt(line.getOptionValue(Constants.PARALLELISM).trim()) <= 0) {
+						throw new NumberFormatException();
+					}
+				} catch (NumberFormatException e) {
+					throw new org.apache.commons.cli.ParseException(
+							"The parameter -parallelism has to be a positive number");
+				}
+			}
+
+			ExtractionFilter filter = new ExtractionFilter();
+			if (line.getOptionValue(Constants.PRIORITY) != null) {
+				try {
+					filter.setPriorityRange(line.getOptionValue(Constants.PRIORITY));
+				} catch (IllegalArgumentException e) {
+					throw new org.apache.commons.cli.ParseException(
+							"The parameter -priority has to be a range of priorities between 1 and 3, for example 1-2");
+				}
+			}
+			String[] idLists = { Constants.STATUS, Constants.METRICS, Constants.EXCLUDE_METRICS };
+			for (String idList : idLists) {
+				if (line.getOptionValue(idList) != null) {
+					try {
+						ExtractionFilter.parseIds(line.getOptionValue(idList));
+					} catch (NumberFormatException e) {
+						throw new org.apache.commons.cli.ParseException(
+								"The parameter -" + idList + " has to be a comma separated list of numbers");
+					}
+				}
+			}
+
+			if (line.hasOption(Constants.DELTA) && line.hasOption(Constants.INCREMENTAL)) {
+				throw new org.apache.commons.cli.ParseException(
+						"The parameters -delta and -incremental can not be used together");
+			}
+			if (line.getOptionValue(Constants.SNAPSHOTS) != null) {
+				try {
+					if (ExtractionFilter.parseIds(line.getOptionValue(Constants.SNAPSHOTS)).size() != 2) {
+						throw new NumberFormatException();
+					}
+				} catch (NumberFormatException e) {
+					throw new org.apache.commons.cli.ParseException(
+							"The parameter -snapshots has to be the previous and the current snapshot ids, for example 12,15");
+				}
+			}
+
+			if (line.getOptionValue(Constants.CAST_REST_API_URL) != null) {
+				throw new org.apache.commons.cli.ParseException(
+						"This option is under-construction. Please use the -databaseprovider parameter ");
+				/*String[] schemes = {"http","https"};
+				UrlValidator urlValidator = new UrlValidator(schemes, UrlValidator.ALLOW_LOCAL_URLS);
+	            if (!urlValidator.isValid(line.getOptionValue(Constants.CAST_REST_API_URL))){
+	            	throw new org.apache.commons.cli.ParseException(
+							"The Cast RESP API url has to be valid and well-formatted. Example:"
+							+ "\n: http://localhost:8080/CASTWS ");
+	            }*/
+			}
+			/*else{
+				throw new org.apache.commons.cli.ParseException(
+						"The Cast RESP API url is mandatory if you do not provide -databaseprovider parameter ");
+			}*/
+
+			if (line.getOptionValue(Constants.JIRA_USER_NAME) == null) {
+				throw new org.apache.commons.cli.ParseException(
+						"The Jira User Name to use Cast REST API is mandatory");
+			}
+
+			if (line.getOptionValue(Constants.JIRA_USER_PASSWORD) == null) {
+				throw new org.apache.commons.cli.ParseException(
+						"The Jira User Password to use Cast REST API is mandatory");
+			}
+
+			if (line.getOptionValue(Constants.JIRA_REST_API_URL) == null) {
+
+				throw new org.apache.commons.cli.ParseException(
+						"The Jira RESP API url is mandatory");
+			}else{
+				String[] schemes = {"http","https"};
+				UrlValidator urlValidator = new UrlValidator(schemes, UrlValidator.ALLOW_LOCAL_URLS);
+				if (!urlValidator.isValid(line.getOptionValue(Constants.JIRA_REST_API_URL))){
+	            	throw new org.apache.commons.cli.ParseException(
+							"The Jira RESP API url has to be valid and well-formatted. Example:"
+							+ "\n: http://localhost:8080/");
+	            }
+			}
+			if (line.getOptionValue(Constants.JIRA_PROJECT_NAME) == null && !linkages) {
+				throw new org.apache.commons.cli.ParseException(
+						"The Jira Project Name is mandatory");
+			}
+
+		} catch (ParseException exp) {
+			// Something went wrong
+			throw exp;
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the command line.
+	 * 
+	 * @return the command line
+	 */
+	public CommandLine getCommandLine() {
+		return line;
+	}
+
+	/**
+	 * Sets the command line.
+	 * 
+	 * @param line
+	 *            the new command line
+	 */
+	public void setCommandLine(CommandLine line) {
+		this.line = line;
+	}
+
+	/**
+	 * Gets the args.
+	 * 
+	 * @return the args
+	 */
+	public String[] getArgs() {
+		return args;
+	}
+
+	/**
+	 * Sets the args.
+	 * 
+	 * @param args
+	 *            the args to set
+	 */
+	public void setArgs(String[] args) {
+		this.args = args;
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.castsoftware.jira.util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The Class OracleDialect is the dialect of Oracle. The driver prefetches 10
+ * rows by round trip by default, the fetch size raises the row prefetch of
+ * the large results.
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public class OracleDialect extends SqlDialect {
+
+	@Override
+	public String getDriverClass() {
+		return Constants.DB_JDBC_DRIVER_ORACLE;
+	}
+
+	@Override
+	public String getConnectionString(String host, String port, String database) {
+		return Constants.DB_CONN_STRING_ORACLE + host + ":" + port + ":" + database;
+	}
+
+	@Override
+	public List<String> getConnectionStrings(List<DatabaseHost> hosts, String database) {
+		if (hosts.size() < 2) {
+			return super.getConnectionStrings(hosts, database);
+		}
+		// connect time failover through the address list, in the order given
+		StringBuilder url = new StringBuilder(Constants.DB_CONN_STRING_ORACLE);
+		url.append("(DESCRIPTION=(FAILOVER=on)(LOAD_BALANCE=off)(ADDRESS_LIST=");
+		for (DatabaseHost host : hosts) {
+			url.append("(ADDRESS=(PROTOCOL=TCP)(HOST=").append(host.getUrlHost()).append(")(PORT=")
+					.append(host.getPort()).append("))");
+		}
+		url.append(")(CONNECT_DATA=(SID=").append(database).append(")))");
+		return Collections.singletonList(url.toString());
+	}
+
+	@Override
+	public String getValidationQuery() {
+		return "select 1 from dual";
+	}
+
+	@Override
+	public String selectScalars(String expressions) {
+		return "select " + expressions + " from dual";
+	}
+
+	@Override
+	public String getExplainStatement(String sql) {
+		return "explain plan for " + sql;
+	}
+
+	@Override
+	public String getExplainOutputStatement() {
+		return "select plan_table_output from table(dbms_xplan.display())";
+	}
+
+	@Override
+	public void configureFetch(PreparedStatement pst, int fetchSize) throws SQLException {
+		// the fetch size is the row prefetch of the statement
+		pst.setFetchSize(Math.max(fetchSize, Constants.DB_ORACLE_MIN_ROW_PREFETCH));
+	}
+}
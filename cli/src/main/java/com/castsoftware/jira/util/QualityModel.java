@@ -0,0 +1,49 @@
+package com.castsoftware.jira.util;
+
+/**
+ * The Class QualityModel holds the quality model metadata of a central schema
+ * once it has been loaded, so that several extractions of the same run share
+ * it.
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public class QualityModel {
+
+	/** The metric descriptions. */
+	private final MetricDescriptions descriptions;
+
+	/** The metric tree. */
+	private final MetricTree tree;
+
+	/**
+	 * Instantiates a new quality model.
+	 * 
+	 * @param descriptions
+	 *            the metric descriptions
+	 * @param tree
+	 *            the metric tree
+	 */
+	public QualityModel(MetricDescriptions descriptions, MetricTree tree) {
+		this.descriptions = descriptions;
+		this.tree = tree;
+	}
+
+	/**
+	 * Gets the metric descriptions.
+	 * 
+	 * @return the descriptions
+	 */
+	public MetricDescriptions getDescriptions() {
+		return descriptions;
+	}
+
+	/**
+	 * Gets the metric tree.
+	 * 
+	 * @return the tree
+	 */
+	public MetricTree getTree() {
+		return tree;
+	}
+}
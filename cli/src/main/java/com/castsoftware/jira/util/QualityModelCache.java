@@ -0,0 +1,246 @@
+package com.castsoftware.jira.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * The Class QualityModelCache keeps the quality model metadata (metric
+ * descriptions and metric tree) of a central schema on the local disk. The
+ * metadata only changes with the assessment model, which is refreshed by a
+ * snapshot, so the cached file is reused as long as the snapshots of the
+ * central schema are unchanged.
+ * <p>
+ * The file is named after the database and the central schema, two databases
+ * using the same central schema name have their own cache. Warm runs do not
+ * read dss_metric_descriptions nor dss_metric_type_trees at all.
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public class QualityModelCache {
+
+	/** The log. */
+	public static Log log = LogFactory.getLog(QualityModelCache.class);
+
+	/** The Constant VERSION_KEY. */
+	private static final String VERSION_KEY = "model.version";
+
+	/** The Constant FORMAT, to be increased when the content of the cache changes. */
+	private static final int FORMAT = 2;
+
+	/** The Constant TREE_PREFIX. */
+	private static final String TREE_PREFIX = "tree.";
+
+	/** The Constant DESCRIPTION_PREFIX. */
+	private static final String DESCRIPTION_PREFIX = "description.";
+
+	/** The cache directory. */
+	private final File directory;
+
+	/** The database holding the central schema, host, port and database name. */
+	private final String database;
+
+	/** The connection caching the statements, null to prepare them on every load. */
+	private DatabaseConnection statementCache;
+
+	/**
+	 * Instantiates a new quality model cache.
+	 * 
+	 * @param directory
+	 *            the cache directory, created if it does not exist
+	 * @param database
+	 *            the database holding the central schema, host, port and
+	 *            database name
+	 */
+	public QualityModelCache(File directory, String database) {
+		this.directory = directory;
+		this.database = database;
+	}
+
+	/**
+	 * Loads the quality model of the central schema, from the cache when it is
+	 * up to date, from the database otherwise. A cache that can not be read or
+	 * written is only logged, the model is then read from the database.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @param schemaProfile
+	 *            the central schema
+	 * @param descriptions
+	 *            the metric descriptions to fill
+	 * @param tree
+	 *            the metric tree to fill
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public void load(Connection connection, String schemaProfile, MetricDescriptions descriptions, MetricTree tree)
+			throws SQLException {
+		String version = FORMAT + ":" + database + ":" + getModelVersion(connection, schemaProfile);
+		File file = getFile(schemaProfile);
+
+		Properties cached = read(file);
+		if (cached != null && version.equals(cached.getProperty(VERSION_KEY))) {
+			for (String key : cached.stringPropertyNames()) {
+				if (key.startsWith(DESCRIPTION_PREFIX)) {
+					String[] ids = key.substring(DESCRIPTION_PREFIX.length()).split("\\.");
+					descriptions.put(Integer.parseInt(ids[0]), Integer.parseInt(ids[1]), cached.getProperty(key));
+				} else if (key.startsWith(TREE_PREFIX)) {
+					int metricId = Integer.parseInt(key.substring(TREE_PREFIX.length()));
+					for (String parentId : cached.getProperty(key).split(",")) {
+						tree.put(metricId, Integer.parseInt(parentId));
+					}
+				}
+			}
+			log.info("Quality model read from cache " + file.getAbsolutePath() + " for " + descriptions.size()
+					+ " metrics");
+			return;
+		}
+
+		descriptions.load(connection, schemaProfile);
+		tree.load(connection, schemaProfile);
+
+		Properties props = new Properties();
+		props.setProperty(VERSION_KEY, version);
+		for (int metricId : descriptions.getMetricIds()) {
+			for (int typeId = MetricDescriptions.NAME; typeId <= MetricDescriptions.OUTPUT; typeId++) {
+				String text = descriptions.getDescription(metricId, typeId);
+				if (text != null) {
+					props.setProperty(DESCRIPTION_PREFIX + metricId + "." + typeId, text);
+				}
+			}
+		}
+		for (int metricId : tree.getMetricIds()) {
+			StringBuilder sb = new StringBuilder();
+			for (int parentId : tree.getParents(metricId)) {
+				if (sb.length() > 0) {
+					sb.append(',');
+				}
+				sb.append(parentId);
+			}
+			props.setProperty(TREE_PREFIX + metricId, sb.toString());
+		}
+		write(file, props, "Quality model of " + schemaProfile);
+	}
+
+	/**
+	 * Gets the cache file of a central schema of the database.
+	 * 
+	 * @param schemaProfile
+	 *            the central schema
+	 * @return the file
+	 */
+	private File getFile(String schemaProfile) {
+		String name = String.format("%s.%s.properties", database, schemaProfile).toLowerCase()
+				.replaceAll("[^a-z0-9._-]", "_");
+		return new File(directory, name);
+	}
+
+	/**
+	 * Gets the assessment model version of the central schema. The model is
+	 * attached to the snapshots, the number and the last id of the snapshots
+	 * identify it without reading the model tables.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @param schemaProfile
+	 *            the central schema
+	 * @return the model version
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	private String getModelVersion(Connection connection, String schemaProfile) throws SQLException {
+		String sqlString = "select count(*), max(snapshot_id) from " + schemaProfile + ".dss_snapshots";
+		PreparedStatement pst = statementCache == null ? connection.prepareStatement(sqlString)
+				: statementCache.prepareStatement(connection, sqlString);
+		try (ResultSet rs = pst.executeQuery()) {
+			rs.next();
+			return rs.getInt(1) + ":" + rs.getInt(2);
+		} finally {
+			if (statementCache == null) {
+				pst.close();
+			} else {
+				statementCache.closeStatement(pst);
+			}
+		}
+	}
+
+	/**
+	 * Sets the connection whose statement cache holds the model version
+	 * statement, it is then prepared once for all the loads on the
+	 * connection.
+	 * 
+	 * @param statementCache
+	 *            the connection, null to prepare the statement on every load
+	 */
+	public void setStatementCache(DatabaseConnection statementCache) {
+		this.statementCache = statementCache;
+	}
+
+	/**
+	 * Reads a cache file.
+	 * 
+	 * @param file
+	 *            the file
+	 * @return the properties, null if the file does not exist or can not be
+	 *         read
+	 */
+	private Properties read(File file) {
+		if (!file.isFile()) {
+			return null;
+		}
+		try (InputStream in = new FileInputStream(file)) {
+			Properties props = new Properties();
+			props.load(in);
+			return props;
+		} catch (IOException | IllegalArgumentException e) {
+			log.warn("Quality model cache can not be read, it will be refreshed: " + file.getAbsolutePath(), e);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes a cache file. The file is written aside and renamed so that
+	 * concurrent runs never read a partial file.
+	 * 
+	 * @param file
+	 *            the file
+	 * @param props
+	 *            the properties
+	 * @param comment
+	 *            the comment
+	 */
+	private void write(File file, Properties props, String comment) {
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			log.warn("Quality model cache directory can not be created: " + directory.getAbsolutePath());
+			return;
+		}
+		File tmp = null;
+		try {
+			tmp = File.createTempFile(file.getName(), ".tmp", directory);
+			try (OutputStream out = new FileOutputStream(tmp)) {
+				props.store(out, comment);
+			}
+			if (file.exists() && !file.delete() || !tmp.renameTo(file)) {
+				throw new IOException("unable to replace " + file.getAbsolutePath());
+			}
+			log.info("Quality model cache written: " + file.getAbsolutePath());
+		} catch (IOException e) {
+			log.warn("Quality model cache can not be written: " + file.getAbsolutePath(), e);
+			if (tmp != null) {
+				tmp.delete();
+			}
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package com.castsoftware.jira.util;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.castsoftware.jira.pojo.ActionPlanViolation;
+
+/**
+ * The Class SourceCodeLoader reads the source files of the violations from
+ * dss_code_sources on demand, when an issue showing the source code is
+ * created. It opens its own connection on the first read, so it can be called
+ * while the action plan is still being read and costs nothing when no source
+ * code is needed. The last files read are kept since the violations come
+ * ordered by source file.
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public abstract class SourceCodeLoader {
+
+	/** The log. */
+	public static Log log = LogFactory.getLog(SourceCodeLoader.class);
+
+	/** The connection, opened on the first read. */
+	private DatabaseConnection connection;
+
+	/** The local schema. */
+	private final String localSchema;
+
+	/** The statement, prepared on the first read. */
+	private PreparedStatement pst;
+
+	/** The last files read, by source id. */
+	private final LinkedHashMap<Integer, String> sources;
+
+	/** The number of files read. */
+	private int filesRead;
+
+	/**
+	 * Instantiates a new source code loader.
+	 * 
+	 * @param localSchema
+	 *            the local schema holding dss_code_sources
+	 * @param cacheSize
+	 *            the number of files kept in memory
+	 */
+	public SourceCodeLoader(String localSchema, final int cacheSize) {
+		this.localSchema = localSchema;
+		this.sources = new LinkedHashMap<Integer, String>(cacheSize * 2, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+				return size() > cacheSize;
+			}
+		};
+	}
+
+	/**
+	 * Cuts the code snippet of a violation out of its source file.
+	 * 
+	 * @param violation
+	 *            the violation
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public void applyTo(ActionPlanViolation violation) throws SQLException {
+		violation.applySourceCode(getSourceCode(violation.getSourceId()));
+	}
+
+	/**
+	 * Gets the text of a source file.
+	 * 
+	 * @param sourceId
+	 *            the source id
+	 * @return the source code, null if the file is not found
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public String getSourceCode(int sourceId) throws SQLException {
+		if (sources.containsKey(sourceId)) {
+			return sources.get(sourceId);
+		}
+		if (pst == null) {
+			String sqlString = "select source_code from " + localSchema + ".dss_code_sources where source_id = ?";
+			if (log.isDebugEnabled()) {
+				log.debug("Sql Statement to execute to get source code: " + sqlString);
+			}
+			connection = openConnection();
+			pst = connection.prepareStatement(sqlString);
+		}
+
+		String sourceCode = null;
+		pst.setInt(1, sourceId);
+		try (ResultSet rs = pst.executeQuery()) {
+			if (rs.next()) {
+				sourceCode = rs.getString(1);
+			}
+		}
+		filesRead++;
+		sources.put(sourceId, sourceCode);
+		return sourceCode;
+	}
+
+	/**
+	 * Gets the number of files read.
+	 * 
+	 * @return the files read
+	 */
+	public int getFilesRead() {
+		return filesRead;
+	}
+
+	/**
+	 * Releases the files and closes the connection.
+	 */
+	public void close() {
+		log.info("Source files read: " + filesRead);
+		sources.clear();
+		// the statement is cached by the pooled connection
+		pst = null;
+		if (connection != null) {
+			connection.closeConnection();
+		}
+	}
+
+	/**
+	 * Opens the connection to the database holding the local schema.
+	 * 
+	 * @return the connection, closed by {@link #close()}
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	protected abstract DatabaseConnection openConnection() throws SQLException;
+}
@@ -0,0 +1,171 @@
+package com.castsoftware.jira.util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Class SqlDialect holds what differs between the databases supported by
+ * CAST: connection string, table naming, functions and statement tuning. The
+ * statements are written once in SqlStatements and use the dialect for these
+ * parts.
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public abstract class SqlDialect {
+
+	/**
+	 * Gets the dialect of a database provider.
+	 * 
+	 * @param databaseProvider
+	 *            the database provider, CSS by default
+	 * @return the dialect
+	 */
+	public static SqlDialect forProvider(String databaseProvider) {
+		if (Constants.DB_ORACLE.equalsIgnoreCase(databaseProvider)) {
+			return new OracleDialect();
+		} else if (Constants.DB_SQLSERVER.equalsIgnoreCase(databaseProvider)) {
+			return new SqlServerDialect();
+		}
+		return new CssDialect();
+	}
+
+	/**
+	 * Gets the JDBC driver class.
+	 * 
+	 * @return the driver class
+	 */
+	public abstract String getDriverClass();
+
+	/**
+	 * Gets the connection string.
+	 * 
+	 * @param host
+	 *            the database host
+	 * @param port
+	 *            the database port
+	 * @param database
+	 *            the database name
+	 * @return the connection string
+	 */
+	public abstract String getConnectionString(String host, String port, String database);
+
+	/**
+	 * Gets the connection strings of a host list, tried in order until one
+	 * connects. By default there is one connection string by host, a dialect
+	 * whose driver handles the failover returns a single multi-host string.
+	 * 
+	 * @param hosts
+	 *            the hosts, the replicas first
+	 * @param database
+	 *            the database name
+	 * @return the connection strings
+	 */
+	public List<String> getConnectionStrings(List<DatabaseHost> hosts, String database) {
+		List<String> connectionStrings = new ArrayList<>();
+		for (DatabaseHost host : hosts) {
+			connectionStrings.add(getConnectionString(host.getUrlHost(), host.getPort(), database));
+		}
+		return connectionStrings;
+	}
+
+	/**
+	 * Gets the query run to check that a connection is still valid.
+	 * 
+	 * @return the validation query
+	 */
+	public String getValidationQuery() {
+		return "select 1";
+	}
+
+	/**
+	 * Qualifies a schema, the tables of the schema are named
+	 * qualifiedSchema.table.
+	 * 
+	 * @param schema
+	 *            the schema
+	 * @return the qualified schema
+	 */
+	public String qualify(String schema) {
+		return schema;
+	}
+
+	/**
+	 * Gets a table reference of a from clause.
+	 * 
+	 * @param schema
+	 *            the schema
+	 * @param table
+	 *            the table
+	 * @param alias
+	 *            the alias
+	 * @return the table reference
+	 */
+	public String table(String schema, String table, String alias) {
+		return qualify(schema) + "." + table + " " + alias;
+	}
+
+	/**
+	 * Gets the remainder of the division of an integer expression.
+	 * 
+	 * @param expression
+	 *            the expression
+	 * @param divisor
+	 *            the divisor
+	 * @return the modulo expression
+	 */
+	public String mod(String expression, int divisor) {
+		return "mod(" + expression + ", " + divisor + ")";
+	}
+
+	/**
+	 * Gets a select of scalar expressions without table.
+	 * 
+	 * @param expressions
+	 *            the comma separated expressions
+	 * @return the select statement
+	 */
+	public String selectScalars(String expressions) {
+		return "select " + expressions;
+	}
+
+	/**
+	 * Gets the statement capturing the execution plan of a statement, it has
+	 * the same parameters.
+	 * 
+	 * @param sql
+	 *            the statement
+	 * @return the explain statement, null if it is not supported
+	 */
+	public String getExplainStatement(String sql) {
+		return null;
+	}
+
+	/**
+	 * Gets the statement reading the execution plan when the explain statement
+	 * does not return it.
+	 * 
+	 * @return the plan output statement, null if the explain statement returns
+	 *         the plan
+	 */
+	public String getExplainOutputStatement() {
+		return null;
+	}
+
+	/**
+	 * Tunes a statement reading a large result, the rows are fetched from the
+	 * database by batches of fetchSize rows.
+	 * 
+	 * @param pst
+	 *            the statement
+	 * @param fetchSize
+	 *            the fetch size
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public void configureFetch(PreparedStatement pst, int fetchSize) throws SQLException {
+		pst.setFetchSize(fetchSize);
+	}
+}
@@ -0,0 +1,40 @@
+package com.castsoftware.jira.util;
+
+/**
+ * The Class SqlServerDialect is the dialect of SQL Server through jTDS. The
+ * CAST schemas are databases whose tables belong to dbo. The string parameters
+ * are sent as varchar, sent as nvarchar they prevent the use of the indexes on
+ * the varchar columns. The tables are read without lock hint: a dirty read may
+ * return a violation twice or miss it while a snapshot is computed, the
+ * READ_COMMITTED_SNAPSHOT option of the database avoids the blocking instead.
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public class SqlServerDialect extends SqlDialect {
+
+	@Override
+	public String getDriverClass() {
+		return Constants.DB_JDBC_DRIVER_SQLSERVER;
+	}
+
+	@Override
+	public String getConnectionString(String host, String port, String database) {
+		if (host.startsWith("[")) {
+			throw new IllegalArgumentException("The SQL Server driver does not take IPv6 addresses, use the host name of "
+					+ host);
+		}
+		return Constants.DB_CONN_STRING_SQLSERVER + host + ":" + port + "/" + database
+				+ ";sendStringParametersAsUnicode=false";
+	}
+
+	@Override
+	public String qualify(String schema) {
+		return schema + ".dbo";
+	}
+
+	@Override
+	public String mod(String expression, int divisor) {
+		return "(" + expression + " % " + divisor + ")";
+	}
+}
@@ -1,274 +1,1284 @@
-package com.castsoftware.jira.util;
-
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.HashMap;
-
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
-import com.castsoftware.jira.pojo.ActionPlanViolation;
-
-/**
- * The Class SqlStatements stores the sql statement used to retrieve the action
- * plan stored in the database
- * 
- * @author FME
- * @version 1.1
- */
-
-public class SqlStatements
-{
-
-	/** The log. */
-	public static Log log = LogFactory.getLog(SqlStatements.class);
-
-	/** The appName. */
-	private String appName;
-
-	/** The schema profile. */
-	private String schemaProfile;
-
-	/** The database provider. */
-	private String databaseProvider;
-
-	/** The map. */
-	private final HashMap<Integer, ActionPlanViolation> map = new HashMap<>(0);
-
-	/**
-	 * Instantiates a new sql statements.
-	 * 
-	 * @param appName
-	 *            the appName
-	 * @param schemaProfile
-	 *            the schema profile
-	 * @param databaseProvider
-	 *            the database provider
-	 * @throws Exception
-	 *             the exception
-	 */
-	public SqlStatements(String appName, String schemaProfile, String databaseProvider) throws Exception
-	{
-		setAppName(appName);
-		setSchemaProfile(schemaProfile);
-		setDatabaseProvider(databaseProvider);
-	}
-
-	/**
-	 * Gets the action plan.
-	 * 
-	 * @param connection
-	 *            the connection
-	 * @return the action plan
-	 * @throws SQLException
-	 *             the SQL exception
-	 */
-	public HashMap<Integer, ActionPlanViolation> getActionPlan(Connection connection) throws SQLException {
-		PreparedStatement pst = null;
-		ResultSet rs = null;
-
-		try {
-			String sqlString = getSQLStatement();
-			pst = connection.prepareStatement(sqlString);
-
-			if (log.isDebugEnabled()) {
-				log.debug("Sql Statement to execute to get action plan: " + sqlString);
-			}
-
-			// record key "setKey()"
-			rs = pst.executeQuery();
-			ViolationCRC crc = new ViolationCRC();
-			String fc = "";
-			while (rs.next()) {
-				ActionPlanViolation mr = new ActionPlanViolation(rs.getLong("object_id"), rs.getString("tag"), rs.getInt("priority"),
-						rs.getTimestamp("fecha").toString(), rs.getTimestamp("first_snapshot_date").toString(),
-						rs.getString("action_message"), rs.getString("object_name"), rs.getInt("metric_id"),
-						rs.getString("metric"), rs.getString("reason"), rs.getString("desciption"),
-						rs.getString("remediation"), rs.getString("reference"), rs.getString("vil_example"),
-						rs.getString("rem_exampel"), rs.getString("output"), rs.getString("total"),
-						rs.getString("source_path"), rs.getInt("line_start"), rs.getInt("line_end"),
-						rs.getString("source_code"), rs.getString("tech_criteria"), rs.getString("business_criteria"),
-						rs.getInt("violation_status"));
-				try {
-					fc = mr.getFieldsConcatenated();
-					crc.setHashCode(fc);
-					map.put(crc.getHashCode(), mr);
-				} catch (Exception ex) {
-					log.error(
-							"CRC code has not been computed - Review the SqlStatement output because the record will not be added to Jira : "
-									+ fc + ". Exception:" + ex.getMessage());
-				}
-				if (log.isDebugEnabled()) {
-					log.debug("Record concatenated: " + fc);
-				}
-			}
-
-		} catch (SQLException e) {
-			log.fatal("getActionPlan(): Error Getting Action Plan!" + e.getMessage());
-			throw e;
-
-		} finally {
-			if (rs != null) {
-				try {
-					rs.close();
-				} catch (SQLException ex) {
-					log.warn("Failed to close ResultSet: " + ex.getMessage());
-				}
-			}
-			if (pst != null) {
-				try {
-					pst.close();
-				} catch (SQLException ex) {
-					log.warn("Failed to close PreparedStatement: " + ex.getMessage());
-				}
-			}
-		}
-
-		return map;
-	}
-
-	// (select dmd2.metric_description from
-	// version737_central.dss_metric_descriptions dmd2
-	// where dmd2.metric_id=dmd.metric_id and dmd2.language = dmd.language and
-	// dmd2.description_type_id = 1) reason,
-
-	private String getMetricDescriptionStatement(String name, int typeId) {
-
-        return new StringBuffer().append("\n(select dmd").append(typeId).append(".metric_description from ")
-                .append(getSchemaProfile()).append(".dss_metric_descriptions dmd").append(typeId).append(" \n")
-                .append("where dmd").append(typeId).append(".metric_id=dmd.metric_id and dmd").append(typeId)
-                .append(".language = dmd.language AND dmd").append(typeId).append(".description_type_id = ").append(typeId)
-                .append(") ").append(name).toString();
-	}
-
-	/**
-	 * Gets the SQL statement.
-	 * 
-	 * @return the SQL statement
-     */
-	private String getSQLStatement() 
-	{
-		String techCriteria = new StringBuffer().append("\n(select string_agg(")
-				.append("dmdp.metric_description,', ') from ").append(getSchemaProfile())
-				.append(".dss_metric_type_trees dmt, ").append(getSchemaProfile())
-				.append(".dss_metric_descriptions dmdp ").append("where dmt.metric_id=vap.metric_id ")
-				.append("AND dmdp.language = 'ENGLISH' ").append("AND dmdp.description_type_id=0 ")
-				.append("AND dmdp.metric_id=dmt.metric_parent_id ").append(" ) tech_criteria, \n").toString();
-
-		String businessCriteria = new StringBuffer().append("\n( select string_agg(dmdp.metric_description,' ,')  ")
-				.append("from ").append(getSchemaProfile()).append(".dss_metric_type_trees dmt, ")
-				.append(getSchemaProfile()).append(".dss_metric_type_trees bdmt, ").append(getSchemaProfile())
-				.append(".dss_metric_descriptions dmdp ").append("where dmt.metric_id=vap.metric_id ")
-				.append("AND bdmt.metric_id=dmt.metric_parent_id AND dmdp.language = 'ENGLISH' AND dmdp.description_type_id=0 ")
-				.append("AND dmdp.metric_id=bdmt.metric_parent_id AND dmdp.metric_id in (60011,60012,60013,60014,60016) ")
-				.append(") business_criteria	\n").toString();
-
-        return new StringBuffer()
-                .append("SELECT distinct vap.object_id, dmd.metric_id, dmd.metric_description AS metric, dso.object_full_name AS object_name, vap.tag, vap.priority, ")
-                .append("dvs.snapshot_id, vap.first_snapshot_date, vap.sel_date AS fecha, vap.action_def AS action_message,  dvs.violation_status, ")
-                .append("dsp.line_start,  dsp.line_end, dcs.source_path,  dcs.source_code,")
-                .append(getMetricDescriptionStatement("reason", 1)).append(",")
-                .append(getMetricDescriptionStatement("desciption", 2)).append(",")
-                .append(getMetricDescriptionStatement("remediation", 3)).append(",")
-                .append(getMetricDescriptionStatement("reference", 4)).append(",")
-                .append(getMetricDescriptionStatement("vil_example", 5)).append(",")
-                .append(getMetricDescriptionStatement("rem_exampel", 6)).append(",")
-                .append(getMetricDescriptionStatement("output", 7)).append(",")
-                .append(getMetricDescriptionStatement("total", 1)).append(",").append(techCriteria)
-                .append(businessCriteria).append("\nFROM\n")
-                .append(String.format("%s.%s %s,\n", getSchemaProfile(), "viewer_action_plans", "vap"))
-                .append(String.format("%s.%s %s,\n ", getSchemaProfile(), "dss_objects", "dso"))
-                .append(String.format("%s.%s %s, \n", getSchemaProfile(), "dss_violation_statuses ", "dvs"))
-                .append(String.format("%s.%s %s, \n", getSchemaProfile(), "dss_metric_descriptions", "dmd"))
-                .append(String.format("%s.%s %s, \n", getSchemaProfile(), "dss_translation_table", "dtt"))
-                .append(String.format("%s.%s %s,\n ", getLocalDatabase(), "dss_source_positions", "dsp"))
-                .append(String.format("%s.%s %s\n ", getLocalDatabase(), "dss_code_sources", "dcs")).append("\n WHERE ")
-                .append("vap.object_id = dso.object_id ").append("and dvs.object_id = vap.object_id\n")
-                .append("and dvs.diag_id = vap.metric_id \n")
-                .append(String.format(
-                        "and dvs.snapshot_id = (select max(snapshot_id) from %s.dss_violation_statuses dvs2 where dvs2.object_id=vap.object_id and dvs2.diag_id=vap.metric_id) \n",
-                        getSchemaProfile()))
-                .append("and vap.priority > 0 \n")
-                .append("and dmd.metric_id = vap.metric_id and dmd.language = 'ENGLISH'  and dmd.description_type_id = 0 \n")
-                .append("and dtt.object_id = vap.object_id \n").append("and dtt.site_object_id = dsp.object_id  \n")
-                .append("and dsp.source_id = dcs.source_id \n")
-                .toString();
-
-	}
-
-	/**
-	 * Gets the appName.
-	 * 
-	 * @return the appName
-	 */
-	public String getAppName()
-	{
-		return appName;
-	}
-
-	/**
-	 * Sets the appName.
-	 * 
-	 * @param appName
-	 *            the appName to set
-	 */
-	public void setAppName(String appName)
-	{
-		this.appName = appName;
-	}
-
-	/**
-	 * Gets the schema profile.
-	 * 
-	 * @return the schemaProfile
-	 */
-	public String getSchemaProfile()
-	{
-		return schemaProfile;
-	}
-
-	/**
-	 * Gets the local database.
-	 * 
-	 * @return the schemaProfile
-	 */
-	public String getLocalDatabase()
-	{
-		return schemaProfile.replace("central", "local");
-	}
-
-	/**
-	 * Sets the schema profile.
-	 * 
-	 * @param schemaProfile
-	 *            the schemaProfile to set
-	 */
-	public void setSchemaProfile(String schemaProfile)
-	{
-		this.schemaProfile = schemaProfile;
-	}
-
-	/**
-	 * Gets the database provider.
-	 * 
-	 * @return the databaseProvider
-	 */
-	public String getDatabaseProvider()
-	{
-		return databaseProvider;
-	}
-
-	/**
-	 * Sets the database provider.
-	 * 
-	 * @param databaseProvider
-	 *            the databaseProvider to set
-	 */
-	public void setDatabaseProvider(String databaseProvider)
-	{
-		this.databaseProvider = databaseProvider;
-	}
-
-}
+package com.castsoftware.jira.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.castsoftware.jira.pojo.ActionPlanViolation;
+import com.castsoftware.jira.pojo.MetricMetadata;
+import com.castsoftware.jira.pojo.ViolationChange;
+
+/**
+ * The Class SqlStatements stores the sql statement used to retrieve the action
+ * plan stored in the database
+ * 
+ * @author FME
+ * @version 1.1
+ */
+
+public class SqlStatements
+{
+
+	/** The log. */
+	public static Log log = LogFactory.getLog(SqlStatements.class);
+
+	/** The appName. */
+	private String appName;
+
+	/** The schema profile. */
+	private String schemaProfile;
+
+	/** The database provider. */
+	private String databaseProvider;
+
+	/** The fetch size. */
+	private int fetchSize = Constants.DB_DEFAULT_FETCH_SIZE;
+
+	/** The metric descriptions. */
+	private MetricDescriptions metricDescriptions;
+
+	/** The metric tree. */
+	private MetricTree metricTree;
+
+	/** The extraction filter. */
+	private ExtractionFilter filter = new ExtractionFilter();
+
+	/** The watermark of the previous run, null for a full extraction. */
+	private Watermark since;
+
+	/** The watermark reached by this extraction. */
+	private Watermark watermark;
+
+	/** True to extract the changes between two snapshots only. */
+	private boolean delta;
+
+	/** The previous and current snapshots of the delta, found when null. */
+	private int[] deltaSnapshots;
+
+	/** The number of violations by change in delta mode. */
+	private final EnumMap<ViolationChange, Integer> deltaCounts = new EnumMap<>(ViolationChange.class);
+
+	/** True once the extraction has been prepared. */
+	private boolean prepared;
+
+	/** The partition read by this instance. */
+	private int partition;
+
+	/** The number of partitions, 1 when the action plan is not partitioned. */
+	private int partitionCount = 1;
+
+	/** The CAST fields shown in the issues, null when all of them are. */
+	private Set<String> referencedFields;
+
+	/** The quality model cache directory, null when the cache is disabled. */
+	private File cacheDirectory;
+
+	/** The database holding the central schema, it names the quality model cache. */
+	private String databaseName;
+
+	/** The file receiving the execution plan, null when it is not captured. */
+	private File explainFile;
+
+	/** The statistics of the extraction. */
+	private final ExtractionStatistics statistics = new ExtractionStatistics();
+
+	/** The dialect of the database provider. */
+	private SqlDialect dialect;
+
+	/** The connection caching the metadata statements, null without cache. */
+	private DatabaseConnection statementCache;
+
+	/** The map. */
+	private final LongViolationMap map = new LongViolationMap();
+
+	/**
+	 * Instantiates a new sql statements.
+	 * 
+	 * @param appName
+	 *            the appName
+	 * @param schemaProfile
+	 *            the schema profile
+	 * @param databaseProvider
+	 *            the database provider
+	 * @throws Exception
+	 *             the exception
+	 */
+	public SqlStatements(String appName, String schemaProfile, String databaseProvider) throws Exception
+	{
+		setAppName(appName);
+		setSchemaProfile(schemaProfile);
+		setDatabaseProvider(databaseProvider);
+	}
+
+	/**
+	 * Gets the action plan.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @return the action plan
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public LongViolationMap getActionPlan(Connection connection) throws SQLException {
+		readActionPlan(connection, map, null);
+		return map;
+	}
+
+	/**
+	 * Streams the action plan to the handler. The rows are read through a
+	 * database cursor in batches of fetch size rows and are not kept in
+	 * memory, only the CastIds already sent are remembered so the handler
+	 * gets every violation once.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @param handler
+	 *            the handler receiving the violations
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public void streamActionPlan(Connection connection, ActionPlanHandler handler) throws SQLException {
+		streamActionPlan(connection, new LongViolationMap(), handler);
+	}
+
+	/**
+	 * Streams the action plan to the handler, the CastIds already sent are
+	 * remembered in a map shared with the other partitions of the
+	 * extraction, so the collisions between partitions are detected too.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @param castIds
+	 *            the CastIds already sent
+	 * @param handler
+	 *            the handler receiving the violations
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public void streamActionPlan(Connection connection, LongViolationMap castIds, ActionPlanHandler handler)
+			throws SQLException {
+		readActionPlan(connection, castIds, handler);
+	}
+
+	/**
+	 * Prepares the extraction: checks the application, takes the watermark,
+	 * finds the delta snapshots and loads the quality model. It is only done
+	 * once, the partitions share what has been prepared.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @return true, if there is an action plan to extract
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public boolean prepare(Connection connection) throws SQLException {
+		if (prepared) {
+			return true;
+		}
+		if (!isApplicationDefined(connection)) {
+			log.warn("getActionPlan(): Application " + getAppName() + " not found in " + getSchemaProfile()
+				+ ".csv_portf_tree. Check the application name, it is case sensitive");
+			return false;
+		}
+
+		// taken before the extraction, changes made meanwhile are read by the next run
+		watermark = readWatermark(connection);
+		if (getSince() != null) {
+			log.info("Incremental extraction of the changes since " + getSince());
+		}
+
+		if (isDelta()) {
+			if (deltaSnapshots == null) {
+				deltaSnapshots = readDeltaSnapshots(connection);
+			}
+			if (deltaSnapshots == null) {
+				log.warn("getActionPlan(): No snapshot found for application " + getAppName());
+				return false;
+			}
+			log.info("Delta extraction between snapshots " + deltaSnapshots[0] + " and " + deltaSnapshots[1]);
+			for (ViolationChange change : ViolationChange.values()) {
+				deltaCounts.put(change, 0);
+			}
+		}
+
+		loadQualityModel(connection);
+		prepared = true;
+		return true;
+	}
+
+	/**
+	 * Gets a partition of this extraction, reading the violations whose
+	 * metric id modulo the number of partitions is the partition. The
+	 * partition shares the settings and what has been prepared, it has to be
+	 * run on its own connection.
+	 * 
+	 * @param partition
+	 *            the partition, from 0 to partitionCount - 1
+	 * @param partitionCount
+	 *            the number of partitions
+	 * @return the partition
+	 * @throws Exception
+	 *             the exception
+	 */
+	public SqlStatements getPartition(int partition, int partitionCount) throws Exception {
+		SqlStatements sql = new SqlStatements(getAppName(), getSchemaProfile(), getDatabaseProvider());
+		sql.setFetchSize(getFetchSize());
+		sql.setCacheDirectory(getCacheDirectory());
+		sql.setDatabaseName(getDatabaseName());
+		sql.setReferencedFields(getReferencedFields());
+		sql.setFilter(getFilter());
+		sql.setSince(getSince());
+		sql.setDelta(isDelta());
+		sql.deltaSnapshots = deltaSnapshots;
+		sql.metricDescriptions = metricDescriptions;
+		sql.metricTree = metricTree;
+		sql.watermark = watermark;
+		sql.deltaCounts.putAll(deltaCounts);
+		sql.prepared = prepared;
+		sql.setExplainFile(partition == 0 ? getExplainFile() : null);
+		sql.partition = partition;
+		sql.partitionCount = partitionCount;
+		return sql;
+	}
+
+	/**
+	 * Reads the action plan and sends every record to the handler. The
+	 * statement is run in a read only transaction with a fetch size so the
+	 * driver uses a cursor instead of loading the whole result set in memory.
+	 * The rows are ordered by source file, the source code itself is read on
+	 * demand by the {@link SourceCodeLoader}.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @param castIds
+	 *            the CastIds already read, with the violations if there is no
+	 *            handler
+	 * @param handler
+	 *            the handler, null to keep the violations in castIds
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	private void readActionPlan(Connection connection, LongViolationMap castIds, ActionPlanHandler handler)
+			throws SQLException {
+		PreparedStatement pst = null;
+		ResultSet rs = null;
+		boolean autoCommit = connection.getAutoCommit();
+
+		try {
+			if (!prepare(connection)) {
+				return;
+			}
+			MetricDescriptions metrics = metricDescriptions;
+			boolean sourceCode = isFieldUsed(Constants.FIELD_MAPPING_LABEL_SOURCE_CODE);
+
+			long start = System.nanoTime();
+			String sqlString = getSQLStatement();
+			// before the transaction, a failed explain must not abort the extraction
+			if (getExplainFile() != null) {
+				explain(connection, sqlString);
+			}
+			// cursor based fetch requires the statement to run inside a transaction
+			connection.setAutoCommit(false);
+			pst = connection.prepareStatement(sqlString, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			dialect.configureFetch(pst, getFetchSize());
+			bindParameters(pst);
+
+			if (log.isDebugEnabled()) {
+				log.debug("Sql Statement to execute to get action plan: " + sqlString + " [" + getAppName()
+						+ "] fetch size: " + getFetchSize());
+			}
+			statistics.addPrepareNanos(System.nanoTime() - start);
+
+			// record key "setKey()"
+			long fetchStart = System.nanoTime();
+			long mappingNanos = 0;
+			long handlerNanos = 0;
+			rs = pst.executeQuery();
+			ViolationCRC crc = new ViolationCRC();
+			CastIdHasher hasher = new CastIdHasher();
+			// the actions are shared only by the violations kept in memory
+			StringTable actions = handler == null ? new StringTable() : null;
+			String fc = "";
+			while (rs.next()) {
+				long rowStart = System.nanoTime();
+				if (statistics.getRows() == 0) {
+					statistics.setFirstRowNanos(rowStart - fetchStart);
+				}
+				String tag = rs.getString("tag");
+				String actionMessage = rs.getString("action_message");
+				String objectName = rs.getString("object_name");
+				String sourcePath = sourceCode ? rs.getString("source_path") : null;
+				statistics.addRow(tag, actionMessage, objectName, sourcePath);
+				int metricId = rs.getInt("metric_id");
+				if (!metrics.contains(metricId)) {
+					if (log.isDebugEnabled()) {
+						log.debug("Metric without english description, violation skipped: " + metricId);
+					}
+					continue;
+				}
+				long objectId = rs.getLong("object_id");
+				Timestamp actionDate = rs.getTimestamp("fecha");
+				Timestamp firstSnapshotDate = rs.getTimestamp("first_snapshot_date");
+				MetricMetadata metric = metrics.getMetadata(metricId, metricTree);
+				ActionPlanViolation mr = new ActionPlanViolation(objectId, tag,
+						actionDate, firstSnapshotDate,
+						actionMessage, objectName, metric,
+						sourcePath,
+						sourceCode ? rs.getInt("line_start") : 0,
+						sourceCode ? rs.getInt("line_end") : 0,
+						sourceCode ? rs.getInt("source_id") : 0,
+						rs.getInt("violation_status"));
+				if (isDelta()) {
+					int previousStatus = rs.getInt("prev_status");
+					ViolationChange change = ViolationChange.valueOf(rs.wasNull() ? null : previousStatus,
+							mr.getViolationStatus());
+					if (change == null) {
+						continue;
+					}
+					mr.setChange(change);
+					deltaCounts.put(change, deltaCounts.get(change) + 1);
+				}
+				if (actions != null) {
+					mr.internActionDef(actions);
+				}
+				long castId;
+				fc = null;
+				if (hasher.hash(mr.getPriority(), actionDate, firstSnapshotDate, actionMessage, objectName,
+						metric.getShortDescription(), objectId, metricId)) {
+					// ASCII record, hashed without building the concatenated fields
+					castId = hasher.getCastId();
+				} else {
+					try {
+						fc = mr.getFieldsConcatenated();
+						crc.setHashCode(fc);
+						castId = crc.getLongHashCode();
+					} catch (Exception ex) {
+						log.error(
+								"CRC code has not been computed - Review the SqlStatement output because the record will not be added to Jira : "
+										+ fc + ". Exception:" + ex.getMessage());
+						continue;
+					}
+				}
+				if (log.isDebugEnabled()) {
+					log.debug("Record concatenated: " + concatenatedFields(mr, fc));
+				}
+				int added = castIds.add(castId, LongViolationMap.fingerprint(mr), handler == null ? mr : null);
+				if (added == LongViolationMap.DUPLICATE) {
+					if (log.isDebugEnabled()) {
+						log.debug("Violation already processed: " + castId);
+					}
+					continue;
+				} else if (added == LongViolationMap.COLLISION) {
+					log.error("CastId collision, violation not sent to Jira: " + castId + " " + concatenatedFields(mr, fc));
+					continue;
+				}
+				long handlerStart = System.nanoTime();
+				mappingNanos += handlerStart - rowStart;
+				if (handler != null) {
+					handler.handleViolation(castId, mr);
+				}
+				long handlerTime = System.nanoTime() - handlerStart;
+				handlerNanos += handlerTime;
+				statistics.addHandlerNanos(handlerTime);
+			}
+			if (castIds.getCollisions() > 0) {
+				log.error("Number of CastId collisions: " + castIds.getCollisions());
+			}
+			statistics.setCollisions(castIds.getCollisions());
+			statistics.addMappingNanos(mappingNanos);
+			statistics.addFetchNanos(System.nanoTime() - fetchStart - mappingNanos - handlerNanos);
+
+		} catch (SQLException e) {
+			log.fatal("getActionPlan(): Error Getting Action Plan!" + e.getMessage());
+			throw e;
+
+		} finally {
+			if (rs != null) {
+				try {
+					rs.close();
+				} catch (SQLException ex) {
+					log.warn("Failed to close ResultSet: " + ex.getMessage());
+				}
+			}
+			if (pst != null) {
+				try {
+					pst.close();
+				} catch (SQLException ex) {
+					log.warn("Failed to close PreparedStatement: " + ex.getMessage());
+				}
+			}
+			try {
+				if (autoCommit) {
+					// read only transaction, nothing to commit
+					connection.rollback();
+					connection.setAutoCommit(true);
+				}
+			} catch (SQLException ex) {
+				log.warn("Failed to end the read transaction: " + ex.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Gets the concatenated fields of a violation for the log.
+	 * 
+	 * @param violation
+	 *            the violation
+	 * @param fields
+	 *            the concatenated fields if they have been computed, else null
+	 * @return the concatenated fields
+	 */
+	private static String concatenatedFields(ActionPlanViolation violation, String fields) {
+		if (fields != null) {
+			return fields;
+		}
+		try {
+			return violation.getFieldsConcatenated();
+		} catch (IllegalStateException e) {
+			return violation.getObjectId() + "/" + violation.getMetricId();
+		}
+	}
+
+	/**
+	 * Binds the parameters of the action plan statement.
+	 * 
+	 * @param pst
+	 *            the statement
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	private void bindParameters(PreparedStatement pst) throws SQLException {
+		int index = 1;
+		if (!isDelta()) {
+			// application scope of the latest status derived table
+			pst.setString(index++, getAppName());
+		}
+		pst.setString(index++, getAppName());
+		index = getFilter().bind(pst, index);
+		if (getSince() != null && !isDelta()) {
+			pst.setTimestamp(index++, getSince().getSelectionDate());
+			pst.setInt(index++, getSince().getSnapshotId());
+			pst.setInt(index++, getSince().getSnapshotId());
+		}
+	}
+
+	/**
+	 * Writes the execution plan of the action plan statement to the explain
+	 * file. On CSS the statement is run by EXPLAIN ANALYZE, it doubles the
+	 * extraction time. A failure is logged and does not stop the extraction:
+	 * when the connection is already in a transaction, it is rolled back to a
+	 * savepoint, otherwise CSS would reject the next statements of the
+	 * transaction.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @param sqlString
+	 *            the action plan statement
+	 */
+	private void explain(Connection connection, String sqlString) {
+		String explainString = dialect.getExplainStatement(sqlString);
+		if (explainString == null) {
+			log.warn("The execution plan can not be captured on " + getDatabaseProvider());
+			return;
+		}
+		StringBuilder plan = new StringBuilder().append(sqlString).append("\n-- application: ").append(getAppName())
+				.append("\n\n");
+		Savepoint savepoint = null;
+		try {
+			if (!connection.getAutoCommit()) {
+				savepoint = connection.setSavepoint();
+			}
+			try (PreparedStatement pst = connection.prepareStatement(explainString)) {
+				bindParameters(pst);
+				if (dialect.getExplainOutputStatement() == null) {
+					try (ResultSet rs = pst.executeQuery()) {
+						while (rs.next()) {
+							plan.append(rs.getString(1)).append("\n");
+						}
+					}
+				} else {
+					pst.execute();
+					try (PreparedStatement opst = connection.prepareStatement(dialect.getExplainOutputStatement());
+							ResultSet rs = opst.executeQuery()) {
+						while (rs.next()) {
+							plan.append(rs.getString(1)).append("\n");
+						}
+					}
+				}
+			}
+		} catch (SQLException e) {
+			log.warn("The execution plan has not been captured: " + e.getMessage());
+			if (savepoint != null) {
+				try {
+					connection.rollback(savepoint);
+				} catch (SQLException ex) {
+					log.warn("Failed to roll back the execution plan: " + ex.getMessage());
+				}
+			}
+			return;
+		}
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(getExplainFile()), StandardCharsets.UTF_8)) {
+			writer.write(plan.toString());
+			log.info("Execution plan written to " + getExplainFile().getAbsolutePath());
+		} catch (IOException e) {
+			log.warn("The execution plan has not been written: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Checks that the application is part of the portfolio tree of the central
+	 * schema, otherwise the action plan would be silently empty.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @return true, if the application is defined
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	private boolean isApplicationDefined(Connection connection) throws SQLException {
+		String sqlString = "select count(*) from " + table("csv_portf_tree", "cpt") + " where cpt.app_name = ?";
+		PreparedStatement pst = prepareMetadataStatement(connection, sqlString);
+		try {
+			pst.setString(1, getAppName());
+			try (ResultSet rs = pst.executeQuery()) {
+				return rs.next() && rs.getInt(1) > 0;
+			}
+		} finally {
+			closeMetadataStatement(pst);
+		}
+	}
+
+	/**
+	 * Prepares a statement run once by extraction: the application check,
+	 * the watermark and the delta snapshots. With a statement cache on the
+	 * connection it is prepared once for all the extractions using the
+	 * connection, for instance the applications of a linkage file.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @param sqlString
+	 *            the statement
+	 * @return the prepared statement
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	private PreparedStatement prepareMetadataStatement(Connection connection, String sqlString) throws SQLException {
+		if (statementCache == null) {
+			return connection.prepareStatement(sqlString);
+		}
+		return statementCache.prepareStatement(connection, sqlString);
+	}
+
+	/**
+	 * Closes a statement prepared by prepareMetadataStatement, unless it is
+	 * cached.
+	 * 
+	 * @param pst
+	 *            the statement
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	private void closeMetadataStatement(PreparedStatement pst) throws SQLException {
+		if (statementCache == null) {
+			pst.close();
+		} else {
+			statementCache.closeStatement(pst);
+		}
+	}
+
+	/**
+	 * Gets the application scope predicate. The action plan tables of the
+	 * central schema hold the violations of every application, so the
+	 * objects are restricted to the modules of the requested application
+	 * (portfolio tree / module links). The application name is bound as the
+	 * first parameter of the statement.
+	 * 
+	 * @return the application scope predicate
+	 */
+	private String getApplicationScopeStatement() {
+		return getApplicationScopeStatement("vap.object_id");
+	}
+
+	/**
+	 * Gets the predicate restricting an object column to the objects of the
+	 * application, the application name is its only parameter.
+	 * 
+	 * @param objectColumn
+	 *            the object id column
+	 * @return the application scope statement
+	 */
+	private String getApplicationScopeStatement(String objectColumn) {
+		return new StringBuffer().append("and ").append(objectColumn).append(" in (select dml.object_id from ")
+				.append(table("dss_module_links", "dml")).append(", ")
+				.append(table("csv_portf_tree", "cpt")).append(" ")
+				.append("where cpt.app_name = ? and dml.module_id = cpt.module_id) \n").toString();
+	}
+
+	/**
+	 * Loads the metric descriptions and the metric tree, once for all the
+	 * statements run by this instance.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @return the quality model
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	public QualityModel loadQualityModel(Connection connection) throws SQLException {
+		if (metricDescriptions == null) {
+			MetricDescriptions descriptions = new MetricDescriptions();
+			MetricTree tree = new MetricTree();
+			if (getCacheDirectory() != null) {
+				// the cache always holds the whole model, it is shared by all the templates
+				QualityModelCache cache = new QualityModelCache(getCacheDirectory(), getDatabaseName());
+				cache.setStatementCache(statementCache);
+				cache.load(connection, dialect.qualify(getSchemaProfile()), descriptions, tree);
+			} else {
+				descriptions.load(connection, dialect.qualify(getSchemaProfile()), getDescriptionTypes());
+				if (isFieldUsed(Constants.FIELD_MAPPING_LABEL_TECH_CRITERIA)
+						|| isFieldUsed(Constants.FIELD_MAPPING_LABEL_BUSINESS_CRITERIA)) {
+					tree.load(connection, dialect.qualify(getSchemaProfile()));
+				}
+			}
+			metricTree = tree;
+			metricDescriptions = descriptions;
+		}
+		return getQualityModel();
+	}
+
+	/**
+	 * Checks if a CAST field is shown in the issues.
+	 * 
+	 * @param field
+	 *            the field label
+	 * @return true, if the field is used
+	 */
+	private boolean isFieldUsed(String field)
+	{
+		return referencedFields == null || referencedFields.contains(field);
+	}
+
+	/**
+	 * Gets the metric description types shown in the issues. The metric name
+	 * is always read, it is part of the CastId and of the log.
+	 * 
+	 * @return the description type ids
+	 */
+	private Set<Integer> getDescriptionTypes()
+	{
+		Set<Integer> types = new HashSet<>();
+		types.add(MetricDescriptions.NAME);
+		if (isFieldUsed(Constants.FIELD_MAPPING_LABEL_REASON_DESCRIPTION)) {
+			types.add(MetricDescriptions.REASON);
+		}
+		if (isFieldUsed(Constants.FIELD_MAPPING_LABEL_METRIC_LONG_DESCRIPTION)) {
+			types.add(MetricDescriptions.DESCRIPTION);
+		}
+		if (isFieldUsed(Constants.FIELD_MAPPING_LABEL_REMEDIATION_DESCRIPTION)) {
+			types.add(MetricDescriptions.REMEDIATION);
+		}
+		if (isFieldUsed(Constants.FIELD_MAPPING_LABEL_REFERENCE_DESCRIPTION)) {
+			types.add(MetricDescriptions.REFERENCE);
+		}
+		if (isFieldUsed(Constants.FIELD_MAPPING_LABEL_VIOLATION_EXAMPLE_DESCRIPTION)) {
+			types.add(MetricDescriptions.VIOLATION_EXAMPLE);
+		}
+		if (isFieldUsed(Constants.FIELD_MAPPING_LABEL_REMEDIATION_EXAMPLE_DESCRIPTION)) {
+			types.add(MetricDescriptions.REMEDIATION_EXAMPLE);
+		}
+		if (isFieldUsed(Constants.FIELD_MAPPING_LABEL_OUTPUT_DESCRIPTION)) {
+			types.add(MetricDescriptions.OUTPUT);
+		}
+		if (isFieldUsed(Constants.FIELD_MAPPING_LABEL_TOTAL_DESCRIPTION)) {
+			types.add(MetricDescriptions.TOTAL);
+		}
+		return types;
+	}
+
+	/**
+	 * Gets the incremental predicate: the violations added to the action plan
+	 * or selected again since the watermark, and the violations whose status
+	 * changed after the watermark snapshot.
+	 * 
+	 * @return the incremental statement
+	 */
+	private String getIncrementalStatement()
+	{
+		return new StringBuffer().append("and (vap.sel_date > ? or (dvs.snapshot_id > ? and not exists (select 1 from ")
+				.append(table("dss_violation_statuses", "dvs3")).append(" ")
+				.append("where dvs3.object_id = dvs.object_id and dvs3.diag_id = dvs.diag_id and dvs3.snapshot_id = ? ")
+				.append("and dvs3.violation_status = dvs.violation_status))) \n").toString();
+	}
+
+	/**
+	 * Gets the partition predicate, the violations are split by metric id.
+	 * 
+	 * @return the partition statement
+	 */
+	private String getPartitionStatement()
+	{
+		return "and " + dialect.mod("vap.metric_id", partitionCount) + " = " + partition + " \n";
+	}
+
+	/**
+	 * Gets the delta predicate: the violation statuses of the current snapshot
+	 * that differ from the previous snapshot.
+	 * 
+	 * @return the delta statement
+	 */
+	private String getDeltaStatement()
+	{
+		return new StringBuffer().append("and dvs.snapshot_id = ").append(deltaSnapshots[1]).append(" \n")
+				.append("and not exists (select 1 from ").append(table("dss_violation_statuses", "dvsp2"))
+				.append(" where dvsp2.object_id = dvs.object_id and dvsp2.diag_id = dvs.diag_id ")
+				.append("and dvsp2.snapshot_id = ").append(deltaSnapshots[0])
+				.append(" and dvsp2.violation_status = dvs.violation_status) \n").toString();
+	}
+
+	/**
+	 * Reads the two latest snapshots holding violation statuses of the
+	 * application.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @return the previous and current snapshot ids, the previous one is 0 if
+	 *         the application has a single snapshot. Null if there is none
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	private int[] readDeltaSnapshots(Connection connection) throws SQLException
+	{
+		String sqlString = new StringBuffer().append("select distinct dvs.snapshot_id from ")
+				.append(table("dss_violation_statuses", "dvs")).append(" where 1 = 1 \n")
+				.append(getApplicationScopeStatement("dvs.object_id"))
+				.append("order by dvs.snapshot_id desc").toString();
+		PreparedStatement spst = prepareMetadataStatement(connection, sqlString);
+		try {
+			spst.setMaxRows(2);
+			spst.setString(1, getAppName());
+			try (ResultSet srs = spst.executeQuery()) {
+				if (!srs.next()) {
+					return null;
+				}
+				int current = srs.getInt(1);
+				int previous = srs.next() ? srs.getInt(1) : 0;
+				return new int[] { previous, current };
+			}
+		} finally {
+			closeMetadataStatement(spst);
+		}
+	}
+
+	/**
+	 * Reads the current watermark of the application: the latest selection
+	 * date of its action plan and the latest snapshot holding violation
+	 * statuses of its objects. The other applications of the central schema
+	 * do not move it.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @return the watermark, null if the action plan is empty
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	private Watermark readWatermark(Connection connection) throws SQLException
+	{
+		String sqlString = dialect.selectScalars(new StringBuffer().append("(select max(vapw.sel_date) from ")
+				.append(table("viewer_action_plans", "vapw")).append(" where 1 = 1 ")
+				.append(getApplicationScopeStatement("vapw.object_id"))
+				.append("), (select max(dvsw.snapshot_id) from ")
+				.append(table("dss_violation_statuses", "dvsw")).append(" where 1 = 1 ")
+				.append(getApplicationScopeStatement("dvsw.object_id")).append(")").toString());
+		PreparedStatement wpst = prepareMetadataStatement(connection, sqlString);
+		try {
+			wpst.setString(1, getAppName());
+			wpst.setString(2, getAppName());
+			try (ResultSet wrs = wpst.executeQuery()) {
+				if (wrs.next() && wrs.getTimestamp(1) != null) {
+					return new Watermark(wrs.getTimestamp(1), wrs.getInt(2));
+				}
+			}
+		} finally {
+			closeMetadataStatement(wpst);
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the derived table lvs of the latest snapshot of each violation of
+	 * the action plan. The latest status is aggregated once for all the pairs
+	 * (object_id, diag_id) instead of a max(snapshot_id) subquery evaluated
+	 * for every row. Only the objects of the application are aggregated, the
+	 * application name is the only parameter of the derived table. A
+	 * partition only aggregates the metrics it reads.
+	 * 
+	 * @return the derived table statement
+	 */
+	private String getLatestStatusStatement()
+	{
+		StringBuffer sb = new StringBuffer()
+				.append("(select dvs2.object_id, dvs2.diag_id, max(dvs2.snapshot_id) snapshot_id from ")
+				.append(table("dss_violation_statuses", "dvs2")).append(" \n")
+				.append("where exists (select 1 from ").append(table("viewer_action_plans", "vap2"))
+				.append(" where vap2.object_id = dvs2.object_id and vap2.metric_id = dvs2.diag_id) \n")
+				.append(getApplicationScopeStatement("dvs2.object_id"));
+		if (partitionCount > 1) {
+			sb.append("and ").append(dialect.mod("dvs2.diag_id", partitionCount)).append(" = ").append(partition)
+					.append(" \n");
+		}
+		return sb.append("group by dvs2.object_id, dvs2.diag_id) lvs").toString();
+	}
+
+	/**
+	 * Gets a table of the central schema for a from clause.
+	 * 
+	 * @param table
+	 *            the table
+	 * @param alias
+	 *            the alias
+	 * @return the table reference
+	 */
+	private String table(String table, String alias)
+	{
+		return dialect.table(getSchemaProfile(), table, alias);
+	}
+
+	/**
+	 * Gets a table of the local schema for a from clause.
+	 * 
+	 * @param table
+	 *            the table
+	 * @param alias
+	 *            the alias
+	 * @return the table reference
+	 */
+	private String localTable(String table, String alias)
+	{
+		return dialect.table(getLocalDatabase(), table, alias);
+	}
+
+	/**
+	 * Gets the SQL statement.
+	 * 
+	 * @return the SQL statement
+     */
+	private String getSQLStatement() 
+	{
+		// the source position is only selected when the issues show the source code,
+		// otherwise an exists keeps the same violations without the joins
+		boolean sourceCode = isFieldUsed(Constants.FIELD_MAPPING_LABEL_SOURCE_CODE);
+
+        StringBuffer sb = new StringBuffer()
+                .append("SELECT distinct vap.object_id, vap.metric_id, dso.object_full_name AS object_name, vap.tag, vap.priority, ")
+                .append("dvs.snapshot_id, vap.first_snapshot_date, vap.sel_date AS fecha, vap.action_def AS action_message,  dvs.violation_status");
+        if (sourceCode) {
+            sb.append(", dsp.line_start,  dsp.line_end, dcs.source_path,  dsp.source_id");
+        }
+        if (isDelta()) {
+            sb.append(", \n(select dvsp.violation_status from " + table("dss_violation_statuses", "dvsp") + " ")
+                .append("where dvsp.object_id = dvs.object_id and dvsp.diag_id = dvs.diag_id ")
+                .append("and dvsp.snapshot_id = ").append(deltaSnapshots[0]).append(") prev_status");
+        }
+        sb.append("\nFROM\n")
+                .append(table("viewer_action_plans", "vap")).append(",\n")
+                .append(table("dss_objects", "dso")).append(",\n ")
+                .append(table("dss_violation_statuses", "dvs"));
+        if (!isDelta()) {
+            sb.append(", \n").append(getLatestStatusStatement());
+        }
+        if (sourceCode) {
+            sb.append(", \n")
+                .append(table("dss_translation_table", "dtt")).append(", \n")
+                .append(localTable("dss_source_positions", "dsp")).append(",\n ")
+                .append(localTable("dss_code_sources", "dcs")).append("\n ");
+        }
+        sb.append("\n WHERE ")
+                .append("vap.object_id = dso.object_id ").append("and dvs.object_id = vap.object_id\n")
+                .append(getApplicationScopeStatement())
+                .append("and dvs.diag_id = vap.metric_id \n")
+                .append("and vap.priority > 0 \n")
+                .append(getFilter().getStatement());
+        if (partitionCount > 1) {
+            sb.append(getPartitionStatement());
+        }
+        if (isDelta()) {
+            sb.append(getDeltaStatement());
+        } else {
+            sb.append("and lvs.object_id = dvs.object_id and lvs.diag_id = dvs.diag_id and lvs.snapshot_id = dvs.snapshot_id \n");
+            if (getSince() != null) {
+                sb.append(getIncrementalStatement());
+            }
+        }
+        if (sourceCode) {
+            sb.append("and dtt.object_id = vap.object_id \n").append("and dtt.site_object_id = dsp.object_id  \n")
+                .append("and dsp.source_id = dcs.source_id \n")
+                .append("order by dsp.source_id \n");
+        } else {
+            sb.append("and exists (select 1 from ")
+                .append(table("dss_translation_table", "dtt")).append(", ")
+                .append(localTable("dss_source_positions", "dsp")).append(", ")
+                .append(localTable("dss_code_sources", "dcs")).append(" \n")
+                .append("where dtt.object_id = vap.object_id and dtt.site_object_id = dsp.object_id ")
+                .append("and dsp.source_id = dcs.source_id) \n");
+        }
+        return sb.toString();
+
+	}
+
+	/**
+	 * Gets the appName.
+	 * 
+	 * @return the appName
+	 */
+	public String getAppName()
+	{
+		return appName;
+	}
+
+	/**
+	 * Sets the appName.
+	 * 
+	 * @param appName
+	 *            the appName to set
+	 */
+	public void setAppName(String appName)
+	{
+		this.appName = appName;
+	}
+
+	/**
+	 * Gets the schema profile.
+	 * 
+	 * @return the schemaProfile
+	 */
+	public String getSchemaProfile()
+	{
+		return schemaProfile;
+	}
+
+	/**
+	 * Gets the local database.
+	 * 
+	 * @return the schemaProfile
+	 */
+	public String getLocalDatabase()
+	{
+		return schemaProfile.replace("central", "local");
+	}
+
+	/**
+	 * Sets the schema profile.
+	 * 
+	 * @param schemaProfile
+	 *            the schemaProfile to set
+	 */
+	public void setSchemaProfile(String schemaProfile)
+	{
+		this.schemaProfile = schemaProfile;
+	}
+
+	/**
+	 * Gets the fetch size.
+	 * 
+	 * @return the fetchSize
+	 */
+	public int getFetchSize()
+	{
+		return fetchSize;
+	}
+
+	/**
+	 * Sets the fetch size, number of rows read from the database in one
+	 * round trip.
+	 * 
+	 * @param fetchSize
+	 *            the fetchSize to set
+	 */
+	public void setFetchSize(int fetchSize)
+	{
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * Gets the CAST fields shown in the issues.
+	 * 
+	 * @return the referencedFields, null when all the fields are used
+	 */
+	public Set<String> getReferencedFields()
+	{
+		return referencedFields;
+	}
+
+	/**
+	 * Sets the CAST fields shown in the issues, the statement only selects
+	 * what they need. Null selects every field.
+	 * 
+	 * @param referencedFields
+	 *            the referencedFields to set
+	 */
+	public void setReferencedFields(Set<String> referencedFields)
+	{
+		this.referencedFields = referencedFields;
+	}
+
+	/**
+	 * Gets the watermark of the previous run.
+	 * 
+	 * @return the since watermark, null for a full extraction
+	 */
+	public Watermark getSince()
+	{
+		return since;
+	}
+
+	/**
+	 * Sets the watermark of the previous run, only the changes made after it
+	 * are extracted. Null extracts the whole action plan.
+	 * 
+	 * @param since
+	 *            the watermark to set
+	 */
+	public void setSince(Watermark since)
+	{
+		this.since = since;
+	}
+
+	/**
+	 * Gets the watermark reached by the extraction, to be persisted once the
+	 * synchronization succeeded.
+	 * 
+	 * @return the watermark, null if nothing has been extracted
+	 */
+	public Watermark getWatermark()
+	{
+		return watermark;
+	}
+
+	/**
+	 * Checks if only the changes between two snapshots are extracted.
+	 * 
+	 * @return the delta
+	 */
+	public boolean isDelta()
+	{
+		return delta;
+	}
+
+	/**
+	 * Extracts only the violations that appeared, were fixed or regressed
+	 * between two snapshots.
+	 * 
+	 * @param delta
+	 *            the delta to set
+	 */
+	public void setDelta(boolean delta)
+	{
+		this.delta = delta;
+	}
+
+	/**
+	 * Sets the snapshots compared by the delta extraction. By default the two
+	 * latest snapshots of the application.
+	 * 
+	 * @param previousSnapshotId
+	 *            the previous snapshot id
+	 * @param currentSnapshotId
+	 *            the current snapshot id
+	 */
+	public void setDeltaSnapshots(int previousSnapshotId, int currentSnapshotId)
+	{
+		this.deltaSnapshots = new int[] { previousSnapshotId, currentSnapshotId };
+	}
+
+	/**
+	 * Gets the number of violations extracted by change in delta mode.
+	 * 
+	 * @return the delta counts
+	 */
+	public EnumMap<ViolationChange, Integer> getDeltaCounts()
+	{
+		return deltaCounts;
+	}
+
+	/**
+	 * Gets the extraction filter.
+	 * 
+	 * @return the filter
+	 */
+	public ExtractionFilter getFilter()
+	{
+		return filter;
+	}
+
+	/**
+	 * Sets the extraction filter.
+	 * 
+	 * @param filter
+	 *            the filter to set
+	 */
+	public void setFilter(ExtractionFilter filter)
+	{
+		this.filter = filter;
+	}
+
+	/**
+	 * Gets the quality model cache directory.
+	 * 
+	 * @return the cacheDirectory
+	 */
+	public File getCacheDirectory()
+	{
+		return cacheDirectory;
+	}
+
+	/**
+	 * Sets the quality model cache directory, null disables the cache.
+	 * 
+	 * @param cacheDirectory
+	 *            the cacheDirectory to set
+	 */
+	public void setCacheDirectory(File cacheDirectory)
+	{
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	/**
+	 * Gets the database holding the central schema.
+	 * 
+	 * @return the databaseName
+	 */
+	public String getDatabaseName()
+	{
+		return databaseName;
+	}
+
+	/**
+	 * Sets the database holding the central schema, host, port and database
+	 * name. It keeps apart the quality model caches of central schemas of the
+	 * same name in different databases.
+	 * 
+	 * @param databaseName
+	 *            the databaseName to set
+	 */
+	public void setDatabaseName(String databaseName)
+	{
+		this.databaseName = databaseName;
+	}
+
+	/**
+	 * Gets the database provider.
+	 * 
+	 * @return the databaseProvider
+	 */
+	public String getDatabaseProvider()
+	{
+		return databaseProvider;
+	}
+
+	/**
+	 * Sets the database provider.
+	 * 
+	 * @param databaseProvider
+	 *            the databaseProvider to set
+	 */
+	public void setDatabaseProvider(String databaseProvider)
+	{
+		this.databaseProvider = databaseProvider;
+		this.dialect = SqlDialect.forProvider(databaseProvider);
+	}
+
+	/**
+	 * Gets the quality model loaded by the extraction.
+	 * 
+	 * @return the quality model, null if it has not been loaded
+	 */
+	public QualityModel getQualityModel()
+	{
+		return metricDescriptions == null ? null : new QualityModel(metricDescriptions, metricTree);
+	}
+
+	/**
+	 * Sets the quality model loaded by a previous extraction of the same
+	 * central schema, it is then not loaded again.
+	 * 
+	 * @param qualityModel
+	 *            the quality model
+	 */
+	public void setQualityModel(QualityModel qualityModel)
+	{
+		metricDescriptions = qualityModel.getDescriptions();
+		metricTree = qualityModel.getTree();
+	}
+
+	/**
+	 * Sets the connection whose statement cache holds the statements run
+	 * once by extraction, they are then prepared once for all the
+	 * extractions on the connection. The action plan statement is not
+	 * cached, it is run with a cursor inside a transaction.
+	 * 
+	 * @param statementCache
+	 *            the database connection, null to prepare the statements on
+	 *            every extraction
+	 */
+	public void setStatementCache(DatabaseConnection statementCache)
+	{
+		this.statementCache = statementCache;
+	}
+
+	/**
+	 * Gets the file receiving the execution plan.
+	 * 
+	 * @return the explain file, null when the plan is not captured
+	 */
+	public File getExplainFile()
+	{
+		return explainFile;
+	}
+
+	/**
+	 * Sets the file receiving the execution plan of the action plan statement.
+	 * 
+	 * @param explainFile
+	 *            the explain file to set
+	 */
+	public void setExplainFile(File explainFile)
+	{
+		this.explainFile = explainFile;
+	}
+
+	/**
+	 * Gets the statistics of the extraction.
+	 * 
+	 * @return the statistics
+	 */
+	public ExtractionStatistics getStatistics()
+	{
+		return statistics;
+	}
+
+	/**
+	 * Gets the dialect of the database provider.
+	 * 
+	 * @return the dialect
+	 */
+	public SqlDialect getDialect()
+	{
+		return dialect;
+	}
+
+}
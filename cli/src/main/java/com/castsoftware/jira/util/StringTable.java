@@ -0,0 +1,97 @@
+package com.castsoftware.jira.util;
+
+/**
+ * The Class StringTable interns the strings of one extraction: equal strings
+ * are replaced by the same instance. It is only worth it for the columns with
+ * few distinct values, like the action messages, and when the violations are
+ * kept in memory. The table is dropped with the extraction.
+ * <p>
+ * An instance is used by one thread.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class StringTable {
+
+	/** The Constant MAX_LOAD, load factor of the hash slots in percent. */
+	private static final int MAX_LOAD = 50;
+
+	/** The hash slots, null for an empty slot. */
+	private String[] slots = new String[64];
+
+	/** The number of strings. */
+	private int size;
+
+	/**
+	 * Interns a string.
+	 *
+	 * @param value
+	 *            the string
+	 * @return the instance equal to the string in the table, null if it is
+	 *         null
+	 */
+	public String intern(String value) {
+		if (value == null) {
+			return null;
+		}
+		int mask = slots.length - 1;
+		int slot = slot(value, mask);
+		while (slots[slot] != null) {
+			if (slots[slot].equals(value)) {
+				return slots[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		slots[slot] = value;
+		if (++size * 100 > slots.length * MAX_LOAD) {
+			resize();
+		}
+		return value;
+	}
+
+	/**
+	 * Gets the number of strings.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Doubles the hash slots.
+	 */
+	private void resize() {
+		String[] resized = new String[slots.length * 2];
+		int mask = resized.length - 1;
+		for (String value : slots) {
+			if (value != null) {
+				int slot = slot(value, mask);
+				while (resized[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				resized[slot] = value;
+			}
+		}
+		slots = resized;
+	}
+
+	/**
+	 * Gets the first slot of a string.
+	 *
+	 * @param value
+	 *            the string
+	 * @param mask
+	 *            the number of slots minus one
+	 * @return the slot
+	 */
+	private static int slot(String value, int mask) {
+		int h = value.hashCode() * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	@Override
+	public String toString() {
+		return "StringTable[size=" + size + ", capacity=" + slots.length + "]";
+	}
+}
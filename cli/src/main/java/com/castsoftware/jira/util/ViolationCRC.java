@@ -1,64 +1,103 @@
-package com.castsoftware.jira.util;
-
-import java.util.zip.CRC32;
-
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
-/**
- * The Class ViolationCRC calculates the CastId to ensure that we do not insert
- * in Jira duplicate issues.
- * 
- * @author FME
- * @version 1.1
- */
-
-public class ViolationCRC {
-
-	/** The log. */
-	public static Log log = LogFactory.getLog(SqlStatements.class);
-
-	/** The record. */
-	private String record;
-
-	/**
-	 * Instantiates a new violation crc.
-	 */
-	public ViolationCRC() {
-		// this.record = record;
-	}
-
-	/**
-	 * Sets the hash code.
-	 * 
-	 * @param record
-	 *            the new hash code
-	 */
-	public void setHashCode(String record) {
-		this.record = record;
-
-	}
-
-	/**
-	 * Gets the hash code.
-	 * 
-	 * @return the hash code
-	 * @throws Exception
-	 *             the exception
-	 */
-	public int getHashCode() throws Exception {
-
-		// get bytes from string
-		byte[] bytes = this.record.getBytes();
-
-		CRC32 crc = new CRC32();
-
-		// update the current checksum with the specified array of bytes
-		crc.update(bytes, 0, bytes.length);
-
-		log.debug("CRC32 checksum for input string is: " + crc.getValue());
-
-		// get the current checksum value
-		return (int) (crc.getValue());
-	}
-}
+package com.castsoftware.jira.util;
+
+import java.util.zip.CRC32;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * The Class ViolationCRC calculates the CastId to ensure that we do not insert
+ * in Jira duplicate issues. The CastId is 64 bits wide: the high word comes
+ * from FNV-1a 64 and the low word is the CRC32 of the former 32-bit CastId, so
+ * the issues created with the former CastId are still found.
+ * 
+ * @author FME
+ * @version 1.1
+ */
+
+public class ViolationCRC {
+
+	/** The log. */
+	public static Log log = LogFactory.getLog(SqlStatements.class);
+
+	/** The Constant FNV_OFFSET_BASIS. */
+	private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+
+	/** The Constant FNV_PRIME. */
+	private static final long FNV_PRIME = 0x100000001B3L;
+
+	/** The record. */
+	private String record;
+
+	/**
+	 * Instantiates a new violation crc.
+	 */
+	public ViolationCRC() {
+		// this.record = record;
+	}
+
+	/**
+	 * Sets the hash code.
+	 * 
+	 * @param record
+	 *            the new hash code
+	 */
+	public void setHashCode(String record) {
+		this.record = record;
+
+	}
+
+	/**
+	 * Gets the hash code.
+	 * 
+	 * @return the hash code
+	 * @throws Exception
+	 *             the exception
+	 */
+	public int getHashCode() throws Exception {
+
+		// get bytes from string
+		byte[] bytes = this.record.getBytes();
+
+		CRC32 crc = new CRC32();
+
+		// update the current checksum with the specified array of bytes
+		crc.update(bytes, 0, bytes.length);
+
+		log.debug("CRC32 checksum for input string is: " + crc.getValue());
+
+		// get the current checksum value
+		return (int) (crc.getValue());
+	}
+
+	/**
+	 * Gets the 64-bit CastId.
+	 * 
+	 * @return the CastId, its low word is {@link #getHashCode()}
+	 */
+	public long getLongHashCode() {
+		// the same bytes as the 32-bit CastId
+		byte[] bytes = this.record.getBytes();
+
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length);
+
+		long fnv = FNV_OFFSET_BASIS;
+		for (byte b : bytes) {
+			fnv ^= b & 0xFF;
+			fnv *= FNV_PRIME;
+		}
+		return (fnv & 0xFFFFFFFF00000000L) | crc.getValue();
+	}
+
+	/**
+	 * Gets the former 32-bit CastId of a 64-bit CastId.
+	 * 
+	 * @param castId
+	 *            the 64-bit CastId
+	 * @return the 32-bit CastId
+	 */
+	public static int getLegacyCastId(long castId) {
+		return (int) castId;
+	}
+}
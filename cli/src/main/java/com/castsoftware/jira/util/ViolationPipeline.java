@@ -0,0 +1,165 @@
+package com.castsoftware.jira.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.castsoftware.jira.pojo.ActionPlanViolation;
+
+/**
+ * The Class ViolationPipeline overlaps the extraction and the Jira
+ * synchronization. The extraction runs on its own thread and hands the
+ * violations over through a bounded queue, the calling thread sends them to
+ * the consumer. When the consumer is slower the queue fills up and the
+ * extraction waits, the memory used stays bounded by the queue size.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class ViolationPipeline implements ActionPlanHandler {
+
+	/** The log. */
+	public static Log log = LogFactory.getLog(ViolationPipeline.class);
+
+	/** The Constant END, put in the queue when the extraction is over. */
+	private static final Item END = new Item(0, null);
+
+	/** The consumer of the violations. */
+	private final ActionPlanHandler consumer;
+
+	/** The queue between the extraction and the consumer. */
+	private final BlockingQueue<Item> queue;
+
+	/** Set when the consumer failed, the extraction is then stopped. */
+	private volatile boolean stopped;
+
+	/** The number of times the extraction waited for the consumer. */
+	private final AtomicInteger waits = new AtomicInteger();
+
+	/**
+	 * Instantiates a new pipeline.
+	 *
+	 * @param consumer
+	 *            the consumer of the violations
+	 * @param capacity
+	 *            the size of the queue
+	 */
+	public ViolationPipeline(ActionPlanHandler consumer, int capacity) {
+		this.consumer = consumer;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+	}
+
+	/**
+	 * Hands a violation over to the consumer, called by the extraction. It
+	 * waits while the queue is full.
+	 *
+	 * @param castId
+	 *            the cast id
+	 * @param violation
+	 *            the violation
+	 */
+	@Override
+	public void handleViolation(long castId, ActionPlanViolation violation) {
+		if (stopped) {
+			throw new IllegalStateException("The Jira synchronization failed, extraction stopped");
+		}
+		Item item = new Item(castId, violation);
+		try {
+			if (!queue.offer(item)) {
+				waits.incrementAndGet();
+				queue.put(item);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Extraction interrupted", e);
+		}
+	}
+
+	/**
+	 * Runs the extraction on its own thread and the consumer on the calling
+	 * thread, until both are over.
+	 *
+	 * @param extraction
+	 *            the extraction, sending the violations to this pipeline
+	 * @throws Exception
+	 *             the first failure of the extraction or of the consumer
+	 */
+	public void run(final Callable<Void> extraction) throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		Future<Void> result = executor.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				try {
+					return extraction.call();
+				} finally {
+					queue.put(END);
+				}
+			}
+		});
+		executor.shutdown();
+
+		RuntimeException failure = null;
+		while (true) {
+			Item item = queue.take();
+			if (item == END) {
+				break;
+			}
+			if (stopped) {
+				// drained until the extraction sees the failure
+				continue;
+			}
+			try {
+				consumer.handleViolation(item.castId, item.violation);
+			} catch (RuntimeException e) {
+				failure = e;
+				stopped = true;
+			}
+		}
+
+		if (failure != null) {
+			throw failure;
+		}
+		try {
+			result.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
+			throw e;
+		}
+		log.debug("Pipeline over, the extraction waited " + waits.get() + " times for Jira");
+	}
+
+	/**
+	 * The Class Item is a violation in the queue.
+	 */
+	private static class Item {
+
+		/** The cast id. */
+		private final long castId;
+
+		/** The violation. */
+		private final ActionPlanViolation violation;
+
+		/**
+		 * Instantiates a new item.
+		 *
+		 * @param castId
+		 *            the cast id
+		 * @param violation
+		 *            the violation
+		 */
+		private Item(long castId, ActionPlanViolation violation) {
+			this.castId = castId;
+			this.violation = violation;
+		}
+	}
+}
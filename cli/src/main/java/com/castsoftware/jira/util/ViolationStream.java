@@ -0,0 +1,519 @@
+package com.castsoftware.jira.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.castsoftware.jira.pojo.ActionPlanViolation;
+import com.castsoftware.jira.pojo.MetricMetadata;
+import com.castsoftware.jira.pojo.ViolationChange;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * The Class ViolationStream is the interchange format between an extraction
+ * run next to the CAST database and a push run next to Jira: gzip compressed
+ * NDJSON, one JSON object by line. The first line is a header, then one line by
+ * violation and a last line with the number of violations and the watermark of
+ * the extraction. Both sides process one violation at a time, a stream missing
+ * its last line is reported as truncated. The texts of a metric are written
+ * with its first violation only, and missing values are left out, they are read
+ * back as null.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class ViolationStream {
+
+	/** The log. */
+	public static Log log = LogFactory.getLog(ViolationStream.class);
+
+	/** The Constant FORMAT, value of the header. */
+	private static final String FORMAT = "cast2jira-violations";
+
+	/** The Constant VERSION, to be increased when the format changes. */
+	private static final int VERSION = 4;
+
+	/** The Constant BUFFER_SIZE. */
+	private static final int BUFFER_SIZE = 65536;
+
+	/** The JSON factory, the streams are closed by this class. */
+	private static final JsonFactory factory = new JsonFactory()
+			.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+			.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+	/**
+	 * Checks if a stream name is the standard input or output.
+	 *
+	 * @param name
+	 *            the file name
+	 * @return true, if the name is "-"
+	 */
+	public static boolean isStandardStream(String name) {
+		return Constants.STANDARD_STREAM.equals(name.trim());
+	}
+
+	/**
+	 * The Class Writer writes the violations to a file or to the standard
+	 * output while the action plan is read.
+	 */
+	public static class Writer implements ActionPlanHandler, Closeable {
+
+		/** The output, null for the standard output which is not closed. */
+		private final OutputStream file;
+
+		/** The compressed output. */
+		private final GZIPOutputStream gzip;
+
+		/** The generator. */
+		private final JsonGenerator generator;
+
+		/** The number of violations. */
+		private int count;
+
+		/** The metrics whose texts are already written. */
+		private final Set<Integer> metrics = new HashSet<>();
+
+		/** The first write error, reported by finish. */
+		private IOException error;
+
+		/**
+		 * Instantiates a new writer.
+		 *
+		 * @param name
+		 *            the file name, "-" for the standard output
+		 * @throws IOException
+		 *             Signals that an I/O exception has occurred.
+		 */
+		public Writer(String name) throws IOException {
+			OutputStream out;
+			if (isStandardStream(name)) {
+				// System.out may be redirected to keep the logs out of the stream
+				file = null;
+				out = new FileOutputStream(FileDescriptor.out);
+			} else {
+				file = new FileOutputStream(new File(name.trim()));
+				out = file;
+			}
+			gzip = new GZIPOutputStream(new BufferedOutputStream(out, BUFFER_SIZE), BUFFER_SIZE);
+			generator = factory.createGenerator(gzip, JsonEncoding.UTF8);
+			generator.setRootValueSeparator(new SerializedString("\n"));
+			generator.writeStartObject();
+			generator.writeStringField("format", FORMAT);
+			generator.writeNumberField("version", VERSION);
+			generator.writeEndObject();
+		}
+
+		@Override
+		public void handleViolation(long castId, ActionPlanViolation violation) {
+			if (error != null) {
+				return;
+			}
+			try {
+				generator.writeStartObject();
+				generator.writeNumberField("castId", castId);
+				generator.writeNumberField("objectId", violation.getObjectId());
+				generator.writeNumberField("priority", violation.getPriority());
+				generator.writeNumberField("metricId", violation.getMetricId());
+				generator.writeNumberField("violationStatus", violation.getViolationStatus());
+				generator.writeNumberField("lineStart", violation.getLineStart());
+				generator.writeNumberField("lineEnd", violation.getLineEnd());
+				generator.writeNumberField("sourceId", violation.getSourceId());
+				if (violation.getChange() != null) {
+					generator.writeStringField("change", violation.getChange().name());
+				}
+				if (violation.getActionNanos() >= 0) {
+					generator.writeNumberField("actionDate", violation.getActionTime());
+					generator.writeNumberField("actionNanos", violation.getActionNanos());
+				}
+				if (violation.getFirstSnapshotNanos() >= 0) {
+					generator.writeNumberField("firstSnapshotDate", violation.getFirstSnapshotTime());
+					generator.writeNumberField("firstSnapshotNanos", violation.getFirstSnapshotNanos());
+				}
+				writeString("actionDef", violation.hasActionDef() ? violation.getActionDef() : null);
+				writeString("objectFullName", violation.hasObjectFullName() ? violation.getObjectFullName() : null);
+				writeString("sourcePath", violation.getSourcePath());
+				if (metrics.add(violation.getMetricId())) {
+					MetricMetadata metric = violation.getMetricMetadata();
+					writeString("metricShortDescription", metric.getShortDescription());
+					writeString("reason", metric.getReason());
+					writeString("metricLongDescription", metric.getLongDescription());
+					writeString("remediation", metric.getRemediation());
+					writeString("reference", metric.getReference());
+					writeString("violationExample", metric.getViolationExample());
+					writeString("remediationExample", metric.getRemediationExample());
+					writeString("output", metric.getOutput());
+					writeString("totals", metric.getTotals());
+					writeString("techCriteria", metric.getTechCriteria());
+					writeString("businessCriteria", metric.getBusinessCriteria());
+				}
+				generator.writeEndObject();
+			} catch (IOException e) {
+				error = e;
+				return;
+			}
+			count++;
+		}
+
+		/**
+		 * Writes a string field, null values are left out.
+		 *
+		 * @param name
+		 *            the field name
+		 * @param value
+		 *            the value
+		 * @throws IOException
+		 *             Signals that an I/O exception has occurred.
+		 */
+		private void writeString(String name, String value) throws IOException {
+			if (value != null) {
+				generator.writeStringField(name, value);
+			}
+		}
+
+		/**
+		 * Writes the last line and completes the stream.
+		 *
+		 * @param watermark
+		 *            the watermark of the extraction, null if there is none
+		 * @return the number of violations written
+		 * @throws IOException
+		 *             if a violation or the last line could not be written
+		 */
+		public int finish(Watermark watermark) throws IOException {
+			try {
+				if (error != null) {
+					throw error;
+				}
+				generator.writeStartObject();
+				generator.writeNumberField("end", count);
+				if (watermark != null) {
+					generator.writeNumberField("selectionDate", watermark.getSelectionDate().getTime());
+					generator.writeNumberField("nanos", watermark.getSelectionDate().getNanos());
+					generator.writeNumberField("snapshotId", watermark.getSnapshotId());
+				}
+				generator.writeEndObject();
+				generator.writeRaw('\n');
+				generator.flush();
+				gzip.finish();
+				gzip.flush();
+			} finally {
+				close();
+			}
+			log.info(count + " violations written to the interchange stream");
+			return count;
+		}
+
+		/**
+		 * Closes the file, the standard output is only flushed.
+		 *
+		 * @throws IOException
+		 *             Signals that an I/O exception has occurred.
+		 */
+		@Override
+		public void close() throws IOException {
+			generator.close();
+			if (file != null) {
+				gzip.close();
+			}
+		}
+	}
+
+	/**
+	 * The Class Reader reads the violations from a file or from the standard
+	 * input.
+	 */
+	public static class Reader implements Closeable {
+
+		/** The input, null for the standard input which is not closed. */
+		private final InputStream file;
+
+		/** The parser. */
+		private final JsonParser parser;
+
+		/** The watermark of the extraction. */
+		private Watermark watermark;
+
+		/** The metadata by metric id, shared by the violations read. */
+		private final Map<Integer, MetricMetadata> metadata = new HashMap<>();
+
+		/**
+		 * Instantiates a new reader and checks the header.
+		 *
+		 * @param name
+		 *            the file name, "-" for the standard input
+		 * @throws IOException
+		 *             if the stream can not be read or is not an interchange
+		 *             stream
+		 */
+		public Reader(String name) throws IOException {
+			InputStream in;
+			if (isStandardStream(name)) {
+				file = null;
+				in = System.in;
+			} else {
+				file = new FileInputStream(new File(name.trim()));
+				in = file;
+			}
+			try {
+				parser = factory.createParser(new GZIPInputStream(new BufferedInputStream(in, BUFFER_SIZE), BUFFER_SIZE));
+				String format = null;
+				int version = 0;
+				if (parser.nextToken() == JsonToken.START_OBJECT) {
+					while (parser.nextToken() == JsonToken.FIELD_NAME) {
+						String field = parser.getCurrentName();
+						parser.nextToken();
+						if ("format".equals(field)) {
+							format = parser.getText();
+						} else if ("version".equals(field)) {
+							version = parser.getIntValue();
+						} else {
+							parser.skipChildren();
+						}
+					}
+				}
+				if (!FORMAT.equals(format) || version != VERSION) {
+					throw new IOException("Not a violation interchange stream: " + name);
+				}
+			} catch (IOException e) {
+				if (file != null) {
+					file.close();
+				}
+				throw e;
+			}
+		}
+
+		/**
+		 * Sends the violations to a handler, one at a time.
+		 *
+		 * @param handler
+		 *            the handler
+		 * @return the number of violations read
+		 * @throws IOException
+		 *             if the stream can not be read or is truncated
+		 */
+		public int read(ActionPlanHandler handler) throws IOException {
+			int count = 0;
+			while (parser.nextToken() == JsonToken.START_OBJECT) {
+				Integer end = null;
+				long castId = 0;
+				long objectId = 0;
+				int priority = 0;
+				int metricId = 0;
+				int violationStatus = 0;
+				int lineStart = 0;
+				int lineEnd = 0;
+				int sourceId = 0;
+				long selectionDate = 0;
+				int nanos = 0;
+				int snapshotId = 0;
+				ViolationChange change = null;
+				Timestamp actionDate = null;
+				Timestamp firstSnapshotDate = null;
+				int actionNanos = 0;
+				int firstSnapshotNanos = 0;
+				String actionDef = null;
+				String objectFullName = null;
+				String metricShortDescription = null;
+				String reason = null;
+				String metricLongDescription = null;
+				String remediation = null;
+				String reference = null;
+				String violationExample = null;
+				String remediationExample = null;
+				String output = null;
+				String totals = null;
+				String sourcePath = null;
+				String techCriteria = null;
+				String businessCriteria = null;
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String field = parser.getCurrentName();
+					JsonToken token = parser.nextToken();
+					if (token == JsonToken.VALUE_NULL) {
+						continue;
+					}
+					switch (field) {
+					case "end":
+						end = parser.getIntValue();
+						break;
+					case "selectionDate":
+						selectionDate = parser.getLongValue();
+						break;
+					case "nanos":
+						nanos = parser.getIntValue();
+						break;
+					case "snapshotId":
+						snapshotId = parser.getIntValue();
+						break;
+					case "castId":
+						castId = parser.getLongValue();
+						break;
+					case "objectId":
+						objectId = parser.getLongValue();
+						break;
+					case "priority":
+						priority = parser.getIntValue();
+						break;
+					case "metricId":
+						metricId = parser.getIntValue();
+						break;
+					case "violationStatus":
+						violationStatus = parser.getIntValue();
+						break;
+					case "lineStart":
+						lineStart = parser.getIntValue();
+						break;
+					case "lineEnd":
+						lineEnd = parser.getIntValue();
+						break;
+					case "sourceId":
+						sourceId = parser.getIntValue();
+						break;
+					case "change":
+						change = ViolationChange.valueOf(parser.getText());
+						break;
+					case "actionDate":
+						actionDate = new Timestamp(parser.getLongValue());
+						break;
+					case "actionNanos":
+						actionNanos = parser.getIntValue();
+						break;
+					case "firstSnapshotDate":
+						firstSnapshotDate = new Timestamp(parser.getLongValue());
+						break;
+					case "firstSnapshotNanos":
+						firstSnapshotNanos = parser.getIntValue();
+						break;
+					case "actionDef":
+						actionDef = parser.getText();
+						break;
+					case "objectFullName":
+						objectFullName = parser.getText();
+						break;
+					case "metricShortDescription":
+						metricShortDescription = parser.getText();
+						break;
+					case "reason":
+						reason = parser.getText();
+						break;
+					case "metricLongDescription":
+						metricLongDescription = parser.getText();
+						break;
+					case "remediation":
+						remediation = parser.getText();
+						break;
+					case "reference":
+						reference = parser.getText();
+						break;
+					case "violationExample":
+						violationExample = parser.getText();
+						break;
+					case "remediationExample":
+						remediationExample = parser.getText();
+						break;
+					case "output":
+						output = parser.getText();
+						break;
+					case "totals":
+						totals = parser.getText();
+						break;
+					case "sourcePath":
+						sourcePath = parser.getText();
+						break;
+					case "techCriteria":
+						techCriteria = parser.getText();
+						break;
+					case "businessCriteria":
+						businessCriteria = parser.getText();
+						break;
+					default:
+						// field of a later version
+						parser.skipChildren();
+						break;
+					}
+				}
+
+				if (end != null) {
+					if (end != count) {
+						throw new IOException("Interchange stream inconsistent, " + count + " violations read, "
+								+ end + " expected");
+					}
+					if (selectionDate != 0) {
+						Timestamp date = new Timestamp(selectionDate);
+						date.setNanos(nanos);
+						watermark = new Watermark(date, snapshotId);
+					}
+					return count;
+				}
+
+				if (actionDate != null) {
+					actionDate.setNanos(actionNanos);
+				}
+				if (firstSnapshotDate != null) {
+					firstSnapshotDate.setNanos(firstSnapshotNanos);
+				}
+				String tag = priority >= 1 && priority <= Constants.ACTION_PLAN_TAGS.length
+						? Constants.ACTION_PLAN_TAGS[priority - 1] : null;
+				// the texts come with the first violation of the metric
+				MetricMetadata metric = metadata.get(metricId);
+				if (metric == null) {
+					metric = new MetricMetadata(metricId, metricShortDescription, reason, metricLongDescription,
+							remediation, reference, violationExample, remediationExample, output, totals, techCriteria,
+							businessCriteria);
+					metadata.put(metricId, metric);
+				}
+				ActionPlanViolation violation = new ActionPlanViolation(objectId, tag, actionDate,
+						firstSnapshotDate, actionDef, objectFullName, metric, sourcePath, lineStart, lineEnd,
+						sourceId, violationStatus);
+				violation.setChange(change);
+				handler.handleViolation(castId, violation);
+				count++;
+			}
+			throw new IOException("Interchange stream truncated after " + count + " violations");
+		}
+
+		/**
+		 * Gets the watermark of the extraction, once the stream is read.
+		 *
+		 * @return the watermark, null if the action plan was empty
+		 */
+		public Watermark getWatermark() {
+			return watermark;
+		}
+
+		/**
+		 * Closes the file, the standard input is left open.
+		 *
+		 * @throws IOException
+		 *             Signals that an I/O exception has occurred.
+		 */
+		@Override
+		public void close() throws IOException {
+			parser.close();
+			if (file != null) {
+				file.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package com.castsoftware.jira.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.util.Properties;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * The Class Watermark is the position reached by the last successful
+ * synchronization of an application: the latest action plan selection date
+ * and the last snapshot whose violation statuses were processed. It is stored
+ * in a properties file between runs.
+ * 
+ * @author FME
+ * @version 1.1
+ */
+public class Watermark {
+
+	/** The log. */
+	public static Log log = LogFactory.getLog(Watermark.class);
+
+	/** The Constant SELECTION_DATE_KEY. */
+	private static final String SELECTION_DATE_KEY = "selection.date";
+
+	/** The Constant SNAPSHOT_ID_KEY. */
+	private static final String SNAPSHOT_ID_KEY = "snapshot.id";
+
+	/** The latest action plan selection date (vap.sel_date). */
+	private final Timestamp selectionDate;
+
+	/** The last snapshot processed. */
+	private final int snapshotId;
+
+	/**
+	 * Instantiates a new watermark.
+	 * 
+	 * @param selectionDate
+	 *            the latest selection date
+	 * @param snapshotId
+	 *            the last snapshot id
+	 */
+	public Watermark(Timestamp selectionDate, int snapshotId) {
+		this.selectionDate = selectionDate;
+		this.snapshotId = snapshotId;
+	}
+
+	/**
+	 * Gets the watermark file of an application.
+	 * 
+	 * @param directory
+	 *            the directory
+	 * @param schemaProfile
+	 *            the central schema
+	 * @param appName
+	 *            the application name
+	 * @param jiraProject
+	 *            the Jira project
+	 * @return the file
+	 */
+	public static File getFile(File directory, String schemaProfile, String appName, String jiraProject) {
+		String name = String.format("%s.%s.%s.watermark", schemaProfile, appName, jiraProject).toLowerCase()
+				.replaceAll("[^a-z0-9._-]", "_");
+		return new File(directory, name);
+	}
+
+	/**
+	 * Reads a watermark.
+	 * 
+	 * @param file
+	 *            the file
+	 * @return the watermark, null if there is no valid watermark
+	 */
+	public static Watermark read(File file) {
+		if (!file.isFile()) {
+			return null;
+		}
+		try (InputStream in = new FileInputStream(file)) {
+			Properties props = new Properties();
+			props.load(in);
+			return new Watermark(Timestamp.valueOf(props.getProperty(SELECTION_DATE_KEY)),
+					Integer.parseInt(props.getProperty(SNAPSHOT_ID_KEY)));
+		} catch (IOException | RuntimeException e) {
+			log.warn("Watermark can not be read, the whole action plan will be extracted: " + file.getAbsolutePath(), e);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the watermark.
+	 * 
+	 * @param file
+	 *            the file
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public void write(File file) throws IOException {
+		File directory = file.getAbsoluteFile().getParentFile();
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("unable to create " + directory.getAbsolutePath());
+		}
+		Properties props = new Properties();
+		props.setProperty(SELECTION_DATE_KEY, selectionDate.toString());
+		props.setProperty(SNAPSHOT_ID_KEY, String.valueOf(snapshotId));
+		try (OutputStream out = new FileOutputStream(file)) {
+			props.store(out, "CAST2Jira synchronization watermark");
+		}
+		log.info("Watermark written: " + this + " in " + file.getAbsolutePath());
+	}
+
+	/**
+	 * Gets the latest selection date.
+	 * 
+	 * @return the selectionDate
+	 */
+	public Timestamp getSelectionDate() {
+		return selectionDate;
+	}
+
+	/**
+	 * Gets the last snapshot id.
+	 * 
+	 * @return the snapshotId
+	 */
+	public int getSnapshotId() {
+		return snapshotId;
+	}
+
+	@Override
+	public String toString() {
+		return "selection date " + selectionDate + ", snapshot " + snapshotId;
+	}
+}
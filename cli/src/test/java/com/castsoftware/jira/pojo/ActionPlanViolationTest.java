@@ -0,0 +1,186 @@
+package com.castsoftware.jira.pojo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.castsoftware.jira.util.Constants;
+import com.castsoftware.jira.util.StringTable;
+
+/**
+ * The Class ActionPlanViolationTest checks the memory budget of the
+ * violations, the whole action plan can be held in memory.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class ActionPlanViolationTest {
+
+	/** The Constant VIOLATIONS, size of the action plan measured. */
+	private static final int VIOLATIONS = 10000;
+
+	/**
+	 * The Constant BUDGET, retained bytes by violation of the action plan
+	 * measured, the strings it owns included. About 355 bytes are measured:
+	 * 88 for the violation, 264 for its object name and source path, and 3
+	 * for its share of the metrics and action messages. The budget leaves 20%
+	 * of headroom, a few more fields but not another owned string.
+	 */
+	private static final int BUDGET = 430;
+
+	/** The metric shared by the violations. */
+	private final MetricMetadata metric = new MetricMetadata(7424, "Avoid empty catch blocks", "reason", null,
+			null, null, null, null, null, null, "Programming Practices", "Robustness");
+
+	/**
+	 * Estimates the size of an instance with compressed references, as the
+	 * sum of its field sizes.
+	 *
+	 * @param type
+	 *            the class
+	 * @return the size in bytes
+	 */
+	private static int shallowSize(Class<?> type) {
+		int size = 12;
+		for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers())) {
+					continue;
+				}
+				Class<?> t = field.getType();
+				if (t == long.class || t == double.class) {
+					size += 8;
+				} else if (t == byte.class || t == boolean.class) {
+					size += 1;
+				} else if (t == short.class || t == char.class) {
+					size += 2;
+				} else {
+					// int, float and references
+					size += 4;
+				}
+			}
+		}
+		return (size + 7) & ~7;
+	}
+
+	/**
+	 * Estimates the retained size of a graph of objects with compressed
+	 * references, each object counted once. The strings are counted with the
+	 * char array of JDK 8, the largest layout; the enum constants are not
+	 * owned by the violations.
+	 *
+	 * @param root
+	 *            the root of the graph
+	 * @param seen
+	 *            the objects already counted
+	 * @return the size in bytes of the objects not counted yet
+	 * @throws IllegalAccessException
+	 *             if a field can not be read
+	 */
+	private static long retainedSize(Object root, Map<Object, Boolean> seen) throws IllegalAccessException {
+		if (root == null || root instanceof Enum || seen.put(root, Boolean.TRUE) != null) {
+			return 0;
+		}
+		if (root instanceof String) {
+			// String header, value and hash, then the char array
+			return 24 + ((16 + 2 * ((String) root).length() + 7) & ~7);
+		}
+		// the fields of another JDK class, like a Timestamp, would not be counted
+		assertTrue("unexpected " + root.getClass(), root.getClass().getName().startsWith("com.castsoftware."));
+		long size = shallowSize(root.getClass());
+		for (Class<?> c = root.getClass(); c != Object.class; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+					field.setAccessible(true);
+					size += retainedSize(field.get(root), seen);
+				}
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Creates a violation.
+	 *
+	 * @param objectId
+	 *            the object id
+	 * @param actionDef
+	 *            the action
+	 * @return the violation
+	 */
+	private ActionPlanViolation violation(long objectId, String actionDef) {
+		return new ActionPlanViolation(objectId, "moderate", Timestamp.valueOf("2021-01-02 03:04:05.6"), null,
+				actionDef, "\"object\"." + objectId, metric, null, 1, 2, 3, 1);
+	}
+
+	@Test
+	public void testMemoryBudget() throws IllegalAccessException {
+		// 100 metrics and 20 action messages shared, the names and paths read from each row
+		MetricMetadata[] metrics = new MetricMetadata[100];
+		for (int i = 0; i < metrics.length; i++) {
+			metrics[i] = new MetricMetadata(7000 + i, "Avoid empty catch blocks " + i, "reason " + i,
+					"long description " + i, "remediation " + i, null, null, null, null, null,
+					"Programming Practices", "Robustness");
+		}
+		StringTable actions = new StringTable();
+		List<ActionPlanViolation> actionPlan = new ArrayList<>();
+		for (int i = 0; i < VIOLATIONS; i++) {
+			ActionPlanViolation violation = new ActionPlanViolation(1000000L + i, "moderate",
+					Timestamp.valueOf("2021-01-02 03:04:05.6"), Timestamp.valueOf("2020-01-02 03:04:05"),
+					"Fix it before the release " + i % 20,
+					String.format("BILLING.CORE.INVOICE_SERVICE.compute%05d", i), metrics[i % metrics.length],
+					String.format("src/main/java/com/acme/billing/Invoice%04d.java", i / 10), 10, 20, i / 10, 1);
+			violation.internActionDef(actions);
+			actionPlan.add(violation);
+		}
+
+		Map<Object, Boolean> seen = new IdentityHashMap<>();
+		long size = 0;
+		for (ActionPlanViolation violation : actionPlan) {
+			size += retainedSize(violation, seen);
+		}
+		long perViolation = size / VIOLATIONS;
+		assertTrue("a violation retains " + perViolation + " bytes, the budget is " + BUDGET, perViolation <= BUDGET);
+	}
+
+	@Test
+	public void testSharedTexts() {
+		StringTable actions = new StringTable();
+		ActionPlanViolation first = violation(1L, new String("Fix the \"catch\""));
+		ActionPlanViolation second = violation(2L, new String("Fix the \"catch\""));
+		first.internActionDef(actions);
+		second.internActionDef(actions);
+		assertEquals("Fix the catch", first.getActionDef());
+		assertSame(first.getActionDef(), second.getActionDef());
+		assertSame(first.getMetricMetadata(), second.getMetricMetadata());
+		assertEquals(1, actions.size());
+		assertEquals("object.1", first.getObjectFullName());
+	}
+
+	@Test
+	public void testMissingValues() {
+		ActionPlanViolation violation = violation(1L, null);
+		violation.internActionDef(new StringTable());
+		assertEquals(Constants.FIELD_VALUE_WHEN_IS_NULL, violation.getActionDef());
+		assertEquals(Constants.FIELD_VALUE_WHEN_IS_NULL, violation.getRemediation());
+		assertNull(violation.getFirstSnapshotDate());
+		// reading N/A does not store it
+		assertFalse(violation.hasActionDef());
+		assertNull(violation.getMetricMetadata().getRemediation());
+		assertNull(violation.getSourcePath());
+		assertEquals("2021-01-02 03:04:05.6", violation.getActionDate());
+		assertEquals(3, violation.getPriority());
+	}
+}
@@ -0,0 +1,74 @@
+package com.castsoftware.jira.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The Class ApplicationLinkageTest reads linkage manifests.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class ApplicationLinkageTest {
+
+	/** The manifest. */
+	private File manifest;
+
+	@Before
+	public void setUp() throws IOException {
+		manifest = File.createTempFile("linkages", ".txt");
+	}
+
+	@After
+	public void tearDown() {
+		manifest.delete();
+	}
+
+	/**
+	 * Writes the manifest.
+	 *
+	 * @param lines
+	 *            the lines
+	 */
+	private void write(String... lines) throws IOException {
+		Files.write(manifest.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testReadManifest() throws IOException {
+		write("# application;jira project[;component]", "", "Billing;BILL", "Web Portal;PORTAL;Front end",
+				"Billing;FIN");
+		List<ApplicationLinkage> linkages = ApplicationLinkage.readManifest(manifest);
+		assertEquals(3, linkages.size());
+		assertNull(linkages.get(0).getComponent());
+		assertEquals("Front end", linkages.get(1).getComponent());
+		// the same application in two projects gets two files
+		assertEquals(".billing.bill", linkages.get(0).getFileSuffix());
+		assertEquals(".web_portal.portal", linkages.get(1).getFileSuffix());
+		assertEquals(".billing.fin", linkages.get(2).getFileSuffix());
+	}
+
+	@Test
+	public void testDuplicateLinkage() throws IOException {
+		write("Billing;BILL", "Web Portal;PORTAL", "billing ; BILL ;Back end");
+		try {
+			ApplicationLinkage.readManifest(manifest);
+			fail("The duplicate linkage is accepted");
+		} catch (IOException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("at line 3"));
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.castsoftware.jira.util;
+
+import java.sql.Timestamp;
+
+import com.castsoftware.jira.pojo.ActionPlanViolation;
+import com.castsoftware.jira.pojo.MetricMetadata;
+
+/**
+ * The Class CastIdHasherBenchmark compares the CastId computation of the
+ * extraction, CastIdHasher, with the record concatenation hashed by
+ * ViolationCRC. It is not a unit test, run it with
+ * <code>java -cp target/classes:target/test-classes com.castsoftware.jira.util.CastIdHasherBenchmark [rows]</code>.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class CastIdHasherBenchmark {
+
+	/** The Constant ROUNDS, the first rounds warm up the JIT. */
+	private static final int ROUNDS = 5;
+
+	/**
+	 * The main method.
+	 *
+	 * @param args
+	 *            the number of rows by round, 2,000,000 by default
+	 * @throws Exception
+	 *             the exception
+	 */
+	public static void main(String[] args) throws Exception {
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+		MetricMetadata metric = new MetricMetadata(7424, "Avoid empty catch blocks", null, null, null, null, null,
+				null, null, null, null, null);
+		Timestamp firstSnapshotDate = Timestamp.valueOf("2016-02-29 12:00:00.25");
+		Timestamp[] actionDates = { Timestamp.valueOf("2015-03-04 05:06:07.123"),
+				Timestamp.valueOf("2021-08-09 10:11:12.123456") };
+		ActionPlanViolation[] violations = new ActionPlanViolation[actionDates.length];
+		for (int i = 0; i < violations.length; i++) {
+			violations[i] = new ActionPlanViolation(1234567L, "high", actionDates[i], firstSnapshotDate,
+					"Fix the catch block", "com.example.Service.handle(Request)", metric, null, 0, 0, 0, 1);
+		}
+
+		CastIdHasher hasher = new CastIdHasher();
+		ViolationCRC crc = new ViolationCRC();
+		long check = 0;
+		for (int round = 1; round <= ROUNDS; round++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < rows; i++) {
+				ActionPlanViolation violation = violations[i & 1];
+				crc.setHashCode(violation.getFieldsConcatenated());
+				check += crc.getLongHashCode();
+			}
+			long legacy = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < rows; i++) {
+				ActionPlanViolation violation = violations[i & 1];
+				hasher.hash(violation.getPriority(), actionDates[i & 1], firstSnapshotDate, "Fix the catch block",
+						"com.example.Service.handle(Request)", metric.getShortDescription(), violation.getObjectId(),
+						violation.getMetricId());
+				check -= hasher.getCastId();
+			}
+			long hashed = System.nanoTime() - start;
+
+			System.out.println(String.format("round %d: ViolationCRC %d ns/row, CastIdHasher %d ns/row", round,
+					legacy / rows, hashed / rows));
+		}
+		// both sides give the same CastIds
+		if (check != 0) {
+			throw new IllegalStateException("CastIds differ");
+		}
+	}
+}
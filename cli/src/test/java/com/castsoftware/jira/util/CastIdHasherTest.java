@@ -0,0 +1,174 @@
+package com.castsoftware.jira.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Timestamp;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.castsoftware.jira.pojo.ActionPlanViolation;
+import com.castsoftware.jira.pojo.MetricMetadata;
+
+/**
+ * The Class CastIdHasherTest checks that CastIdHasher gives the CastIds of
+ * ViolationCRC applied to the record built the way the previous versions did,
+ * so the issues already in Jira are still found.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class CastIdHasherTest {
+
+	/** The tags by priority. */
+	private static final String[] TAGS = { "extreme", "high", "moderate", "low" };
+
+	/** The hasher. */
+	private final CastIdHasher hasher = new CastIdHasher();
+
+	/**
+	 * Builds the record of a violation as the previous versions did: the
+	 * action date string is parsed with the SSS pattern and compared to the
+	 * cutoff, the texts are concatenated without their double quotes.
+	 *
+	 * @return the record
+	 */
+	private static String legacyRecord(int priority, Timestamp actionDate, Timestamp firstSnapshotDate,
+			String actionDef, String objectFullName, String metricShortDescription, long objectId, int metricId)
+			throws ParseException {
+		SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+		if (sdf.parse(actionDate.toString()).before(sdf.parse("2017-05-02 00:00:00.000"))) {
+			return priority + actionDate.toString() + strip(actionDef) + strip(objectFullName)
+					+ strip(metricShortDescription);
+		}
+		return String.format("%s%d%d", firstSnapshotDate, objectId, metricId);
+	}
+
+	/**
+	 * Removes the double quotes like the former setters, null is kept.
+	 *
+	 * @param text
+	 *            the text
+	 * @return the text
+	 */
+	private static String strip(String text) {
+		return text == null ? null : text.replaceAll("[\"]", "");
+	}
+
+	/**
+	 * Checks a row against ViolationCRC and ActionPlanViolation.
+	 */
+	private void check(int priority, Timestamp actionDate, Timestamp firstSnapshotDate, String actionDef,
+			String objectFullName, String metricShortDescription, long objectId, int metricId) throws Exception {
+		String record = legacyRecord(priority, actionDate, firstSnapshotDate, actionDef, objectFullName,
+				metricShortDescription, objectId, metricId);
+		ViolationCRC crc = new ViolationCRC();
+		crc.setHashCode(record);
+
+		assertTrue(record, hasher.hash(priority, actionDate, firstSnapshotDate, actionDef, objectFullName,
+				metricShortDescription, objectId, metricId));
+		assertEquals(record, crc.getLongHashCode(), hasher.getCastId());
+		assertEquals(record, crc.getHashCode(), (int) hasher.getCastId());
+
+		MetricMetadata metric = new MetricMetadata(metricId, metricShortDescription, null, null, null, null, null,
+				null, null, null, null, null);
+		ActionPlanViolation violation = new ActionPlanViolation(objectId, TAGS[priority - 1], actionDate,
+				firstSnapshotDate, actionDef, objectFullName, metric, null, 0, 0, 0, 1);
+		assertEquals(record, violation.getFieldsConcatenated());
+	}
+
+	/**
+	 * Creates a timestamp.
+	 *
+	 * @param value
+	 *            the date, yyyy-mm-dd hh:mm:ss
+	 * @param nanos
+	 *            the nanoseconds
+	 * @return the timestamp
+	 */
+	private static Timestamp timestamp(String value, int nanos) {
+		Timestamp date = Timestamp.valueOf(value);
+		date.setNanos(nanos);
+		return date;
+	}
+
+	@Test
+	public void testBeforeCutoff() throws Exception {
+		Timestamp first = timestamp("2016-01-01 00:00:00", 0);
+		check(1, timestamp("2015-03-04 05:06:07", 0), first, "fix \"it\"", "pkg.Class.method()",
+				"Avoid \"empty\" catch blocks", 1234L, 7424);
+		check(2, timestamp("2017-05-01 23:59:59", 999000000), first, null, "name", null, 1L, 1);
+		check(4, timestamp("1999-12-31 23:59:59", 1), first, "", "", "", 0L, 0);
+	}
+
+	@Test
+	public void testAfterCutoff() throws Exception {
+		Timestamp first = timestamp("2017-05-03 01:02:03", 450000000);
+		check(1, timestamp("2017-05-02 00:00:00", 0), first, "a", "b", "c", 1234L, 7424);
+		check(3, timestamp("2023-08-09 10:11:12", 123456789), first, null, null, null, 12L, 345);
+		check(2, timestamp("2023-08-09 10:11:12", 0), timestamp("2023-08-09 10:11:12", 0), "a", "b", "c",
+				-5L, -7);
+	}
+
+	@Test
+	public void testFractionDigits() throws Exception {
+		// the SSS pattern reads every fraction digit as milliseconds: .9995 is
+		// 9995 ms, which moves the last second before the cutoff after it
+		int[] nanos = { 0, 100000000, 120000000, 123000000, 123400000, 123450000, 123456000, 123456700, 123456780,
+				123456789, 1, 10, 999500000, 999999999 };
+		for (int n : nanos) {
+			check(2, timestamp("2017-05-01 23:59:59", n), timestamp("2016-02-29 12:00:00", n), "def", "obj", "m",
+					42L, 99);
+			check(2, timestamp("2017-05-01 23:59:50", n), timestamp("2016-02-29 12:00:00", n), "def", "obj", "m",
+					42L, 99);
+			check(2, timestamp("2017-05-02 00:00:00", n), timestamp("2016-02-29 12:00:00", n), "def", "obj", "m",
+					42L, 99);
+		}
+	}
+
+	@Test
+	public void testNonAscii() throws Exception {
+		Timestamp before = timestamp("2015-03-04 05:06:07", 0);
+		Timestamp first = timestamp("2016-01-01 00:00:00", 0);
+		assertFalse(hasher.hash(1, before, first, "corrig\u00e9", "obj", "m", 1L, 1));
+		assertFalse(hasher.hash(1, before, first, "def", "\u5bfe\u8c61", "m", 1L, 1));
+		assertFalse(hasher.hash(1, before, first, "def", "obj", "r\u00e8gle", 1L, 1));
+		// the texts are not part of the second layout
+		check(1, timestamp("2020-01-01 00:00:00", 0), first, "corrig\u00e9", "\u5bfe\u8c61", "r\u00e8gle", 1L, 1);
+	}
+
+	@Test
+	public void testRandomRows() throws Exception {
+		Random random = new Random(42);
+		long cutoff = Timestamp.valueOf("2017-05-02 00:00:00").getTime();
+		for (int i = 0; i < 20000; i++) {
+			long time = i % 5 == 0 ? (long) (random.nextDouble() * 2e12)
+					: cutoff + (long) ((random.nextDouble() - 0.5) * 10 * 86400000L);
+			Timestamp actionDate = new Timestamp(time);
+			switch (random.nextInt(4)) {
+			case 0:
+				actionDate.setNanos(0);
+				break;
+			case 1:
+				actionDate.setNanos(random.nextInt(1000) * 1000000);
+				break;
+			case 2:
+				actionDate.setNanos(random.nextInt(1000000) * 1000);
+				break;
+			default:
+				actionDate.setNanos(random.nextInt(1000000000));
+				break;
+			}
+			Timestamp firstSnapshotDate = new Timestamp(time - random.nextInt(1000000000));
+			firstSnapshotDate.setNanos(random.nextInt(3) == 0 ? 0 : random.nextInt(1000000000));
+			check(1 + random.nextInt(4), actionDate, firstSnapshotDate,
+					random.nextInt(5) == 0 ? null : "fix \"" + random.nextInt() + "\"", "obj" + random.nextInt(),
+					random.nextInt(9) == 0 ? null : "metric" + random.nextInt(100), random.nextLong(),
+					random.nextInt());
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package com.castsoftware.jira.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The Class ConnectionPoolTest borrows and releases the connections of a fake
+ * JDBC driver.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class ConnectionPoolTest {
+
+	/** The Constant URL. */
+	private static final String URL = "jdbc:cast2jira-test://host/db";
+
+	/** The driver. */
+	private final FakeDriver driver = new FakeDriver();
+
+	@Before
+	public void setUp() throws SQLException {
+		DriverManager.registerDriver(driver);
+	}
+
+	@After
+	public void tearDown() throws SQLException {
+		ConnectionPool.closeAll();
+		DriverManager.deregisterDriver(driver);
+	}
+
+	@Test
+	public void testReuse() throws SQLException {
+		ConnectionPool pool = ConnectionPool.getPool(URL, "operator", "secret", "select 1");
+		ConnectionPool.PooledConnection first = pool.borrow();
+		pool.release(first);
+		assertSame(first, pool.borrow());
+		assertEquals(1, driver.passwords.size());
+	}
+
+	@Test
+	public void testStatementCache() throws SQLException {
+		ConnectionPool pool = ConnectionPool.getPool(URL, "operator", "secret", "select 1");
+		ConnectionPool.PooledConnection pooled = pool.borrow();
+		PreparedStatement pst = pooled.prepareStatement("select 1");
+		assertTrue(pooled.isCached(pst));
+		pool.release(pooled);
+		// the statement is prepared once for the next callers of the connection
+		assertSame(pst, pool.borrow().prepareStatement("select 1"));
+		assertFalse(pooled.isCached(pooled.getConnection().prepareStatement("select 1")));
+	}
+
+	@Test
+	public void testPasswordChange() throws SQLException {
+		ConnectionPool pool = ConnectionPool.getPool(URL, "operator", "secret", "select 1");
+		ConnectionPool.PooledConnection first = pool.borrow();
+		ConnectionPool.PooledConnection borrowed = pool.borrow();
+		pool.release(first);
+
+		// one pool by user, the password is not part of the key
+		assertSame(pool, ConnectionPool.getPool(URL, "operator", "wrong", "select 1"));
+		assertTrue(first.getConnection().isClosed());
+		ConnectionPool.PooledConnection second = pool.borrow();
+		assertNotSame(first, second);
+		assertEquals("wrong", driver.passwords.get(driver.passwords.size() - 1));
+
+		// a connection of the previous password is not given to the next callers
+		pool.release(borrowed);
+		assertTrue(borrowed.getConnection().isClosed());
+	}
+
+	@Test
+	public void testCloseAll() throws SQLException {
+		ConnectionPool pool = ConnectionPool.getPool(URL, "operator", "secret", "select 1");
+		ConnectionPool.PooledConnection idle = pool.borrow();
+		ConnectionPool.PooledConnection borrowed = pool.borrow();
+		pool.release(idle);
+		ConnectionPool.closeAll();
+		assertTrue(idle.getConnection().isClosed());
+		assertNotSame(pool, ConnectionPool.getPool(URL, "operator", "secret", "select 1"));
+		pool.release(borrowed);
+		assertTrue(borrowed.getConnection().isClosed());
+	}
+
+	/**
+	 * The Class FakeDriver opens connections that only know if they are
+	 * closed and prepare empty statements, and records the passwords they
+	 * are opened with.
+	 */
+	private static class FakeDriver implements Driver {
+
+		/** The passwords of the connections opened. */
+		private final List<String> passwords = new ArrayList<>();
+
+		@Override
+		public Connection connect(String url, Properties info) {
+			if (!acceptsURL(url)) {
+				return null;
+			}
+			passwords.add(info.getProperty("password"));
+			return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] { Connection.class }, new InvocationHandler() {
+						private boolean closed;
+
+						@Override
+						public Object invoke(Object proxy, Method method, Object[] args) {
+							switch (method.getName()) {
+							case "close":
+								closed = true;
+								return null;
+							case "isClosed":
+								return closed;
+							case "getAutoCommit":
+							case "isValid":
+								return true;
+							case "prepareStatement":
+								return Proxy.newProxyInstance(getClass().getClassLoader(),
+										new Class<?>[] { PreparedStatement.class }, new InvocationHandler() {
+											@Override
+											public Object invoke(Object proxy, Method method, Object[] args) {
+												return method.getName().equals("equals") ? proxy == args[0] : null;
+											}
+										});
+							default:
+								throw new UnsupportedOperationException(method.getName());
+							}
+						}
+					});
+		}
+
+		@Override
+		public boolean acceptsURL(String url) {
+			return url.startsWith("jdbc:cast2jira-test:");
+		}
+
+		@Override
+		public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+			return new DriverPropertyInfo[0];
+		}
+
+		@Override
+		public int getMajorVersion() {
+			return 1;
+		}
+
+		@Override
+		public int getMinorVersion() {
+			return 0;
+		}
+
+		@Override
+		public boolean jdbcCompliant() {
+			return false;
+		}
+
+		@Override
+		public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+			throw new SQLFeatureNotSupportedException();
+		}
+	}
+}
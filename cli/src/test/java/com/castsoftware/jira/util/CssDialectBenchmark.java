@@ -0,0 +1,24 @@
+package com.castsoftware.jira.util;
+
+/**
+ * The Class CssDialectBenchmark times the extraction of the action plan on
+ * CSS, see {@link DialectBenchmark}. It is not a unit test, run it with
+ * <code>java -cp target/classes:target/test-classes:&lt;driver jar&gt; -Durl=jdbc:postgresql://host:2282/postgres -Duser=operator -Dpassword=... -Dschema=aip_central -Dapp=... com.castsoftware.jira.util.CssDialectBenchmark [fetch sizes]</code>.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class CssDialectBenchmark {
+
+	/**
+	 * The main method.
+	 *
+	 * @param args
+	 *            the comma separated fetch sizes
+	 * @throws Exception
+	 *             the exception
+	 */
+	public static void main(String[] args) throws Exception {
+		DialectBenchmark.run(Constants.DB_CSS, args);
+	}
+}
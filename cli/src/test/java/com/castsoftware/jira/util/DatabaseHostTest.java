@@ -0,0 +1,76 @@
+package com.castsoftware.jira.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * The Class DatabaseHostTest parses -databasehost lists and builds their
+ * connection strings.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class DatabaseHostTest {
+
+	@Test
+	public void testParse() {
+		List<DatabaseHost> hosts = DatabaseHost.parse("db1, db2:5433/replica ,,db3/primary", "2282");
+		assertEquals(3, hosts.size());
+		// the replicas first
+		assertEquals("db2:5433/replica", hosts.get(0).toString());
+		assertEquals("db1:2282/primary", hosts.get(1).toString());
+		assertEquals("db3:2282/primary", hosts.get(2).toString());
+	}
+
+	@Test
+	public void testIpv6() {
+		List<DatabaseHost> hosts = DatabaseHost.parse("[fd00::12]:5433/replica,[fd00::13],fd00::14,[::1]:", "2282");
+		assertEquals("fd00::12", hosts.get(0).getHost());
+		assertEquals("5433", hosts.get(0).getPort());
+		assertTrue(hosts.get(0).isReplica());
+		assertEquals("[fd00::13]", hosts.get(1).getUrlHost());
+		assertEquals("2282", hosts.get(1).getPort());
+		assertFalse(hosts.get(1).isReplica());
+		// without brackets the last group is not a port
+		assertEquals("fd00::14", hosts.get(2).getHost());
+		assertEquals("2282", hosts.get(2).getPort());
+		assertEquals("[::1]:2282/primary", hosts.get(3).toString());
+	}
+
+	@Test
+	public void testInvalidIpv6() {
+		for (String host : Arrays.asList("[fd00::12", "[fd00::12]5433", "[]:5433")) {
+			try {
+				DatabaseHost.parse(host, "2282");
+				fail(host + " accepted");
+			} catch (IllegalArgumentException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("[address]:port"));
+			}
+		}
+	}
+
+	@Test
+	public void testConnectionStrings() {
+		List<DatabaseHost> hosts = DatabaseHost.parse("[fd00::12]:5433/replica,db1", "2282");
+		assertEquals(Arrays.asList("jdbc:postgresql://[fd00::12]:5433,db1:2282/cast"
+				+ "?sslmode=prefer&targetServerType=preferSecondary"),
+				new CssDialect().getConnectionStrings(hosts, "cast"));
+		assertEquals(Arrays.asList("jdbc:postgresql://[fd00::12]:5433/cast?sslmode=prefer"),
+				new CssDialect().getConnectionStrings(hosts.subList(0, 1), "cast"));
+		assertEquals(Arrays.asList("jdbc:oracle:thin:@[fd00::12]:5433:cast"),
+				new OracleDialect().getConnectionStrings(hosts.subList(0, 1), "cast"));
+		try {
+			new SqlServerDialect().getConnectionStrings(hosts, "cast");
+			fail("IPv6 address accepted by jTDS");
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("[fd00::12]"));
+		}
+	}
+}
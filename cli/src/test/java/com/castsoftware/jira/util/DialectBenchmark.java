@@ -0,0 +1,99 @@
+package com.castsoftware.jira.util;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.castsoftware.jira.pojo.ActionPlanViolation;
+
+/**
+ * The Class DialectBenchmark times the action plan extraction of a dialect
+ * for several fetch sizes, against the central schema given by the system
+ * properties url, user, password, schema and app. The quality model is read
+ * once before the rounds, each round streams the whole action plan. The
+ * JDBC driver of the database has to be on the class path.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class DialectBenchmark {
+
+	/** The log. */
+	private static final Log log = LogFactory.getLog(DialectBenchmark.class);
+
+	/** The Constant ROUNDS, the first round warms up the database cache. */
+	private static final int ROUNDS = 3;
+
+	/** The Constant DEFAULT_FETCH_SIZES. */
+	private static final String DEFAULT_FETCH_SIZES = "100,500,2000,10000";
+
+	/**
+	 * Runs the benchmark of a database provider.
+	 *
+	 * @param databaseProvider
+	 *            the database provider
+	 * @param args
+	 *            the comma separated fetch sizes, 100,500,2000,10000 by
+	 *            default
+	 * @throws Exception
+	 *             the exception
+	 */
+	static void run(String databaseProvider, String[] args) throws Exception {
+		String url = property("url");
+		String schema = property("schema");
+		String app = property("app");
+		String[] fetchSizes = (args.length > 0 ? args[0] : DEFAULT_FETCH_SIZES).split(",");
+
+		SqlDialect dialect = SqlDialect.forProvider(databaseProvider);
+		Class.forName(dialect.getDriverClass());
+		try (Connection connection = DriverManager.getConnection(url, System.getProperty("user"),
+				System.getProperty("password"))) {
+			SqlStatements model = new SqlStatements(app, schema, databaseProvider);
+			long start = System.nanoTime();
+			QualityModel qualityModel = model.loadQualityModel(connection);
+			System.out.println(String.format("%s: quality model read in %d ms", databaseProvider,
+					(System.nanoTime() - start) / 1000000));
+
+			for (String fetchSize : fetchSizes) {
+				for (int round = 1; round <= ROUNDS; round++) {
+					SqlStatements sql = new SqlStatements(app, schema, databaseProvider);
+					sql.setQualityModel(qualityModel);
+					sql.setFetchSize(Integer.parseInt(fetchSize.trim()));
+					final long[] violations = new long[1];
+					start = System.nanoTime();
+					sql.streamActionPlan(connection, new ActionPlanHandler() {
+						@Override
+						public void handleViolation(long castId, ActionPlanViolation violation) {
+							violations[0]++;
+						}
+					});
+					long elapsed = System.nanoTime() - start;
+					System.out.println(String.format("%s: fetch size %s round %d: %d rows, %d violations in %d ms",
+							databaseProvider, fetchSize.trim(), round, sql.getStatistics().getRows(),
+							violations[0], elapsed / 1000000));
+					if (round == ROUNDS) {
+						sql.getStatistics().log(log);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets a required system property.
+	 *
+	 * @param name
+	 *            the property name
+	 * @return the value
+	 */
+	private static String property(String name) {
+		String value = System.getProperty(name);
+		if (value == null) {
+			throw new IllegalArgumentException("Missing system property -D" + name
+					+ ", the benchmark needs -Durl, -Duser, -Dpassword, -Dschema and -Dapp");
+		}
+		return value;
+	}
+}
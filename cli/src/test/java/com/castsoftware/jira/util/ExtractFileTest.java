@@ -0,0 +1,158 @@
+package com.castsoftware.jira.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.castsoftware.jira.pojo.ActionPlanViolation;
+
+/**
+ * The Class ExtractFileTest writes extract files and reads them back.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class ExtractFileTest {
+
+	/** The directory of the test files. */
+	private File directory;
+
+	/** The extract file. */
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = File.createTempFile("extract", "");
+		assertTrue(directory.delete() && directory.mkdir());
+		file = new File(directory, "app.extract");
+	}
+
+	@After
+	public void tearDown() {
+		for (File child : directory.listFiles()) {
+			child.delete();
+		}
+		directory.delete();
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		Timestamp selectionDate = Timestamp.valueOf("2023-04-05 10:00:00.5");
+		try (ExtractFile.Writer writer = new ExtractFile.Writer(file)) {
+			writer.handleViolation(200L, ViolationFixture.first());
+			writer.handleViolation(100L, ViolationFixture.second());
+			assertEquals(2, writer.finish(new Watermark(selectionDate, 12)));
+		}
+		assertFalse(new File(directory, "app.extract.tmp").exists());
+
+		ExtractFile extract = new ExtractFile(file);
+		assertEquals(2, extract.size());
+		assertEquals(selectionDate, extract.getWatermark().getSelectionDate());
+		assertEquals(12, extract.getWatermark().getSnapshotId());
+		ViolationFixture.assertRoundTrip(extract.get(200L), extract.get(100L));
+		assertNull(extract.get(150L));
+		assertArrayEquals(new long[] { 100L, 200L }, extract.getCastIds());
+
+		// sorted by CastId
+		ViolationFixture.Collector collector = new ViolationFixture.Collector();
+		extract.handleAll(collector);
+		assertEquals(Arrays.asList(100L, 200L), collector.castIds);
+	}
+
+	@Test
+	public void testHandleAllBySource() throws IOException {
+		int[] sourceIds = { 7, 3, 7, 0, 3, 9, -1 };
+		try (ExtractFile.Writer writer = new ExtractFile.Writer(file)) {
+			for (int i = 0; i < sourceIds.length; i++) {
+				writer.handleViolation(i, new ActionPlanViolation(i, "high", Timestamp.valueOf("2023-04-05 06:07:08"),
+						null, "fix it", "object." + i, ViolationFixture.METRIC, "src/" + sourceIds[i], 1, 2,
+						sourceIds[i], 1));
+			}
+			writer.finish(null);
+		}
+		final List<Integer> handled = new ArrayList<>();
+		new ExtractFile(file).handleAllBySource(new ActionPlanHandler() {
+			@Override
+			public void handleViolation(long castId, ActionPlanViolation violation) {
+				assertEquals(castId, violation.getObjectId());
+				assertEquals("src/" + violation.getSourceId(), violation.getSourcePath());
+				handled.add(violation.getSourceId());
+			}
+		});
+		assertEquals(Arrays.asList(-1, 0, 3, 3, 7, 7, 9), handled);
+	}
+
+	@Test
+	public void testEmpty() throws IOException {
+		try (ExtractFile.Writer writer = new ExtractFile.Writer(file)) {
+			assertEquals(0, writer.finish(null));
+		}
+		ExtractFile extract = new ExtractFile(file);
+		assertEquals(0, extract.size());
+		assertNull(extract.getWatermark());
+		assertNull(extract.get(1L));
+	}
+
+	@Test
+	public void testDuplicateCastId() throws IOException {
+		try (ExtractFile.Writer writer = new ExtractFile.Writer(file)) {
+			writer.handleViolation(5L, ViolationFixture.violation(1L, "a", "a"));
+			writer.handleViolation(5L, ViolationFixture.violation(2L, "b", "b"));
+			writer.finish(null);
+			fail("duplicate CastId accepted");
+		} catch (IOException e) {
+			assertTrue(e.getMessage().contains("CastId 5"));
+		}
+		assertFalse(file.exists());
+		assertFalse(new File(directory, "app.extract.tmp").exists());
+	}
+
+	@Test
+	public void testFailureKeepsPreviousFile() throws IOException {
+		try (ExtractFile.Writer writer = new ExtractFile.Writer(file)) {
+			writer.handleViolation(1L, ViolationFixture.violation(1L, "a", "a"));
+			writer.finish(null);
+		}
+		try (ExtractFile.Writer writer = new ExtractFile.Writer(file)) {
+			writer.handleViolation(2L, ViolationFixture.violation(2L, "b", "b"));
+			// the extraction fails before finish
+		}
+		assertFalse(new File(directory, "app.extract.tmp").exists());
+		ExtractFile extract = new ExtractFile(file);
+		assertEquals(1, extract.size());
+		assertNotNull(extract.get(1L));
+	}
+
+	@Test
+	public void testTruncatedFile() throws IOException {
+		try (ExtractFile.Writer writer = new ExtractFile.Writer(file)) {
+			writer.handleViolation(1L, ViolationFixture.violation(1L, "a", "a"));
+			writer.finish(null);
+		}
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(raf.length() - 3);
+		}
+		try {
+			new ExtractFile(file);
+			fail("truncated file accepted");
+		} catch (IOException e) {
+			assertTrue(e.getMessage().startsWith("Invalid extract file"));
+		}
+	}
+}
@@ -0,0 +1,239 @@
+package com.castsoftware.jira.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The Class FakeDatabase answers the statements of SqlStatements through a
+ * JDBC proxy, without a database. Like PostgreSQL, a failed statement aborts
+ * the current transaction: the next statements fail until it is rolled back,
+ * or rolled back to a savepoint taken before the failure.
+ *
+ * @author FME
+ * @version 1.1
+ */
+class FakeDatabase {
+
+	/** The Constant ACTION_PLAN_COLUMNS, columns of the action plan rows. */
+	static final List<String> ACTION_PLAN_COLUMNS = Arrays.asList("object_id", "metric_id", "object_name", "tag",
+			"priority", "snapshot_id", "first_snapshot_date", "fecha", "action_message", "violation_status");
+
+	/** The action plan rows. */
+	private final List<Object[]> actionPlan = new ArrayList<>();
+
+	/** The statements run, in order. */
+	private final List<String> statements = new ArrayList<>();
+
+	/** True to make the explain statements fail. */
+	private boolean explainFailure;
+
+	/** The auto commit mode of the connection. */
+	private boolean autoCommit = true;
+
+	/** True once a statement failed in the current transaction. */
+	private boolean aborted;
+
+	/** The statements run when the last savepoint was taken, -1 without savepoint. */
+	private int savepoint = -1;
+
+	/**
+	 * Adds an action plan row.
+	 *
+	 * @param objectId
+	 *            the object id
+	 * @param metricId
+	 *            the metric id
+	 * @param actionMessage
+	 *            the action message
+	 */
+	void addViolation(long objectId, int metricId, String actionMessage) {
+		actionPlan.add(new Object[] { objectId, metricId, "object." + objectId, "high", 2, 5,
+				Timestamp.valueOf("2019-06-01 12:00:00"), Timestamp.valueOf("2020-01-01 00:00:00"), actionMessage,
+				1 });
+	}
+
+	/**
+	 * Makes the explain statements fail.
+	 *
+	 * @param explainFailure
+	 *            true to fail
+	 */
+	void setExplainFailure(boolean explainFailure) {
+		this.explainFailure = explainFailure;
+	}
+
+	/**
+	 * Gets the statements run.
+	 *
+	 * @return the statements
+	 */
+	List<String> getStatements() {
+		return statements;
+	}
+
+	/**
+	 * Gets a connection to the fake database.
+	 *
+	 * @return the connection
+	 */
+	Connection getConnection() {
+		return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						switch (method.getName()) {
+						case "getAutoCommit":
+							return autoCommit;
+						case "setAutoCommit":
+							if (!autoCommit || !(Boolean) args[0]) {
+								aborted = false;
+							}
+							autoCommit = (Boolean) args[0];
+							return null;
+						case "setSavepoint":
+							savepoint = statements.size();
+							return Proxy.newProxyInstance(getClass().getClassLoader(),
+									new Class<?>[] { Savepoint.class }, new Unsupported());
+						case "rollback":
+							if (args == null || savepoint >= 0) {
+								aborted = false;
+							}
+							return null;
+						case "commit":
+							aborted = false;
+							return null;
+						case "prepareStatement":
+							return statement((String) args[0]);
+						case "close":
+							return null;
+						default:
+							throw new UnsupportedOperationException(method.getName());
+						}
+					}
+				});
+	}
+
+	/**
+	 * Creates a statement.
+	 *
+	 * @param sql
+	 *            the statement
+	 * @return the prepared statement
+	 */
+	private PreparedStatement statement(final String sql) {
+		return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { PreparedStatement.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						String name = method.getName();
+						if (name.startsWith("set") || name.equals("close")) {
+							return null;
+						}
+						if (!name.equals("executeQuery") && !name.equals("execute")) {
+							throw new UnsupportedOperationException(name);
+						}
+						statements.add(sql);
+						if (aborted) {
+							throw new SQLException(
+									"current transaction is aborted, commands ignored until end of transaction block");
+						}
+						if (sql.startsWith("explain") && explainFailure) {
+							aborted = !autoCommit;
+							throw new SQLException("permission denied for explain");
+						}
+						return result(sql);
+					}
+				});
+	}
+
+	/**
+	 * Gets the result of a statement.
+	 *
+	 * @param sql
+	 *            the statement
+	 * @return the result set
+	 */
+	private ResultSet result(String sql) {
+		if (sql.startsWith("select count(*)")) {
+			// the application is defined
+			return resultSet(Arrays.asList("count"), Arrays.<Object[]> asList(new Object[] { 1 }));
+		}
+		if (sql.contains("max(vapw.sel_date)")) {
+			return resultSet(Arrays.asList("sel_date", "snapshot_id"),
+					Arrays.<Object[]> asList(new Object[] { Timestamp.valueOf("2020-01-01 00:00:00"), 5 }));
+		}
+		if (sql.startsWith("explain")) {
+			return resultSet(Arrays.asList("plan"), Arrays.<Object[]> asList(new Object[] { "Seq Scan" }));
+		}
+		return resultSet(ACTION_PLAN_COLUMNS, actionPlan);
+	}
+
+	/**
+	 * Creates a forward only result set.
+	 *
+	 * @param columns
+	 *            the column labels
+	 * @param rows
+	 *            the rows
+	 * @return the result set
+	 */
+	private ResultSet resultSet(final List<String> columns, final List<Object[]> rows) {
+		return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { ResultSet.class },
+				new InvocationHandler() {
+					private int row = -1;
+					private Object last;
+
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						switch (method.getName()) {
+						case "next":
+							return ++row < rows.size();
+						case "close":
+							return null;
+						case "wasNull":
+							return last == null;
+						default:
+							break;
+						}
+						int column = args[0] instanceof String ? columns.indexOf(args[0]) : (Integer) args[0] - 1;
+						if (column < 0) {
+							throw new SQLException("The column name " + args[0] + " was not found in this ResultSet.");
+						}
+						last = rows.get(row)[column];
+						switch (method.getName()) {
+						case "getString":
+							return last == null ? null : last.toString();
+						case "getInt":
+							return last == null ? 0 : ((Number) last).intValue();
+						case "getLong":
+							return last == null ? 0L : ((Number) last).longValue();
+						case "getTimestamp":
+							return last;
+						default:
+							throw new UnsupportedOperationException(method.getName());
+						}
+					}
+				});
+	}
+
+	/**
+	 * The Class Unsupported rejects every call of a proxy.
+	 */
+	private static class Unsupported implements InvocationHandler {
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			throw new UnsupportedOperationException(method.getName());
+		}
+	}
+}
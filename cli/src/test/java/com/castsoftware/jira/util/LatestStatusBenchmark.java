@@ -0,0 +1,209 @@
+package com.castsoftware.jira.util;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+
+/**
+ * The Class LatestStatusBenchmark compares the two ways of finding the latest
+ * status of the action plan violations: the max(snapshot_id) subquery
+ * correlated to every row of the previous versions, and the lvs derived table
+ * aggregated once by SqlStatements. It is not a unit test, run it with
+ * <code>java -cp target/classes:target/test-classes:&lt;driver jar&gt; -Durl=jdbc:postgresql://host:2282/bench -Duser=... -Dpassword=... com.castsoftware.jira.util.LatestStatusBenchmark [objects] [metrics] [snapshots]</code>.
+ * <p>
+ * When dss_violation_statuses and viewer_action_plans do not exist in the
+ * database of the URL, they are created and filled with synthetic
+ * violations, by default 2,000 objects with 10 metrics over 50 snapshots,
+ * and dropped at the end. Existing tables are used as they are, so the
+ * benchmark can also be run on a copy of a central schema.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class LatestStatusBenchmark {
+
+	/** The Constant ROUNDS, the first round warms up the database cache. */
+	private static final int ROUNDS = 3;
+
+	/** The Constant BATCH, rows inserted by round trip. */
+	private static final int BATCH = 1000;
+
+	/** The Constant CORRELATED, the statement of the previous versions. */
+	private static final String CORRELATED = "select vap.object_id, vap.metric_id, dvs.violation_status "
+			+ "from viewer_action_plans vap, dss_violation_statuses dvs "
+			+ "where dvs.object_id = vap.object_id and dvs.diag_id = vap.metric_id "
+			+ "and dvs.snapshot_id = (select max(dvs2.snapshot_id) from dss_violation_statuses dvs2 "
+			+ "where dvs2.object_id = dvs.object_id and dvs2.diag_id = dvs.diag_id)";
+
+	/**
+	 * The Constant AGGREGATED, the lvs derived table of SqlStatements without
+	 * the application scope.
+	 */
+	private static final String AGGREGATED = "select vap.object_id, vap.metric_id, dvs.violation_status "
+			+ "from viewer_action_plans vap, dss_violation_statuses dvs, "
+			+ "(select dvs2.object_id, dvs2.diag_id, max(dvs2.snapshot_id) snapshot_id "
+			+ "from dss_violation_statuses dvs2 where exists (select 1 from viewer_action_plans vap2 "
+			+ "where vap2.object_id = dvs2.object_id and vap2.metric_id = dvs2.diag_id) "
+			+ "group by dvs2.object_id, dvs2.diag_id) lvs "
+			+ "where dvs.object_id = vap.object_id and dvs.diag_id = vap.metric_id "
+			+ "and lvs.object_id = dvs.object_id and lvs.diag_id = dvs.diag_id "
+			+ "and lvs.snapshot_id = dvs.snapshot_id";
+
+	/**
+	 * The main method.
+	 *
+	 * @param args
+	 *            the number of objects, of metrics by object and of
+	 *            snapshots of the synthetic tables
+	 * @throws Exception
+	 *             the exception
+	 */
+	public static void main(String[] args) throws Exception {
+		int objects = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		int metrics = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		int snapshots = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+		String url = System.getProperty("url");
+		if (url == null) {
+			throw new IllegalArgumentException("Missing system property -Durl");
+		}
+
+		try (Connection connection = DriverManager.getConnection(url, System.getProperty("user"),
+				System.getProperty("password"))) {
+			boolean created = !exists(connection);
+			if (created) {
+				fill(connection, objects, metrics, snapshots);
+			}
+			try {
+				for (int round = 1; round <= ROUNDS; round++) {
+					long[] correlated = time(connection, CORRELATED);
+					long[] aggregated = time(connection, AGGREGATED);
+					System.out.println(String.format(
+							"round %d: correlated max(snapshot_id) %d ms, aggregated lvs join %d ms, %d rows",
+							round, correlated[0] / 1000000, aggregated[0] / 1000000, aggregated[1]));
+					// both statements give the same latest statuses
+					if (correlated[1] != aggregated[1] || correlated[2] != aggregated[2]) {
+						throw new IllegalStateException("The statements return different rows");
+					}
+				}
+			} finally {
+				if (created) {
+					try (Statement st = connection.createStatement()) {
+						st.execute("drop table viewer_action_plans");
+						st.execute("drop table dss_violation_statuses");
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks if the tables already exist.
+	 *
+	 * @param connection
+	 *            the connection
+	 * @return true, if they exist
+	 */
+	private static boolean exists(Connection connection) {
+		try (Statement st = connection.createStatement();
+				ResultSet rs = st.executeQuery("select count(*) from dss_violation_statuses")) {
+			rs.next();
+			return true;
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Creates the tables and fills them. Each violation appears at a random
+	 * snapshot and has a status in every later snapshot, about one violation
+	 * out of three is part of the action plan.
+	 *
+	 * @param connection
+	 *            the connection
+	 * @param objects
+	 *            the number of objects
+	 * @param metrics
+	 *            the number of metrics by object
+	 * @param snapshots
+	 *            the number of snapshots
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	private static void fill(Connection connection, int objects, int metrics, int snapshots) throws SQLException {
+		try (Statement st = connection.createStatement()) {
+			st.execute("create table dss_violation_statuses (object_id integer not null, diag_id integer not null, "
+					+ "snapshot_id integer not null, violation_status integer not null)");
+			st.execute("create table viewer_action_plans (object_id integer not null, metric_id integer not null)");
+		}
+		long start = System.nanoTime();
+		long rows = 0;
+		Random random = new Random(42);
+		connection.setAutoCommit(false);
+		try (PreparedStatement status = connection
+				.prepareStatement("insert into dss_violation_statuses values (?, ?, ?, ?)");
+				PreparedStatement plan = connection.prepareStatement("insert into viewer_action_plans values (?, ?)")) {
+			int batch = 0;
+			for (int object = 1; object <= objects; object++) {
+				for (int metric = 1; metric <= metrics; metric++) {
+					for (int snapshot = 1 + random.nextInt(snapshots); snapshot <= snapshots; snapshot++) {
+						status.setInt(1, object);
+						status.setInt(2, metric);
+						status.setInt(3, snapshot);
+						status.setInt(4, random.nextInt(4) == 0 ? 2 : 1);
+						status.addBatch();
+						rows++;
+						if (++batch == BATCH) {
+							status.executeBatch();
+							batch = 0;
+						}
+					}
+					if (random.nextInt(3) == 0) {
+						plan.setInt(1, object);
+						plan.setInt(2, metric);
+						plan.addBatch();
+					}
+				}
+				plan.executeBatch();
+			}
+			status.executeBatch();
+			connection.commit();
+		} finally {
+			connection.setAutoCommit(true);
+		}
+		try (Statement st = connection.createStatement()) {
+			st.execute("create index dss_violation_statuses_idx on dss_violation_statuses (object_id, diag_id, snapshot_id)");
+			st.execute("create index viewer_action_plans_idx on viewer_action_plans (object_id, metric_id)");
+		}
+		System.out.println(String.format("%d violation statuses created in %d ms", rows,
+				(System.nanoTime() - start) / 1000000));
+	}
+
+	/**
+	 * Runs a statement and reads all its rows.
+	 *
+	 * @param connection
+	 *            the connection
+	 * @param sql
+	 *            the statement
+	 * @return the elapsed nanoseconds, the number of rows and a checksum of
+	 *         the rows
+	 * @throws SQLException
+	 *             the SQL exception
+	 */
+	private static long[] time(Connection connection, String sql) throws SQLException {
+		long start = System.nanoTime();
+		long rows = 0;
+		long checksum = 0;
+		try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+			while (rs.next()) {
+				rows++;
+				checksum += (rs.getLong(1) * 31 + rs.getInt(2)) * 31 + rs.getInt(3);
+			}
+		}
+		return new long[] { System.nanoTime() - start, rows, checksum };
+	}
+}
@@ -0,0 +1,48 @@
+package com.castsoftware.jira.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * The Class LegacyCastIdsTest finds the 32-bit CastIds shared by several
+ * violations.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class LegacyCastIdsTest {
+
+	@Test
+	public void testShared() {
+		LegacyCastIds legacyCastIds = new LegacyCastIds();
+		// the same low word under different high words, and the CastId 0
+		long shared = 0xFFFFFFFFL;
+		legacyCastIds.addAll(new long[] { (1L << 32) | shared, 42L, (2L << 32) | shared, 0L });
+		assertEquals(3, legacyCastIds.size());
+		assertFalse(legacyCastIds.isUnique((1L << 32) | shared));
+		assertFalse(legacyCastIds.isUnique(shared));
+		assertTrue(legacyCastIds.isUnique(42L));
+		assertTrue(legacyCastIds.isUnique(0L));
+		assertTrue(legacyCastIds.isUnique(43L));
+	}
+
+	@Test
+	public void testResize() {
+		LegacyCastIds legacyCastIds = new LegacyCastIds();
+		for (long i = 0; i < 10000; i++) {
+			legacyCastIds.add(i << 40 | i);
+		}
+		// the duplicates are kept through the resizes
+		legacyCastIds.add(7L);
+		for (long i = 10000; i < 20000; i++) {
+			legacyCastIds.add(i);
+		}
+		assertEquals(20000, legacyCastIds.size());
+		assertFalse(legacyCastIds.isUnique(7L << 40 | 7L));
+		assertTrue(legacyCastIds.isUnique(8L));
+		assertTrue(legacyCastIds.isUnique(19999L));
+	}
+}
@@ -0,0 +1,221 @@
+package com.castsoftware.jira.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.castsoftware.jira.pojo.ActionPlanViolation;
+import com.castsoftware.jira.pojo.MetricMetadata;
+
+/**
+ * The Class LongViolationMapTest checks the duplicates, the collisions and the
+ * growth of the map.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class LongViolationMapTest {
+
+	/**
+	 * Creates a violation of the second record layout, whose CastId is hashed
+	 * from the first snapshot date, the object id and the metric id.
+	 *
+	 * @param objectId
+	 *            the object id
+	 * @param metricId
+	 *            the metric id
+	 * @return the violation
+	 */
+	private static ActionPlanViolation violation(long objectId, int metricId) {
+		MetricMetadata metric = new MetricMetadata(metricId, "metric " + metricId, null, null, null, null, null, null,
+				null, null, null, null);
+		return new ActionPlanViolation(objectId, "high", Timestamp.valueOf("2020-01-01 00:00:00"),
+				Timestamp.valueOf("2019-06-01 12:00:00"), null, "object." + objectId, metric, null, 0, 0, 0, 1);
+	}
+
+	/**
+	 * Computes the CastId of a violation.
+	 *
+	 * @param violation
+	 *            the violation
+	 * @return the CastId
+	 */
+	private static long castId(ActionPlanViolation violation) {
+		ViolationCRC crc = new ViolationCRC();
+		crc.setHashCode(violation.getFieldsConcatenated());
+		return crc.getLongHashCode();
+	}
+
+	@Test
+	public void testDuplicate() {
+		LongViolationMap map = new LongViolationMap();
+		ActionPlanViolation first = violation(12L, 345);
+		ActionPlanViolation again = violation(12L, 345);
+		long castId = castId(first);
+		assertEquals(castId, castId(again));
+		assertEquals(LongViolationMap.ADDED, map.add(castId, LongViolationMap.fingerprint(first), first));
+		assertEquals(LongViolationMap.DUPLICATE, map.add(castId, LongViolationMap.fingerprint(again), again));
+		assertEquals(1, map.size());
+		assertEquals(0, map.getCollisions());
+		assertSame(first, map.get(castId));
+	}
+
+	@Test
+	public void testCollision() {
+		// "12" + "345" and "123" + "45" give the same CastId record
+		ActionPlanViolation first = violation(12L, 345);
+		ActionPlanViolation second = violation(123L, 45);
+		assertEquals(first.getFieldsConcatenated(), second.getFieldsConcatenated());
+		assertNotEquals(LongViolationMap.fingerprint(first), LongViolationMap.fingerprint(second));
+
+		LongViolationMap map = new LongViolationMap();
+		long castId = castId(first);
+		assertEquals(LongViolationMap.ADDED, map.add(castId, LongViolationMap.fingerprint(first), first));
+		assertEquals(LongViolationMap.COLLISION, map.add(castId, LongViolationMap.fingerprint(second), second));
+		assertEquals(1, map.size());
+		assertEquals(1, map.getCollisions());
+		assertSame(first, map.get(castId));
+	}
+
+	@Test
+	public void testFingerprintFields() {
+		ActionPlanViolation violation = violation(12L, 345);
+		long fingerprint = LongViolationMap.fingerprint(violation);
+		assertEquals(fingerprint, LongViolationMap.fingerprint(violation(12L, 345)));
+		assertNotEquals(fingerprint, LongViolationMap.fingerprint(violation(345L, 12)));
+		assertNotEquals(fingerprint, LongViolationMap.fingerprint(new ActionPlanViolation(12L, "high",
+				Timestamp.valueOf("2020-01-01 00:00:00"), Timestamp.valueOf("2019-06-01 12:00:00.000000001"), null,
+				"object.12", violation.getMetricMetadata(), null, 0, 0, 0, 1)));
+	}
+
+	@Test
+	public void testZeroCastId() {
+		LongViolationMap map = new LongViolationMap();
+		ActionPlanViolation first = violation(1L, 1);
+		assertEquals(LongViolationMap.ADDED, map.add(0L, 7L, first));
+		assertEquals(LongViolationMap.DUPLICATE, map.add(0L, 7L, violation(1L, 1)));
+		assertEquals(LongViolationMap.COLLISION, map.add(0L, 8L, violation(2L, 2)));
+		assertEquals(1, map.size());
+		assertEquals(1, map.getCollisions());
+		assertSame(first, map.get(0L));
+	}
+
+	@Test
+	public void testResize() {
+		LongViolationMap map = new LongViolationMap();
+		ActionPlanViolation[] violations = new ActionPlanViolation[5000];
+		for (int i = 0; i < violations.length; i++) {
+			violations[i] = violation(i, 1);
+			// CastIds sharing their low bits, as the legacy CRC32 of similar records may
+			long castId = ((long) i << 32) | 0x1234L;
+			assertEquals(LongViolationMap.ADDED, map.add(castId, LongViolationMap.fingerprint(violations[i]),
+					violations[i]));
+		}
+		assertEquals(violations.length, map.size());
+		for (int i = 0; i < violations.length; i++) {
+			long castId = ((long) i << 32) | 0x1234L;
+			assertSame(violations[i], map.get(castId));
+			assertEquals(LongViolationMap.DUPLICATE,
+					map.add(castId, LongViolationMap.fingerprint(violations[i]), violations[i]));
+		}
+		assertNull(map.get(0x1234L + 1));
+		assertEquals(0, map.getCollisions());
+	}
+
+	@Test
+	public void testCastIdsOnly() {
+		LongViolationMap map = new LongViolationMap(100);
+		assertTrue(map.isEmpty());
+		assertEquals(LongViolationMap.ADDED, map.add(5L, 1L, null));
+		assertEquals(LongViolationMap.DUPLICATE, map.add(5L, 1L, null));
+		assertFalse(map.isEmpty());
+		assertNull(map.get(5L));
+		final int[] handled = new int[1];
+		map.handleAll(new ActionPlanHandler() {
+			@Override
+			public void handleViolation(long castId, ActionPlanViolation violation) {
+				handled[0]++;
+			}
+		});
+		assertEquals(0, handled[0]);
+	}
+
+	@Test
+	public void testHandleAllBySource() {
+		LongViolationMap map = new LongViolationMap();
+		int[] sourceIds = { 7, 3, 7, 0, 3, 9, 7 };
+		for (int i = 0; i < sourceIds.length; i++) {
+			ActionPlanViolation violation = new ActionPlanViolation(i, "high", Timestamp.valueOf("2020-01-01 00:00:00"),
+					null, null, "object." + i, violation(i, 1).getMetricMetadata(), "src/" + sourceIds[i], 1, 2,
+					sourceIds[i], 1);
+			// the CastId 0 is kept aside, it is grouped with the others
+			map.add(i * 1000003L, LongViolationMap.fingerprint(violation), violation);
+		}
+		final List<Integer> handled = new ArrayList<>();
+		map.handleAllBySource(new ActionPlanHandler() {
+			@Override
+			public void handleViolation(long castId, ActionPlanViolation violation) {
+				assertEquals(castId, violation.getObjectId() * 1000003L);
+				handled.add(violation.getSourceId());
+			}
+		});
+		assertEquals(Arrays.asList(0, 3, 3, 7, 7, 7, 9), handled);
+	}
+
+	@Test
+	public void testAddAll() {
+		LongViolationMap first = new LongViolationMap();
+		LongViolationMap second = new LongViolationMap();
+		ActionPlanViolation a = violation(1L, 1);
+		ActionPlanViolation b = violation(2L, 2);
+		ActionPlanViolation c = violation(3L, 3);
+		first.add(10L, LongViolationMap.fingerprint(a), a);
+		first.add(10L, LongViolationMap.fingerprint(b), b);
+		second.add(0L, LongViolationMap.fingerprint(b), b);
+		second.add(10L, LongViolationMap.fingerprint(c), c);
+
+		LongViolationMap merged = new LongViolationMap();
+		merged.addAll(first);
+		merged.addAll(second);
+		// one collision in the first map, one between the maps
+		assertEquals(2, merged.getCollisions());
+		assertEquals(2, merged.size());
+		assertSame(a, merged.get(10L));
+		assertSame(b, merged.get(0L));
+
+		final Map<Long, ActionPlanViolation> handled = new HashMap<>();
+		merged.handleAll(new ActionPlanHandler() {
+			@Override
+			public void handleViolation(long castId, ActionPlanViolation violation) {
+				handled.put(castId, violation);
+			}
+		});
+		assertEquals(2, handled.size());
+		assertSame(a, handled.get(10L));
+		assertSame(b, handled.get(0L));
+	}
+
+	@Test
+	public void testCastIds() {
+		LongViolationMap map = new LongViolationMap();
+		for (long castId : new long[] { -5L, 0L, 1L << 40 }) {
+			map.add(castId, castId, null);
+		}
+		long[] castIds = map.getCastIds();
+		Arrays.sort(castIds);
+		assertArrayEquals(new long[] { -5L, 0L, 1L << 40 }, castIds);
+	}
+}
@@ -0,0 +1,24 @@
+package com.castsoftware.jira.util;
+
+/**
+ * The Class SqlServerDialectBenchmark times the extraction of the action plan on
+ * SQL Server, see {@link DialectBenchmark}. It is not a unit test, run it with
+ * <code>java -cp target/classes:target/test-classes:&lt;driver jar&gt; -Durl=jdbc:jtds:sqlserver://host:1433/aip_central;sendStringParametersAsUnicode=false -Duser=sa -Dpassword=... -Dschema=aip_central -Dapp=... com.castsoftware.jira.util.SqlServerDialectBenchmark [fetch sizes]</code>.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class SqlServerDialectBenchmark {
+
+	/**
+	 * The main method.
+	 *
+	 * @param args
+	 *            the comma separated fetch sizes
+	 * @throws Exception
+	 *             the exception
+	 */
+	public static void main(String[] args) throws Exception {
+		DialectBenchmark.run(Constants.DB_SQLSERVER, args);
+	}
+}
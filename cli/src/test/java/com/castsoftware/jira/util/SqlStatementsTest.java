@@ -0,0 +1,119 @@
+package com.castsoftware.jira.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.sql.Connection;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.castsoftware.jira.pojo.ActionPlanViolation;
+
+/**
+ * The Class SqlStatementsTest runs the extraction against a FakeDatabase.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class SqlStatementsTest {
+
+	/** The database. */
+	private FakeDatabase database;
+
+	/** The explain file. */
+	private File explainFile;
+
+	@Before
+	public void setUp() throws Exception {
+		database = new FakeDatabase();
+		database.addViolation(1L, 7424, "Fix the catch");
+		database.addViolation(2L, 7424, "Fix the catch");
+		explainFile = File.createTempFile("explain", ".txt");
+		explainFile.delete();
+	}
+
+	@After
+	public void tearDown() {
+		explainFile.delete();
+	}
+
+	/**
+	 * Creates the extraction of the application, with a quality model holding
+	 * the metric of the rows.
+	 *
+	 * @return the extraction
+	 */
+	private SqlStatements extraction() throws Exception {
+		SqlStatements sql = new SqlStatements("App", "app_central", Constants.DB_CSS);
+		MetricDescriptions descriptions = new MetricDescriptions();
+		descriptions.put(7424, MetricDescriptions.NAME, "Avoid empty catch blocks");
+		sql.setQualityModel(new QualityModel(descriptions, new MetricTree()));
+		sql.setReferencedFields(Collections.singleton(Constants.FIELD_MAPPING_LABEL_REASON_DESCRIPTION));
+		sql.setExplainFile(explainFile);
+		return sql;
+	}
+
+	@Test
+	public void testExplain() throws Exception {
+		assertEquals(2, extraction().getActionPlan(database.getConnection()).size());
+		assertTrue(explainFile.exists());
+	}
+
+	@Test
+	public void testExplainFailure() throws Exception {
+		database.setExplainFailure(true);
+		Connection connection = database.getConnection();
+		assertEquals(2, extraction().getActionPlan(connection).size());
+		assertFalse(explainFile.exists());
+		assertTrue(connection.getAutoCommit());
+	}
+
+	@Test
+	public void testExplainFailureInTransaction() throws Exception {
+		database.setExplainFailure(true);
+		Connection connection = database.getConnection();
+		connection.setAutoCommit(false);
+		// rolled back to the savepoint, the transaction goes on
+		assertEquals(2, extraction().getActionPlan(connection).size());
+		assertFalse(explainFile.exists());
+		String last = database.getStatements().get(database.getStatements().size() - 1);
+		assertTrue(last, last.startsWith("SELECT distinct"));
+	}
+
+	@Test
+	public void testPartition() throws Exception {
+		SqlStatements sql = extraction();
+		sql.setExplainFile(null);
+		sql.getPartition(2, 4).getActionPlan(database.getConnection());
+		String statement = database.getStatements().get(database.getStatements().size() - 1);
+		// the latest statuses are only aggregated for the metrics of the partition
+		int lvs = statement.indexOf(") lvs");
+		assertTrue(statement, statement.lastIndexOf("and mod(dvs2.diag_id, 4) = 2", lvs) > 0);
+		assertTrue(statement, statement.indexOf("and mod(vap.metric_id, 4) = 2", lvs) > 0);
+	}
+
+	@Test
+	public void testSharedCastIds() throws Exception {
+		SqlStatements sql = extraction();
+		sql.setExplainFile(null);
+		LongViolationMap castIds = new LongViolationMap();
+		final int[] handled = new int[1];
+		ActionPlanHandler handler = new ActionPlanHandler() {
+			@Override
+			public void handleViolation(long castId, ActionPlanViolation violation) {
+				handled[0]++;
+			}
+		};
+		// the fake database gives both partitions the same rows, they are sent once
+		sql.getPartition(0, 2).streamActionPlan(database.getConnection(), castIds, handler);
+		sql.getPartition(1, 2).streamActionPlan(database.getConnection(), castIds, handler);
+		assertEquals(2, handled[0]);
+		assertEquals(2, castIds.size());
+		assertEquals(0, castIds.getCollisions());
+	}
+}
@@ -0,0 +1,123 @@
+package com.castsoftware.jira.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.castsoftware.jira.pojo.ActionPlanViolation;
+import com.castsoftware.jira.pojo.MetricMetadata;
+import com.castsoftware.jira.pojo.ViolationChange;
+
+/**
+ * The Class ViolationFixture holds the violations written by the tests of the
+ * extract files and of the interchange streams, and checks what they read
+ * back.
+ *
+ * @author FME
+ * @version 1.1
+ */
+class ViolationFixture {
+
+	/** The Constant METRIC, the metric shared by the violations. */
+	static final MetricMetadata METRIC = new MetricMetadata(7424, "Avoid \"empty\" catch blocks", "reason",
+			"long description", "remediation", null, "violation example", null, "output", null,
+			"Programming Practices", "Robustness");
+
+	/** The Constant ACTION_DATE, with nanoseconds. */
+	static final Timestamp ACTION_DATE = Timestamp.valueOf("2023-04-05 06:07:08.123456789");
+
+	/**
+	 * Creates a violation of METRIC without first snapshot date.
+	 *
+	 * @param objectId
+	 *            the object id
+	 * @param actionDef
+	 *            the action, may be null
+	 * @param sourcePath
+	 *            the source path, may be null
+	 * @return the violation
+	 */
+	static ActionPlanViolation violation(long objectId, String actionDef, String sourcePath) {
+		return new ActionPlanViolation(objectId, "high", ACTION_DATE, null, actionDef, "object." + objectId, METRIC,
+				sourcePath, 10, 20, 3, 1);
+	}
+
+	/**
+	 * Creates the first violation of a round trip, with every value set.
+	 *
+	 * @return the violation
+	 */
+	static ActionPlanViolation first() {
+		ActionPlanViolation first = new ActionPlanViolation(42L, "high", ACTION_DATE,
+				Timestamp.valueOf("2022-01-02 03:04:05"), "fix it", "object.42", METRIC, "src/A.java", 10, 20, 3, 1);
+		first.setChange(ViolationChange.REGRESSED);
+		return first;
+	}
+
+	/**
+	 * Creates the second violation of a round trip, with the optional values
+	 * missing.
+	 *
+	 * @return the violation
+	 */
+	static ActionPlanViolation second() {
+		return violation(43L, null, null);
+	}
+
+	/**
+	 * Checks the violations read back from first() and second().
+	 *
+	 * @param first
+	 *            the first violation read
+	 * @param second
+	 *            the second violation read
+	 */
+	static void assertRoundTrip(ActionPlanViolation first, ActionPlanViolation second) {
+		ActionPlanViolation expected = first();
+		assertEquals(42L, first.getObjectId());
+		assertEquals(expected.getPriority(), first.getPriority());
+		assertEquals("fix it", first.getActionDef());
+		assertEquals("object.42", first.getObjectFullName());
+		assertEquals("src/A.java", first.getSourcePath());
+		assertEquals(expected.getActionDate(), first.getActionDate());
+		assertEquals("2022-01-02 03:04:05.0", first.getFirstSnapshotDate());
+		assertEquals(ViolationChange.REGRESSED, first.getChange());
+		assertEquals(expected.getFieldsConcatenated(), first.getFieldsConcatenated());
+		assertEquals("Avoid empty catch blocks", first.getMetricShortDescription());
+
+		// the nulls are not read back as N/A
+		assertFalse(second.hasActionDef());
+		assertNull(second.getSourcePath());
+		assertNull(second.getFirstSnapshotDate());
+		assertNull(second.getChange());
+		assertNull(second.getMetricMetadata().getReference());
+		assertNull(second.getMetricMetadata().getTotals());
+		assertEquals("Robustness", second.getBusinessCriteria());
+
+		// the texts of the metric are written once and shared
+		assertSame(first.getMetricMetadata(), second.getMetricMetadata());
+	}
+
+	/**
+	 * The Class Collector keeps the violations it handles, in order.
+	 */
+	static class Collector implements ActionPlanHandler {
+
+		/** The CastIds. */
+		final List<Long> castIds = new ArrayList<>();
+
+		/** The violations. */
+		final List<ActionPlanViolation> violations = new ArrayList<>();
+
+		@Override
+		public void handleViolation(long castId, ActionPlanViolation violation) {
+			castIds.add(castId);
+			violations.add(violation);
+		}
+	}
+}
@@ -0,0 +1,269 @@
+package com.castsoftware.jira.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.castsoftware.jira.pojo.ActionPlanViolation;
+import com.castsoftware.jira.pojo.MetricMetadata;
+
+/**
+ * The Class ViolationStreamTest writes interchange streams and reads them back.
+ * The violations and the checks of the round trip are shared with
+ * ExtractFileTest.
+ *
+ * @author FME
+ * @version 1.1
+ */
+public class ViolationStreamTest {
+
+	/** The stream file. */
+	private File file;
+
+	/** The handler collecting the violations read. */
+	private final ViolationFixture.Collector collector = new ViolationFixture.Collector();
+
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("violations", ".ndjson.gz");
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	/**
+	 * Writes the two violations of the fixture to a stream.
+	 *
+	 * @param name
+	 *            the file name, "-" for the standard output
+	 * @param watermark
+	 *            the watermark
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	private static void writeTwo(String name, Watermark watermark) throws IOException {
+		try (ViolationStream.Writer writer = new ViolationStream.Writer(name)) {
+			writer.handleViolation(1000L, ViolationFixture.first());
+			writer.handleViolation(2000L, ViolationFixture.second());
+			assertEquals(2, writer.finish(watermark));
+		}
+	}
+
+	/**
+	 * Reads the decompressed lines of the stream.
+	 *
+	 * @return the lines
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	private List<String> lines() throws IOException {
+		List<String> lines = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lines.add(line);
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * Writes a stream made of lines.
+	 *
+	 * @param lines
+	 *            the lines
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	private void write(String... lines) throws IOException {
+		try (OutputStream out = new GZIPOutputStream(new FileOutputStream(file))) {
+			for (String line : lines) {
+				out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+			}
+		}
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		Timestamp selectionDate = Timestamp.valueOf("2023-04-05 10:00:00.000000123");
+		writeTwo(file.getPath(), new Watermark(selectionDate, 12));
+
+		try (ViolationStream.Reader reader = new ViolationStream.Reader(file.getPath())) {
+			assertEquals(2, reader.read(collector));
+			assertEquals(selectionDate, reader.getWatermark().getSelectionDate());
+			assertEquals(12, reader.getWatermark().getSnapshotId());
+		}
+		// in the order of the extraction
+		assertEquals(Arrays.asList(1000L, 2000L), collector.castIds);
+		ViolationFixture.assertRoundTrip(collector.violations.get(0), collector.violations.get(1));
+	}
+
+	@Test
+	public void testMetricTextsOnFirstLine() throws IOException {
+		MetricMetadata other = new MetricMetadata(7426, "Avoid using GOTO", "reason of 7426", null, null, null, null,
+				null, null, null, "Programming Practices", "Changeability");
+		try (ViolationStream.Writer writer = new ViolationStream.Writer(file.getPath())) {
+			writer.handleViolation(1L, ViolationFixture.violation(1L, "a", null));
+			writer.handleViolation(2L, ViolationFixture.violation(2L, "b", null));
+			writer.handleViolation(3L, new ActionPlanViolation(3L, "low", ViolationFixture.ACTION_DATE, null, "d", "object.3", other, null,
+					0, 0, 0, 1));
+			writer.handleViolation(4L, ViolationFixture.violation(4L, "c", null));
+			writer.finish(null);
+		}
+		List<String> lines = lines();
+		assertEquals(6, lines.size());
+		assertTrue(lines.get(1), lines.get(1).contains("\"reason\":\"reason\""));
+		assertFalse(lines.get(2), lines.get(2).contains("reason"));
+		assertTrue(lines.get(3), lines.get(3).contains("\"reason\":\"reason of 7426\""));
+		assertFalse(lines.get(4), lines.get(4).contains("reason"));
+		// the missing texts are left out
+		assertFalse(lines.get(3), lines.get(3).contains("metricLongDescription"));
+
+		try (ViolationStream.Reader reader = new ViolationStream.Reader(file.getPath())) {
+			assertEquals(4, reader.read(collector));
+		}
+		assertEquals("reason", collector.violations.get(3).getReason());
+		assertEquals("Changeability", collector.violations.get(2).getBusinessCriteria());
+		assertSame(collector.violations.get(0).getMetricMetadata(), collector.violations.get(3).getMetricMetadata());
+	}
+
+	@Test
+	public void testUnknownFields() throws IOException {
+		// fields of a later version of the same format
+		write("{\"format\":\"cast2jira-violations\",\"version\":4,\"producer\":{\"host\":\"cast\"}}",
+				"{\"castId\":7,\"hint\":[1,{\"objectId\":9}],\"objectId\":2,\"priority\":1,\"metricId\":3,"
+						+ "\"layer\":{\"reason\":\"ignored\"},\"reason\":\"kept\",\"score\":null}",
+				"{\"end\":1,\"checksum\":\"abc\"}");
+		try (ViolationStream.Reader reader = new ViolationStream.Reader(file.getPath())) {
+			assertEquals(1, reader.read(collector));
+			assertNull(reader.getWatermark());
+		}
+		assertEquals(Arrays.asList(7L), collector.castIds);
+		ActionPlanViolation violation = collector.violations.get(0);
+		assertEquals(2L, violation.getObjectId());
+		assertEquals(3, violation.getMetricId());
+		assertEquals("kept", violation.getReason());
+	}
+
+	@Test
+	public void testStandardInput() throws IOException {
+		writeTwo(file.getPath(), null);
+		final boolean[] closed = new boolean[1];
+		InputStream stdin = System.in;
+		try (InputStream in = new FileInputStream(file) {
+			@Override
+			public void close() throws IOException {
+				closed[0] = true;
+				super.close();
+			}
+		}) {
+			System.setIn(in);
+			try (ViolationStream.Reader reader = new ViolationStream.Reader(" - ")) {
+				assertEquals(2, reader.read(collector));
+				assertNull(reader.getWatermark());
+			}
+			// the standard input is left open
+			assertFalse(closed[0]);
+		} finally {
+			System.setIn(stdin);
+		}
+		ViolationFixture.assertRoundTrip(collector.violations.get(0), collector.violations.get(1));
+	}
+
+	@Test
+	public void testStandardOutput() throws Exception {
+		// the standard output of another JVM, this one is used by the tests
+		String java = new File(new File(System.getProperty("java.home"), "bin"), "java").getPath();
+		Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+				StandardOutput.class.getName()).redirectOutput(file).redirectError(Redirect.INHERIT).start();
+		assertEquals(0, process.waitFor());
+		try (ViolationStream.Reader reader = new ViolationStream.Reader(file.getPath())) {
+			assertEquals(2, reader.read(collector));
+		}
+		ViolationFixture.assertRoundTrip(collector.violations.get(0), collector.violations.get(1));
+	}
+
+	@Test
+	public void testMissingEndLine() throws IOException {
+		try (ViolationStream.Writer writer = new ViolationStream.Writer(file.getPath())) {
+			writer.handleViolation(1000L, ViolationFixture.violation(42L, "fix it", null));
+			// the extraction fails before finish
+		}
+		try (ViolationStream.Reader reader = new ViolationStream.Reader(file.getPath())) {
+			reader.read(collector);
+			fail("stream without its last line accepted");
+		} catch (IOException e) {
+			assertEquals("Interchange stream truncated after 1 violations", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testCountMismatch() throws IOException {
+		write("{\"format\":\"cast2jira-violations\",\"version\":4}",
+				"{\"castId\":1,\"objectId\":2,\"priority\":1,\"metricId\":3}", "{\"end\":2}");
+		try (ViolationStream.Reader reader = new ViolationStream.Reader(file.getPath())) {
+			reader.read(collector);
+			fail("inconsistent stream accepted");
+		} catch (IOException e) {
+			assertTrue(e.getMessage().startsWith("Interchange stream inconsistent"));
+		}
+	}
+
+	@Test
+	public void testOtherVersion() throws IOException {
+		write("{\"format\":\"cast2jira-violations\",\"version\":1}", "{\"end\":0}");
+		try {
+			new ViolationStream.Reader(file.getPath()).close();
+			fail("other version accepted");
+		} catch (IOException e) {
+			assertTrue(e.getMessage().startsWith("Not a violation interchange stream"));
+		}
+	}
+
+	/**
+	 * The Class StandardOutput writes the violations of the fixture to the
+	 * standard output, with the logs on the error output like SendToJira.
+	 */
+	public static class StandardOutput {
+
+		/**
+		 * The main method.
+		 *
+		 * @param args
+		 *            the arguments, not used
+		 * @throws IOException
+		 *             Signals that an I/O exception has occurred.
+		 */
+		public static void main(String[] args) throws IOException {
+			System.setOut(System.err);
+			writeTwo("-", null);
+		}
+	}
+}
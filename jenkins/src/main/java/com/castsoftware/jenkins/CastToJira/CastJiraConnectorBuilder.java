@@ -31,12 +31,14 @@ import com.atlassian.jira.rest.client.api.domain.BasicComponent;
 import com.atlassian.jira.rest.client.api.domain.BasicProject;
 import com.atlassian.jira.rest.client.api.domain.IssueType;
 import com.atlassian.jira.rest.client.api.domain.Project;
+import com.castsoftware.jira.util.ConnectionPool;
 import com.castsoftware.jira.util.DatabaseConnection;
 import com.castsoftware.jira.util.JiraHelper;
 
 import hudson.Extension;
 import hudson.Launcher;
 import hudson.RelativePath;
+import hudson.init.Terminator;
 import hudson.model.AbstractBuild;
 import hudson.model.AbstractProject;
 import hudson.model.BuildListener;
@@ -590,8 +592,8 @@ public class CastJiraConnectorBuilder extends Builder // implements
                     conn = new DatabaseConnection(castUserName, castUserPassword, databaseHost,
                             databaseName, databasePort, useDatabase);
                     String sql = "select schema_name from information_schema.schemata where schema_name like '%_central' order by schema_name";
-                    try (PreparedStatement pst = conn.getDBConnection().prepareStatement(sql);
-                         ResultSet rs = pst.executeQuery()) {
+                    PreparedStatement pst = conn.prepareStatement(sql);
+                    try (ResultSet rs = pst.executeQuery()) {
                         while (rs.next()) {
                             m.add(rs.getString("schema_name"));
                         }
@@ -625,8 +627,8 @@ public class CastJiraConnectorBuilder extends Builder // implements
                             databaseName, databasePort, useDatabase);
                     String sql = new StringBuffer().append("select distinct app_name from ")
                             .append(schemaName).append(".csv_portf_tree").toString();
-                    try (PreparedStatement pst = conn.getDBConnection().prepareStatement(sql);
-                         ResultSet rs = pst.executeQuery()) {
+                    PreparedStatement pst = conn.prepareStatement(sql);
+                    try (ResultSet rs = pst.executeQuery()) {
                         while (rs.next()) {
                             m.add(rs.getString("app_name"));
                         }
@@ -752,6 +754,15 @@ public class CastJiraConnectorBuilder extends Builder // implements
             return m;
         }
 
+        /**
+         * Closes the database connections pooled by the form validations and
+         * lists when Jenkins stops.
+         */
+        @Terminator
+        public static void closeConnectionPools() {
+            ConnectionPool.closeAll();
+        }
+
         public FormValidation doTestDatabaseConnection(
                 @QueryParameter("useDatabase") final String useDatabase,
                 @QueryParameter("databaseHost") final String databaseHost,